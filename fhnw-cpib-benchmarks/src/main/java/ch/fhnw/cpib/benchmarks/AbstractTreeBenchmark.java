@@ -0,0 +1,112 @@
+package ch.fhnw.cpib.benchmarks;
+
+import ch.fhnw.cpib.platform.TestFiles;
+import ch.fhnw.cpib.platform.checker.Checker;
+import ch.fhnw.cpib.platform.parser.Parser;
+import ch.fhnw.cpib.platform.parser.abstracttree.AbstractArena;
+import ch.fhnw.cpib.platform.parser.abstracttree.AbstractTree;
+import ch.fhnw.cpib.platform.parser.concretetree.ConcreteTree;
+import ch.fhnw.cpib.platform.scanner.table.TableScanner;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+@State(Scope.Benchmark)
+@BenchmarkMode({Mode.Throughput, Mode.AverageTime})
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3)
+@Measurement(iterations = 5)
+@Fork(value = 1, jvmArgsAppend = {"-Xss1g", "-Xmx4g"})
+public class AbstractTreeBenchmark {
+
+    @Param({BenchmarkPrograms.CORPUS, "10000", "100000", "1000000"})
+    public String program;
+
+    private List<ConcreteTree.Program> concreteprograms;
+
+    private List<AbstractTree.Program> abstractprograms;
+
+    private List<AbstractArena> arenas;
+
+    @Setup
+    public void setup() throws Exception {
+        // Only the checker files pass the checker
+        concreteprograms = parsePrograms(BenchmarkPrograms.loadPrograms(program, TestFiles.filenames));
+        abstractprograms = new ArrayList<>();
+        for (ConcreteTree.Program concreteprogram : parsePrograms(BenchmarkPrograms.loadPrograms(program, TestFiles.checkerfilenames))) {
+            abstractprograms.add(concreteprogram.toAbstract());
+        }
+        arenas = new ArrayList<>();
+        for (AbstractTree.Program abstractprogram : abstractprograms) {
+            arenas.add(abstractprogram.toArena());
+        }
+    }
+
+    @Benchmark
+    public void toAbstract(Blackhole blackhole) throws Exception {
+        for (ConcreteTree.Program concreteprogram : concreteprograms) {
+            blackhole.consume(concreteprogram.toAbstract());
+        }
+    }
+
+    @Benchmark
+    public void checkCode(Blackhole blackhole) throws Exception {
+        for (AbstractTree.Program abstractprogram : abstractprograms) {
+            Checker checker = new Checker();
+            abstractprogram.checkCode(checker);
+            blackhole.consume(checker);
+        }
+    }
+
+    @Benchmark
+    public void toArena(Blackhole blackhole) {
+        for (AbstractTree.Program abstractprogram : abstractprograms) {
+            blackhole.consume(abstractprogram.toArena());
+        }
+    }
+
+    @Benchmark
+    public void countNodes(Blackhole blackhole) {
+        // The same pass over the objects and over the arena
+        for (AbstractTree.Program abstractprogram : abstractprograms) {
+            blackhole.consume(abstractprogram.countNodes());
+        }
+    }
+
+    @Benchmark
+    public void countKindsArena(Blackhole blackhole) {
+        for (AbstractArena arena : arenas) {
+            blackhole.consume(arena.countKinds());
+        }
+    }
+
+    @Benchmark
+    public void countReferencesArena(Blackhole blackhole) {
+        for (AbstractArena arena : arenas) {
+            blackhole.consume(arena.countReferences());
+        }
+    }
+
+    private List<ConcreteTree.Program> parsePrograms(List<String> contents) throws Exception {
+        TableScanner scanner = new TableScanner();
+        Parser parser = new Parser();
+        List<ConcreteTree.Program> programs = new ArrayList<>();
+        for (String content : contents) {
+            programs.add(parser.parseTokenList(scanner.scanString(content)));
+        }
+        return programs;
+    }
+}
@@ -0,0 +1,58 @@
+package ch.fhnw.cpib.benchmarks;
+
+import ch.fhnw.cpib.platform.parser.Parser;
+import ch.fhnw.cpib.platform.scanner.table.TableScanner;
+import ch.fhnw.cpib.platform.scanner.tokens.TokenList;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.concurrent.TimeUnit;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3)
+@Measurement(iterations = 5)
+@Fork(value = 1, jvmArgsAppend = {"-Xss1g", "-Xmx4g"})
+public class AllocationBenchmark {
+
+    // Every operation is a single statement, so gc.alloc.rate.norm of the GC profiler reports the bytes per parsed statement
+    public static final int STATEMENTS = 10000;
+
+    private static final String[] COMMANDS = {
+        "x := x + 1",
+        "if x > 2 then debugout x else skip endif",
+        "while x > 0 do x := x - 1 endwhile",
+        "debugout x * 2 + y"
+    };
+
+    private final Parser parser = new Parser();
+
+    private TokenList tokenlist;
+
+    @Setup
+    public void setup() throws Exception {
+        StringBuilder builder = new StringBuilder("program Allocation(inout x:int32, in y:int32)\ndo\n");
+        for (int i = 0; i < STATEMENTS; i++) {
+            builder.append(i > 0 ? ";\n" : "").append("    ").append(COMMANDS[i % COMMANDS.length]);
+        }
+        builder.append("\nendprogram\n");
+        tokenlist = new TableScanner().scanString(builder.toString());
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(STATEMENTS)
+    public void parseStatement(Blackhole blackhole) throws Exception {
+        blackhole.consume(parser.parseTokenList(tokenlist));
+    }
+}
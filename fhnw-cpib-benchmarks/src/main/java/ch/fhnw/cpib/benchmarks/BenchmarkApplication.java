@@ -0,0 +1,22 @@
+package ch.fhnw.cpib.benchmarks;
+
+import org.openjdk.jmh.profile.GCProfiler;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.options.CommandLineOptions;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+public class BenchmarkApplication {
+
+    public static void main(String[] arguments) throws Exception {
+        // Regular JMH command line, but always report the allocation rate per operation
+        CommandLineOptions options = new CommandLineOptions(arguments);
+        Runner runner = new Runner(new OptionsBuilder().parent(options).addProfiler(GCProfiler.class).build());
+        if (options.shouldHelp()) {
+            options.showHelp();
+        } else if (options.shouldList()) {
+            runner.list();
+        } else {
+            runner.run();
+        }
+    }
+}
@@ -0,0 +1,33 @@
+package ch.fhnw.cpib.benchmarks;
+
+import ch.fhnw.cpib.platform.utils.ProgramGenerator;
+import ch.fhnw.cpib.platform.utils.ReaderUtils;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+public class BenchmarkPrograms {
+
+    public static final String CORPUS = "corpus";
+
+    public static List<String> loadPrograms(String program, List<String> filenames) throws IOException {
+        // Either the corpus files or one synthetic program with the given number of lines
+        if (CORPUS.equals(program)) {
+            List<String> contents = new ArrayList<>();
+            for (String filename : filenames) {
+                contents.add(ReaderUtils.getContentFromInputStream(BenchmarkPrograms.class.getResourceAsStream(filename), StandardCharsets.UTF_8));
+            }
+            return contents;
+        } else {
+            return Collections.singletonList(generateProgram(Integer.parseInt(program)));
+        }
+    }
+
+    public static String generateProgram(int lines) {
+        // The code generator does not support while commands yet, so they are left out for all phases
+        return new ProgramGenerator(lines).setRoutines(0).setLines(lines).setCommandWeights(3, 0, 1, 2, 6).generateProgram();
+    }
+}
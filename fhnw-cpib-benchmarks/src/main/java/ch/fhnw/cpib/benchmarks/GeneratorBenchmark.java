@@ -0,0 +1,62 @@
+package ch.fhnw.cpib.benchmarks;
+
+import ch.fhnw.cpib.platform.TestFiles;
+import ch.fhnw.cpib.platform.generator.Generator;
+import ch.fhnw.cpib.platform.parser.Parser;
+import ch.fhnw.cpib.platform.parser.abstracttree.AbstractTree;
+import ch.fhnw.cpib.platform.scanner.table.TableScanner;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+@State(Scope.Benchmark)
+@BenchmarkMode({Mode.Throughput, Mode.AverageTime})
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3)
+@Measurement(iterations = 5)
+@Fork(value = 1, jvmArgsAppend = {"-Xss1g", "-Xmx4g"})
+public class GeneratorBenchmark {
+
+    @Param({BenchmarkPrograms.CORPUS, "10000", "100000", "1000000"})
+    public String program;
+
+    private final Generator generator = new Generator();
+
+    private List<AbstractTree.Program> abstractprograms;
+
+    @Setup
+    public void setup() throws Exception {
+        abstractprograms = parsePrograms(program);
+    }
+
+    @Benchmark
+    public void generateCode(Blackhole blackhole) throws Exception {
+        for (AbstractTree.Program abstractprogram : abstractprograms) {
+            blackhole.consume(abstractprogram.generateCode());
+        }
+    }
+
+    public static List<AbstractTree.Program> parsePrograms(String program) throws Exception {
+        // Only the generator files use commands that can be generated
+        TableScanner scanner = new TableScanner();
+        Parser parser = new Parser();
+        List<AbstractTree.Program> programs = new ArrayList<>();
+        for (String content : BenchmarkPrograms.loadPrograms(program, TestFiles.generatorfilenames)) {
+            programs.add(parser.parseTokenList(scanner.scanString(content)).toAbstract());
+        }
+        return programs;
+    }
+}
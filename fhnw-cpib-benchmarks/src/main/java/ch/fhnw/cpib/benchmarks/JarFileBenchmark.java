@@ -0,0 +1,57 @@
+package ch.fhnw.cpib.benchmarks;
+
+import ch.fhnw.cpib.platform.generator.Generator;
+import ch.fhnw.cpib.platform.parser.abstracttree.AbstractTree;
+import com.squareup.javapoet.JavaFile;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+@State(Scope.Benchmark)
+@BenchmarkMode({Mode.Throughput, Mode.AverageTime})
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3)
+@Measurement(iterations = 5)
+@Fork(value = 1, jvmArgsAppend = {"-Xss1g", "-Xmx4g"})
+public class JarFileBenchmark {
+
+    // javac dominates this phase and takes minutes for the larger programs
+    @Param({BenchmarkPrograms.CORPUS, "10000"})
+    public String program;
+
+    private final Generator generator = new Generator();
+
+    private List<AbstractTree.Program> abstractprograms;
+
+    private List<JavaFile> javafiles;
+
+    @Setup
+    public void setup() throws Exception {
+        abstractprograms = GeneratorBenchmark.parsePrograms(program);
+        javafiles = new ArrayList<>();
+        for (AbstractTree.Program abstractprogram : abstractprograms) {
+            javafiles.add(generator.generateJavaFile(abstractprogram));
+        }
+    }
+
+    @Benchmark
+    public void generateJarFile(Blackhole blackhole) throws Exception {
+        // The Java and class files are written to the working directory, like the compiler does
+        for (int i = 0; i < abstractprograms.size(); i++) {
+            blackhole.consume(generator.generateJarFile(javafiles.get(i), abstractprograms.get(i)));
+        }
+    }
+}
@@ -0,0 +1,72 @@
+package ch.fhnw.cpib.benchmarks;
+
+import ch.fhnw.cpib.platform.TestFiles;
+import ch.fhnw.cpib.platform.scanner.table.ParallelScanner;
+import ch.fhnw.cpib.platform.scanner.table.TableScanner;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.TimeUnit;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3)
+@Measurement(iterations = 5)
+@Fork(value = 1, jvmArgsAppend = {"-Xss1g", "-Xmx4g"})
+public class ParallelScannerBenchmark {
+
+    @Param({"100000", "1000000"})
+    public String program;
+
+    // Number of workers of the pool, the scaling is the time of scanTable divided by the time of scanParallel
+    @Param({"1", "2", "4", "8"})
+    public int parallelism;
+
+    private final TableScanner tablescanner = new TableScanner();
+
+    private ForkJoinPool pool;
+
+    private ParallelScanner parallelscanner;
+
+    private List<String> contents;
+
+    @Setup
+    public void setup() throws Exception {
+        contents = BenchmarkPrograms.loadPrograms(program, TestFiles.filenames);
+        pool = new ForkJoinPool(parallelism);
+        parallelscanner = new ParallelScanner(pool, ParallelScanner.DEFAULT_CHUNK_SIZE);
+    }
+
+    @TearDown
+    public void tearDown() {
+        pool.shutdown();
+    }
+
+    @Benchmark
+    public void scanTable(Blackhole blackhole) throws Exception {
+        for (String content : contents) {
+            blackhole.consume(tablescanner.scanString(content));
+        }
+    }
+
+    @Benchmark
+    public void scanParallel(Blackhole blackhole) throws Exception {
+        for (String content : contents) {
+            blackhole.consume(parallelscanner.scanString(content));
+        }
+    }
+}
@@ -0,0 +1,81 @@
+package ch.fhnw.cpib.benchmarks;
+
+import ch.fhnw.cpib.platform.TestFiles;
+import ch.fhnw.cpib.platform.parser.DirectParser;
+import ch.fhnw.cpib.platform.parser.ParallelParser;
+import ch.fhnw.cpib.platform.parser.Parser;
+import ch.fhnw.cpib.platform.scanner.table.TableScanner;
+import ch.fhnw.cpib.platform.scanner.tokens.TokenList;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+@State(Scope.Benchmark)
+@BenchmarkMode({Mode.Throughput, Mode.AverageTime})
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3)
+@Measurement(iterations = 5)
+@Fork(value = 1, jvmArgsAppend = {"-Xss1g", "-Xmx4g"})
+public class ParserBenchmark {
+
+    @Param({BenchmarkPrograms.CORPUS, "10000", "100000", "1000000"})
+    public String program;
+
+    private final Parser parser = new Parser();
+
+    private final DirectParser directparser = new DirectParser();
+
+    private final ParallelParser parallelparser = new ParallelParser();
+
+    private List<TokenList> tokenlists;
+
+    @Setup
+    public void setup() throws Exception {
+        TableScanner scanner = new TableScanner();
+        tokenlists = new ArrayList<>();
+        for (String content : BenchmarkPrograms.loadPrograms(program, TestFiles.filenames)) {
+            tokenlists.add(scanner.scanString(content));
+        }
+    }
+
+    @Benchmark
+    public void parseTokenList(Blackhole blackhole) throws Exception {
+        for (TokenList tokenlist : tokenlists) {
+            blackhole.consume(parser.parseTokenList(tokenlist));
+        }
+    }
+
+    @Benchmark
+    public void parseToAbstract(Blackhole blackhole) throws Exception {
+        for (TokenList tokenlist : tokenlists) {
+            blackhole.consume(parser.parseTokenList(tokenlist).toAbstract());
+        }
+    }
+
+    @Benchmark
+    public void parseDirect(Blackhole blackhole) throws Exception {
+        for (TokenList tokenlist : tokenlists) {
+            blackhole.consume(directparser.parseTokenList(tokenlist));
+        }
+    }
+
+    @Benchmark
+    public void parseParallel(Blackhole blackhole) throws Exception {
+        for (TokenList tokenlist : tokenlists) {
+            blackhole.consume(parallelparser.parseTokenList(tokenlist));
+        }
+    }
+}
@@ -0,0 +1,92 @@
+package ch.fhnw.cpib.benchmarks;
+
+import ch.fhnw.cpib.platform.TestFiles;
+import ch.fhnw.cpib.platform.cache.ProgramCache;
+import ch.fhnw.cpib.platform.cache.ProgramReader;
+import ch.fhnw.cpib.platform.cache.ProgramWriter;
+import ch.fhnw.cpib.platform.parser.Parser;
+import ch.fhnw.cpib.platform.parser.abstracttree.AbstractTree;
+import ch.fhnw.cpib.platform.scanner.table.TableScanner;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.io.File;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+@State(Scope.Benchmark)
+@BenchmarkMode({Mode.Throughput, Mode.AverageTime})
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3)
+@Measurement(iterations = 5)
+@Fork(value = 1, jvmArgsAppend = {"-Xss1g", "-Xmx4g"})
+public class ProgramCacheBenchmark {
+
+    @Param({BenchmarkPrograms.CORPUS, "10000", "100000"})
+    public String program;
+
+    private final TableScanner scanner = new TableScanner();
+
+    private final Parser parser = new Parser();
+
+    // The directory is never written, only the key of the content is computed
+    private final ProgramCache cache = new ProgramCache(new File("."));
+
+    private List<String> contents;
+
+    private List<AbstractTree.Program> programs;
+
+    private List<byte[]> entries;
+
+    @Setup
+    public void setup() throws Exception {
+        contents = BenchmarkPrograms.loadPrograms(program, TestFiles.filenames);
+        programs = new ArrayList<>();
+        entries = new ArrayList<>();
+        for (String content : contents) {
+            AbstractTree.Program abstractprogram = parser.parseTokenList(scanner.scanString(content)).toAbstract();
+            programs.add(abstractprogram);
+            entries.add(new ProgramWriter().writeProgram(abstractprogram));
+        }
+    }
+
+    @Benchmark
+    public void scanParseToAbstract(Blackhole blackhole) throws Exception {
+        for (String content : contents) {
+            blackhole.consume(parser.parseTokenList(scanner.scanString(content)).toAbstract());
+        }
+    }
+
+    @Benchmark
+    public void keyReadProgram(Blackhole blackhole) throws Exception {
+        for (int i = 0; i < contents.size(); i++) {
+            blackhole.consume(cache.getKey(contents.get(i)));
+            blackhole.consume(new ProgramReader().readProgram(entries.get(i)));
+        }
+    }
+
+    @Benchmark
+    public void readProgram(Blackhole blackhole) throws Exception {
+        for (byte[] entry : entries) {
+            blackhole.consume(new ProgramReader().readProgram(entry));
+        }
+    }
+
+    @Benchmark
+    public void writeProgram(Blackhole blackhole) {
+        for (AbstractTree.Program abstractprogram : programs) {
+            blackhole.consume(new ProgramWriter().writeProgram(abstractprogram));
+        }
+    }
+}
@@ -0,0 +1,96 @@
+package ch.fhnw.cpib.benchmarks;
+
+import ch.fhnw.cpib.platform.TestFiles;
+import ch.fhnw.cpib.platform.scanner.Scanner;
+import ch.fhnw.cpib.platform.scanner.table.TableScanner;
+import ch.fhnw.cpib.platform.scanner.tokens.PackedTokenList;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+@State(Scope.Benchmark)
+@BenchmarkMode({Mode.Throughput, Mode.AverageTime})
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3)
+@Measurement(iterations = 5)
+@Fork(value = 1, jvmArgsAppend = {"-Xss1g", "-Xmx4g"})
+public class ScannerBenchmark {
+
+    @Param({BenchmarkPrograms.CORPUS, "10000", "100000", "1000000"})
+    public String program;
+
+    private final Scanner scanner = new Scanner();
+
+    private final TableScanner tablescanner = new TableScanner();
+
+    private List<String> contents;
+
+    private List<String> editedcontents;
+
+    private List<Integer> editstarts;
+
+    private List<PackedTokenList> packedlists;
+
+    @Setup
+    public void setup() throws Exception {
+        contents = BenchmarkPrograms.loadPrograms(program, TestFiles.filenames);
+
+        // Every program is edited at the start of its middle line, the edited content is built once
+        editedcontents = new ArrayList<>();
+        editstarts = new ArrayList<>();
+        packedlists = new ArrayList<>();
+        for (String content : contents) {
+            int start = content.indexOf('\n', content.length() / 2) + 1;
+            editedcontents.add(content.substring(0, start) + "x" + content.substring(start));
+            editstarts.add(start);
+            packedlists.add(tablescanner.scanPacked(content));
+        }
+    }
+
+    @Benchmark
+    public void scanString(Blackhole blackhole) throws Exception {
+        for (String content : contents) {
+            blackhole.consume(scanner.scanString(content));
+        }
+    }
+
+    @Benchmark
+    public void scanTable(Blackhole blackhole) throws Exception {
+        for (String content : contents) {
+            blackhole.consume(tablescanner.scanString(content));
+        }
+    }
+
+    @Benchmark
+    public void scanPacked(Blackhole blackhole) throws Exception {
+        // Compare gc.alloc.rate.norm with scanString and scanTable for the allocation of the packed token list
+        for (String content : contents) {
+            blackhole.consume(tablescanner.scanPacked(content));
+        }
+    }
+
+    @Benchmark
+    public void rescanPacked(Blackhole blackhole) throws Exception {
+        // Type one character and delete it again, the time of an edit should not depend on the program size
+        for (int i = 0; i < contents.size(); i++) {
+            int start = editstarts.get(i);
+            PackedTokenList tokenlist = tablescanner.rescanPacked(packedlists.get(i), editedcontents.get(i), start, 0, 1);
+            tokenlist = tablescanner.rescanPacked(tokenlist, contents.get(i), start, 1, 0);
+            packedlists.set(i, tokenlist);
+            blackhole.consume(tokenlist);
+        }
+    }
+}
@@ -1,32 +1,153 @@
 package ch.fhnw.cpib.compiler;
 
 import ch.fhnw.cpib.platform.Compiler;
+import ch.fhnw.cpib.platform.CompilerOptions;
+import ch.fhnw.cpib.platform.cache.ProgramCache;
 import ch.fhnw.cpib.platform.utils.ReaderUtils;
 
+import java.io.BufferedWriter;
 import java.io.File;
 import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.io.Reader;
+import java.io.Writer;
 import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Paths;
+import java.util.List;
 
 public class CompilerApplication {
 
+    // Smaller files are read as a whole, larger files are streamed unless an option needs the whole token list
+    private static final long MAPPED_INPUT_THRESHOLD = 1024 * 1024;
+
+    private static final String USAGE = "Usage: java -jar ./compiler.jar <filename.iml | -> [--dump=source,tokens,cst,ast,java] [--dump-file=<filename>] [--no-check] [--direct] [--parallel] [--execute] [--metrics] [--metrics-file=<filename.json>] [--cache=<directory>] [--output-dir=<directory>]";
+
     public static void main(String[] args) {
-        if (args.length != 1) {
-            System.err.println("Usage: java -jar ./compiler.jar <filename.iml>");
+        if (args.length < 1) {
+            System.err.println(USAGE);
             System.exit(1);
         }
 
+        // Nothing is dumped by default, the requested dumps are streamed to the standard output or a file
+        CompilerOptions options = new CompilerOptions();
+        boolean metrics = false;
+        String metricsfile = null;
+        String dumpfile = null;
+        for (int i = 1; i < args.length; i++) {
+            if (args[i].startsWith("--dump=")) {
+                try {
+                    options.addDumps(args[i].substring("--dump=".length()));
+                } catch (IllegalArgumentException exception) {
+                    System.err.println("Unknown dump: " + args[i]);
+                    System.err.println(USAGE);
+                    System.exit(1);
+                }
+            } else if (args[i].startsWith("--dump-file=")) {
+                dumpfile = args[i].substring("--dump-file=".length());
+            } else if (args[i].equals("--no-check")) {
+                options.setChecking(false);
+            } else if (args[i].equals("--direct")) {
+                options.setDirect(true);
+            } else if (args[i].equals("--parallel")) {
+                options.setParallel(true);
+            } else if (args[i].equals("--execute")) {
+                options.setExecuting(true);
+            } else if (args[i].equals("--metrics")) {
+                metrics = true;
+                options.setCounting(true);
+            } else if (args[i].startsWith("--metrics-file=")) {
+                metricsfile = args[i].substring("--metrics-file=".length());
+                options.setCounting(true);
+            } else if (args[i].startsWith("--cache=")) {
+                options.setCache(new ProgramCache(new File(args[i].substring("--cache=".length()))));
+            } else if (args[i].startsWith("--output-dir=")) {
+                options.setOutputDirectory(new File(args[i].substring("--output-dir=".length())));
+            } else {
+                System.err.println(USAGE);
+                System.exit(1);
+            }
+        }
+        Writer dump = null;
+        try {
+            dump = dumpfile != null ? Files.newBufferedWriter(Paths.get(dumpfile), StandardCharsets.UTF_8) : new BufferedWriter(new OutputStreamWriter(System.out, StandardCharsets.UTF_8));
+        } catch (IOException exception) {
+            System.err.println("The dump file can't be created: " + exception.getMessage());
+            System.exit(1);
+        }
+        Compiler compiler = new Compiler(options.setTarget(dump));
+
+        // Read the content from stdin
+        if (args[0].equals("-")) {
+            try {
+                exit(compiler.compileString(ReaderUtils.getContentFromInputStream(System.in, StandardCharsets.UTF_8)), compiler, dump, dumpfile, metrics, metricsfile);
+            } catch (IOException exception) {
+                System.err.println("The standard input can't be read: " + exception.getMessage());
+                System.exit(1);
+            }
+            return;
+        }
+
         File file = new File(args[0]);
         if (!file.exists()) {
             System.err.println("The given file does not exist: " + file.getAbsolutePath());
             System.exit(1);
         }
 
+        // The parallel parser and the source and token dumps need the whole token list, so they read a large file as a whole
+        boolean streaming = file.length() >= MAPPED_INPUT_THRESHOLD && !options.isParallel() && !options.isDumping(CompilerOptions.Dump.SOURCE) && !options.isDumping(CompilerOptions.Dump.TOKENS);
+        if (!streaming) {
+            try {
+                exit(compiler.compileString(ReaderUtils.getContentFromFile(file, StandardCharsets.UTF_8)), compiler, dump, dumpfile, metrics, metricsfile);
+            } catch (IOException exception) {
+                System.err.println("The given file can't be read: " + exception.getMessage());
+                System.exit(1);
+            }
+            return;
+        }
+
+        // Map and stream large files, so generated programs are never loaded as a whole, the cache key is hashed in a first pass
         try {
-            Compiler compiler = new Compiler();
-            compiler.compileString(ReaderUtils.getContentFromFile(file, StandardCharsets.UTF_8));
+            String cachekey = null;
+            if (options.getCache() != null) {
+                try (Reader reader = ReaderUtils.getMappedReaderFromFile(file, StandardCharsets.UTF_8)) {
+                    cachekey = options.getCache().getKey(reader);
+                }
+            }
+            try (Reader reader = ReaderUtils.getMappedReaderFromFile(file, StandardCharsets.UTF_8)) {
+                exit(compiler.compileReader(reader, cachekey), compiler, dump, dumpfile, metrics, metricsfile);
+            }
         } catch (IOException exception) {
             System.err.println("The given file can't be read: " + exception.getMessage());
             System.exit(1);
         }
     }
+
+    private static void exit(List<String> diagnostics, Compiler compiler, Writer dump, String dumpfile, boolean metrics, String metricsfile) {
+        // Write out the dump, all errors are already shown by the compiler
+        try {
+            if (dumpfile != null) {
+                dump.close();
+            } else {
+                dump.flush();
+            }
+        } catch (IOException exception) {
+            System.err.println("The dump can't be written: " + exception.getMessage());
+        }
+
+        // Report the metrics of the compilation phases
+        if (metrics) {
+            System.out.println(compiler.getMetrics().getSummary());
+        }
+        if (metricsfile != null) {
+            try (Writer writer = Files.newBufferedWriter(Paths.get(metricsfile), StandardCharsets.UTF_8)) {
+                compiler.getMetrics().writeJson(writer);
+            } catch (IOException exception) {
+                System.err.println("The metrics file can't be written: " + exception.getMessage());
+            }
+        }
+        if (!diagnostics.isEmpty()) {
+            System.exit(1);
+        }
+    }
 }
@@ -1,96 +1,315 @@
 package ch.fhnw.cpib.platform;
 
+import ch.fhnw.cpib.platform.cache.ProgramCache;
+import ch.fhnw.cpib.platform.checker.Checker;
+import ch.fhnw.cpib.platform.checker.CheckerException;
 import ch.fhnw.cpib.platform.generator.Generator;
 import ch.fhnw.cpib.platform.generator.GeneratorException;
+import ch.fhnw.cpib.platform.parser.DirectParser;
+import ch.fhnw.cpib.platform.parser.ParallelParser;
 import ch.fhnw.cpib.platform.parser.Parser;
 import ch.fhnw.cpib.platform.parser.abstracttree.AbstractTree;
 import ch.fhnw.cpib.platform.parser.concretetree.ConcreteTree;
 import ch.fhnw.cpib.platform.parser.exception.ParserException;
-import ch.fhnw.cpib.platform.scanner.Scanner;
 import ch.fhnw.cpib.platform.scanner.exception.ScannerException;
+import ch.fhnw.cpib.platform.scanner.table.StreamingScanner;
+import ch.fhnw.cpib.platform.scanner.table.TableScanner;
 import ch.fhnw.cpib.platform.scanner.tokens.TokenList;
+import ch.fhnw.cpib.platform.scanner.tokens.TokenSource;
 import com.squareup.javapoet.JavaFile;
+import org.javatuples.Pair;
 
 import java.io.File;
+import java.io.Flushable;
+import java.io.IOException;
+import java.io.Reader;
+import java.util.ArrayList;
+import java.util.List;
 
 public class Compiler {
 
-    private final Scanner scanner;
+    private final TableScanner scanner;
 
     private final Parser parser;
 
+    private final DirectParser directparser;
+
+    private final ParallelParser parallelparser;
+
     private final Generator generator;
 
+    private final CompilerOptions options;
+
+    private final Appendable dump;
+
+    private CompilerMetrics metrics;
+
     public Compiler() {
-        this.scanner = new Scanner();
+        this(new CompilerOptions());
+    }
+
+    public Compiler(CompilerOptions options) {
+        // Only the requested phases are dumped to the target of the options
+        this.scanner = new TableScanner();
         this.parser = new Parser();
-        this.generator = new Generator();
+        this.directparser = new DirectParser();
+        this.parallelparser = new ParallelParser();
+        this.generator = new Generator(options.getOutputDirectory());
+        this.options = options;
+        this.dump = options.getTarget();
+        this.metrics = new CompilerMetrics();
     }
 
-    public void compileString(String content) {
+    public CompilerMetrics getMetrics() {
+        // The metrics of the last compilation
+        return metrics;
+    }
+
+    public List<String> compileString(String content) {
+        metrics = new CompilerMetrics();
         try {
             // Show the content
-            System.out.println("===== Scanning content =====");
-            System.out.println(content);
-            System.out.println();
+            if (options.isDumping(CompilerOptions.Dump.SOURCE)) {
+                dumpSection("Scanning content");
+                dump.append(content);
+                dumpEnd();
+            }
+
+            // Load the abstract tree of an unchanged content
+            ProgramCache cache = options.getCache();
+            String cachekey = null;
+            if (cache != null) {
+                metrics.startPhase("cacheload");
+                cachekey = cache.getKey(content);
+                AbstractTree.Program abstractprogram = loadCachedProgram(cachekey);
+                if (abstractprogram != null) {
+                    return compileAbstractProgram(abstractprogram);
+                }
+            }
 
             // Scan the source code and show the token list
-            System.out.println("===== Scanned token list =====");
+            metrics.startPhase("scan");
             TokenList tokenlist = scanner.scanString(content);
-            System.out.println(tokenlist.toString());
-            System.out.println();
-
-            // Parse the concrete tree and show it
-            System.out.println("===== Concrete parsing tree =====");
-            ConcreteTree.Program concreteprogram = parser.parseTokenList(tokenlist);
-            System.out.println(concreteprogram);
-            System.out.println();
-
-            // Parse the abstract tree and show it
-            System.out.println("===== Abstract parsing tree =====");
-            AbstractTree.Program abstractprogram = concreteprogram.toAbstract();
-            System.out.println(abstractprogram);
-            System.out.println();
-
-            // Check the abstract tree
-            System.out.println("===== Check abstract tree =====");
-            //abstractprogram.check(new Checker());
-            System.out.println("Done");
-            System.out.println();
-
-            // Generate the Java code
-            System.out.println("===== Generate Java code =====");
-            JavaFile javafile = generator.generateJavaFile(abstractprogram);
-            System.out.println(javafile);
-            System.out.println();
-
-            // Generate the Java JAR file
-            System.out.println("===== Generate Java JAR file =====");
-            File jarfile = generator.generateJarFile(javafile, abstractprogram);
-            System.out.println("Done: " + jarfile.getAbsolutePath());
-            System.out.println();
-
-            // Execute the Java JAR file
-            /*System.out.println("===== Execute Java JAR file =====");
-            Pair<String, String> output = generator.executeJarFile(jarfile);
-            System.out.println("Regular Output:");
-            System.out.println(output.getValue0());
-            System.out.println();
-            System.out.println("Error Output:");
-            System.out.println(output.getValue1());
-            System.out.println();*/
+            metrics.stopPhase().addCount("tokens", tokenlist.getSize());
+            if (options.isDumping(CompilerOptions.Dump.TOKENS)) {
+                dumpSection("Scanned token list");
+                tokenlist.writeTo(dump);
+                dumpEnd();
+            }
+
+            // Compile the scanned token list
+            tokenlist.resetCounter();
+            return compileTokenSource(tokenlist, cachekey);
         } catch (ScannerException exception) {
-            System.out.println("During the scanning process, an error occurred: " + exception.getMessage());
-            System.exit(1);
-        } catch (ParserException exception) {
-            System.out.println("During the parsing process, an error occurred: " + exception.getMessage());
-            System.exit(1);
-        }/* catch (CheckerException exception) {
-            System.out.println("During the checking process, an error occurred: " + exception.getMessage());
-            System.exit(1);
-        }*/ catch (GeneratorException exception) {
-            System.out.println("During the generation process, an error occurred: " + exception.getMessage());
-            System.exit(1);
+            return getDiagnostics("During the scanning process, an error occurred: " + exception.getMessage());
+        } catch (IOException exception) {
+            return getDiagnostics("During the dumping process, an error occurred: " + exception.getMessage());
+        } finally {
+            metrics.commitEvents();
+            flushDump();
+        }
+    }
+
+    public List<String> compileReader(Reader reader) {
+        return compileReader(reader, null);
+    }
+
+    public List<String> compileReader(Reader reader, String cachekey) {
+        metrics = new CompilerMetrics();
+        try {
+            // A reader can't be read twice, so the caller computes the cache key of the content with ProgramCache.getKey
+            if (cachekey != null && options.getCache() != null) {
+                metrics.startPhase("cacheload");
+                AbstractTree.Program abstractprogram = loadCachedProgram(cachekey);
+                if (abstractprogram != null) {
+                    return compileAbstractProgram(abstractprogram);
+                }
+            } else {
+                cachekey = null;
+            }
+
+            // The content is scanned while parsing, so neither the content nor the token list is kept in memory and dumped
+            return compileTokenSource(new StreamingScanner(reader), cachekey);
+        } catch (IOException exception) {
+            return getDiagnostics("During the dumping process, an error occurred: " + exception.getMessage());
+        } finally {
+            metrics.commitEvents();
+            flushDump();
         }
     }
+
+    private AbstractTree.Program loadCachedProgram(String cachekey) {
+        // Ends the cacheload phase, the tokens and the concrete tree are only known after a scan, so their dumps skip the cache
+        AbstractTree.Program abstractprogram = options.isDumping(CompilerOptions.Dump.TOKENS) || options.isDumping(CompilerOptions.Dump.CST) ? null : options.getCache().loadProgram(cachekey);
+        CompilerMetrics.Phase cachephase = metrics.stopPhase();
+        if (abstractprogram != null) {
+            if (options.isCounting()) {
+                cachephase.addCount("astnodes", abstractprogram.countNodes());
+            }
+            metrics.setProgramName(abstractprogram.getProgramName());
+        }
+        return abstractprogram;
+    }
+
+    private List<String> compileTokenSource(TokenSource tokensource, String cachekey) throws IOException {
+        try {
+            // Parse the abstract tree straight from the tokens, a broken token list is parsed again below to report all syntax errors
+            AbstractTree.Program abstractprogram = null;
+            if (options.isDirect() && !options.isDumping(CompilerOptions.Dump.CST)) {
+                metrics.startPhase("parse");
+                try {
+                    abstractprogram = directparser.parseTokenSource(tokensource);
+                    CompilerMetrics.Phase parsephase = metrics.stopPhase();
+                    if (options.isCounting()) {
+                        parsephase.addCount("astnodes", abstractprogram.countNodes());
+                    }
+                } catch (ParserException exception) {
+                    metrics.stopPhase().addCount("errors", 1);
+                    if (!(tokensource instanceof TokenList)) {
+                        return getDiagnostics("During the parsing process, an error occurred: " + exception.getMessage());
+                    }
+                    ((TokenList) tokensource).resetCounter();
+                }
+            }
+
+            // Parse the concrete tree with all syntax errors and show it, a streamed content is scanned in this phase
+            if (abstractprogram == null) {
+                metrics.startPhase("parse");
+                Pair<ConcreteTree.Program, List<ParserException>> result = parseConcreteProgram(tokensource);
+                CompilerMetrics.Phase parsephase = metrics.stopPhase();
+                if (!result.getValue1().isEmpty()) {
+                    parsephase.addCount("errors", result.getValue1().size());
+                    flushDump();
+                    List<String> diagnostics = new ArrayList<>();
+                    for (ParserException exception : result.getValue1()) {
+                        String message = "During the parsing process, an error occurred: " + exception.getMessage();
+                        System.out.println(message);
+                        diagnostics.add(message);
+                    }
+                    return diagnostics;
+                }
+                ConcreteTree.Program concreteprogram = result.getValue0();
+                if (options.isCounting()) {
+                    parsephase.addCount("cstnodes", concreteprogram.countNodes());
+                }
+                if (options.isDumping(CompilerOptions.Dump.CST)) {
+                    dumpSection("Concrete parsing tree");
+                    concreteprogram.writeTo(dump);
+                    dumpEnd();
+                }
+
+                // Parse the abstract tree
+                metrics.startPhase("toabstract");
+                abstractprogram = concreteprogram.toAbstract();
+                CompilerMetrics.Phase toabstractphase = metrics.stopPhase();
+                if (options.isCounting()) {
+                    toabstractphase.addCount("astnodes", abstractprogram.countNodes());
+                }
+            }
+            metrics.setProgramName(abstractprogram.getProgramName());
+
+            // Store the abstract tree for the next compilation of the same content
+            if (cachekey != null) {
+                metrics.startPhase("cachestore");
+                long cachebytes = options.getCache().storeProgram(cachekey, abstractprogram);
+                metrics.stopPhase().addCount("cachebytes", cachebytes);
+            }
+            return compileAbstractProgram(abstractprogram);
+        } catch (ScannerException exception) {
+            return getDiagnostics("During the scanning process, an error occurred: " + exception.getMessage());
+        }
+    }
+
+    private Pair<ConcreteTree.Program, List<ParserException>> parseConcreteProgram(TokenSource tokensource) throws ScannerException {
+        // The declarations of a scanned token list are parsed in parallel, a broken one is parsed again with recovery
+        if (options.isParallel() && tokensource instanceof TokenList) {
+            try {
+                return new Pair<>(parallelparser.parseTokenList((TokenList) tokensource), new ArrayList<>());
+            } catch (ParserException exception) {
+                ((TokenList) tokensource).resetCounter();
+            }
+        }
+        return parser.recoverTokenSource(tokensource);
+    }
+
+    private List<String> compileAbstractProgram(AbstractTree.Program abstractprogram) throws IOException {
+        try {
+            // Show the abstract tree, parsed or loaded from the cache
+            if (options.isDumping(CompilerOptions.Dump.AST)) {
+                dumpSection("Abstract parsing tree");
+                abstractprogram.writeTo(dump);
+                dumpEnd();
+            }
+
+            // Check the abstract tree, the routine signatures are declared before the bodies
+            if (options.isChecking()) {
+                metrics.startPhase("check");
+                Checker checker = new Checker();
+                abstractprogram.checkCode(checker);
+                metrics.stopPhase().addCount("symbols", checker.getGlobalStoreTable().getTable().size() + checker.getGlobalRoutineTable().getTable().size());
+            }
+
+            // Generate the Java code and show it
+            metrics.startPhase("generatejava");
+            JavaFile javafile = generator.generateJavaFile(abstractprogram);
+            metrics.stopPhase();
+            if (options.isDumping(CompilerOptions.Dump.JAVA)) {
+                dumpSection("Generate Java code");
+                javafile.writeTo(dump);
+                dumpEnd();
+            }
+
+            // Compile the Java code and pack the Java JAR file
+            metrics.startPhase("javac");
+            File classfile = generator.compileJavaFile(javafile, abstractprogram);
+            metrics.stopPhase().addCount("javabytes", generator.getJavaFile(abstractprogram).length()).addCount("classbytes", classfile.length());
+            metrics.startPhase("jar");
+            File jarfile = generator.generateJarFile(classfile, abstractprogram);
+            metrics.stopPhase().addCount("jarbytes", jarfile.length());
+
+            // Execute the Java JAR file, the process itself isn't part of the thread metrics
+            if (options.isExecuting()) {
+                metrics.startPhase("execute");
+                Pair<String, String> output = generator.executeJarFile(jarfile);
+                metrics.stopPhase().addCount("outputbytes", output.getValue0().length() + output.getValue1().length());
+                flushDump();
+                System.out.print(output.getValue0());
+                System.err.print(output.getValue1());
+            }
+            return new ArrayList<>();
+        } catch (CheckerException exception) {
+            return getDiagnostics("During the checking process, an error occurred: " + exception.getMessage());
+        } catch (GeneratorException exception) {
+            return getDiagnostics("During the generation process, an error occurred: " + exception.getMessage());
+        }
+    }
+
+    private void dumpSection(String title) throws IOException {
+        dump.append("===== ").append(title).append(" =====\n");
+    }
+
+    private void dumpEnd() throws IOException {
+        // Every dump is followed by an empty line
+        dump.append("\n\n");
+    }
+
+    private void flushDump() {
+        // A buffered target has to be written out before the diagnostics and at the end of a compilation
+        if (dump instanceof Flushable) {
+            try {
+                ((Flushable) dump).flush();
+            } catch (IOException exception) {
+                System.out.println("The dump can't be written: " + exception.getMessage());
+            }
+        }
+    }
+
+    private List<String> getDiagnostics(String message) {
+        // Show the error and return it, so the caller decides how to end the compilation
+        flushDump();
+        System.out.println(message);
+        List<String> diagnostics = new ArrayList<>();
+        diagnostics.add(message);
+        return diagnostics;
+    }
 }
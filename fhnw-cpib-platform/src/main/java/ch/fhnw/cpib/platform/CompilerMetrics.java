@@ -0,0 +1,183 @@
+package ch.fhnw.cpib.platform;
+
+import ch.fhnw.cpib.platform.events.PhaseEvent;
+
+import java.io.IOException;
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadMXBean;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+public class CompilerMetrics {
+
+    public static class Phase {
+
+        private final String name;
+
+        private final long walltime;
+
+        private final long cputime;
+
+        private final long allocatedbytes;
+
+        private final Map<String, Long> counts;
+
+        private final PhaseEvent event;
+
+        public Phase(String name, long walltime, long cputime, long allocatedbytes, PhaseEvent event) {
+            this.name = name;
+            this.walltime = walltime;
+            this.cputime = cputime;
+            this.allocatedbytes = allocatedbytes;
+            this.counts = new LinkedHashMap<>();
+            this.event = event;
+        }
+
+        public Phase addCount(String name, long value) {
+            counts.put(name, value);
+            return this;
+        }
+
+        public String getName() {
+            return name;
+        }
+
+        public long getWallTime() {
+            return walltime;
+        }
+
+        public long getCpuTime() {
+            return cputime;
+        }
+
+        public long getAllocatedBytes() {
+            return allocatedbytes;
+        }
+
+        public Map<String, Long> getCounts() {
+            return counts;
+        }
+    }
+
+    private final ThreadMXBean threadmxbean;
+
+    private final List<Phase> phases;
+
+    private String programname;
+
+    private String phasename;
+
+    private long wallstart;
+
+    private long cpustart;
+
+    private long allocationstart;
+
+    private PhaseEvent event;
+
+    public CompilerMetrics() {
+        this.threadmxbean = ManagementFactory.getThreadMXBean();
+        this.phases = new ArrayList<>();
+        this.programname = "";
+    }
+
+    public void setProgramName(String programname) {
+        this.programname = programname;
+    }
+
+    public void startPhase(String name) {
+        // A few reads of the thread counters per phase, so the metrics can always stay on
+        phasename = name;
+        wallstart = System.nanoTime();
+        cpustart = getCpuTime();
+        allocationstart = getAllocatedBytes();
+        event = new PhaseEvent();
+        event.begin();
+    }
+
+    public Phase stopPhase() {
+        event.end();
+        long walltime = System.nanoTime() - wallstart;
+        long cputime = cpustart >= 0 ? getCpuTime() - cpustart : -1;
+        long allocatedbytes = allocationstart >= 0 ? getAllocatedBytes() - allocationstart : -1;
+        Phase phase = new Phase(phasename, walltime, cputime, allocatedbytes, event);
+        phases.add(phase);
+        return phase;
+    }
+
+    public List<Phase> getPhases() {
+        return phases;
+    }
+
+    public void commitEvents() {
+        // The phase events are committed at the end of the compilation, because the counts and the program name are known late
+        for (Phase phase : phases) {
+            if (phase.event.shouldCommit()) {
+                phase.event.programname = programname;
+                phase.event.phase = phase.getName();
+                for (Map.Entry<String, Long> entry : phase.getCounts().entrySet()) {
+                    if (entry.getKey().equals("tokens") || entry.getKey().endsWith("nodes") || entry.getKey().equals("symbols")) {
+                        phase.event.nodes = entry.getValue();
+                    } else if (entry.getKey().endsWith("bytes")) {
+                        phase.event.bytes = entry.getValue();
+                    }
+                }
+                phase.event.commit();
+            }
+        }
+    }
+
+    public String getSummary() {
+        // One line with the totals followed by the wall time of every phase
+        long walltime = 0;
+        long cputime = 0;
+        long allocatedbytes = 0;
+        StringBuilder builder = new StringBuilder();
+        for (Phase phase : phases) {
+            walltime += phase.getWallTime();
+            cputime += Math.max(phase.getCpuTime(), 0);
+            allocatedbytes += Math.max(phase.getAllocatedBytes(), 0);
+            builder.append(builder.length() > 0 ? ", " : "").append(phase.getName()).append(' ').append(formatMillis(phase.getWallTime()));
+        }
+        return "Compiled in " + formatMillis(walltime) + " (cpu " + formatMillis(cputime) + ", " + String.format(Locale.ROOT, "%.1f MB", allocatedbytes / (1024.0 * 1024.0)) + " allocated): " + builder;
+    }
+
+    public void writeJson(Appendable appendable) throws IOException {
+        // Times are in nanoseconds, -1 marks a counter that isn't supported by the JVM
+        appendable.append("{\n  \"phases\": [");
+        for (int i = 0; i < phases.size(); i++) {
+            Phase phase = phases.get(i);
+            appendable.append(i > 0 ? ",\n" : "\n");
+            appendable.append("    {\"name\": \"").append(phase.getName()).append('"');
+            appendable.append(", \"walltime\": ").append(Long.toString(phase.getWallTime()));
+            appendable.append(", \"cputime\": ").append(Long.toString(phase.getCpuTime()));
+            appendable.append(", \"allocatedbytes\": ").append(Long.toString(phase.getAllocatedBytes()));
+            appendable.append(", \"counts\": {");
+            int count = 0;
+            for (Map.Entry<String, Long> entry : phase.getCounts().entrySet()) {
+                appendable.append(count++ > 0 ? ", " : "").append('"').append(entry.getKey()).append("\": ").append(Long.toString(entry.getValue()));
+            }
+            appendable.append("}}");
+        }
+        appendable.append(phases.isEmpty() ? "]\n}\n" : "\n  ]\n}\n");
+    }
+
+    private long getCpuTime() {
+        return threadmxbean.isCurrentThreadCpuTimeSupported() ? threadmxbean.getCurrentThreadCpuTime() : -1;
+    }
+
+    private long getAllocatedBytes() {
+        // Only the HotSpot bean counts the allocated bytes of a thread
+        if (threadmxbean instanceof com.sun.management.ThreadMXBean) {
+            return ((com.sun.management.ThreadMXBean) threadmxbean).getThreadAllocatedBytes(Thread.currentThread().getId());
+        }
+        return -1;
+    }
+
+    private String formatMillis(long nanos) {
+        return String.format(Locale.ROOT, "%.1f ms", nanos / 1000000.0);
+    }
+}
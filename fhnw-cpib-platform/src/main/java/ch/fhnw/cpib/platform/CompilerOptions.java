@@ -0,0 +1,147 @@
+package ch.fhnw.cpib.platform;
+
+import ch.fhnw.cpib.platform.cache.ProgramCache;
+
+import java.io.File;
+import java.util.EnumSet;
+import java.util.Locale;
+import java.util.Set;
+
+public class CompilerOptions {
+
+    public enum Dump {
+        SOURCE,
+        TOKENS,
+        CST,
+        AST,
+        JAVA
+    }
+
+    private final Set<Dump> dumps;
+
+    private Appendable target;
+
+    private boolean checking;
+
+    private boolean executing;
+
+    private boolean counting;
+
+    private boolean direct;
+
+    private boolean parallel;
+
+    private ProgramCache cache;
+
+    private File outputdirectory;
+
+    public CompilerOptions() {
+        // Quiet by default, only the diagnostics are shown
+        this.dumps = EnumSet.noneOf(Dump.class);
+        this.target = System.out;
+        this.checking = true;
+        this.executing = false;
+        this.counting = false;
+        this.direct = false;
+        this.parallel = false;
+        this.cache = null;
+        this.outputdirectory = new File(".");
+    }
+
+    public CompilerOptions addDump(Dump dump) {
+        dumps.add(dump);
+        return this;
+    }
+
+    public CompilerOptions addDumps(String names) {
+        // A comma separated list like tokens,cst,ast,java
+        for (String name : names.split(",")) {
+            if (!name.trim().isEmpty()) {
+                addDump(Dump.valueOf(name.trim().toUpperCase(Locale.ROOT)));
+            }
+        }
+        return this;
+    }
+
+    public CompilerOptions setTarget(Appendable target) {
+        this.target = target;
+        return this;
+    }
+
+    public CompilerOptions setChecking(boolean checking) {
+        // Every compilation is checked by default, disabling it only skips the semantic errors
+        this.checking = checking;
+        return this;
+    }
+
+    public CompilerOptions setExecuting(boolean executing) {
+        this.executing = executing;
+        return this;
+    }
+
+    public CompilerOptions setCounting(boolean counting) {
+        // Counting walks the whole trees, so the node counts are only added to the metrics on request
+        this.counting = counting;
+        return this;
+    }
+
+    public CompilerOptions setDirect(boolean direct) {
+        // The abstract tree is parsed straight from the tokens, unless the concrete tree is dumped
+        this.direct = direct;
+        return this;
+    }
+
+    public CompilerOptions setParallel(boolean parallel) {
+        // The global declarations of a scanned content are parsed in parallel
+        this.parallel = parallel;
+        return this;
+    }
+
+    public CompilerOptions setCache(ProgramCache cache) {
+        // Unchanged contents load their abstract tree from the cache instead of being scanned and parsed
+        this.cache = cache;
+        return this;
+    }
+
+    public CompilerOptions setOutputDirectory(File outputdirectory) {
+        // The generated Java, class and JAR files are written to the working directory by default
+        this.outputdirectory = outputdirectory;
+        return this;
+    }
+
+    public boolean isDumping(Dump dump) {
+        return dumps.contains(dump);
+    }
+
+    public Appendable getTarget() {
+        return target;
+    }
+
+    public boolean isChecking() {
+        return checking;
+    }
+
+    public boolean isExecuting() {
+        return executing;
+    }
+
+    public boolean isCounting() {
+        return counting;
+    }
+
+    public boolean isDirect() {
+        return direct;
+    }
+
+    public boolean isParallel() {
+        return parallel;
+    }
+
+    public ProgramCache getCache() {
+        return cache;
+    }
+
+    public File getOutputDirectory() {
+        return outputdirectory;
+    }
+}
@@ -0,0 +1,12 @@
+package ch.fhnw.cpib.platform.cache;
+
+public class CacheException extends Exception {
+
+    public CacheException(String message, Exception exception) {
+        super(message, exception);
+    }
+
+    public CacheException(String message) {
+        super(message);
+    }
+}
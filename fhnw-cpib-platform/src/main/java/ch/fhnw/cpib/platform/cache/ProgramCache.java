@@ -0,0 +1,163 @@
+package ch.fhnw.cpib.platform.cache;
+
+import ch.fhnw.cpib.platform.parser.abstracttree.AbstractTree;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.Reader;
+import java.nio.ByteBuffer;
+import java.nio.CharBuffer;
+import java.nio.charset.CharsetEncoder;
+import java.nio.charset.CodingErrorAction;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+
+public class ProgramCache {
+
+    private static final int CHUNK = 4096;
+
+    private static final char[] HEX = "0123456789abcdef".toCharArray();
+
+    private final File directory;
+
+    // The key is hashed through reused buffers, the content is never copied as a whole
+    private final MessageDigest messagedigest;
+
+    private final CharsetEncoder encoder;
+
+    private final CharBuffer chars;
+
+    private final ByteBuffer bytes;
+
+    private int hits;
+
+    private int misses;
+
+    private int failures;
+
+    public ProgramCache(File directory) {
+        this.directory = directory;
+        this.hits = 0;
+        this.misses = 0;
+        this.failures = 0;
+        try {
+            this.messagedigest = MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException exception) {
+            throw new RuntimeException("Every JVM has to support SHA-256", exception);
+        }
+        this.encoder = StandardCharsets.UTF_8.newEncoder().onMalformedInput(CodingErrorAction.REPLACE).onUnmappableCharacter(CodingErrorAction.REPLACE);
+        this.chars = CharBuffer.allocate(CHUNK);
+        this.bytes = ByteBuffer.allocate(CHUNK * 3);
+    }
+
+    public String getKey(String content) {
+        // The SHA-256 of the content, an unchanged file always maps to the same entry
+        for (int start = 0; start < content.length(); ) {
+            int end = Math.min(start + CHUNK, content.length());
+            if (end < content.length() && end - start > 1 && Character.isHighSurrogate(content.charAt(end - 1))) {
+                end--;
+            }
+            content.getChars(start, end, chars.array(), 0);
+            updateDigest(end - start);
+            start = end;
+        }
+        return getDigestKey();
+    }
+
+    public String getKey(Reader reader) throws IOException {
+        // The same key as for the whole content, a high surrogate at the end of a chunk is kept for the next chunk
+        char[] array = chars.array();
+        int carry = 0;
+        for (int count = reader.read(array, carry, CHUNK - carry); count >= 0; count = reader.read(array, carry, CHUNK - carry)) {
+            int length = carry + count;
+            carry = length > 0 && Character.isHighSurrogate(array[length - 1]) ? 1 : 0;
+            updateDigest(length - carry);
+            if (carry > 0) {
+                array[0] = array[length - 1];
+            }
+        }
+        updateDigest(carry);
+        return getDigestKey();
+    }
+
+    public AbstractTree.Program loadProgram(String key) {
+        // A missing, outdated or damaged entry is a miss, the last two are removed and written again after the parsing
+        File file = getFile(key);
+        if (!file.isFile()) {
+            misses++;
+            return null;
+        }
+        try {
+            AbstractTree.Program program = new ProgramReader().readProgram(Files.readAllBytes(file.toPath()));
+            hits++;
+            return program;
+        } catch (IOException | CacheException exception) {
+            failures++;
+            misses++;
+            file.delete();
+            return null;
+        }
+    }
+
+    public long storeProgram(String key, AbstractTree.Program program) {
+        // Write a temporary file and move it, so a concurrent compiler never reads half an entry
+        try {
+            Files.createDirectories(directory.toPath());
+            byte[] bytes = new ProgramWriter().writeProgram(program);
+            Path temporary = Files.createTempFile(directory.toPath(), key, ".tmp");
+            try {
+                Files.write(temporary, bytes);
+                Files.move(temporary, getFile(key).toPath(), StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            } finally {
+                Files.deleteIfExists(temporary);
+            }
+            return bytes.length;
+        } catch (IOException exception) {
+            // A cache that can't be written only costs the parsing of the next compilation
+            failures++;
+            return -1;
+        }
+    }
+
+    public int getHits() {
+        return hits;
+    }
+
+    public int getMisses() {
+        return misses;
+    }
+
+    public int getFailures() {
+        return failures;
+    }
+
+    public File getFile(String key) {
+        return new File(directory, key + ".ast");
+    }
+
+    private void updateDigest(int length) {
+        // A chunk never splits a surrogate pair, a chunk of n chars has at most 3n bytes in UTF-8
+        chars.clear();
+        chars.limit(length);
+        encoder.reset();
+        encoder.encode(chars, bytes, true);
+        encoder.flush(bytes);
+        bytes.flip();
+        messagedigest.update(bytes);
+        bytes.clear();
+    }
+
+    private String getDigestKey() {
+        byte[] digest = messagedigest.digest();
+        char[] key = new char[digest.length * 2];
+        for (int i = 0; i < digest.length; i++) {
+            key[i * 2] = HEX[(digest[i] >> 4) & 0xF];
+            key[i * 2 + 1] = HEX[digest[i] & 0xF];
+        }
+        return new String(key);
+    }
+}
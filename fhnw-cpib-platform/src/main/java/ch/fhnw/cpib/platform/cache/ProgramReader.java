@@ -0,0 +1,423 @@
+package ch.fhnw.cpib.platform.cache;
+
+import ch.fhnw.cpib.platform.parser.abstracttree.AbstractTree;
+import ch.fhnw.cpib.platform.scanner.tokens.Terminal;
+import ch.fhnw.cpib.platform.scanner.tokens.Tokens;
+
+import java.nio.charset.StandardCharsets;
+import java.util.zip.CRC32;
+
+public class ProgramReader {
+
+    // Indexed by the operator class of the format
+    private static final Terminal[] TERMINALS = {Terminal.ADDOPR, Terminal.BOOLOPR, Terminal.MULTOPR, Terminal.RELOPR};
+
+    private static final Tokens.TypeToken.Type[] TYPES = Tokens.TypeToken.Type.values();
+
+    private static final Tokens.OperationToken.Operation[] OPERATIONS = Tokens.OperationToken.Operation.values();
+
+    // Literal tokens are immutable, so the small values share a token like the cache of Integer.valueOf
+    private static final Tokens.LiteralToken[] LITERALS = new Tokens.LiteralToken[1024];
+
+    static {
+        for (int i = 0; i < LITERALS.length; i++) {
+            LITERALS[i] = new Tokens.LiteralToken(i, Terminal.LITERAL);
+        }
+    }
+
+    private final Tokens.FlowModeToken[] flowmodes;
+
+    private final Tokens.MechModeToken[] mechmodes;
+
+    private final Tokens.ChangeModeToken[] changemodes;
+
+    private final Tokens.OperationToken[] operations;
+
+    private Tokens.IdentifierToken[] identifiers;
+
+    private byte[] bytes;
+
+    private int position;
+
+    private int limit;
+
+    public ProgramReader() {
+        // Like the dictionary, every mode and operation has a single token
+        Tokens.FlowModeToken.FlowMode[] flowmodevalues = Tokens.FlowModeToken.FlowMode.values();
+        this.flowmodes = new Tokens.FlowModeToken[flowmodevalues.length];
+        for (int i = 0; i < flowmodevalues.length; i++) {
+            flowmodes[i] = new Tokens.FlowModeToken(Terminal.FLOWMODE, flowmodevalues[i]);
+        }
+        Tokens.MechModeToken.MechMode[] mechmodevalues = Tokens.MechModeToken.MechMode.values();
+        this.mechmodes = new Tokens.MechModeToken[mechmodevalues.length];
+        for (int i = 0; i < mechmodevalues.length; i++) {
+            mechmodes[i] = new Tokens.MechModeToken(Terminal.MECHMODE, mechmodevalues[i]);
+        }
+        Tokens.ChangeModeToken.ChangeMode[] changemodevalues = Tokens.ChangeModeToken.ChangeMode.values();
+        this.changemodes = new Tokens.ChangeModeToken[changemodevalues.length];
+        for (int i = 0; i < changemodevalues.length; i++) {
+            changemodes[i] = new Tokens.ChangeModeToken(Terminal.CHANGEMODE, changemodevalues[i]);
+        }
+        this.operations = new Tokens.OperationToken[TERMINALS.length * OPERATIONS.length];
+    }
+
+    public AbstractTree.Program readProgram(byte[] bytes) throws CacheException {
+        this.bytes = bytes;
+        this.position = 0;
+        this.limit = bytes.length - 4;
+
+        // Check the header and the checksum before a single node is read
+        if (limit < ProgramWriter.MAGIC.length) {
+            throw new CacheException("The cached program is truncated");
+        }
+        for (byte magic : ProgramWriter.MAGIC) {
+            if (bytes[position++] != magic) {
+                throw new CacheException("The cached program has no valid header");
+            }
+        }
+        CRC32 crc = new CRC32();
+        crc.update(bytes, 0, limit);
+        int checksum = ((bytes[limit] & 0xFF) << 24) | ((bytes[limit + 1] & 0xFF) << 16) | ((bytes[limit + 2] & 0xFF) << 8) | (bytes[limit + 3] & 0xFF);
+        if ((int) crc.getValue() != checksum) {
+            throw new CacheException("The cached program is corrupted");
+        }
+
+        try {
+            int version = readVarint();
+            if (version != ProgramWriter.VERSION) {
+                throw new CacheException("The cached program has the outdated version " + version);
+            }
+
+            // The string table holds one identifier token per name
+            identifiers = new Tokens.IdentifierToken[readVarint()];
+            for (int i = 0; i < identifiers.length; i++) {
+                int length = readVarint();
+                if (length > limit - position) {
+                    throw new CacheException("The cached program has an invalid string table");
+                }
+                identifiers[i] = new Tokens.IdentifierToken(new String(bytes, position, length, StandardCharsets.UTF_8), Terminal.IDENT, i);
+                position += length;
+            }
+
+            Tokens.IdentifierToken identifier = readIdentifier();
+            AbstractTree.ProgParam progparam = readProgParams();
+            AbstractTree.Declaration declaration = readDeclarations();
+            AbstractTree.Cmd cmd = readCmds();
+            if (position != limit) {
+                throw new CacheException("The cached program has trailing bytes");
+            }
+            return new AbstractTree.Program(identifier, progparam, declaration, cmd);
+        } catch (RuntimeException exception) {
+            // A valid checksum over a malformed tree means a bug in the writer, the entry is still unusable
+            throw new CacheException("The cached program is malformed", exception);
+        } finally {
+            this.bytes = null;
+            this.identifiers = null;
+        }
+    }
+
+    private AbstractTree.ProgParam readProgParams() throws CacheException {
+        AbstractTree.ProgParam next = null;
+        for (int tag = readTag(); tag != ProgramWriter.END; tag = readTag()) {
+            checkTag(tag, ProgramWriter.PROGPARAM);
+            int idendation = readVarint();
+            Tokens.FlowModeToken flowmode = readFlowMode();
+            Tokens.ChangeModeToken changemode = readChangeMode();
+            AbstractTree.TypedIdent typedident = readTypedIdent();
+            next = new AbstractTree.ProgParam(flowmode, changemode, typedident, next, idendation);
+        }
+        return next;
+    }
+
+    private AbstractTree.Param readParams() throws CacheException {
+        AbstractTree.Param next = null;
+        for (int tag = readTag(); tag != ProgramWriter.END; tag = readTag()) {
+            checkTag(tag, ProgramWriter.PARAM);
+            int idendation = readVarint();
+            Tokens.FlowModeToken flowmode = readFlowMode();
+            Tokens.MechModeToken mechmode = readMechMode();
+            Tokens.ChangeModeToken changemode = readChangeMode();
+            AbstractTree.TypedIdent typedident = readTypedIdent();
+            next = new AbstractTree.Param(flowmode, mechmode, changemode, typedident, next, idendation);
+        }
+        return next;
+    }
+
+    private AbstractTree.Declaration readDeclarations() throws CacheException {
+        // Sequences are written from their end, so every node is created with its already read successor
+        AbstractTree.Declaration next = null;
+        for (int tag = readTag(); tag != ProgramWriter.END; tag = readTag()) {
+            int idendation = readVarint();
+            switch (tag) {
+                case ProgramWriter.STODECL: {
+                    Tokens.ChangeModeToken changemode = readChangeMode();
+                    AbstractTree.TypedIdent typedident = readTypedIdent();
+                    next = new AbstractTree.StoDecl(changemode, typedident, next, idendation);
+                    break;
+                }
+                case ProgramWriter.FUNDECL: {
+                    Tokens.IdentifierToken identifier = readIdentifier();
+                    AbstractTree.Param param = readParams();
+                    AbstractTree.Declaration storedeclaration = readDeclarations();
+                    AbstractTree.GlobalImport globalimport = readGlobalImports();
+                    AbstractTree.Declaration declaration = readDeclarations();
+                    AbstractTree.Cmd cmd = readCmds();
+                    next = new AbstractTree.FunDecl(identifier, param, storedeclaration, globalimport, declaration, cmd, next, idendation);
+                    break;
+                }
+                case ProgramWriter.PROCDECL: {
+                    Tokens.IdentifierToken identifier = readIdentifier();
+                    AbstractTree.Param param = readParams();
+                    AbstractTree.GlobalImport globalimport = readGlobalImports();
+                    AbstractTree.Declaration declaration = readDeclarations();
+                    AbstractTree.Cmd cmd = readCmds();
+                    next = new AbstractTree.ProcDecl(identifier, param, globalimport, declaration, next, cmd, idendation);
+                    break;
+                }
+                default:
+                    throw new CacheException("The cached program has an unexpected node with the tag " + tag);
+            }
+        }
+        return next;
+    }
+
+    private AbstractTree.Cmd readCmds() throws CacheException {
+        AbstractTree.Cmd next = null;
+        for (int tag = readTag(); tag != ProgramWriter.END; tag = readTag()) {
+            int idendation = readVarint();
+            switch (tag) {
+                case ProgramWriter.SKIPCMD: {
+                    next = new AbstractTree.SkipCmd(next, idendation);
+                    break;
+                }
+                case ProgramWriter.ASSICMD: {
+                    AbstractTree.Expression expression1 = readExpression();
+                    AbstractTree.ExpressionList expressionlist1 = readExpressionList();
+                    AbstractTree.Expression expression2 = readExpression();
+                    AbstractTree.ExpressionList expressionlist2 = readExpressionList();
+                    next = new AbstractTree.AssiCmd(expression1, expressionlist1, expression2, expressionlist2, next, idendation);
+                    break;
+                }
+                case ProgramWriter.SWITCHCMD: {
+                    AbstractTree.Expression expression = readExpression();
+                    AbstractTree.RepCaseCmd repcasecmd = (AbstractTree.RepCaseCmd) readCmds();
+                    AbstractTree.Cmd cmd = readCmds();
+                    next = new AbstractTree.SwitchCmd(expression, repcasecmd, cmd, next, idendation);
+                    break;
+                }
+                case ProgramWriter.REPCASECMD: {
+                    Tokens.LiteralToken literal = readLiteral();
+                    AbstractTree.Cmd cmd = readCmds();
+                    next = new AbstractTree.RepCaseCmd(literal, cmd, (AbstractTree.RepCaseCmd) next, idendation);
+                    break;
+                }
+                case ProgramWriter.CONDCMD: {
+                    AbstractTree.Expression expression = readExpression();
+                    AbstractTree.Cmd cmd = readCmds();
+                    AbstractTree.RepCondCmd repcondcmd = (AbstractTree.RepCondCmd) readCmds();
+                    AbstractTree.Cmd othercmd = readCmds();
+                    next = new AbstractTree.CondCmd(expression, cmd, repcondcmd, othercmd, next, idendation);
+                    break;
+                }
+                case ProgramWriter.REPCONDCMD: {
+                    AbstractTree.Expression expression = readExpression();
+                    AbstractTree.Cmd cmd = readCmds();
+                    next = new AbstractTree.RepCondCmd(expression, cmd, (AbstractTree.RepCondCmd) next, idendation);
+                    break;
+                }
+                case ProgramWriter.WHILECMD: {
+                    AbstractTree.Expression expression = readExpression();
+                    AbstractTree.Cmd cmd = readCmds();
+                    next = new AbstractTree.WhileCmd(expression, cmd, next, idendation);
+                    break;
+                }
+                case ProgramWriter.PROCCALLCMD: {
+                    AbstractTree.RoutineCall routinecall = readRoutineCall();
+                    AbstractTree.GlobalInit globalinit = readGlobalInits();
+                    next = new AbstractTree.ProcCallCmd(routinecall, globalinit, next, idendation);
+                    break;
+                }
+                case ProgramWriter.INPUTCMD: {
+                    AbstractTree.Expression expression = readExpression();
+                    next = new AbstractTree.InputCmd(expression, next, idendation);
+                    break;
+                }
+                case ProgramWriter.OUTPUTCMD: {
+                    AbstractTree.Expression expression = readExpression();
+                    next = new AbstractTree.OutputCmd(expression, next, idendation);
+                    break;
+                }
+                default:
+                    throw new CacheException("The cached program has an unexpected node with the tag " + tag);
+            }
+        }
+        return next;
+    }
+
+    private AbstractTree.Expression readExpression() throws CacheException {
+        int tag = readTag();
+        if (tag == ProgramWriter.END) {
+            return null;
+        }
+        int idendation = readVarint();
+        switch (tag) {
+            case ProgramWriter.LITERALEXPR:
+                return new AbstractTree.LiteralExpr(readLiteral(), idendation);
+            case ProgramWriter.STOREEXPR:
+                return new AbstractTree.StoreExpr(readIdentifier(), readVarint() != 0, idendation);
+            case ProgramWriter.FUNCALLEXPR:
+                return new AbstractTree.FunCallExpr(readRoutineCall(), idendation);
+            case ProgramWriter.MONADICEXPR:
+                return new AbstractTree.MonadicExpr(readOperation(), readExpression(), idendation);
+            case ProgramWriter.DYADICEXPR:
+                return new AbstractTree.DyadicExpr(readOperation(), readExpression(), readExpression(), idendation);
+            default:
+                throw new CacheException("The cached program has an unexpected node with the tag " + tag);
+        }
+    }
+
+    private AbstractTree.ExpressionList readExpressionList() throws CacheException {
+        AbstractTree.ExpressionList next = null;
+        for (int tag = readTag(); tag != ProgramWriter.END; tag = readTag()) {
+            checkTag(tag, ProgramWriter.EXPRESSIONLIST);
+            int idendation = readVarint();
+            AbstractTree.Expression expression = readExpression();
+            next = new AbstractTree.ExpressionList(expression, next, idendation);
+        }
+        return next;
+    }
+
+    private AbstractTree.RoutineCall readRoutineCall() throws CacheException {
+        checkTag(readTag(), ProgramWriter.ROUTINECALL);
+        int idendation = readVarint();
+        return new AbstractTree.RoutineCall(readIdentifier(), readExpressionList(), idendation);
+    }
+
+    private AbstractTree.TypedIdent readTypedIdent() throws CacheException {
+        checkTag(readTag(), ProgramWriter.TYPEDIDENT);
+        int idendation = readVarint();
+        Tokens.IdentifierToken identifier = readIdentifier();
+        int type = readVarint();
+        return new AbstractTree.TypedIdentType(identifier, type != 0 ? TYPES[type - 1] : null, idendation);
+    }
+
+    private AbstractTree.GlobalInit readGlobalInits() throws CacheException {
+        AbstractTree.GlobalInit next = null;
+        for (int tag = readTag(); tag != ProgramWriter.END; tag = readTag()) {
+            checkTag(tag, ProgramWriter.GLOBALINIT);
+            int idendation = readVarint();
+            Tokens.IdentifierToken identifier = readIdentifier();
+            next = new AbstractTree.GlobalInit(identifier, next, idendation);
+        }
+        return next;
+    }
+
+    private AbstractTree.GlobalImport readGlobalImports() throws CacheException {
+        AbstractTree.GlobalImport next = null;
+        for (int tag = readTag(); tag != ProgramWriter.END; tag = readTag()) {
+            checkTag(tag, ProgramWriter.GLOBALIMPORT);
+            int idendation = readVarint();
+            Tokens.FlowModeToken flowmode = readFlowMode();
+            Tokens.ChangeModeToken changemode = readChangeMode();
+            Tokens.IdentifierToken identifier = readIdentifier();
+            next = new AbstractTree.GlobalImport(flowmode, changemode, identifier, next, idendation);
+        }
+        return next;
+    }
+
+
+    private int readTag() {
+        // The end tag closes a sequence or stands for a missing node
+        return readVarint();
+    }
+
+    private void checkTag(int tag, int expected) throws CacheException {
+        if (tag != expected) {
+            throw new CacheException("The cached program has an unexpected node with the tag " + tag + " instead of " + expected);
+        }
+    }
+
+    private Tokens.LiteralToken readLiteral() {
+        long value = readVarlong();
+        return value >= 0 && value < LITERALS.length ? LITERALS[(int) value] : new Tokens.LiteralToken(value, Terminal.LITERAL);
+    }
+
+    private Tokens.IdentifierToken readIdentifier() {
+        return identifiers[readVarint()];
+    }
+
+    private Tokens.FlowModeToken readFlowMode() {
+        int value = readVarint();
+        return value != 0 ? flowmodes[value - 1] : null;
+    }
+
+    private Tokens.MechModeToken readMechMode() {
+        int value = readVarint();
+        return value != 0 ? mechmodes[value - 1] : null;
+    }
+
+    private Tokens.ChangeModeToken readChangeMode() {
+        int value = readVarint();
+        return value != 0 ? changemodes[value - 1] : null;
+    }
+
+    private Tokens.OperationToken readOperation() throws CacheException {
+        int operatorclass = readVarint();
+        int operation = readVarint();
+        if (operatorclass == ProgramWriter.END) {
+            return null;
+        }
+        if (operatorclass > TERMINALS.length) {
+            throw new CacheException("The cached program has the unknown operator class " + operatorclass);
+        }
+        int index = (operatorclass - 1) * OPERATIONS.length + operation;
+        if (operations[index] == null) {
+            operations[index] = createOperation(TERMINALS[operatorclass - 1], OPERATIONS[operation]);
+        }
+        return operations[index];
+    }
+
+    private Tokens.OperationToken createOperation(Terminal terminal, Tokens.OperationToken.Operation operation) throws CacheException {
+        // The operations share their names with the enums of the token classes
+        switch (terminal) {
+            case ADDOPR:
+                return new Tokens.AddOprToken(terminal, Tokens.AddOprToken.AddOpr.valueOf(operation.name()));
+            case BOOLOPR:
+                return new Tokens.BoolOprToken(terminal, Tokens.BoolOprToken.BoolOpr.valueOf(operation.name()));
+            case MULTOPR:
+                return new Tokens.MultOprToken(terminal, Tokens.MultOprToken.MultOpr.valueOf(operation.name()));
+            case RELOPR:
+                return new Tokens.RelOprToken(terminal, Tokens.RelOprToken.RelOpr.valueOf(operation.name()));
+            default:
+                throw new CacheException("The cached program has an operation with the terminal " + terminal);
+        }
+    }
+
+    private int readVarint() {
+        int value = 0;
+        for (int shift = 0; ; shift += 7) {
+            if (position >= limit || shift > 28) {
+                throw new IllegalStateException("Invalid varint at " + position);
+            }
+            byte current = bytes[position++];
+            value |= (current & 0x7F) << shift;
+            if (current >= 0) {
+                return value;
+            }
+        }
+    }
+
+    private long readVarlong() {
+        long value = 0;
+        for (int shift = 0; ; shift += 7) {
+            if (position >= limit || shift > 63) {
+                throw new IllegalStateException("Invalid varint at " + position);
+            }
+            byte current = bytes[position++];
+            value |= (long) (current & 0x7F) << shift;
+            if (current >= 0) {
+                return value;
+            }
+        }
+    }
+}
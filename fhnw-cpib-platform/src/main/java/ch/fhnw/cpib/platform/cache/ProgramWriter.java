@@ -0,0 +1,405 @@
+package ch.fhnw.cpib.platform.cache;
+
+import ch.fhnw.cpib.platform.parser.abstracttree.AbstractTree;
+import ch.fhnw.cpib.platform.scanner.tokens.Tokens;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+import java.util.zip.CRC32;
+
+public class ProgramWriter {
+
+    // The file starts with the magic bytes and the format version, so a cache of an older compiler is never read
+    public static final byte[] MAGIC = {'C', 'P', 'I', 'B'};
+
+    // Increase the version after every change of the abstract tree or of the format, the modes, types and operations
+    // are written by the ordinals of their enums
+    public static final int VERSION = 2;
+
+    // Tag of a missing node and of the end of a sequence
+    public static final int END = 0;
+
+    // Tags of the nodes, they belong to the format and don't follow the kinds of the arena
+    static final int PROGPARAM = 1;
+
+    static final int PARAM = 2;
+
+    static final int STODECL = 3;
+
+    static final int FUNDECL = 4;
+
+    static final int PROCDECL = 5;
+
+    static final int SKIPCMD = 6;
+
+    static final int ASSICMD = 7;
+
+    static final int SWITCHCMD = 8;
+
+    static final int REPCASECMD = 9;
+
+    static final int CONDCMD = 10;
+
+    static final int REPCONDCMD = 11;
+
+    static final int WHILECMD = 12;
+
+    static final int PROCCALLCMD = 13;
+
+    static final int INPUTCMD = 14;
+
+    static final int OUTPUTCMD = 15;
+
+    static final int LITERALEXPR = 16;
+
+    static final int STOREEXPR = 17;
+
+    static final int FUNCALLEXPR = 18;
+
+    static final int MONADICEXPR = 19;
+
+    static final int DYADICEXPR = 20;
+
+    static final int EXPRESSIONLIST = 21;
+
+    static final int ROUTINECALL = 22;
+
+    static final int TYPEDIDENT = 23;
+
+    static final int GLOBALINIT = 24;
+
+    static final int GLOBALIMPORT = 25;
+
+    // Tags of the operator classes, the terminals change with the grammar
+    static final int ADDOPR = 1;
+
+    static final int BOOLOPR = 2;
+
+    static final int MULTOPR = 3;
+
+    static final int RELOPR = 4;
+
+    private byte[] bytes;
+
+    private int size;
+
+    private final Map<String, Integer> names;
+
+    public ProgramWriter() {
+        this.bytes = new byte[1024];
+        this.size = 0;
+        this.names = new HashMap<>();
+    }
+
+    public byte[] writeProgram(AbstractTree.Program program) {
+        // Write the nodes first, so the string table only holds the used names
+        size = 0;
+        names.clear();
+        writeVarint(getName(program.getProgramName()));
+        writeProgParams(program.progparam);
+        writeDeclarations(program.declaration);
+        writeCmds(program.cmd);
+        byte[] body = Arrays.copyOf(bytes, size);
+
+        // Magic, version, string table, nodes and the checksum of everything before
+        size = 0;
+        writeBytes(MAGIC, MAGIC.length);
+        writeVarint(VERSION);
+        String[] table = new String[names.size()];
+        for (Map.Entry<String, Integer> entry : names.entrySet()) {
+            table[entry.getValue()] = entry.getKey();
+        }
+        writeVarint(table.length);
+        for (String name : table) {
+            byte[] encoded = name.getBytes(StandardCharsets.UTF_8);
+            writeVarint(encoded.length);
+            writeBytes(encoded, encoded.length);
+        }
+        writeBytes(body, body.length);
+        CRC32 crc = new CRC32();
+        crc.update(bytes, 0, size);
+        writeFixed((int) crc.getValue());
+        return Arrays.copyOf(bytes, size);
+    }
+
+    private void writeProgParams(AbstractTree.ProgParam progparam) {
+        for (AbstractTree.ProgParam current : getReversed(progparam, node -> node.nextprogparam)) {
+            writeHead(PROGPARAM, current.getIdendation());
+            writeFlowMode(current.flowmode);
+            writeChangeMode(current.changemode);
+            writeTypedIdent(current.typedident);
+        }
+        writeVarint(END);
+    }
+
+    private void writeParams(AbstractTree.Param param) {
+        for (AbstractTree.Param current : getReversed(param, node -> node.nextparam)) {
+            writeHead(PARAM, current.getIdendation());
+            writeFlowMode(current.flowmode);
+            writeMechMode(current.mechmode);
+            writeChangeMode(current.changemode);
+            writeTypedIdent(current.typedident);
+        }
+        writeVarint(END);
+    }
+
+    private void writeDeclarations(AbstractTree.Declaration declaration) {
+        // Sequences are written from their end and closed with an end tag, so the reader links every node to its successor at once
+        for (AbstractTree.Declaration current : getReversed(declaration, node -> node.getNextDeclaration())) {
+            if (current instanceof AbstractTree.StoDecl) {
+                AbstractTree.StoDecl stodecl = (AbstractTree.StoDecl) current;
+                writeHead(STODECL, stodecl.getIdendation());
+                writeChangeMode(stodecl.changemode);
+                writeTypedIdent(stodecl.typedident);
+            } else if (current instanceof AbstractTree.FunDecl) {
+                AbstractTree.FunDecl fundecl = (AbstractTree.FunDecl) current;
+                writeHead(FUNDECL, fundecl.getIdendation());
+                writeVarint(getName(fundecl.identifier.getName()));
+                writeParams(fundecl.param);
+                writeDeclarations(fundecl.storedeclaration);
+                writeGlobalImports(fundecl.globalimport);
+                writeDeclarations(fundecl.declaration);
+                writeCmds(fundecl.cmd);
+            } else if (current instanceof AbstractTree.ProcDecl) {
+                AbstractTree.ProcDecl procdecl = (AbstractTree.ProcDecl) current;
+                writeHead(PROCDECL, procdecl.getIdendation());
+                writeVarint(getName(procdecl.identifier.getName()));
+                writeParams(procdecl.param);
+                writeGlobalImports(procdecl.globalimport);
+                writeDeclarations(procdecl.declaration);
+                writeCmds(procdecl.cmd);
+            } else {
+                throw new RuntimeException("Unknown declaration " + current.getClass().getSimpleName());
+            }
+        }
+        writeVarint(END);
+    }
+
+    private void writeCmds(AbstractTree.Cmd cmd) {
+        for (AbstractTree.Cmd current : getReversed(cmd, node -> node.getNextCmd())) {
+            if (current instanceof AbstractTree.SkipCmd) {
+                writeHead(SKIPCMD, current.getIdendation());
+            } else if (current instanceof AbstractTree.AssiCmd) {
+                AbstractTree.AssiCmd assicmd = (AbstractTree.AssiCmd) current;
+                writeHead(ASSICMD, assicmd.getIdendation());
+                writeExpression(assicmd.expression1);
+                writeExpressionList(assicmd.expressionlist1);
+                writeExpression(assicmd.expression2);
+                writeExpressionList(assicmd.expressionlist2);
+            } else if (current instanceof AbstractTree.SwitchCmd) {
+                AbstractTree.SwitchCmd switchcmd = (AbstractTree.SwitchCmd) current;
+                writeHead(SWITCHCMD, switchcmd.getIdendation());
+                writeExpression(switchcmd.expression);
+                writeCmds(switchcmd.repcasecmd);
+                writeCmds(switchcmd.cmd);
+            } else if (current instanceof AbstractTree.RepCaseCmd) {
+                AbstractTree.RepCaseCmd repcasecmd = (AbstractTree.RepCaseCmd) current;
+                writeHead(REPCASECMD, repcasecmd.getIdendation());
+                writeVarlong(repcasecmd.literal.getValue());
+                writeCmds(repcasecmd.cmd);
+            } else if (current instanceof AbstractTree.CondCmd) {
+                AbstractTree.CondCmd condcmd = (AbstractTree.CondCmd) current;
+                writeHead(CONDCMD, condcmd.getIdendation());
+                writeExpression(condcmd.expression);
+                writeCmds(condcmd.cmd);
+                writeCmds(condcmd.repcondcmd);
+                writeCmds(condcmd.othercmd);
+            } else if (current instanceof AbstractTree.RepCondCmd) {
+                // The repcondcmd of a RepCondCmd is its next command
+                AbstractTree.RepCondCmd repcondcmd = (AbstractTree.RepCondCmd) current;
+                writeHead(REPCONDCMD, repcondcmd.getIdendation());
+                writeExpression(repcondcmd.expression);
+                writeCmds(repcondcmd.cmd);
+            } else if (current instanceof AbstractTree.WhileCmd) {
+                AbstractTree.WhileCmd whilecmd = (AbstractTree.WhileCmd) current;
+                writeHead(WHILECMD, whilecmd.getIdendation());
+                writeExpression(whilecmd.expression);
+                writeCmds(whilecmd.cmd);
+            } else if (current instanceof AbstractTree.ProcCallCmd) {
+                AbstractTree.ProcCallCmd proccallcmd = (AbstractTree.ProcCallCmd) current;
+                writeHead(PROCCALLCMD, proccallcmd.getIdendation());
+                writeRoutineCall(proccallcmd.routinecall);
+                writeGlobalInits(proccallcmd.globalinit);
+            } else if (current instanceof AbstractTree.InputCmd) {
+                writeHead(INPUTCMD, current.getIdendation());
+                writeExpression(((AbstractTree.InputCmd) current).expression);
+            } else if (current instanceof AbstractTree.OutputCmd) {
+                writeHead(OUTPUTCMD, current.getIdendation());
+                writeExpression(((AbstractTree.OutputCmd) current).expression);
+            } else {
+                throw new RuntimeException("Unknown command " + current.getClass().getSimpleName());
+            }
+        }
+        writeVarint(END);
+    }
+
+    private void writeExpression(AbstractTree.Expression expression) {
+        if (expression == null) {
+            writeVarint(END);
+        } else if (expression instanceof AbstractTree.LiteralExpr) {
+            writeHead(LITERALEXPR, expression.getIdendation());
+            writeVarlong(((AbstractTree.LiteralExpr) expression).literal.getValue());
+        } else if (expression instanceof AbstractTree.StoreExpr) {
+            AbstractTree.StoreExpr storeexpr = (AbstractTree.StoreExpr) expression;
+            writeHead(STOREEXPR, storeexpr.getIdendation());
+            writeVarint(getName(storeexpr.identifier.getName()));
+            writeVarint(storeexpr.initialized ? 1 : 0);
+        } else if (expression instanceof AbstractTree.FunCallExpr) {
+            writeHead(FUNCALLEXPR, expression.getIdendation());
+            writeRoutineCall(((AbstractTree.FunCallExpr) expression).routinecall);
+        } else if (expression instanceof AbstractTree.MonadicExpr) {
+            AbstractTree.MonadicExpr monadicexpr = (AbstractTree.MonadicExpr) expression;
+            writeHead(MONADICEXPR, monadicexpr.getIdendation());
+            writeOperation(monadicexpr.operation);
+            writeExpression(monadicexpr.expression);
+        } else if (expression instanceof AbstractTree.DyadicExpr) {
+            AbstractTree.DyadicExpr dyadicexpr = (AbstractTree.DyadicExpr) expression;
+            writeHead(DYADICEXPR, dyadicexpr.getIdendation());
+            writeOperation(dyadicexpr.operation);
+            writeExpression(dyadicexpr.expression1);
+            writeExpression(dyadicexpr.expression2);
+        } else {
+            throw new RuntimeException("Unknown expression " + expression.getClass().getSimpleName());
+        }
+    }
+
+    private void writeExpressionList(AbstractTree.ExpressionList expressionlist) {
+        for (AbstractTree.ExpressionList current : getReversed(expressionlist, node -> node.expressionlist)) {
+            writeHead(EXPRESSIONLIST, current.getIdendation());
+            writeExpression(current.expression);
+        }
+        writeVarint(END);
+    }
+
+    private void writeRoutineCall(AbstractTree.RoutineCall routinecall) {
+        writeHead(ROUTINECALL, routinecall.getIdendation());
+        writeVarint(getName(routinecall.identifier.getName()));
+        writeExpressionList(routinecall.expressionlist);
+    }
+
+    private void writeTypedIdent(AbstractTree.TypedIdent typedident) {
+        writeHead(TYPEDIDENT, typedident.getIdendation());
+        writeVarint(getName(typedident.getIdentifier().getName()));
+        writeVarint(typedident.getType() != null ? typedident.getType().ordinal() + 1 : 0);
+    }
+
+    private void writeGlobalInits(AbstractTree.GlobalInit globalinit) {
+        for (AbstractTree.GlobalInit current : getReversed(globalinit, node -> node.nextglobalinit)) {
+            writeHead(GLOBALINIT, current.getIdendation());
+            writeVarint(getName(current.identifier.getName()));
+        }
+        writeVarint(END);
+    }
+
+    private void writeGlobalImports(AbstractTree.GlobalImport globalimport) {
+        for (AbstractTree.GlobalImport current : getReversed(globalimport, node -> node.nextglobalimport)) {
+            writeHead(GLOBALIMPORT, current.getIdendation());
+            writeFlowMode(current.flowmode);
+            writeChangeMode(current.changemode);
+            writeVarint(getName(current.identifier.getName()));
+        }
+        writeVarint(END);
+    }
+
+    private <T> List<T> getReversed(T first, Function<T, T> successor) {
+        List<T> nodes = new ArrayList<>();
+        for (T current = first; current != null; current = successor.apply(current)) {
+            nodes.add(current);
+        }
+        Collections.reverse(nodes);
+        return nodes;
+    }
+
+    private void writeHead(int tag, int idendation) {
+        // The idendation is part of the dump, so it's kept for every node
+        writeVarint(tag);
+        writeVarint(idendation);
+    }
+
+    private void writeFlowMode(Tokens.FlowModeToken flowmode) {
+        writeVarint(flowmode != null ? flowmode.getFlowMode().ordinal() + 1 : 0);
+    }
+
+    private void writeMechMode(Tokens.MechModeToken mechmode) {
+        writeVarint(mechmode != null ? mechmode.getMechMode().ordinal() + 1 : 0);
+    }
+
+    private void writeChangeMode(Tokens.ChangeModeToken changemode) {
+        writeVarint(changemode != null ? changemode.getChangeMode().ordinal() + 1 : 0);
+    }
+
+    private void writeOperation(Tokens.OperationToken operation) {
+        // The operator class selects the token class of the operation
+        writeVarint(operation != null ? getOperatorClass(operation) : END);
+        writeVarint(operation != null ? operation.getOperation().ordinal() : 0);
+    }
+
+    private int getOperatorClass(Tokens.OperationToken operation) {
+        switch (operation.getTerminal()) {
+            case ADDOPR:
+                return ADDOPR;
+            case BOOLOPR:
+                return BOOLOPR;
+            case MULTOPR:
+                return MULTOPR;
+            case RELOPR:
+                return RELOPR;
+            default:
+                throw new RuntimeException("Unknown operation terminal " + operation.getTerminal());
+        }
+    }
+
+    private int getName(String name) {
+        Integer index = names.get(name);
+        if (index == null) {
+            index = names.size();
+            names.put(name, index);
+        }
+        return index;
+    }
+
+    private void writeVarint(int value) {
+        // Unsigned LEB128, small tags and indexes take a single byte
+        ensureCapacity(size + 5);
+        while ((value & ~0x7F) != 0) {
+            bytes[size++] = (byte) ((value & 0x7F) | 0x80);
+            value >>>= 7;
+        }
+        bytes[size++] = (byte) value;
+    }
+
+    private void writeVarlong(long value) {
+        ensureCapacity(size + 10);
+        while ((value & ~0x7FL) != 0) {
+            bytes[size++] = (byte) ((value & 0x7F) | 0x80);
+            value >>>= 7;
+        }
+        bytes[size++] = (byte) value;
+    }
+
+    private void writeFixed(int value) {
+        ensureCapacity(size + 4);
+        bytes[size++] = (byte) (value >>> 24);
+        bytes[size++] = (byte) (value >>> 16);
+        bytes[size++] = (byte) (value >>> 8);
+        bytes[size++] = (byte) value;
+    }
+
+    private void writeBytes(byte[] values, int length) {
+        ensureCapacity(size + length);
+        System.arraycopy(values, 0, bytes, size, length);
+        size += length;
+    }
+
+    private void ensureCapacity(int minimum) {
+        if (minimum > bytes.length) {
+            bytes = Arrays.copyOf(bytes, Math.max(minimum, bytes.length + (bytes.length >> 1)));
+        }
+    }
+}
@@ -10,6 +10,8 @@ public class Checker {
 
     private Scope scope = null;
 
+    private String programName = "";
+
     public StoreTable getGlobalStoreTable() {
         return globalStoreTable;
     }
@@ -29,4 +31,12 @@ public class Checker {
     public void setScope(Scope scope) {
         this.scope = scope;
     }
+
+    public String getProgramName() {
+        return programName;
+    }
+
+    public void setProgramName(String programName) {
+        this.programName = programName;
+    }
 }
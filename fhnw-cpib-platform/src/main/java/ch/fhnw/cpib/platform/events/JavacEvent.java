@@ -0,0 +1,29 @@
+package ch.fhnw.cpib.platform.events;
+
+import jdk.jfr.Category;
+import jdk.jfr.DataAmount;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+@Name("ch.fhnw.cpib.Javac")
+@Label("Javac Invocation")
+@Category({"CPIB", "Compiler"})
+@StackTrace(false)
+public class JavacEvent extends Event {
+
+    @Label("Program Name")
+    public String programname;
+
+    @Label("Nodes")
+    public long nodes;
+
+    @Label("Java Bytes")
+    @DataAmount
+    public long javabytes;
+
+    @Label("Class Bytes")
+    @DataAmount
+    public long classbytes;
+}
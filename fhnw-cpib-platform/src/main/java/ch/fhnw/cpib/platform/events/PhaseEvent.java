@@ -0,0 +1,28 @@
+package ch.fhnw.cpib.platform.events;
+
+import jdk.jfr.Category;
+import jdk.jfr.DataAmount;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+@Name("ch.fhnw.cpib.Phase")
+@Label("Compiler Phase")
+@Category({"CPIB", "Compiler"})
+@StackTrace(false)
+public class PhaseEvent extends Event {
+
+    @Label("Program Name")
+    public String programname;
+
+    @Label("Phase")
+    public String phase;
+
+    @Label("Nodes")
+    public long nodes;
+
+    @Label("Bytes")
+    @DataAmount
+    public long bytes;
+}
@@ -0,0 +1,23 @@
+package ch.fhnw.cpib.platform.events;
+
+import jdk.jfr.Category;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+@Name("ch.fhnw.cpib.RoutineCheck")
+@Label("Routine Check")
+@Category({"CPIB", "Compiler"})
+@StackTrace(false)
+public class RoutineCheckEvent extends Event {
+
+    @Label("Program Name")
+    public String programname;
+
+    @Label("Routine Name")
+    public String routinename;
+
+    @Label("Nodes")
+    public long nodes;
+}
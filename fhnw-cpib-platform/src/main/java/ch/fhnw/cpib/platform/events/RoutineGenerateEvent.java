@@ -0,0 +1,28 @@
+package ch.fhnw.cpib.platform.events;
+
+import jdk.jfr.Category;
+import jdk.jfr.DataAmount;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+@Name("ch.fhnw.cpib.RoutineGenerate")
+@Label("Routine Generation")
+@Category({"CPIB", "Compiler"})
+@StackTrace(false)
+public class RoutineGenerateEvent extends Event {
+
+    @Label("Program Name")
+    public String programname;
+
+    @Label("Routine Name")
+    public String routinename;
+
+    @Label("Nodes")
+    public long nodes;
+
+    @Label("Java Bytes")
+    @DataAmount
+    public long bytes;
+}
@@ -1,5 +1,6 @@
 package ch.fhnw.cpib.platform.generator;
 
+import ch.fhnw.cpib.platform.events.JavacEvent;
 import ch.fhnw.cpib.platform.parser.abstracttree.AbstractTree;
 import ch.fhnw.cpib.platform.utils.ReaderUtils;
 import com.squareup.javapoet.JavaFile;
@@ -18,27 +19,60 @@ import java.util.jar.Manifest;
 
 public class Generator {
 
+    private final File directory;
+
+    public Generator() {
+        this(new File("."));
+    }
+
+    public Generator(File directory) {
+        // The Java, class and JAR files are written to this directory
+        this.directory = directory;
+    }
+
     public JavaFile generateJavaFile(AbstractTree.Program program) throws GeneratorException {
         return program.generateCode();
     }
 
     public File generateJarFile(JavaFile javaobject, AbstractTree.Program program) throws GeneratorException {
+        return generateJarFile(compileJavaFile(javaobject, program), program);
+    }
+
+    public File compileJavaFile(JavaFile javaobject, AbstractTree.Program program) throws GeneratorException {
         try {
             // Replace the package namespace
             String javacode = javaobject.toString();
             javacode = javacode.replace("package fhnw;", "");
 
             // Create the Java source file
-            File javafile = new File(program.getProgramName() + ".java");
+            Files.createDirectories(directory.toPath());
+            File javafile = getJavaFile(program);
             Files.write(javafile.toPath(), javacode.getBytes(StandardCharsets.UTF_8));
 
             // Compile Java source file
+            JavacEvent event = new JavacEvent();
+            event.begin();
             JavaCompiler compiler = ToolProvider.getSystemJavaCompiler();
             compiler.run(null, null, null, javafile.getPath());
+            File classfile = getClassFile(program);
+            event.end();
+            if (event.shouldCommit()) {
+                event.programname = program.getProgramName();
+                event.nodes = program.countNodes();
+                event.javabytes = javafile.length();
+                event.classbytes = classfile.length();
+                event.commit();
+            }
+            return classfile;
+        } catch (Exception excetpion) {
+            throw new GeneratorException("Unable to compile the Java file: " + excetpion.getMessage(), excetpion);
+        }
+    }
 
-            // Define the class and JAR files
-            File classfile = new File(program.getProgramName() + ".class");
-            File jarfile = new File(program.getProgramName() + ".jar");
+    public File generateJarFile(File classfile, AbstractTree.Program program) throws GeneratorException {
+        try {
+            // Define the JAR file
+            File jarfile = getJarFile(program);
 
             //ReaderUtils.
             Manifest manifest = new Manifest();
@@ -46,7 +80,7 @@ public class Generator {
             manifest.getMainAttributes().put(Attributes.Name.MAIN_CLASS, program.getProgramName());
             JarOutputStream outputstream = new JarOutputStream(new FileOutputStream(jarfile), manifest);
 
-            JarEntry entry = new JarEntry(classfile.getPath().replace("\\", "/"));
+            JarEntry entry = new JarEntry(classfile.getName());
             entry.setTime(classfile.lastModified());
             outputstream.putNextEntry(entry);
 
@@ -60,10 +94,23 @@ public class Generator {
         }
     }
 
+    public File getJavaFile(AbstractTree.Program program) {
+        return new File(directory, program.getProgramName() + ".java");
+    }
+
+    public File getClassFile(AbstractTree.Program program) {
+        return new File(directory, program.getProgramName() + ".class");
+    }
+
+    public File getJarFile(AbstractTree.Program program) {
+        return new File(directory, program.getProgramName() + ".jar");
+    }
+
     public Pair<String, String> executeJarFile(File file) throws GeneratorException {
         try {
             ProcessBuilder processbuilder = new ProcessBuilder("java", "-jar", file.getAbsolutePath());
             processbuilder.directory(file.getParentFile());
+            processbuilder.redirectInput(ProcessBuilder.Redirect.INHERIT);
             Process process = processbuilder.start();
             process.waitFor();
 
@@ -0,0 +1,1218 @@
+package ch.fhnw.cpib.platform.parser;
+
+import ch.fhnw.cpib.platform.parser.abstracttree.AbstractTree;
+import ch.fhnw.cpib.platform.parser.concretetree.Context;
+import ch.fhnw.cpib.platform.parser.exception.ParserException;
+import ch.fhnw.cpib.platform.scanner.exception.ScannerException;
+import ch.fhnw.cpib.platform.scanner.tokens.Terminal;
+import ch.fhnw.cpib.platform.scanner.tokens.TokenList;
+import ch.fhnw.cpib.platform.scanner.tokens.TokenSource;
+import ch.fhnw.cpib.platform.scanner.tokens.Tokens;
+
+public class DirectParser {
+
+    // Builds the abstract tree directly while parsing, the concrete tree of the parser is never materialized
+
+    public DirectParser() {
+    }
+
+    public AbstractTree.Program parseTokenList(TokenList tokenlist) throws ParserException {
+        // A token list is already scanned, so it can't raise a scanner error
+        tokenlist.resetCounter();
+        try {
+            return parseTokenSource(tokenlist);
+        } catch (ScannerException exception) {
+            throw new ParserException(exception.getMessage(), exception);
+        }
+    }
+
+    public AbstractTree.Program parseTokenSource(TokenSource tokensource) throws ParserException, ScannerException {
+        // Get the first token to start with
+        Tokens.Token token = tokensource.nextToken();
+
+        // Initialize the context
+        Context context = new Context(tokensource);
+        context.setToken(token);
+        context.setTerminal(token.getTerminal());
+
+        // Parse the beginning and unwrap scanner errors of a lazy token source
+        try {
+            AbstractTree.Program program = parseProgram(context);
+            consumeTerminal(context, Terminal.SENTINEL);
+            return program;
+        } catch (ParserException exception) {
+            if (exception.getCause() instanceof ScannerException) {
+                throw (ScannerException) exception.getCause();
+            }
+            throw exception;
+        }
+    }
+
+    private Tokens.Token consumeTerminal(Context context, Terminal expectedterminal) throws ParserException {
+        if (context.getTerminal() == expectedterminal) {
+            Tokens.Token consumedtoken = context.getToken();
+            if (context.getTerminal() != Terminal.SENTINEL) {
+                Tokens.Token token = nextToken(context);
+                context.setToken(token);
+                context.setTerminal(token.getTerminal());
+            }
+            return consumedtoken;
+        } else {
+            throw new ParserException("Parser expected the terminal " + expectedterminal + ", but found the terminal " + context.getTerminal());
+        }
+    }
+
+    private Tokens.Token nextToken(Context context) throws ParserException {
+        try {
+            return context.getTokenSource().nextToken();
+        } catch (ScannerException exception) {
+            throw new ParserException(exception.getMessage(), exception);
+        }
+    }
+
+    private AbstractTree.Program parseProgram(Context context) throws ParserException {
+        switch (context.getTerminal()) {
+            case PROGRAM:
+                consumeTerminal(context, Terminal.PROGRAM);
+                Tokens.IdentifierToken identifier = (Tokens.IdentifierToken) consumeTerminal(context, Terminal.IDENT);
+                AbstractTree.ProgParam progparam = parseProgParamList(context, 1);
+                AbstractTree.Declaration declaration = parseOptCpsDecl(context, 1);
+                consumeTerminal(context, Terminal.DO);
+                AbstractTree.Cmd cmd = parseCpsCmd(context, 1);
+                consumeTerminal(context, Terminal.ENDPROGRAM);
+                return new AbstractTree.Program(identifier, progparam, declaration, cmd);
+            default:
+                throw new ParserException("Invalid terminal in program: " + context.getTerminal());
+        }
+    }
+
+    private void parseDecl(Context context, int idendation) throws ParserException {
+        // A declaration is linked to its successor, so only its parts are pushed and popDecl builds it
+        switch (context.getTerminal()) {
+            case CHANGEMODE:
+            case IDENT:
+                parseStoDecl(context, idendation);
+                break;
+            case FUN:
+                parseFunDecl(context, idendation);
+                break;
+            case PROC:
+                parseProcDecl(context, idendation);
+                break;
+            default:
+                throw new ParserException("Invalid terminal in decl: " + context.getTerminal());
+        }
+    }
+
+    private AbstractTree.Declaration popDecl(Context context, AbstractTree.Declaration nextdeclaration, int idendation) {
+        Terminal terminal = context.popItem();
+        switch (terminal) {
+            case CHANGEMODE:
+                AbstractTree.TypedIdent typedident = context.popItem();
+                Tokens.ChangeModeToken changemode = context.popItem();
+                return new AbstractTree.StoDecl(changemode, typedident, nextdeclaration, idendation);
+            case FUN:
+                AbstractTree.Cmd cmd1 = context.popItem();
+                AbstractTree.Declaration locals1 = context.popItem();
+                AbstractTree.GlobalImport globalimport1 = context.popItem();
+                AbstractTree.Declaration stodecl = context.popItem();
+                AbstractTree.Param param1 = context.popItem();
+                Tokens.IdentifierToken identifier1 = context.popItem();
+                return new AbstractTree.FunDecl(identifier1, param1, stodecl, globalimport1, locals1, cmd1, nextdeclaration, idendation);
+            default:
+                AbstractTree.Cmd cmd2 = context.popItem();
+                AbstractTree.Declaration locals2 = context.popItem();
+                AbstractTree.GlobalImport globalimport2 = context.popItem();
+                AbstractTree.Param param2 = context.popItem();
+                Tokens.IdentifierToken identifier2 = context.popItem();
+                return new AbstractTree.ProcDecl(identifier2, param2, globalimport2, locals2, nextdeclaration, cmd2, idendation);
+        }
+    }
+
+    private void parseStoDecl(Context context, int idendation) throws ParserException {
+        switch (context.getTerminal()) {
+            case IDENT:
+                AbstractTree.TypedIdent typedident1 = parseTypedIdent(context, idendation + 1);
+                context.pushItem(new Tokens.ChangeModeToken(Terminal.CHANGEMODE, Tokens.ChangeModeToken.ChangeMode.CONST));
+                context.pushItem(typedident1);
+                context.pushItem(Terminal.CHANGEMODE);
+                break;
+            case CHANGEMODE:
+                Tokens.ChangeModeToken changemode1 = (Tokens.ChangeModeToken) consumeTerminal(context, Terminal.CHANGEMODE);
+                AbstractTree.TypedIdent typedident2 = parseTypedIdent(context, idendation + 1);
+                context.pushItem(changemode1);
+                context.pushItem(typedident2);
+                context.pushItem(Terminal.CHANGEMODE);
+                break;
+            default:
+                throw new ParserException("Invalid terminal in stoDecl: " + context.getTerminal());
+        }
+    }
+
+    private void parseFunDecl(Context context, int idendation) throws ParserException {
+        switch (context.getTerminal()) {
+            case FUN:
+                consumeTerminal(context, Terminal.FUN);
+                Tokens.IdentifierToken identifier = (Tokens.IdentifierToken) consumeTerminal(context, Terminal.IDENT);
+                AbstractTree.Param param = parseParamList(context, idendation + 1);
+                consumeTerminal(context, Terminal.RETURNS);
+                parseStoDecl(context, idendation + 1);
+                AbstractTree.Declaration stodecl = popDecl(context, null, idendation + 1);
+                AbstractTree.GlobalImport globalimport = parseOptGlobImps(context, idendation + 1);
+                AbstractTree.Declaration locals = parseOptCpsStoDecl(context, idendation + 1);
+                consumeTerminal(context, Terminal.DO);
+                AbstractTree.Cmd cmd = parseCpsCmd(context, idendation + 1);
+                consumeTerminal(context, Terminal.ENDFUN);
+                context.pushItem(identifier);
+                context.pushItem(param);
+                context.pushItem(stodecl);
+                context.pushItem(globalimport);
+                context.pushItem(locals);
+                context.pushItem(cmd);
+                context.pushItem(Terminal.FUN);
+                break;
+            default:
+                throw new ParserException("Invalid terminal in funDecl: " + context.getTerminal());
+        }
+    }
+
+    private void parseProcDecl(Context context, int idendation) throws ParserException {
+        switch (context.getTerminal()) {
+            case PROC:
+                consumeTerminal(context, Terminal.PROC);
+                Tokens.IdentifierToken identifier = (Tokens.IdentifierToken) consumeTerminal(context, Terminal.IDENT);
+                AbstractTree.Param param = parseParamList(context, idendation + 1);
+                AbstractTree.GlobalImport globalimport = parseOptGlobImps(context, idendation + 1);
+                AbstractTree.Declaration locals = parseOptCpsStoDecl(context, idendation + 1);
+                consumeTerminal(context, Terminal.DO);
+                AbstractTree.Cmd cmd = parseCpsCmd(context, idendation + 1);
+                consumeTerminal(context, Terminal.ENDPROC);
+                context.pushItem(identifier);
+                context.pushItem(param);
+                context.pushItem(globalimport);
+                context.pushItem(locals);
+                context.pushItem(cmd);
+                context.pushItem(Terminal.PROC);
+                break;
+            default:
+                throw new ParserException("Invalid terminal in procDecl: " + context.getTerminal());
+        }
+    }
+
+    private AbstractTree.GlobalImport parseOptGlobImps(Context context, int idendation) throws ParserException {
+        switch (context.getTerminal()) {
+            case GLOBAL:
+                consumeTerminal(context, Terminal.GLOBAL);
+                return parseGlobImps(context, idendation);
+            case DO:
+            case LOCAL:
+                return null;
+            default:
+                throw new ParserException("Invalid terminal in optGlobImps: " + context.getTerminal());
+        }
+    }
+
+    private AbstractTree.GlobalImport parseGlobImps(Context context, int idendation) throws ParserException {
+        switch (context.getTerminal()) {
+            case FLOWMODE:
+            case IDENT:
+            case CHANGEMODE:
+                int itemcount = context.getItemCount();
+                int nextidendation = parseGlobImp(context, idendation);
+                return linkGlobImps(context, itemcount, parseRepGlobImps(context, nextidendation));
+            default:
+                throw new ParserException("Invalid terminal in globImps: " + context.getTerminal());
+        }
+    }
+
+    private int parseRepGlobImps(Context context, int idendation) throws ParserException {
+        switch (context.getTerminal()) {
+            case COMMA:
+                while (context.getTerminal() == Terminal.COMMA) {
+                    consumeTerminal(context, Terminal.COMMA);
+                    idendation = parseGlobImp(context, idendation);
+                }
+                return parseRepGlobImps(context, idendation);
+            case DO:
+            case LOCAL:
+                return idendation;
+            default:
+                throw new ParserException("Invalid terminal in repGlobImps: " + context.getTerminal());
+        }
+    }
+
+    private AbstractTree.GlobalImport linkGlobImps(Context context, int itemcount, int idendation) {
+        // Link the imports from the end, only an import with a flow mode moved its successor one level deeper
+        AbstractTree.GlobalImport globalimport = null;
+        while (context.getItemCount() > itemcount) {
+            Tokens.IdentifierToken identifier = context.popItem();
+            Tokens.ChangeModeToken changemode = context.popItem();
+            Tokens.FlowModeToken flowmode = context.popItem();
+            if (flowmode == null) {
+                flowmode = new Tokens.FlowModeToken(Terminal.FLOWMODE, Tokens.FlowModeToken.FlowMode.IN);
+            } else {
+                idendation--;
+            }
+            globalimport = new AbstractTree.GlobalImport(flowmode, changemode, identifier, globalimport, idendation);
+        }
+        return globalimport;
+    }
+
+    private Tokens.ChangeModeToken parseOptChangemode(Context context) throws ParserException {
+        switch (context.getTerminal()) {
+            case CHANGEMODE:
+                return (Tokens.ChangeModeToken) consumeTerminal(context, Terminal.CHANGEMODE);
+            case IDENT:
+                return new Tokens.ChangeModeToken(Terminal.CHANGEMODE, Tokens.ChangeModeToken.ChangeMode.CONST);
+            default:
+                throw new ParserException("Invalid terminal in optChangemode: " + context.getTerminal());
+        }
+    }
+
+    private Tokens.MechModeToken parseOptMechmode(Context context) throws ParserException {
+        switch (context.getTerminal()) {
+            case MECHMODE:
+                return (Tokens.MechModeToken) consumeTerminal(context, Terminal.MECHMODE);
+            case IDENT:
+            case CHANGEMODE:
+                return new Tokens.MechModeToken(Terminal.MECHMODE, Tokens.MechModeToken.MechMode.COPY);
+            default:
+                throw new ParserException("Invalid terminal in optMechmode: " + context.getTerminal());
+        }
+    }
+
+    private int parseGlobImp(Context context, int idendation) throws ParserException {
+        // Push the flow mode, change mode and identifier, a missing flow mode is pushed as null
+        switch (context.getTerminal()) {
+            case IDENT:
+            case CHANGEMODE:
+                Tokens.ChangeModeToken changemode1 = parseOptChangemode(context);
+                Tokens.IdentifierToken identifier1 = (Tokens.IdentifierToken) consumeTerminal(context, Terminal.IDENT);
+                context.pushItem(null);
+                context.pushItem(changemode1);
+                context.pushItem(identifier1);
+                return idendation;
+            case FLOWMODE:
+                Tokens.FlowModeToken flowmode = (Tokens.FlowModeToken) consumeTerminal(context, Terminal.FLOWMODE);
+                Tokens.ChangeModeToken changemode2 = parseOptChangemode(context);
+                Tokens.IdentifierToken identifier2 = (Tokens.IdentifierToken) consumeTerminal(context, Terminal.IDENT);
+                context.pushItem(flowmode);
+                context.pushItem(changemode2);
+                context.pushItem(identifier2);
+                return idendation + 1;
+            default:
+                throw new ParserException("Invalid terminal in globImp: " + context.getTerminal());
+        }
+    }
+
+    private AbstractTree.Declaration parseOptCpsDecl(Context context, int idendation) throws ParserException {
+        switch (context.getTerminal()) {
+            case GLOBAL:
+                consumeTerminal(context, Terminal.GLOBAL);
+                return parseCpsDecl(context, idendation);
+            case DO:
+                return null;
+            default:
+                throw new ParserException("Invalid terminal in optCpsDecl: " + context.getTerminal());
+        }
+    }
+
+    private AbstractTree.Declaration parseCpsDecl(Context context, int idendation) throws ParserException {
+        switch (context.getTerminal()) {
+            case PROC:
+            case FUN:
+            case CHANGEMODE:
+            case IDENT:
+                parseDecl(context, idendation);
+                AbstractTree.Declaration nextdeclaration = parseRepCpsDecl(context, idendation + 1);
+                return popDecl(context, nextdeclaration, idendation);
+            default:
+                throw new ParserException("Invalid terminal in cpsDecl: " + context.getTerminal());
+        }
+    }
+
+    private AbstractTree.Declaration parseRepCpsDecl(Context context, int idendation) throws ParserException {
+        switch (context.getTerminal()) {
+            case SEMICOLON:
+                int count = 0;
+                while (context.getTerminal() == Terminal.SEMICOLON) {
+                    consumeTerminal(context, Terminal.SEMICOLON);
+                    parseDecl(context, idendation + count);
+                    count++;
+                }
+                return linkDecls(context, parseRepCpsDecl(context, idendation + count), count, idendation);
+            case DO:
+                return null;
+            default:
+                throw new ParserException("Invalid terminal in repCpsDecl: " + context.getTerminal());
+        }
+    }
+
+    private AbstractTree.Declaration linkDecls(Context context, AbstractTree.Declaration declaration, int count, int idendation) {
+        for (int i = count - 1; i >= 0; i--) {
+            declaration = popDecl(context, declaration, idendation + i);
+        }
+        return declaration;
+    }
+
+    private AbstractTree.Declaration parseOptCpsStoDecl(Context context, int idendation) throws ParserException {
+        switch (context.getTerminal()) {
+            case LOCAL:
+                consumeTerminal(context, Terminal.LOCAL);
+                return parseCpsStoDecl(context, idendation);
+            case DO:
+                return null;
+            default:
+                throw new ParserException("Invalid terminal in optCpsStoDecl: " + context.getTerminal());
+        }
+    }
+
+    private AbstractTree.Declaration parseCpsStoDecl(Context context, int idendation) throws ParserException {
+        switch (context.getTerminal()) {
+            case CHANGEMODE:
+            case IDENT:
+                parseStoDecl(context, idendation);
+                AbstractTree.Declaration nextdeclaration = parseRepCpsStoDecl(context, idendation + 1);
+                return popDecl(context, nextdeclaration, idendation);
+            default:
+                throw new ParserException("Invalid terminal in cpsStoDecl: " + context.getTerminal());
+        }
+    }
+
+    private AbstractTree.Declaration parseRepCpsStoDecl(Context context, int idendation) throws ParserException {
+        switch (context.getTerminal()) {
+            case SEMICOLON:
+                int count = 0;
+                while (context.getTerminal() == Terminal.SEMICOLON) {
+                    consumeTerminal(context, Terminal.SEMICOLON);
+                    parseStoDecl(context, idendation + count);
+                    count++;
+                }
+                return linkDecls(context, parseRepCpsStoDecl(context, idendation + count), count, idendation);
+            case DO:
+                return null;
+            default:
+                throw new ParserException("Invalid terminal in repCpsStoDecl: " + context.getTerminal());
+        }
+    }
+
+    private AbstractTree.ProgParam parseProgParamList(Context context, int idendation) throws ParserException {
+        switch (context.getTerminal()) {
+            case LPAREN:
+                consumeTerminal(context, Terminal.LPAREN);
+                AbstractTree.ProgParam progparam = parseOptProgParamList(context, idendation);
+                consumeTerminal(context, Terminal.RPAREN);
+                return progparam;
+            default:
+                throw new ParserException("Invalid terminal in progParamList: " + context.getTerminal());
+        }
+    }
+
+    private AbstractTree.ProgParam parseOptProgParamList(Context context, int idendation) throws ParserException {
+        switch (context.getTerminal()) {
+            case FLOWMODE:
+            case IDENT:
+            case CHANGEMODE:
+                int itemcount = context.getItemCount();
+                int nextidendation = parseProgParam(context, idendation);
+                return linkProgParams(context, itemcount, parseRepProgParamList(context, nextidendation));
+            case RPAREN:
+                return null;
+            default:
+                throw new ParserException("Invalid terminal in optProgParamList: " + context.getTerminal());
+        }
+    }
+
+    private int parseRepProgParamList(Context context, int idendation) throws ParserException {
+        switch (context.getTerminal()) {
+            case COMMA:
+                while (context.getTerminal() == Terminal.COMMA) {
+                    consumeTerminal(context, Terminal.COMMA);
+                    idendation = parseProgParam(context, idendation);
+                }
+                return parseRepProgParamList(context, idendation);
+            case RPAREN:
+                return idendation;
+            default:
+                throw new ParserException("Invalid terminal in repProgParamList: " + context.getTerminal());
+        }
+    }
+
+    private AbstractTree.ProgParam linkProgParams(Context context, int itemcount, int idendation) {
+        AbstractTree.ProgParam progparam = null;
+        while (context.getItemCount() > itemcount) {
+            AbstractTree.TypedIdent typedident = context.popItem();
+            Tokens.ChangeModeToken changemode = context.popItem();
+            Tokens.FlowModeToken flowmode = context.popItem();
+            progparam = new AbstractTree.ProgParam(flowmode, changemode, typedident, progparam, --idendation);
+        }
+        return progparam;
+    }
+
+    private int parseProgParam(Context context, int idendation) throws ParserException {
+        switch (context.getTerminal()) {
+            case IDENT:
+            case CHANGEMODE:
+                Tokens.ChangeModeToken changemode1 = parseOptChangemode(context);
+                AbstractTree.TypedIdent typedident1 = parseTypedIdent(context, idendation + 1);
+                context.pushItem(new Tokens.FlowModeToken(Terminal.FLOWMODE, Tokens.FlowModeToken.FlowMode.IN));
+                context.pushItem(changemode1);
+                context.pushItem(typedident1);
+                return idendation + 1;
+            case FLOWMODE:
+                Tokens.FlowModeToken flowmode = (Tokens.FlowModeToken) consumeTerminal(context, Terminal.FLOWMODE);
+                Tokens.ChangeModeToken changemode2 = parseOptChangemode(context);
+                AbstractTree.TypedIdent typedident2 = parseTypedIdent(context, idendation + 1);
+                context.pushItem(flowmode);
+                context.pushItem(changemode2);
+                context.pushItem(typedident2);
+                return idendation + 1;
+            default:
+                throw new ParserException("Invalid terminal in progParam: " + context.getTerminal());
+        }
+    }
+
+    private AbstractTree.Param parseParamList(Context context, int idendation) throws ParserException {
+        switch (context.getTerminal()) {
+            case LPAREN:
+                consumeTerminal(context, Terminal.LPAREN);
+                AbstractTree.Param param = parseOptParamList(context, idendation);
+                consumeTerminal(context, Terminal.RPAREN);
+                return param;
+            default:
+                throw new ParserException("Invalid terminal in paramList: " + context.getTerminal());
+        }
+    }
+
+    private AbstractTree.Param parseOptParamList(Context context, int idendation) throws ParserException {
+        switch (context.getTerminal()) {
+            case FLOWMODE:
+            case IDENT:
+            case CHANGEMODE:
+            case MECHMODE:
+                int itemcount = context.getItemCount();
+                int nextidendation = parseParam(context, idendation);
+                return linkParams(context, itemcount, parseRepParamList(context, nextidendation));
+            case RPAREN:
+                return null;
+            default:
+                throw new ParserException("Invalid terminal in optParamList: " + context.getTerminal());
+        }
+    }
+
+    private int parseRepParamList(Context context, int idendation) throws ParserException {
+        switch (context.getTerminal()) {
+            case COMMA:
+                while (context.getTerminal() == Terminal.COMMA) {
+                    consumeTerminal(context, Terminal.COMMA);
+                    idendation = parseParam(context, idendation);
+                }
+                return parseRepParamList(context, idendation);
+            case RPAREN:
+                return idendation;
+            default:
+                throw new ParserException("Invalid terminal in repParamList: " + context.getTerminal());
+        }
+    }
+
+    private AbstractTree.Param linkParams(Context context, int itemcount, int idendation) {
+        // Link the parameters from the end, only a parameter with a flow mode moved its successor one level deeper
+        AbstractTree.Param param = null;
+        while (context.getItemCount() > itemcount) {
+            AbstractTree.TypedIdent typedident = context.popItem();
+            Tokens.ChangeModeToken changemode = context.popItem();
+            Tokens.MechModeToken mechmode = context.popItem();
+            Tokens.FlowModeToken flowmode = context.popItem();
+            if (flowmode == null) {
+                flowmode = new Tokens.FlowModeToken(Terminal.FLOWMODE, Tokens.FlowModeToken.FlowMode.IN);
+            } else {
+                idendation--;
+            }
+            param = new AbstractTree.Param(flowmode, mechmode, changemode, typedident, param, idendation);
+        }
+        return param;
+    }
+
+    private int parseParam(Context context, int idendation) throws ParserException {
+        // Push the flow mode, mech mode, change mode and typed identifier, a missing flow mode is pushed as null
+        switch (context.getTerminal()) {
+            case IDENT:
+            case CHANGEMODE:
+            case MECHMODE:
+                Tokens.MechModeToken mechmode1 = parseOptMechmode(context);
+                Tokens.ChangeModeToken changemode1 = parseOptChangemode(context);
+                AbstractTree.TypedIdent typedident1 = parseTypedIdent(context, idendation + 1);
+                context.pushItem(null);
+                context.pushItem(mechmode1);
+                context.pushItem(changemode1);
+                context.pushItem(typedident1);
+                return idendation;
+            case FLOWMODE:
+                Tokens.FlowModeToken flowmode = (Tokens.FlowModeToken) consumeTerminal(context, Terminal.FLOWMODE);
+                Tokens.MechModeToken mechmode2 = parseOptMechmode(context);
+                Tokens.ChangeModeToken changemode2 = parseOptChangemode(context);
+                AbstractTree.TypedIdent typedident2 = parseTypedIdent(context, idendation + 1);
+                context.pushItem(flowmode);
+                context.pushItem(mechmode2);
+                context.pushItem(changemode2);
+                context.pushItem(typedident2);
+                return idendation + 1;
+            default:
+                throw new ParserException("Invalid terminal in param: " + context.getTerminal());
+        }
+    }
+
+    private AbstractTree.TypedIdent parseTypedIdent(Context context, int idendation) throws ParserException {
+        switch (context.getTerminal()) {
+            case IDENT:
+                Tokens.IdentifierToken identifier = (Tokens.IdentifierToken) consumeTerminal(context, Terminal.IDENT);
+                consumeTerminal(context, Terminal.COLON);
+                Tokens.TypeToken type = (Tokens.TypeToken) consumeTerminal(context, Terminal.TYPE);
+                return new AbstractTree.TypedIdentType(identifier, type.getType(), idendation);
+            default:
+                throw new ParserException("Invalid terminal in typedIdent: " + context.getTerminal());
+        }
+    }
+
+    private void parseCmd(Context context, int idendation) throws ParserException {
+        // A command is linked to its successor, so only its parts are pushed and popCmd builds it
+        switch (context.getTerminal()) {
+            case SKIP:
+                consumeTerminal(context, Terminal.SKIP);
+                context.pushItem(Terminal.SKIP);
+                break;
+            case LPAREN:
+            case ADDOPR:
+            case NOT:
+            case IDENT:
+            case LITERAL:
+                AbstractTree.Expression expression1 = parseExpr(context, idendation);
+                AbstractTree.ExpressionList expressionlist1 = parseRepExprList(context, idendation + 1);
+                consumeTerminal(context, Terminal.BECOMES);
+                AbstractTree.Expression expression2 = parseExpr(context, idendation);
+                AbstractTree.ExpressionList expressionlist2 = parseRepExprList(context, idendation + 1);
+                context.pushItem(expression1);
+                context.pushItem(expressionlist1);
+                context.pushItem(expression2);
+                context.pushItem(expressionlist2);
+                context.pushItem(Terminal.BECOMES);
+                break;
+            case IF:
+                consumeTerminal(context, Terminal.IF);
+                AbstractTree.Expression expression3 = parseExpr(context, idendation);
+                consumeTerminal(context, Terminal.THEN);
+                AbstractTree.Cmd cmd1 = parseCpsCmd(context, idendation + 1);
+                AbstractTree.RepCondCmd repcondcmd = parseRepElseif(context, idendation + 1);
+                AbstractTree.Cmd othercmd = parseOptElse(context, idendation);
+                consumeTerminal(context, Terminal.ENDIF);
+                context.pushItem(expression3);
+                context.pushItem(cmd1);
+                context.pushItem(repcondcmd);
+                context.pushItem(othercmd);
+                context.pushItem(Terminal.IF);
+                break;
+            case SWITCH:
+                consumeTerminal(context, Terminal.SWITCH);
+                AbstractTree.Expression expression4 = parseExpr(context, idendation);
+                consumeTerminal(context, Terminal.CASE);
+                Tokens.LiteralToken literal = (Tokens.LiteralToken) consumeTerminal(context, Terminal.LITERAL);
+                consumeTerminal(context, Terminal.THEN);
+                AbstractTree.Cmd cmd2 = parseCpsCmd(context, idendation + 2);
+                AbstractTree.RepCaseCmd repcasecmd = new AbstractTree.RepCaseCmd(literal, cmd2, parseRepCase(context, idendation + 2), idendation + 1);
+                AbstractTree.Cmd defaultcmd = parseOptDefault(context, idendation);
+                consumeTerminal(context, Terminal.ENDSWITCH);
+                context.pushItem(expression4);
+                context.pushItem(repcasecmd);
+                context.pushItem(defaultcmd);
+                context.pushItem(Terminal.SWITCH);
+                break;
+            case WHILE:
+                consumeTerminal(context, Terminal.WHILE);
+                AbstractTree.Expression expression5 = parseExpr(context, idendation + 1);
+                consumeTerminal(context, Terminal.DO);
+                AbstractTree.Cmd cmd3 = parseCpsCmd(context, idendation + 1);
+                consumeTerminal(context, Terminal.ENDWHILE);
+                context.pushItem(expression5);
+                context.pushItem(cmd3);
+                context.pushItem(Terminal.WHILE);
+                break;
+            case CALL:
+                consumeTerminal(context, Terminal.CALL);
+                Tokens.IdentifierToken identifier = (Tokens.IdentifierToken) consumeTerminal(context, Terminal.IDENT);
+                AbstractTree.RoutineCall routinecall = new AbstractTree.RoutineCall(identifier, parseExprList(context, idendation + 2), idendation + 1);
+                AbstractTree.GlobalInit globalinit = parseOptGlobInits(context, idendation + 1);
+                context.pushItem(routinecall);
+                context.pushItem(globalinit);
+                context.pushItem(Terminal.CALL);
+                break;
+            case DEBUGIN:
+                consumeTerminal(context, Terminal.DEBUGIN);
+                context.pushItem(parseExpr(context, idendation));
+                context.pushItem(Terminal.DEBUGIN);
+                break;
+            case DEBUGOUT:
+                consumeTerminal(context, Terminal.DEBUGOUT);
+                context.pushItem(parseExpr(context, idendation));
+                context.pushItem(Terminal.DEBUGOUT);
+                break;
+            default:
+                throw new ParserException("Invalid terminal in cmd: " + context.getTerminal());
+        }
+    }
+
+    private AbstractTree.Cmd popCmd(Context context, AbstractTree.Cmd nextcmd, int idendation) {
+        Terminal terminal = context.popItem();
+        switch (terminal) {
+            case SKIP:
+                return new AbstractTree.SkipCmd(nextcmd, idendation);
+            case BECOMES:
+                AbstractTree.ExpressionList expressionlist2 = context.popItem();
+                AbstractTree.Expression expression2 = context.popItem();
+                AbstractTree.ExpressionList expressionlist1 = context.popItem();
+                AbstractTree.Expression expression1 = context.popItem();
+                return new AbstractTree.AssiCmd(expression1, expressionlist1, expression2, expressionlist2, nextcmd, idendation);
+            case IF:
+                AbstractTree.Cmd othercmd = context.popItem();
+                AbstractTree.RepCondCmd repcondcmd = context.popItem();
+                AbstractTree.Cmd cmd1 = context.popItem();
+                AbstractTree.Expression expression3 = context.popItem();
+                return new AbstractTree.CondCmd(expression3, cmd1, repcondcmd, othercmd, nextcmd, idendation);
+            case SWITCH:
+                AbstractTree.Cmd defaultcmd = context.popItem();
+                AbstractTree.RepCaseCmd repcasecmd = context.popItem();
+                AbstractTree.Expression expression4 = context.popItem();
+                return new AbstractTree.SwitchCmd(expression4, repcasecmd, defaultcmd, nextcmd, idendation);
+            case WHILE:
+                AbstractTree.Cmd cmd2 = context.popItem();
+                AbstractTree.Expression expression5 = context.popItem();
+                return new AbstractTree.WhileCmd(expression5, cmd2, nextcmd, idendation);
+            case CALL:
+                AbstractTree.GlobalInit globalinit = context.popItem();
+                AbstractTree.RoutineCall routinecall = context.popItem();
+                return new AbstractTree.ProcCallCmd(routinecall, globalinit, nextcmd, idendation);
+            case DEBUGIN:
+                return new AbstractTree.InputCmd(context.popItem(), nextcmd, idendation);
+            default:
+                return new AbstractTree.OutputCmd(context.popItem(), nextcmd, idendation);
+        }
+    }
+
+    private AbstractTree.Cmd parseCpsCmd(Context context, int idendation) throws ParserException {
+        switch (context.getTerminal()) {
+            case DEBUGOUT:
+            case DEBUGIN:
+            case CALL:
+            case WHILE:
+            case SWITCH:
+            case IF:
+            case LPAREN:
+            case ADDOPR:
+            case NOT:
+            case IDENT:
+            case LITERAL:
+            case SKIP:
+                parseCmd(context, idendation);
+                AbstractTree.Cmd nextcmd = parseRepCpsCmd(context, idendation + 1);
+                return popCmd(context, nextcmd, idendation);
+            default:
+                throw new ParserException("Invalid terminal in cpsCmd: " + context.getTerminal());
+        }
+    }
+
+    private AbstractTree.Cmd parseRepCpsCmd(Context context, int idendation) throws ParserException {
+        switch (context.getTerminal()) {
+            case SEMICOLON:
+                int count = 0;
+                while (context.getTerminal() == Terminal.SEMICOLON) {
+                    consumeTerminal(context, Terminal.SEMICOLON);
+                    parseCmd(context, idendation + count);
+                    count++;
+                }
+                return linkCmds(context, parseRepCpsCmd(context, idendation + count), count, idendation);
+            case ENDWHILE:
+            case ENDSWITCH:
+            case DEFAULT:
+            case CASE:
+            case ENDIF:
+            case ELSE:
+            case ELSEIF:
+            case ENDPROC:
+            case ENDFUN:
+            case ENDPROGRAM:
+                return null;
+            default:
+                throw new ParserException("Invalid terminal in repCpsCmd: " + context.getTerminal());
+        }
+    }
+
+    private AbstractTree.Cmd linkCmds(Context context, AbstractTree.Cmd cmd, int count, int idendation) {
+        for (int i = count - 1; i >= 0; i--) {
+            cmd = popCmd(context, cmd, idendation + i);
+        }
+        return cmd;
+    }
+
+    private AbstractTree.GlobalInit parseOptGlobInits(Context context, int idendation) throws ParserException {
+        switch (context.getTerminal()) {
+            case INIT:
+                consumeTerminal(context, Terminal.INIT);
+                Tokens.IdentifierToken identifier = (Tokens.IdentifierToken) consumeTerminal(context, Terminal.IDENT);
+                return new AbstractTree.GlobalInit(identifier, parseRepIdents(context, idendation + 1), idendation);
+            case ENDWHILE:
+            case ENDSWITCH:
+            case DEFAULT:
+            case CASE:
+            case ENDIF:
+            case ELSE:
+            case ELSEIF:
+            case ENDPROC:
+            case ENDFUN:
+            case ENDPROGRAM:
+            case SEMICOLON:
+                return null;
+            default:
+                throw new ParserException("Invalid terminal in optGlobInits: " + context.getTerminal());
+        }
+    }
+
+    private AbstractTree.GlobalInit parseRepIdents(Context context, int idendation) throws ParserException {
+        switch (context.getTerminal()) {
+            case COMMA:
+                int count = 0;
+                while (context.getTerminal() == Terminal.COMMA) {
+                    consumeTerminal(context, Terminal.COMMA);
+                    context.pushItem(consumeTerminal(context, Terminal.IDENT));
+                    count++;
+                }
+                return linkRepIdents(context, parseRepIdents(context, idendation + count), count, idendation);
+            case ENDWHILE:
+            case ENDSWITCH:
+            case DEFAULT:
+            case CASE:
+            case ENDIF:
+            case ELSE:
+            case ELSEIF:
+            case ENDPROC:
+            case ENDFUN:
+            case ENDPROGRAM:
+            case SEMICOLON:
+                return null;
+            default:
+                throw new ParserException("Invalid terminal in repIdents: " + context.getTerminal());
+        }
+    }
+
+    private AbstractTree.GlobalInit linkRepIdents(Context context, AbstractTree.GlobalInit globalinit, int count, int idendation) {
+        for (int i = count - 1; i >= 0; i--) {
+            Tokens.IdentifierToken identifier = context.popItem();
+            globalinit = new AbstractTree.GlobalInit(identifier, globalinit, idendation + i);
+        }
+        return globalinit;
+    }
+
+    private AbstractTree.Expression parseExpr(Context context, int idendation) throws ParserException {
+        switch (context.getTerminal()) {
+            case LPAREN:
+            case ADDOPR:
+            case NOT:
+            case IDENT:
+            case LITERAL:
+                AbstractTree.Expression expression = parseTerm1(context, idendation);
+                return parseRepTerm1(context, expression, idendation);
+            default:
+                throw new ParserException("Invalid terminal in expr: " + context.getTerminal());
+        }
+    }
+
+    private AbstractTree.Expression parseRepTerm1(Context context, AbstractTree.Expression expression, int idendation) throws ParserException {
+        switch (context.getTerminal()) {
+            case BOOLOPR:
+                // The operators fold to the left on the way down, like the concrete repetitions do in toAbstract
+                while (context.getTerminal() == Terminal.BOOLOPR) {
+                    Tokens.BoolOprToken boolopr = (Tokens.BoolOprToken) consumeTerminal(context, Terminal.BOOLOPR);
+                    AbstractTree.Expression term1 = parseTerm1(context, idendation + 1);
+                    expression = new AbstractTree.DyadicExpr(boolopr, expression, term1, idendation);
+                    idendation++;
+                }
+                return parseRepTerm1(context, expression, idendation);
+            case RPAREN:
+            case DO:
+            case THEN:
+            case ENDWHILE:
+            case ENDSWITCH:
+            case DEFAULT:
+            case CASE:
+            case ENDIF:
+            case ELSE:
+            case ELSEIF:
+            case ENDPROC:
+            case ENDFUN:
+            case ENDPROGRAM:
+            case SEMICOLON:
+            case BECOMES:
+            case COMMA:
+                return expression;
+            default:
+                throw new ParserException("Invalid terminal in repTerm2: " + context.getTerminal());
+        }
+    }
+
+    private AbstractTree.Expression parseTerm1(Context context, int idendation) throws ParserException {
+        switch (context.getTerminal()) {
+            case LPAREN:
+            case ADDOPR:
+            case NOT:
+            case IDENT:
+            case LITERAL:
+                AbstractTree.Expression expression = parseTerm2(context, idendation);
+                return parseRepTerm2(context, expression, idendation);
+            default:
+                throw new ParserException("Invalid terminal in term1: " + context.getTerminal());
+        }
+    }
+
+    private AbstractTree.Expression parseRepTerm2(Context context, AbstractTree.Expression expression, int idendation) throws ParserException {
+        switch (context.getTerminal()) {
+            case RELOPR:
+                while (context.getTerminal() == Terminal.RELOPR) {
+                    Tokens.RelOprToken relopr = (Tokens.RelOprToken) consumeTerminal(context, Terminal.RELOPR);
+                    AbstractTree.Expression term2 = parseTerm2(context, idendation + 1);
+                    expression = new AbstractTree.DyadicExpr(relopr, expression, term2, idendation + 1);
+                }
+                return parseRepTerm2(context, expression, idendation);
+            case RPAREN:
+            case DO:
+            case THEN:
+            case ENDWHILE:
+            case ENDSWITCH:
+            case DEFAULT:
+            case CASE:
+            case ENDIF:
+            case ELSE:
+            case ELSEIF:
+            case ENDPROC:
+            case ENDFUN:
+            case ENDPROGRAM:
+            case SEMICOLON:
+            case BECOMES:
+            case COMMA:
+            case BOOLOPR:
+                return expression;
+            default:
+                throw new ParserException("Invalid terminal in repTerm2: " + context.getTerminal());
+        }
+    }
+
+    private AbstractTree.Expression parseTerm2(Context context, int idendation) throws ParserException {
+        switch (context.getTerminal()) {
+            case LPAREN:
+            case ADDOPR:
+            case NOT:
+            case IDENT:
+            case LITERAL:
+                AbstractTree.Expression expression = parseTerm3(context, idendation);
+                return parseRepTerm3(context, expression, idendation);
+            default:
+                throw new ParserException("Invalid terminal in term2: " + context.getTerminal());
+        }
+    }
+
+    private AbstractTree.Expression parseRepTerm3(Context context, AbstractTree.Expression expression, int idendation) throws ParserException {
+        switch (context.getTerminal()) {
+            case ADDOPR:
+                while (context.getTerminal() == Terminal.ADDOPR) {
+                    Tokens.AddOprToken addopr = (Tokens.AddOprToken) consumeTerminal(context, Terminal.ADDOPR);
+                    AbstractTree.Expression term3 = parseTerm3(context, idendation + 1);
+                    expression = new AbstractTree.DyadicExpr(addopr, expression, term3, idendation);
+                }
+                return parseRepTerm3(context, expression, idendation);
+            case RPAREN:
+            case DO:
+            case THEN:
+            case ENDWHILE:
+            case ENDSWITCH:
+            case DEFAULT:
+            case CASE:
+            case ENDIF:
+            case ELSE:
+            case ELSEIF:
+            case ENDPROC:
+            case ENDFUN:
+            case ENDPROGRAM:
+            case SEMICOLON:
+            case BECOMES:
+            case COMMA:
+            case BOOLOPR:
+            case RELOPR:
+                return expression;
+            default:
+                throw new ParserException("Invalid terminal in repTerm3: " + context.getTerminal());
+        }
+    }
+
+    private AbstractTree.Expression parseTerm3(Context context, int idendation) throws ParserException {
+        switch (context.getTerminal()) {
+            case LPAREN:
+            case ADDOPR:
+            case NOT:
+            case IDENT:
+            case LITERAL:
+                AbstractTree.Expression expression = parseFactor(context, idendation + 1);
+                return parseRepFactor(context, expression, idendation);
+            default:
+                throw new ParserException("Invalid terminal in term3: " + context.getTerminal());
+        }
+    }
+
+    private AbstractTree.Expression parseRepFactor(Context context, AbstractTree.Expression expression, int idendation) throws ParserException {
+        switch (context.getTerminal()) {
+            case MULTOPR:
+                while (context.getTerminal() == Terminal.MULTOPR) {
+                    Tokens.MultOprToken multopr = (Tokens.MultOprToken) consumeTerminal(context, Terminal.MULTOPR);
+                    AbstractTree.Expression factor = parseFactor(context, idendation + 1);
+                    expression = new AbstractTree.DyadicExpr(multopr, expression, factor, idendation + 1);
+                }
+                return parseRepFactor(context, expression, idendation);
+            case RPAREN:
+            case DO:
+            case THEN:
+            case ENDWHILE:
+            case ENDSWITCH:
+            case DEFAULT:
+            case CASE:
+            case ENDIF:
+            case ELSE:
+            case ELSEIF:
+            case ENDPROC:
+            case ENDFUN:
+            case ENDPROGRAM:
+            case SEMICOLON:
+            case BECOMES:
+            case COMMA:
+            case BOOLOPR:
+            case RELOPR:
+            case ADDOPR:
+                return expression;
+            default:
+                throw new ParserException("Invalid terminal in repFactor: " + context.getTerminal());
+        }
+    }
+
+    private AbstractTree.Expression parseFactor(Context context, int idendation) throws ParserException {
+        switch (context.getTerminal()) {
+            case LITERAL:
+                Tokens.LiteralToken literal = (Tokens.LiteralToken) consumeTerminal(context, Terminal.LITERAL);
+                return new AbstractTree.LiteralExpr(literal, idendation);
+            case IDENT:
+                Tokens.IdentifierToken identifier = (Tokens.IdentifierToken) consumeTerminal(context, Terminal.IDENT);
+                return parseOptInitOrExprList(context, identifier, idendation);
+            case ADDOPR:
+            case NOT:
+                Tokens.OperationToken operation = parseMonadicOpr(context);
+                AbstractTree.Expression factor = parseFactor(context, idendation + 1);
+                return new AbstractTree.MonadicExpr(operation, factor, idendation);
+            case LPAREN:
+                consumeTerminal(context, Terminal.LPAREN);
+                AbstractTree.Expression expression = parseExpr(context, idendation);
+                consumeTerminal(context, Terminal.RPAREN);
+                return expression;
+            default:
+                throw new ParserException("Invalid terminal in factor: " + context.getTerminal());
+        }
+    }
+
+    private AbstractTree.Expression parseOptInitOrExprList(Context context, Tokens.IdentifierToken identifier, int idendation) throws ParserException {
+        switch (context.getTerminal()) {
+            case INIT:
+                consumeTerminal(context, Terminal.INIT);
+                return new AbstractTree.StoreExpr(identifier, true, idendation);
+            case LPAREN:
+                AbstractTree.ExpressionList expressionlist = parseExprList(context, idendation + 1);
+                return new AbstractTree.FunCallExpr(new AbstractTree.RoutineCall(identifier, expressionlist, idendation), idendation);
+            case RPAREN:
+            case DO:
+            case THEN:
+            case ENDWHILE:
+            case ENDSWITCH:
+            case DEFAULT:
+            case CASE:
+            case ENDIF:
+            case ELSE:
+            case ELSEIF:
+            case ENDPROC:
+            case ENDFUN:
+            case ENDPROGRAM:
+            case SEMICOLON:
+            case BECOMES:
+            case COMMA:
+            case BOOLOPR:
+            case RELOPR:
+            case ADDOPR:
+            case MULTOPR:
+                return new AbstractTree.StoreExpr(identifier, false, idendation);
+            default:
+                throw new ParserException("Invalid terminal in optInitOrExprList: " + context.getTerminal());
+        }
+    }
+
+    private Tokens.OperationToken parseMonadicOpr(Context context) throws ParserException {
+        switch (context.getTerminal()) {
+            case NOT:
+                // FIXME: Fix known errata
+                return (Tokens.BoolOprToken) consumeTerminal(context, Terminal.NOT);
+            case ADDOPR:
+                return (Tokens.AddOprToken) consumeTerminal(context, Terminal.ADDOPR);
+            default:
+                throw new ParserException("Invalid terminal in monadicOpr: " + context.getTerminal());
+        }
+    }
+
+    private AbstractTree.ExpressionList parseExprList(Context context, int idendation) throws ParserException {
+        switch (context.getTerminal()) {
+            case LPAREN:
+                consumeTerminal(context, Terminal.LPAREN);
+                AbstractTree.ExpressionList expressionlist = parseOptExprList(context, idendation);
+                consumeTerminal(context, Terminal.RPAREN);
+                return expressionlist;
+            default:
+                throw new ParserException("Invalid terminal in exprList: " + context.getTerminal());
+        }
+    }
+
+    private AbstractTree.ExpressionList parseOptExprList(Context context, int idendation) throws ParserException {
+        switch (context.getTerminal()) {
+            case LPAREN:
+            case ADDOPR:
+            case NOT:
+            case IDENT:
+            case LITERAL:
+                AbstractTree.Expression expression = parseExpr(context, idendation);
+                return new AbstractTree.ExpressionList(expression, parseRepExprList(context, idendation), idendation);
+            case RPAREN:
+                return null;
+            default:
+                throw new ParserException("Invalid terminal in optExprList: " + context.getTerminal());
+        }
+    }
+
+    private AbstractTree.ExpressionList parseRepExprList(Context context, int idendation) throws ParserException {
+        switch (context.getTerminal()) {
+            case COMMA:
+                int count = 0;
+                while (context.getTerminal() == Terminal.COMMA) {
+                    consumeTerminal(context, Terminal.COMMA);
+                    context.pushItem(parseExpr(context, idendation + count + 1));
+                    count++;
+                }
+                return linkRepExprList(context, parseRepExprList(context, idendation + count), count, idendation);
+            case RPAREN:
+            case ENDWHILE:
+            case ENDSWITCH:
+            case DEFAULT:
+            case CASE:
+            case ENDIF:
+            case ELSE:
+            case ELSEIF:
+            case ENDPROC:
+            case ENDFUN:
+            case ENDPROGRAM:
+            case SEMICOLON:
+            case BECOMES:
+                return null;
+            default:
+                throw new ParserException("Invalid terminal in repExprList: " + context.getTerminal());
+        }
+    }
+
+    private AbstractTree.ExpressionList linkRepExprList(Context context, AbstractTree.ExpressionList expressionlist, int count, int idendation) {
+        for (int i = count - 1; i >= 0; i--) {
+            AbstractTree.Expression expression = context.popItem();
+            expressionlist = new AbstractTree.ExpressionList(expression, expressionlist, idendation + i);
+        }
+        return expressionlist;
+    }
+
+    private AbstractTree.RepCaseCmd parseRepCase(Context context, int idendation) throws ParserException {
+        switch (context.getTerminal()) {
+            case CASE:
+                int count = 0;
+                while (context.getTerminal() == Terminal.CASE) {
+                    consumeTerminal(context, Terminal.CASE);
+                    context.pushItem(consumeTerminal(context, Terminal.LITERAL));
+                    consumeTerminal(context, Terminal.THEN);
+                    context.pushItem(parseCpsCmd(context, idendation + count + 1));
+                    count++;
+                }
+                return linkRepCase(context, parseRepCase(context, idendation + count), count, idendation);
+            case ENDSWITCH:
+            case DEFAULT:
+                return null;
+            default:
+                throw new ParserException("Invalid terminal in repCase: " + context.getTerminal());
+        }
+    }
+
+    private AbstractTree.RepCaseCmd linkRepCase(Context context, AbstractTree.RepCaseCmd repcasecmd, int count, int idendation) {
+        for (int i = count - 1; i >= 0; i--) {
+            AbstractTree.Cmd cmd = context.popItem();
+            Tokens.LiteralToken literal = context.popItem();
+            repcasecmd = new AbstractTree.RepCaseCmd(literal, cmd, repcasecmd, idendation + i);
+        }
+        return repcasecmd;
+    }
+
+    private AbstractTree.Cmd parseOptDefault(Context context, int idendation) throws ParserException {
+        switch (context.getTerminal()) {
+            case DEFAULT:
+                consumeTerminal(context, Terminal.DEFAULT);
+                consumeTerminal(context, Terminal.THEN);
+                return parseCpsCmd(context, idendation + 1);
+            case ENDSWITCH:
+                return null;
+            default:
+                throw new ParserException("Invalid terminal in optDefault: " + context.getTerminal());
+        }
+    }
+
+    private AbstractTree.Cmd parseOptElse(Context context, int idendation) throws ParserException {
+        switch (context.getTerminal()) {
+            case ELSE:
+                consumeTerminal(context, Terminal.ELSE);
+                return parseCpsCmd(context, idendation + 1);
+            case ENDIF:
+                return null;
+            default:
+                throw new ParserException("Invalid terminal in optElse: " + context.getTerminal());
+        }
+    }
+
+    private AbstractTree.RepCondCmd parseRepElseif(Context context, int idendation) throws ParserException {
+        switch (context.getTerminal()) {
+            case ELSEIF:
+                // All branches share one level, like the concrete repetition does in toAbstract
+                int count = 0;
+                while (context.getTerminal() == Terminal.ELSEIF) {
+                    consumeTerminal(context, Terminal.ELSEIF);
+                    context.pushItem(parseExpr(context, idendation));
+                    consumeTerminal(context, Terminal.THEN);
+                    context.pushItem(parseCpsCmd(context, idendation + 1));
+                    count++;
+                }
+                return linkRepElseif(context, parseRepElseif(context, idendation), count, idendation);
+            case ENDIF:
+            case ELSE:
+                return null;
+            default:
+                throw new ParserException("Invalid terminal in repElseif: " + context.getTerminal());
+        }
+    }
+
+    private AbstractTree.RepCondCmd linkRepElseif(Context context, AbstractTree.RepCondCmd repcondcmd, int count, int idendation) {
+        for (int i = 0; i < count; i++) {
+            AbstractTree.Cmd cmd = context.popItem();
+            AbstractTree.Expression expression = context.popItem();
+            repcondcmd = new AbstractTree.RepCondCmd(expression, cmd, repcondcmd, idendation);
+        }
+        return repcondcmd;
+    }
+}
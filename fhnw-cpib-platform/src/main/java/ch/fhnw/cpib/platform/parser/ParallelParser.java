@@ -0,0 +1,197 @@
+package ch.fhnw.cpib.platform.parser;
+
+import ch.fhnw.cpib.platform.parser.concretetree.ConcreteTree;
+import ch.fhnw.cpib.platform.parser.exception.ParserException;
+import ch.fhnw.cpib.platform.scanner.exception.ScannerException;
+import ch.fhnw.cpib.platform.scanner.tokens.Terminal;
+import ch.fhnw.cpib.platform.scanner.tokens.TokenList;
+import ch.fhnw.cpib.platform.scanner.tokens.TokenSource;
+import ch.fhnw.cpib.platform.scanner.tokens.Tokens;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+
+public class ParallelParser {
+
+    public static final int DEFAULT_CHUNK_SIZE = 16 * 1024;
+
+    private final Parser parser;
+
+    private final ForkJoinPool pool;
+
+    private final int chunksize;
+
+    public ParallelParser() {
+        this(ForkJoinPool.commonPool(), DEFAULT_CHUNK_SIZE);
+    }
+
+    public ParallelParser(ForkJoinPool pool, int chunksize) {
+        this.parser = new Parser();
+        this.pool = pool;
+        this.chunksize = chunksize;
+    }
+
+    public ConcreteTree.Program parseTokenList(TokenList tokenlist) throws ParserException {
+        // A program that fits into a single chunk isn't worth the hand over to the pool
+        if (tokenlist.getSize() < chunksize) {
+            return parser.parseTokenList(tokenlist);
+        }
+
+        // Find the spans of the global declarations, a program that doesn't look as expected is parsed sequentially
+        List<Integer> boundaries = findDeclarations(tokenlist);
+        if (boundaries == null) {
+            return parser.parseTokenList(tokenlist);
+        }
+
+        // Parse chunks of declarations on the pool, the parser is stateless and can be shared
+        int count = boundaries.size() - 1;
+        ConcreteTree.Decl[] decls = new ConcreteTree.Decl[count];
+        List<ForkJoinTask<Void>> tasks = new ArrayList<>();
+        int first = 0;
+        for (int i = 1; i <= count; i++) {
+            if (i == count || boundaries.get(i) - boundaries.get(first) >= chunksize) {
+                int from = first;
+                int to = i;
+                tasks.add(pool.submit(() -> parseDeclarations(tokenlist, boundaries, decls, from, to)));
+                first = i;
+            }
+        }
+
+        // Parse the program without its declarations in the meantime
+        ConcreteTree.Program program;
+        try {
+            program = parser.parseTokenSource(new TokenRange(tokenlist, 0, tokenlist.getSize() - 1, boundaries.get(0) - 1, boundaries.get(count) - 1));
+        } catch (ParserException | ScannerException exception) {
+            return parser.parseTokenList(tokenlist);
+        }
+
+        // Wait for the declarations, a broken one is parsed again sequentially to report the first error of the program
+        for (ForkJoinTask<Void> task : tasks) {
+            try {
+                task.get();
+            } catch (InterruptedException exception) {
+                Thread.currentThread().interrupt();
+                throw new ParserException("Interrupted while parsing", exception);
+            } catch (ExecutionException exception) {
+                if (exception.getCause() instanceof ParserException || exception.getCause() instanceof ScannerException) {
+                    return parser.parseTokenList(tokenlist);
+                }
+                throw new RuntimeException(exception.getCause());
+            }
+        }
+
+        // Stitch the declarations in source order, like parseRepCpsDecl links them
+        ConcreteTree.RepCpsDecl repcpsdecl = ConcreteTree.RepCpsDeclEpsilon.INSTANCE;
+        for (int i = count - 1; i >= 1; i--) {
+            repcpsdecl = new ConcreteTree.RepCpsDeclSemicolon(decls[i], repcpsdecl);
+        }
+        ConcreteTree.CpsDecl cpsdecl = new ConcreteTree.CpsDecl(decls[0], repcpsdecl);
+        return program.withOptCpsDecl(new ConcreteTree.OptCpsDeclGlobal(cpsdecl));
+    }
+
+    private Void parseDeclarations(TokenList tokenlist, List<Integer> boundaries, ConcreteTree.Decl[] decls, int from, int to) throws ParserException, ScannerException {
+        for (int i = from; i < to; i++) {
+            // The span ends in front of its separator
+            decls[i] = parser.parseDeclTokenSource(new TokenRange(tokenlist, boundaries.get(i), boundaries.get(i + 1) - 1, -1, -1));
+        }
+        return null;
+    }
+
+    private List<Integer> findDeclarations(TokenList tokenlist) {
+        // The program starts with its name and parameter list, which contain no nested parentheses
+        int size = tokenlist.getSize();
+        int index = 0;
+        if (size < 3 || getTerminal(tokenlist, 0) != Terminal.PROGRAM) {
+            return null;
+        }
+        while (index < size && getTerminal(tokenlist, index) != Terminal.RPAREN) {
+            index++;
+        }
+        index++;
+        if (index >= size || getTerminal(tokenlist, index) != Terminal.GLOBAL) {
+            return null;
+        }
+
+        // Collect the start of every declaration, followed by the index after the closing DO
+        List<Integer> boundaries = new ArrayList<>();
+        index++;
+        while (index < size) {
+            boundaries.add(index);
+            Terminal terminal = getTerminal(tokenlist, index);
+            if (terminal == Terminal.PROC || terminal == Terminal.FUN) {
+                // Routines don't nest, so the first end terminal closes the routine
+                Terminal endterminal = terminal == Terminal.PROC ? Terminal.ENDPROC : Terminal.ENDFUN;
+                index++;
+                while (index < size && getTerminal(tokenlist, index) != endterminal) {
+                    Terminal current = getTerminal(tokenlist, index);
+                    if (current == Terminal.PROC || current == Terminal.FUN || current == Terminal.ENDPROC || current == Terminal.ENDFUN || current == Terminal.ENDPROGRAM) {
+                        return null;
+                    }
+                    index++;
+                }
+                index++;
+            } else {
+                // A storage declaration ends in front of the next separator
+                while (index < size && getTerminal(tokenlist, index) != Terminal.SEMICOLON && getTerminal(tokenlist, index) != Terminal.DO) {
+                    index++;
+                }
+            }
+            if (index >= size) {
+                return null;
+            }
+            if (getTerminal(tokenlist, index) == Terminal.DO) {
+                boundaries.add(index + 1);
+                return boundaries;
+            }
+            if (getTerminal(tokenlist, index) != Terminal.SEMICOLON) {
+                return null;
+            }
+            index++;
+        }
+        return null;
+    }
+
+    private Terminal getTerminal(TokenList tokenlist, int index) {
+        return tokenlist.getToken(index).getTerminal();
+    }
+
+    private static class TokenRange implements TokenSource {
+
+        // Returns the tokens of a range without a gap, followed by the sentinel token at the end of the list
+        private final TokenList tokenlist;
+
+        private final int to;
+
+        private final int gapfrom;
+
+        private final int gapto;
+
+        private int index;
+
+        private TokenRange(TokenList tokenlist, int from, int to, int gapfrom, int gapto) {
+            this.tokenlist = tokenlist;
+            this.to = to;
+            this.gapfrom = gapfrom;
+            this.gapto = gapto;
+            this.index = from;
+        }
+
+        @Override
+        public Tokens.Token nextToken() {
+            if (index == gapfrom) {
+                index = gapto;
+            }
+            if (index < to) {
+                return tokenlist.getToken(index++);
+            }
+            if (index == to) {
+                index++;
+                return tokenlist.getToken(tokenlist.getSize() - 1);
+            }
+            return null;
+        }
+    }
+}
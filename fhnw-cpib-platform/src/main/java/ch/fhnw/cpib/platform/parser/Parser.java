@@ -3,29 +3,118 @@ package ch.fhnw.cpib.platform.parser;
 import ch.fhnw.cpib.platform.parser.concretetree.ConcreteTree;
 import ch.fhnw.cpib.platform.parser.concretetree.Context;
 import ch.fhnw.cpib.platform.parser.exception.ParserException;
+import ch.fhnw.cpib.platform.scanner.exception.ScannerException;
 import ch.fhnw.cpib.platform.scanner.tokens.Terminal;
 import ch.fhnw.cpib.platform.scanner.tokens.TokenList;
+import ch.fhnw.cpib.platform.scanner.tokens.TokenSource;
 import ch.fhnw.cpib.platform.scanner.tokens.Tokens;
+import org.javatuples.Pair;
+
+import java.util.Collections;
+import java.util.EnumSet;
+import java.util.List;
+import java.util.Set;
 
 public class Parser {
 
+    // Terminals that start an item of a semicolon separated list
+    private static final Set<Terminal> CMD_TERMINALS = EnumSet.of(Terminal.DEBUGOUT, Terminal.DEBUGIN, Terminal.CALL, Terminal.WHILE, Terminal.SWITCH, Terminal.IF, Terminal.LPAREN, Terminal.ADDOPR, Terminal.NOT, Terminal.IDENT, Terminal.LITERAL, Terminal.SKIP);
+
+    private static final Set<Terminal> DECL_TERMINALS = EnumSet.of(Terminal.PROC, Terminal.FUN, Terminal.CHANGEMODE, Terminal.IDENT);
+
+    private static final Set<Terminal> STODECL_TERMINALS = EnumSet.of(Terminal.CHANGEMODE, Terminal.IDENT);
+
+    // Terminals where the parsing of a list continues after an error, they are the separator and the follow terminals of the list
+    private static final Set<Terminal> CMD_SYNCHRONIZING_TERMINALS = EnumSet.of(Terminal.SEMICOLON, Terminal.ENDWHILE, Terminal.ENDSWITCH, Terminal.DEFAULT, Terminal.CASE, Terminal.ENDIF, Terminal.ELSE, Terminal.ELSEIF, Terminal.ENDPROC, Terminal.ENDFUN, Terminal.ENDPROGRAM);
+
+    private static final Set<Terminal> DECL_SYNCHRONIZING_TERMINALS = EnumSet.of(Terminal.SEMICOLON, Terminal.DO);
+
     public Parser() {
     }
 
     public ConcreteTree.Program parseTokenList(TokenList tokenlist) throws ParserException {
-        // Get the first token to start with
+        // A token list is already scanned, so it can't raise a scanner error
         tokenlist.resetCounter();
-        Tokens.Token token = tokenlist.nextToken();
+        try {
+            return parseTokenSource(tokenlist);
+        } catch (ScannerException exception) {
+            throw new ParserException(exception.getMessage(), exception);
+        }
+    }
+
+    public ConcreteTree.Program parseTokenSource(TokenSource tokensource) throws ParserException, ScannerException {
+        // Get the first token to start with
+        Tokens.Token token = tokensource.nextToken();
 
         // Initialize the context
-        Context context = new Context(tokenlist);
+        Context context = new Context(tokensource);
+        context.setToken(token);
+        context.setTerminal(token.getTerminal());
+
+        // Parse the beginning and unwrap scanner errors of a lazy token source
+        try {
+            ConcreteTree.Program program = parseProgram(context);
+            consumeTerminal(context, Terminal.SENTINEL);
+            return program;
+        } catch (ParserException exception) {
+            if (exception.getCause() instanceof ScannerException) {
+                throw (ScannerException) exception.getCause();
+            }
+            throw exception;
+        }
+    }
+
+    public Pair<ConcreteTree.Program, List<ParserException>> recoverTokenList(TokenList tokenlist) {
+        // A token list is already scanned, so it can't raise a scanner error
+        tokenlist.resetCounter();
+        try {
+            return recoverTokenSource(tokenlist);
+        } catch (ScannerException exception) {
+            return new Pair<>(null, Collections.singletonList(new ParserException(exception.getMessage(), exception)));
+        }
+    }
+
+    public Pair<ConcreteTree.Program, List<ParserException>> recoverTokenSource(TokenSource tokensource) throws ScannerException {
+        // Get the first token to start with
+        Tokens.Token token = tokensource.nextToken();
+
+        // Initialize a context that collects the errors instead of stopping at the first one
+        Context context = new Context(tokensource, true);
         context.setToken(token);
         context.setTerminal(token.getTerminal());
 
-        // Parse the beginning
-        ConcreteTree.Program program = parseProgram(context);
-        consumeTerminal(context, Terminal.SENTINEL);
-        return program;
+        // Parse the beginning, an error that can't be recovered ends the parsing
+        ConcreteTree.Program program = null;
+        try {
+            program = parseProgram(context);
+            consumeTerminal(context, Terminal.SENTINEL);
+        } catch (ParserException exception) {
+            if (exception.getCause() instanceof ScannerException) {
+                throw (ScannerException) exception.getCause();
+            }
+            context.addError(exception);
+        }
+
+        // The tree of a broken program is incomplete, so it is only returned without errors
+        return new Pair<>(context.getErrors().isEmpty() ? program : null, context.getErrors());
+    }
+
+    public ConcreteTree.Decl parseDeclTokenSource(TokenSource tokensource) throws ParserException, ScannerException {
+        // Parse a single declaration that was split off a program, the token source ends with the sentinel token
+        Tokens.Token token = tokensource.nextToken();
+        Context context = new Context(tokensource);
+        context.setToken(token);
+        context.setTerminal(token.getTerminal());
+        try {
+            ConcreteTree.Decl decl = parseDecl(context);
+            consumeTerminal(context, Terminal.SENTINEL);
+            return decl;
+        } catch (ParserException exception) {
+            if (exception.getCause() instanceof ScannerException) {
+                throw (ScannerException) exception.getCause();
+            }
+            throw exception;
+        }
     }
 
     private Tokens.Token consumeTerminal(Context context, Terminal expectedterminal) throws ParserException {
@@ -33,7 +122,7 @@ public class Parser {
             //System.out.println("Consume: " + expectedterminal);
             Tokens.Token consumedtoken = context.getToken();
             if (context.getTerminal() != Terminal.SENTINEL) {
-                Tokens.Token token = context.getTokenList().nextToken();
+                Tokens.Token token = nextToken(context);
                 context.setToken(token);
                 context.setTerminal(token.getTerminal());
             }
@@ -43,451 +132,621 @@ public class Parser {
         }
     }
 
+    private Tokens.Token nextToken(Context context) throws ParserException {
+        if (context.hasPendingToken()) {
+            return context.takePendingToken();
+        }
+        try {
+            return context.getTokenSource().nextToken();
+        } catch (ScannerException exception) {
+            throw new ParserException(exception.getMessage(), exception);
+        }
+    }
+
+    private ConcreteTree.Cmd recoverCmd(Context context) throws ParserException {
+        // Report a broken command and skip it, so the following commands are still parsed
+        Terminal terminal = context.getTerminal();
+        int itemcount = context.getItemCount();
+        try {
+            return parseCmd(context);
+        } catch (ParserException exception) {
+            context.dropItems(itemcount);
+            boolean block = terminal == Terminal.WHILE || terminal == Terminal.IF || terminal == Terminal.SWITCH;
+            recoverError(context, exception, CMD_SYNCHRONIZING_TERMINALS, block ? 1 : 0);
+            return null;
+        }
+    }
+
+    private ConcreteTree.Decl recoverDecl(Context context) throws ParserException {
+        // Report a broken declaration and skip it, so the following declarations are still parsed
+        Terminal terminal = context.getTerminal();
+        int itemcount = context.getItemCount();
+        try {
+            return parseDecl(context);
+        } catch (ParserException exception) {
+            context.dropItems(itemcount);
+            boolean block = terminal == Terminal.PROC || terminal == Terminal.FUN;
+            recoverError(context, exception, DECL_SYNCHRONIZING_TERMINALS, block ? 1 : 0);
+            return null;
+        }
+    }
+
+    private ConcreteTree.StoDecl recoverStoDecl(Context context) throws ParserException {
+        // Report a broken storage declaration and skip it, so the following declarations are still parsed
+        int itemcount = context.getItemCount();
+        try {
+            return parseStoDecl(context);
+        } catch (ParserException exception) {
+            context.dropItems(itemcount);
+            recoverError(context, exception, DECL_SYNCHRONIZING_TERMINALS, 0);
+            return null;
+        }
+    }
+
+    private boolean recoverSeparator(Context context, Set<Terminal> itemterminals, Set<Terminal> synchronizingterminals, String message) throws ParserException {
+        // A missing semicolon in front of the next item is inserted, any other terminal is skipped up to the next semicolon or the end of the list
+        if (context.getTerminal() == Terminal.SENTINEL) {
+            return false;
+        }
+        if (itemterminals.contains(context.getTerminal())) {
+            context.addError(new ParserException("Parser expected the terminal " + Terminal.SEMICOLON + ", but found the terminal " + context.getTerminal()));
+            context.insertToken(new Tokens.Token(Terminal.SEMICOLON));
+            return true;
+        }
+        recoverError(context, new ParserException(message), synchronizingterminals, 0);
+        return context.getTerminal() != Terminal.SENTINEL;
+    }
+
+    private void recoverError(Context context, ParserException exception, Set<Terminal> synchronizingterminals, int depth) throws ParserException {
+        // A scanner error can't be recovered
+        if (exception.getCause() instanceof ScannerException) {
+            throw exception;
+        }
+        context.addError(exception);
+
+        // Skip the tokens up to a synchronizing terminal, nested blocks are skipped as a whole
+        while (context.getTerminal() != Terminal.SENTINEL) {
+            Terminal terminal = context.getTerminal();
+            switch (terminal) {
+                case WHILE:
+                case IF:
+                case SWITCH:
+                case PROC:
+                case FUN:
+                    depth++;
+                    break;
+                case ENDWHILE:
+                case ENDIF:
+                case ENDSWITCH:
+                case ENDPROC:
+                case ENDFUN:
+                    if (depth == 0) {
+                        if (synchronizingterminals.contains(terminal)) {
+                            return;
+                        }
+                    } else if (--depth == 0) {
+                        consumeTerminal(context, terminal);
+                        return;
+                    }
+                    break;
+                default:
+                    if (depth == 0 && synchronizingterminals.contains(terminal)) {
+                        return;
+                    }
+            }
+            consumeTerminal(context, terminal);
+        }
+    }
+
     private ConcreteTree.Program parseProgram(Context context) throws ParserException {
-        //System.out.println(context.getTokenList());
+        //System.out.println(context.getTokenSource());
         switch (context.getTerminal()) {
             case PROGRAM:
                 consumeTerminal(context, Terminal.PROGRAM);
                 Tokens.IdentifierToken identifier = (Tokens.IdentifierToken) consumeTerminal(context, Terminal.IDENT);
-                ConcreteTree.ProgParamList progparamlist = parseProgParamList(context, 1);
-                ConcreteTree.OptCpsDecl optcpsdecl = parseOptCpsDecl(context, 1);
+                ConcreteTree.ProgParamList progparamlist = parseProgParamList(context);
+                ConcreteTree.OptCpsDecl optcpsdecl = parseOptCpsDecl(context);
                 consumeTerminal(context, Terminal.DO);
-                ConcreteTree.CpsCmd cpscmd = parseCpsCmd(context, 1);
+                ConcreteTree.CpsCmd cpscmd = parseCpsCmd(context);
                 consumeTerminal(context, Terminal.ENDPROGRAM);
-                return new ConcreteTree.Program(identifier, progparamlist, optcpsdecl, cpscmd, 0);
+                return new ConcreteTree.Program(identifier, progparamlist, optcpsdecl, cpscmd);
             default:
                 throw new ParserException("Invalid terminal in program: " + context.getTerminal());
         }
     }
 
-    private ConcreteTree.Decl parseDecl(Context context, int idendation) throws ParserException {
+    private ConcreteTree.Decl parseDecl(Context context) throws ParserException {
         switch (context.getTerminal()) {
             case CHANGEMODE:
             case IDENT:
-                ConcreteTree.StoDecl stodecl = parseStoDecl(context, idendation + 1);
-                return new ConcreteTree.DeclSto(stodecl, idendation);
+                ConcreteTree.StoDecl stodecl = parseStoDecl(context);
+                return new ConcreteTree.DeclSto(stodecl);
             case FUN:
-                ConcreteTree.FunDecl fundecl = parseFunDecl(context, idendation + 1);
-                return new ConcreteTree.DeclFun(fundecl, idendation);
+                ConcreteTree.FunDecl fundecl = parseFunDecl(context);
+                return new ConcreteTree.DeclFun(fundecl);
             case PROC:
-                ConcreteTree.ProcDecl procdecl = parseProcDecl(context, idendation + 1);
-                return new ConcreteTree.DeclProc(procdecl, idendation);
+                ConcreteTree.ProcDecl procdecl = parseProcDecl(context);
+                return new ConcreteTree.DeclProc(procdecl);
             default:
                 throw new ParserException("Invalid terminal in decl: " + context.getTerminal());
         }
     }
 
-    private ConcreteTree.StoDecl parseStoDecl(Context context, int idendation) throws ParserException {
+    private ConcreteTree.StoDecl parseStoDecl(Context context) throws ParserException {
         switch (context.getTerminal()) {
             case IDENT:
-                ConcreteTree.TypedIdent typedident1 = parseTypedIdent(context, idendation + 1);
-                return new ConcreteTree.StoDeclIdent(typedident1, idendation);
+                ConcreteTree.TypedIdent typedident1 = parseTypedIdent(context);
+                return new ConcreteTree.StoDeclIdent(typedident1);
             case CHANGEMODE:
                 Tokens.ChangeModeToken changemode1 = (Tokens.ChangeModeToken) consumeTerminal(context, Terminal.CHANGEMODE);
-                ConcreteTree.TypedIdent typedident2 = parseTypedIdent(context, idendation + 1);
-                return new ConcreteTree.StoDeclChangemode(changemode1, typedident2, idendation);
+                ConcreteTree.TypedIdent typedident2 = parseTypedIdent(context);
+                return new ConcreteTree.StoDeclChangemode(changemode1, typedident2);
             default:
                 throw new ParserException("Invalid terminal in stoDecl: " + context.getTerminal());
         }
     }
 
-    private ConcreteTree.FunDecl parseFunDecl(Context context, int idendation) throws ParserException {
+    private ConcreteTree.FunDecl parseFunDecl(Context context) throws ParserException {
         switch (context.getTerminal()) {
             case FUN:
                 consumeTerminal(context, Terminal.FUN);
                 Tokens.IdentifierToken identifier = (Tokens.IdentifierToken) consumeTerminal(context, Terminal.IDENT);
-                ConcreteTree.ParamList paramlist = parseParamList(context, idendation + 1);
+                ConcreteTree.ParamList paramlist = parseParamList(context);
                 consumeTerminal(context, Terminal.RETURNS);
-                ConcreteTree.StoDecl stodecl = parseStoDecl(context, idendation + 1);
-                ConcreteTree.OptGlobImps optglobimps = parseOptGlobImps(context, idendation + 1);
-                ConcreteTree.OptCpsStoDecl optcpsstodecl = parseOptCpsStoDecl(context, idendation + 1);
+                ConcreteTree.StoDecl stodecl = parseStoDecl(context);
+                ConcreteTree.OptGlobImps optglobimps = parseOptGlobImps(context);
+                ConcreteTree.OptCpsStoDecl optcpsstodecl = parseOptCpsStoDecl(context);
                 consumeTerminal(context, Terminal.DO);
-                ConcreteTree.CpsCmd cpscmd = parseCpsCmd(context, idendation + 1);
+                ConcreteTree.CpsCmd cpscmd = parseCpsCmd(context);
                 consumeTerminal(context, Terminal.ENDFUN);
-                return new ConcreteTree.FunDecl(identifier, paramlist, stodecl, optglobimps, optcpsstodecl, cpscmd, idendation);
+                return new ConcreteTree.FunDecl(identifier, paramlist, stodecl, optglobimps, optcpsstodecl, cpscmd);
             default:
                 throw new ParserException("Invalid terminal in funDecl: " + context.getTerminal());
         }
     }
 
-    private ConcreteTree.ProcDecl parseProcDecl(Context context, int idendation) throws ParserException {
+    private ConcreteTree.ProcDecl parseProcDecl(Context context) throws ParserException {
         switch (context.getTerminal()) {
             case PROC:
                 consumeTerminal(context, Terminal.PROC);
                 Tokens.IdentifierToken identifier = (Tokens.IdentifierToken) consumeTerminal(context, Terminal.IDENT);
-                ConcreteTree.ParamList paramlist = parseParamList(context, idendation + 1);
-                ConcreteTree.OptGlobImps optglobimps = parseOptGlobImps(context, idendation + 1);
-                ConcreteTree.OptCpsStoDecl optcpsstodecl = parseOptCpsStoDecl(context, idendation + 1);
+                ConcreteTree.ParamList paramlist = parseParamList(context);
+                ConcreteTree.OptGlobImps optglobimps = parseOptGlobImps(context);
+                ConcreteTree.OptCpsStoDecl optcpsstodecl = parseOptCpsStoDecl(context);
                 consumeTerminal(context, Terminal.DO);
-                ConcreteTree.CpsCmd cpscmd = parseCpsCmd(context, idendation + 1);
+                ConcreteTree.CpsCmd cpscmd = parseCpsCmd(context);
                 consumeTerminal(context, Terminal.ENDPROC);
-                return new ConcreteTree.ProcDecl(identifier, paramlist, optglobimps, optcpsstodecl, cpscmd, idendation);
+                return new ConcreteTree.ProcDecl(identifier, paramlist, optglobimps, optcpsstodecl, cpscmd);
             default:
                 throw new ParserException("Invalid terminal in procDecl: " + context.getTerminal());
 
         }
     }
 
-    private ConcreteTree.OptGlobImps parseOptGlobImps(Context context, int idendation) throws ParserException {
+    private ConcreteTree.OptGlobImps parseOptGlobImps(Context context) throws ParserException {
         switch (context.getTerminal()) {
             case GLOBAL:
                 consumeTerminal(context, Terminal.GLOBAL);
-                ConcreteTree.GlobImps globimps = parseGlobImps(context, idendation + 1);
-                return new ConcreteTree.OptGlobImpsGlobal(globimps, idendation);
+                ConcreteTree.GlobImps globimps = parseGlobImps(context);
+                return new ConcreteTree.OptGlobImpsGlobal(globimps);
             case DO:
             case LOCAL:
-                return new ConcreteTree.OptGlobImpsEpsilon(idendation);
+                return ConcreteTree.OptGlobImpsEpsilon.INSTANCE;
             default:
                 throw new ParserException("Invalid terminal in optGlobImps: " + context.getTerminal());
         }
     }
 
-    private ConcreteTree.GlobImps parseGlobImps(Context context, int idendation) throws ParserException {
+    private ConcreteTree.GlobImps parseGlobImps(Context context) throws ParserException {
         switch (context.getTerminal()) {
             case FLOWMODE:
             case IDENT:
             case CHANGEMODE:
-                ConcreteTree.GlobImp globimp = parseGlobImp(context, idendation + 1);
-                ConcreteTree.RepGlobImps repglobimps = parseRepGlobImps(context, idendation + 1);
-                return new ConcreteTree.GlobImps(globimp, repglobimps, idendation);
+                ConcreteTree.GlobImp globimp = parseGlobImp(context);
+                ConcreteTree.RepGlobImps repglobimps = parseRepGlobImps(context);
+                return new ConcreteTree.GlobImps(globimp, repglobimps);
             default:
                 throw new ParserException("Invalid terminal in globImps: " + context.getTerminal());
         }
     }
 
-    private ConcreteTree.RepGlobImps parseRepGlobImps(Context context, int idendation) throws ParserException {
+    private ConcreteTree.RepGlobImps parseRepGlobImps(Context context) throws ParserException {
         switch (context.getTerminal()) {
             case COMMA:
-                consumeTerminal(context, Terminal.COMMA);
-                ConcreteTree.GlobImp globimp = parseGlobImp(context, idendation + 1);
-                ConcreteTree.RepGlobImps repglobimps = parseRepGlobImps(context, idendation + 1);
-                return new ConcreteTree.RepGlobImpsComma(globimp, repglobimps, idendation);
+                // Push the repeated items on the work stack and link them from the end, so the stack depth does not grow with the list length
+                int count = 0;
+                while (context.getTerminal() == Terminal.COMMA) {
+                    consumeTerminal(context, Terminal.COMMA);
+                    context.pushItem(parseGlobImp(context));
+                    count++;
+                }
+                return linkRepGlobImps(context, parseRepGlobImps(context), count);
             case DO:
             case LOCAL:
-                return new ConcreteTree.RepGlobImpsEpsilon(idendation);
+                return ConcreteTree.RepGlobImpsEpsilon.INSTANCE;
             default:
                 throw new ParserException("Invalid terminal in repGlobImps: " + context.getTerminal());
         }
     }
 
-    private ConcreteTree.OptChangemode parseOptChangemode(Context context, int idendation) throws ParserException {
+    private ConcreteTree.RepGlobImps linkRepGlobImps(Context context, ConcreteTree.RepGlobImps repglobimps, int count) {
+        for (int i = count - 1; i >= 0; i--) {
+            ConcreteTree.GlobImp globimp = context.popItem();
+            repglobimps = new ConcreteTree.RepGlobImpsComma(globimp, repglobimps);
+        }
+        return repglobimps;
+    }
+
+    private ConcreteTree.OptChangemode parseOptChangemode(Context context) throws ParserException {
         switch (context.getTerminal()) {
             case CHANGEMODE:
                 Tokens.ChangeModeToken changemode = (Tokens.ChangeModeToken) consumeTerminal(context, Terminal.CHANGEMODE);
-                return new ConcreteTree.OptChangemodeChangemode(changemode, idendation);
+                return new ConcreteTree.OptChangemodeChangemode(changemode);
             case IDENT:
-                return new ConcreteTree.OptChangemodeEpsilon(idendation);
+                return ConcreteTree.OptChangemodeEpsilon.INSTANCE;
             default:
                 throw new ParserException("Invalid terminal in optChangemode: " + context.getTerminal());
         }
     }
 
-    private ConcreteTree.OptMechmode parseOptMechmode(Context context, int idendation) throws ParserException {
+    private ConcreteTree.OptMechmode parseOptMechmode(Context context) throws ParserException {
         switch (context.getTerminal()) {
             case MECHMODE:
                 Tokens.MechModeToken mechmode = (Tokens.MechModeToken) consumeTerminal(context, Terminal.MECHMODE);
-                return new ConcreteTree.OptMechmodeMechmode(mechmode, idendation);
+                return new ConcreteTree.OptMechmodeMechmode(mechmode);
             case IDENT:
             case CHANGEMODE:
-                return new ConcreteTree.OptMechmodeEpsilon(idendation);
+                return ConcreteTree.OptMechmodeEpsilon.INSTANCE;
             default:
                 throw new ParserException("Invalid terminal in optMechmode: " + context.getTerminal());
         }
     }
 
-    private ConcreteTree.GlobImp parseGlobImp(Context context, int idendation) throws ParserException {
+    private ConcreteTree.GlobImp parseGlobImp(Context context) throws ParserException {
         switch (context.getTerminal()) {
             case IDENT:
             case CHANGEMODE:
-                ConcreteTree.OptChangemode optchangemode1 = parseOptChangemode(context, idendation + 1);
+                ConcreteTree.OptChangemode optchangemode1 = parseOptChangemode(context);
                 Tokens.IdentifierToken identifier1 = (Tokens.IdentifierToken) consumeTerminal(context, Terminal.IDENT);
-                return new ConcreteTree.GlobImpExpression(optchangemode1, identifier1, idendation);
+                return new ConcreteTree.GlobImpExpression(optchangemode1, identifier1);
             case FLOWMODE:
                 Tokens.FlowModeToken flowmode1 = (Tokens.FlowModeToken) consumeTerminal(context, Terminal.FLOWMODE);
-                ConcreteTree.OptChangemode optchangemode2 = parseOptChangemode(context, idendation + 1);
+                ConcreteTree.OptChangemode optchangemode2 = parseOptChangemode(context);
                 Tokens.IdentifierToken identifier2 = (Tokens.IdentifierToken) consumeTerminal(context, Terminal.IDENT);
-                return new ConcreteTree.GlobImpFlowmode(flowmode1, optchangemode2, identifier2, idendation);
+                return new ConcreteTree.GlobImpFlowmode(flowmode1, optchangemode2, identifier2);
             default:
                 throw new ParserException("Invalid terminal in globImp: " + context.getTerminal());
         }
     }
 
-    private ConcreteTree.OptCpsDecl parseOptCpsDecl(Context context, int idendation) throws ParserException {
+    private ConcreteTree.OptCpsDecl parseOptCpsDecl(Context context) throws ParserException {
         switch (context.getTerminal()) {
             case GLOBAL:
                 consumeTerminal(context, Terminal.GLOBAL);
-                ConcreteTree.CpsDecl cpsecl = parseCpsDecl(context, idendation + 1);
-                return new ConcreteTree.OptCpsDeclGlobal(cpsecl, idendation);
+                ConcreteTree.CpsDecl cpsecl = parseCpsDecl(context);
+                return new ConcreteTree.OptCpsDeclGlobal(cpsecl);
             case DO:
-                return new ConcreteTree.OptCpsDeclEpsilon(idendation);
+                return ConcreteTree.OptCpsDeclEpsilon.INSTANCE;
             default:
                 throw new ParserException("Invalid terminal in optCpsDecl: " + context.getTerminal());
         }
     }
 
-    private ConcreteTree.CpsDecl parseCpsDecl(Context context, int idendation) throws ParserException {
+    private ConcreteTree.CpsDecl parseCpsDecl(Context context) throws ParserException {
         switch (context.getTerminal()) {
             case PROC:
             case FUN:
             case CHANGEMODE:
             case IDENT:
-                ConcreteTree.Decl decl = parseDecl(context, idendation + 1);
-                ConcreteTree.RepCpsDecl repcpsdecl = parseRepCpsDecl(context, idendation + 1);
-                return new ConcreteTree.CpsDecl(decl, repcpsdecl, idendation);
+                ConcreteTree.Decl decl = context.isRecovering() ? recoverDecl(context) : parseDecl(context);
+                ConcreteTree.RepCpsDecl repcpsdecl = parseRepCpsDecl(context);
+                return new ConcreteTree.CpsDecl(decl, repcpsdecl);
             default:
                 throw new ParserException("Invalid terminal in cpsDecl: " + context.getTerminal());
         }
     }
 
-    private ConcreteTree.RepCpsDecl parseRepCpsDecl(Context context, int idendation) throws ParserException {
+    private ConcreteTree.RepCpsDecl parseRepCpsDecl(Context context) throws ParserException {
         switch (context.getTerminal()) {
             case SEMICOLON:
-                consumeTerminal(context, Terminal.SEMICOLON);
-                ConcreteTree.Decl decl = parseDecl(context, idendation + 1);
-                ConcreteTree.RepCpsDecl repcpsdecl = parseRepCpsDecl(context, idendation + 1);
-                return new ConcreteTree.RepCpsDeclSemicolon(decl, repcpsdecl, idendation);
+                int count = 0;
+                while (context.getTerminal() == Terminal.SEMICOLON) {
+                    consumeTerminal(context, Terminal.SEMICOLON);
+                    context.pushItem(context.isRecovering() ? recoverDecl(context) : parseDecl(context));
+                    count++;
+                }
+                return linkRepCpsDecl(context, parseRepCpsDecl(context), count);
             case DO:
-                return new ConcreteTree.RepCpsDeclEpsilon(idendation);
+                return ConcreteTree.RepCpsDeclEpsilon.INSTANCE;
             default:
-                throw new ParserException("Invalid terminal in repCpsDecl: " + context.getTerminal());
+                String message = "Invalid terminal in repCpsDecl: " + context.getTerminal();
+                if (context.isRecovering() && recoverSeparator(context, DECL_TERMINALS, DECL_SYNCHRONIZING_TERMINALS, message)) {
+                    return parseRepCpsDecl(context);
+                }
+                throw new ParserException(message);
         }
     }
 
-    private ConcreteTree.OptCpsStoDecl parseOptCpsStoDecl(Context context, int idendation) throws ParserException {
+    private ConcreteTree.RepCpsDecl linkRepCpsDecl(Context context, ConcreteTree.RepCpsDecl repcpsdecl, int count) {
+        for (int i = count - 1; i >= 0; i--) {
+            ConcreteTree.Decl decl = context.popItem();
+            repcpsdecl = new ConcreteTree.RepCpsDeclSemicolon(decl, repcpsdecl);
+        }
+        return repcpsdecl;
+    }
+
+    private ConcreteTree.OptCpsStoDecl parseOptCpsStoDecl(Context context) throws ParserException {
         switch (context.getTerminal()) {
             case LOCAL:
                 consumeTerminal(context, Terminal.LOCAL);
-                ConcreteTree.CpsStoDecl cpsstodecl = parseCpsStoDecl(context, idendation + 1);
-                return new ConcreteTree.OptCpsStoDeclLocal(cpsstodecl, idendation);
+                ConcreteTree.CpsStoDecl cpsstodecl = parseCpsStoDecl(context);
+                return new ConcreteTree.OptCpsStoDeclLocal(cpsstodecl);
             case DO:
-                return new ConcreteTree.OptCpsStoDeclEpsilon(idendation);
+                return ConcreteTree.OptCpsStoDeclEpsilon.INSTANCE;
             default:
                 throw new ParserException("Invalid terminal in optCpsStoDecl: " + context.getTerminal());
         }
     }
 
-    private ConcreteTree.CpsStoDecl parseCpsStoDecl(Context context, int idendation) throws ParserException {
+    private ConcreteTree.CpsStoDecl parseCpsStoDecl(Context context) throws ParserException {
         switch (context.getTerminal()) {
             case CHANGEMODE:
             case IDENT:
-                ConcreteTree.StoDecl stodecl = parseStoDecl(context, idendation + 1);
-                ConcreteTree.RepCpsStoDecl repcpsstodecl = parseRepCpsStoDecl(context, idendation + 1);
-                return new ConcreteTree.CpsStoDecl(stodecl, repcpsstodecl, idendation);
+                ConcreteTree.StoDecl stodecl = context.isRecovering() ? recoverStoDecl(context) : parseStoDecl(context);
+                ConcreteTree.RepCpsStoDecl repcpsstodecl = parseRepCpsStoDecl(context);
+                return new ConcreteTree.CpsStoDecl(stodecl, repcpsstodecl);
             default:
                 throw new ParserException("Invalid terminal in cpsStoDecl: " + context.getTerminal());
         }
     }
 
-    private ConcreteTree.RepCpsStoDecl parseRepCpsStoDecl(Context context, int idendation) throws ParserException {
+    private ConcreteTree.RepCpsStoDecl parseRepCpsStoDecl(Context context) throws ParserException {
         switch (context.getTerminal()) {
             case SEMICOLON:
-                consumeTerminal(context, Terminal.SEMICOLON);
-                ConcreteTree.StoDecl stodecl = parseStoDecl(context, idendation + 1);
-                ConcreteTree.RepCpsStoDecl repcpsstodecl = parseRepCpsStoDecl(context, idendation + 1);
-                return new ConcreteTree.RepCpsStoDeclSemicolon(stodecl, repcpsstodecl, idendation);
+                int count = 0;
+                while (context.getTerminal() == Terminal.SEMICOLON) {
+                    consumeTerminal(context, Terminal.SEMICOLON);
+                    context.pushItem(context.isRecovering() ? recoverStoDecl(context) : parseStoDecl(context));
+                    count++;
+                }
+                return linkRepCpsStoDecl(context, parseRepCpsStoDecl(context), count);
             case DO:
-                return new ConcreteTree.RepCpsStoDeclEpsilon(idendation);
+                return ConcreteTree.RepCpsStoDeclEpsilon.INSTANCE;
             default:
-                throw new ParserException("Invalid terminal in repCpsStoDecl: " + context.getTerminal());
+                String message = "Invalid terminal in repCpsStoDecl: " + context.getTerminal();
+                if (context.isRecovering() && recoverSeparator(context, STODECL_TERMINALS, DECL_SYNCHRONIZING_TERMINALS, message)) {
+                    return parseRepCpsStoDecl(context);
+                }
+                throw new ParserException(message);
+        }
+    }
+
+    private ConcreteTree.RepCpsStoDecl linkRepCpsStoDecl(Context context, ConcreteTree.RepCpsStoDecl repcpsstodecl, int count) {
+        for (int i = count - 1; i >= 0; i--) {
+            ConcreteTree.StoDecl stodecl = context.popItem();
+            repcpsstodecl = new ConcreteTree.RepCpsStoDeclSemicolon(stodecl, repcpsstodecl);
         }
+        return repcpsstodecl;
     }
 
-    private ConcreteTree.ProgParamList parseProgParamList(Context context, int idendation) throws ParserException {
+    private ConcreteTree.ProgParamList parseProgParamList(Context context) throws ParserException {
         switch (context.getTerminal()) {
             case LPAREN:
                 consumeTerminal(context, Terminal.LPAREN);
-                ConcreteTree.OptProgParamList optprogparamlist = parseOptProgParamList(context, idendation + 1);
+                ConcreteTree.OptProgParamList optprogparamlist = parseOptProgParamList(context);
                 consumeTerminal(context, Terminal.RPAREN);
-                return new ConcreteTree.ProgParamList(optprogparamlist, idendation);
+                return new ConcreteTree.ProgParamList(optprogparamlist);
             default:
                 throw new ParserException("Invalid terminal in progParamList: " + context.getTerminal());
         }
     }
 
-    private ConcreteTree.OptProgParamList parseOptProgParamList(Context context, int idendation) throws ParserException {
+    private ConcreteTree.OptProgParamList parseOptProgParamList(Context context) throws ParserException {
         switch (context.getTerminal()) {
             case FLOWMODE:
             case IDENT:
             case CHANGEMODE:
-                ConcreteTree.ProgParam progparam = parseProgParam(context, idendation + 1);
-                ConcreteTree.RepProgParamList repprogparamlist = parseRepProgParamList(context, idendation + 1);
-                return new ConcreteTree.OptProgParamListExpression(progparam, repprogparamlist, idendation);
+                ConcreteTree.ProgParam progparam = parseProgParam(context);
+                ConcreteTree.RepProgParamList repprogparamlist = parseRepProgParamList(context);
+                return new ConcreteTree.OptProgParamListExpression(progparam, repprogparamlist);
             case RPAREN:
-                return new ConcreteTree.OptProgParamListEpsilon(idendation);
+                return ConcreteTree.OptProgParamListEpsilon.INSTANCE;
             default:
                 throw new ParserException("Invalid terminal in optProgParamList: " + context.getTerminal());
         }
     }
 
-    private ConcreteTree.RepProgParamList parseRepProgParamList(Context context, int idendation) throws ParserException {
+    private ConcreteTree.RepProgParamList parseRepProgParamList(Context context) throws ParserException {
         switch (context.getTerminal()) {
             case COMMA:
-                consumeTerminal(context, Terminal.COMMA);
-                ConcreteTree.ProgParam progparam = parseProgParam(context, idendation + 1);
-                ConcreteTree.RepProgParamList repprogparamlist = parseRepProgParamList(context, idendation + 1);
-                return new ConcreteTree.RepProgParamListComma(progparam, repprogparamlist, idendation);
+                int count = 0;
+                while (context.getTerminal() == Terminal.COMMA) {
+                    consumeTerminal(context, Terminal.COMMA);
+                    context.pushItem(parseProgParam(context));
+                    count++;
+                }
+                return linkRepProgParamList(context, parseRepProgParamList(context), count);
             case RPAREN:
-                return new ConcreteTree.RepProgParamListEpsilon(idendation);
+                return ConcreteTree.RepProgParamListEpsilon.INSTANCE;
             default:
                 throw new ParserException("Invalid terminal in repProgParamList: " + context.getTerminal());
         }
     }
 
-    private ConcreteTree.ProgParam parseProgParam(Context context, int idendation) throws ParserException {
+    private ConcreteTree.RepProgParamList linkRepProgParamList(Context context, ConcreteTree.RepProgParamList repprogparamlist, int count) {
+        for (int i = count - 1; i >= 0; i--) {
+            ConcreteTree.ProgParam progparam = context.popItem();
+            repprogparamlist = new ConcreteTree.RepProgParamListComma(progparam, repprogparamlist);
+        }
+        return repprogparamlist;
+    }
+
+    private ConcreteTree.ProgParam parseProgParam(Context context) throws ParserException {
         switch (context.getTerminal()) {
             case IDENT:
             case CHANGEMODE:
-                ConcreteTree.OptChangemode optchangemode2 = parseOptChangemode(context, idendation + 1);
-                ConcreteTree.TypedIdent typeident2 = parseTypedIdent(context, idendation + 1);
-                return new ConcreteTree.ProgParamExpression(optchangemode2, typeident2, idendation);
+                ConcreteTree.OptChangemode optchangemode2 = parseOptChangemode(context);
+                ConcreteTree.TypedIdent typeident2 = parseTypedIdent(context);
+                return new ConcreteTree.ProgParamExpression(optchangemode2, typeident2);
             case FLOWMODE:
                 Tokens.FlowModeToken flowmode1 = (Tokens.FlowModeToken) consumeTerminal(context, Terminal.FLOWMODE);
-                ConcreteTree.OptChangemode optchangemode1 = parseOptChangemode(context, idendation + 1);
-                ConcreteTree.TypedIdent typeident1 = parseTypedIdent(context, idendation + 1);
-                return new ConcreteTree.ProgParamFlowmode(flowmode1, optchangemode1, typeident1, idendation);
+                ConcreteTree.OptChangemode optchangemode1 = parseOptChangemode(context);
+                ConcreteTree.TypedIdent typeident1 = parseTypedIdent(context);
+                return new ConcreteTree.ProgParamFlowmode(flowmode1, optchangemode1, typeident1);
 
             default:
                 throw new ParserException("Invalid terminal in progParam: " + context.getTerminal());
         }
     }
 
-    private ConcreteTree.ParamList parseParamList(Context context, int idendation) throws ParserException {
+    private ConcreteTree.ParamList parseParamList(Context context) throws ParserException {
         switch (context.getTerminal()) {
             case LPAREN:
                 consumeTerminal(context, Terminal.LPAREN);
-                ConcreteTree.OptParamList optparamlist = parseOptParamList(context, idendation + 1);
+                ConcreteTree.OptParamList optparamlist = parseOptParamList(context);
                 consumeTerminal(context, Terminal.RPAREN);
-                return new ConcreteTree.ParamList(optparamlist, idendation);
+                return new ConcreteTree.ParamList(optparamlist);
             default:
                 throw new ParserException("Invalid terminal in paramList: " + context.getTerminal());
         }
     }
 
-    private ConcreteTree.OptParamList parseOptParamList(Context context, int idendation) throws ParserException {
+    private ConcreteTree.OptParamList parseOptParamList(Context context) throws ParserException {
         switch (context.getTerminal()) {
             case FLOWMODE:
             case IDENT:
             case CHANGEMODE:
             case MECHMODE:
-                ConcreteTree.Param param = parseParam(context, idendation + 1);
-                ConcreteTree.RepParamList repparamlist = parseRepParamList(context, idendation + 1);
-                return new ConcreteTree.OptParamListRepeating(param, repparamlist, idendation);
+                ConcreteTree.Param param = parseParam(context);
+                ConcreteTree.RepParamList repparamlist = parseRepParamList(context);
+                return new ConcreteTree.OptParamListRepeating(param, repparamlist);
             case RPAREN:
-                return new ConcreteTree.OptParamListEpsilon(idendation);
+                return ConcreteTree.OptParamListEpsilon.INSTANCE;
             default:
                 throw new ParserException("Invalid terminal in optParamList: " + context.getTerminal());
         }
     }
 
-    private ConcreteTree.RepParamList parseRepParamList(Context context, int idendation) throws ParserException {
+    private ConcreteTree.RepParamList parseRepParamList(Context context) throws ParserException {
         switch (context.getTerminal()) {
             case COMMA:
-                consumeTerminal(context, Terminal.COMMA);
-                ConcreteTree.Param param = parseParam(context, idendation + 1);
-                ConcreteTree.RepParamList repparamlist = parseRepParamList(context, idendation + 1);
-                return new ConcreteTree.RepParamListComma(param, repparamlist, idendation);
+                int count = 0;
+                while (context.getTerminal() == Terminal.COMMA) {
+                    consumeTerminal(context, Terminal.COMMA);
+                    context.pushItem(parseParam(context));
+                    count++;
+                }
+                return linkRepParamList(context, parseRepParamList(context), count);
             case RPAREN:
-                return new ConcreteTree.RepParamListEpsilon(idendation);
+                return ConcreteTree.RepParamListEpsilon.INSTANCE;
             default:
                 throw new ParserException("Invalid terminal in repParamList: " + context.getTerminal());
         }
     }
 
-    private ConcreteTree.Param parseParam(Context context, int idendation) throws ParserException {
+    private ConcreteTree.RepParamList linkRepParamList(Context context, ConcreteTree.RepParamList repparamlist, int count) {
+        for (int i = count - 1; i >= 0; i--) {
+            ConcreteTree.Param param = context.popItem();
+            repparamlist = new ConcreteTree.RepParamListComma(param, repparamlist);
+        }
+        return repparamlist;
+    }
+
+    private ConcreteTree.Param parseParam(Context context) throws ParserException {
         switch (context.getTerminal()) {
             case IDENT:
             case CHANGEMODE:
             case MECHMODE:
-                ConcreteTree.OptMechmode optmechmode1 = parseOptMechmode(context, idendation + 1);
-                ConcreteTree.OptChangemode optchangemode1 = parseOptChangemode(context, idendation + 1);
-                ConcreteTree.TypedIdent typedindent1 = parseTypedIdent(context, idendation + 1);
-                return new ConcreteTree.ParamExpression(optmechmode1, optchangemode1, typedindent1, idendation);
+                ConcreteTree.OptMechmode optmechmode1 = parseOptMechmode(context);
+                ConcreteTree.OptChangemode optchangemode1 = parseOptChangemode(context);
+                ConcreteTree.TypedIdent typedindent1 = parseTypedIdent(context);
+                return new ConcreteTree.ParamExpression(optmechmode1, optchangemode1, typedindent1);
             case FLOWMODE:
                 Tokens.FlowModeToken flowmode1 = (Tokens.FlowModeToken) consumeTerminal(context, Terminal.FLOWMODE);
-                ConcreteTree.OptMechmode optmechmode2 = parseOptMechmode(context, idendation + 1);
-                ConcreteTree.OptChangemode optchangemode2 = parseOptChangemode(context, idendation + 1);
-                ConcreteTree.TypedIdent typedindent2 = parseTypedIdent(context, idendation + 1);
-                return new ConcreteTree.ParamFlowmode(flowmode1, optmechmode2, optchangemode2, typedindent2, idendation);
+                ConcreteTree.OptMechmode optmechmode2 = parseOptMechmode(context);
+                ConcreteTree.OptChangemode optchangemode2 = parseOptChangemode(context);
+                ConcreteTree.TypedIdent typedindent2 = parseTypedIdent(context);
+                return new ConcreteTree.ParamFlowmode(flowmode1, optmechmode2, optchangemode2, typedindent2);
             default:
                 throw new ParserException("Invalid terminal in param: " + context.getTerminal());
         }
     }
 
-    private ConcreteTree.TypedIdent parseTypedIdent(Context context, int idendation) throws ParserException {
+    private ConcreteTree.TypedIdent parseTypedIdent(Context context) throws ParserException {
         switch (context.getTerminal()) {
             case IDENT:
                 Tokens.IdentifierToken identifier = (Tokens.IdentifierToken) consumeTerminal(context, Terminal.IDENT);
                 consumeTerminal(context, Terminal.COLON);
                 Tokens.TypeToken type = (Tokens.TypeToken) consumeTerminal(context, Terminal.TYPE);
-                return new ConcreteTree.TypedIdent(identifier, type.getType(), idendation);
+                return new ConcreteTree.TypedIdent(identifier, type.getType());
             default:
                 throw new ParserException("Invalid terminal in typedIdent: " + context.getTerminal());
         }
     }
 
-    private ConcreteTree.Cmd parseCmd(Context context, int idendation) throws ParserException {
+    private ConcreteTree.Cmd parseCmd(Context context) throws ParserException {
         switch (context.getTerminal()) {
             case SKIP:
                 consumeTerminal(context, Terminal.SKIP);
-                return new ConcreteTree.CmdSkip(idendation);
+                return ConcreteTree.CmdSkip.INSTANCE;
             case LPAREN:
             case ADDOPR:
             case NOT:
             case IDENT:
             case LITERAL:
-                ConcreteTree.Expr expr1 = parseExpr(context, idendation + 1);
-                ConcreteTree.RepExprList repexprlist1 = parseRepExprList(context, idendation + 1);
+                ConcreteTree.Expr expr1 = parseExpr(context);
+                ConcreteTree.RepExprList repexprlist1 = parseRepExprList(context);
                 consumeTerminal(context, Terminal.BECOMES);
-                ConcreteTree.Expr expr2 = parseExpr(context, idendation + 1);
-                ConcreteTree.RepExprList repexprlist2 = parseRepExprList(context, idendation + 1);
-                return new ConcreteTree.CmdExpression(expr1, repexprlist1, expr2, repexprlist2, idendation);
+                ConcreteTree.Expr expr2 = parseExpr(context);
+                ConcreteTree.RepExprList repexprlist2 = parseRepExprList(context);
+                return new ConcreteTree.CmdExpression(expr1, repexprlist1, expr2, repexprlist2);
             case IF:
                 consumeTerminal(context, Terminal.IF);
-                ConcreteTree.Expr expr3 = parseExpr(context, idendation + 1);
+                ConcreteTree.Expr expr3 = parseExpr(context);
                 consumeTerminal(context, Terminal.THEN);
-                ConcreteTree.CpsCmd cpscmd1 = parseCpsCmd(context, idendation + 1);
-                ConcreteTree.RepElseif repelseif = parseRepElseif(context, idendation + 1);
-                ConcreteTree.OptElse optelse1 = parseOptElse(context, idendation + 1);
+                ConcreteTree.CpsCmd cpscmd1 = parseCpsCmd(context);
+                ConcreteTree.RepElseif repelseif = parseRepElseif(context);
+                ConcreteTree.OptElse optelse1 = parseOptElse(context);
                 consumeTerminal(context, Terminal.ENDIF);
-                return new ConcreteTree.CmdIf(expr3, cpscmd1, repelseif, optelse1, idendation);
+                return new ConcreteTree.CmdIf(expr3, cpscmd1, repelseif, optelse1);
             case SWITCH:
                 consumeTerminal(context, Terminal.SWITCH);
-                ConcreteTree.Expr expr4 = parseExpr(context, idendation + 1);
+                ConcreteTree.Expr expr4 = parseExpr(context);
                 consumeTerminal(context, Terminal.CASE);
                 Tokens.LiteralToken literal1 = (Tokens.LiteralToken) consumeTerminal(context, Terminal.LITERAL);
                 consumeTerminal(context, Terminal.THEN);
-                ConcreteTree.CpsCmd cpscmd2 = parseCpsCmd(context, idendation + 1);
-                ConcreteTree.RepCase repcase1 = parseRepCase(context, idendation + 1);
-                ConcreteTree.OptDefault optdefault1 = parseOptDefault(context, idendation + 1);
+                ConcreteTree.CpsCmd cpscmd2 = parseCpsCmd(context);
+                ConcreteTree.RepCase repcase1 = parseRepCase(context);
+                ConcreteTree.OptDefault optdefault1 = parseOptDefault(context);
                 consumeTerminal(context, Terminal.ENDSWITCH);
-                return new ConcreteTree.CmdSwitch(expr4, literal1, cpscmd2, repcase1, optdefault1, idendation);
+                return new ConcreteTree.CmdSwitch(expr4, literal1, cpscmd2, repcase1, optdefault1);
             case WHILE:
                 consumeTerminal(context, Terminal.WHILE);
-                ConcreteTree.Expr expr5 = parseExpr(context, idendation + 1);
+                ConcreteTree.Expr expr5 = parseExpr(context);
                 consumeTerminal(context, Terminal.DO);
-                ConcreteTree.CpsCmd cpscmd3 = parseCpsCmd(context, idendation + 1);
+                ConcreteTree.CpsCmd cpscmd3 = parseCpsCmd(context);
                 consumeTerminal(context, Terminal.ENDWHILE);
-                return new ConcreteTree.CmdWhile(expr5, cpscmd3, idendation);
+                return new ConcreteTree.CmdWhile(expr5, cpscmd3);
             case CALL:
                 consumeTerminal(context, Terminal.CALL);
                 Tokens.IdentifierToken identifier1 = (Tokens.IdentifierToken) consumeTerminal(context, Terminal.IDENT);
-                ConcreteTree.ExprList exprlist1 = parseExprList(context, idendation + 1);
-                ConcreteTree.OptGlobInits optglobinits1 = parseOptGlobInits(context, idendation + 1);
-                return new ConcreteTree.CmdCall(identifier1, exprlist1, optglobinits1, idendation);
+                ConcreteTree.ExprList exprlist1 = parseExprList(context);
+                ConcreteTree.OptGlobInits optglobinits1 = parseOptGlobInits(context);
+                return new ConcreteTree.CmdCall(identifier1, exprlist1, optglobinits1);
             case DEBUGIN:
                 consumeTerminal(context, Terminal.DEBUGIN);
-                ConcreteTree.Expr expr6 = parseExpr(context, idendation + 1);
-                return new ConcreteTree.CmdDebugIn(expr6, idendation);
+                ConcreteTree.Expr expr6 = parseExpr(context);
+                return new ConcreteTree.CmdDebugIn(expr6);
             case DEBUGOUT:
                 consumeTerminal(context, Terminal.DEBUGOUT);
-                ConcreteTree.Expr expr7 = parseExpr(context, idendation + 1);
-                return new ConcreteTree.CmdDebugOut(expr7, idendation);
+                ConcreteTree.Expr expr7 = parseExpr(context);
+                return new ConcreteTree.CmdDebugOut(expr7);
             default:
                 throw new ParserException("Invalid terminal in cmd: " + context.getTerminal());
         }
     }
 
-    private ConcreteTree.CpsCmd parseCpsCmd(Context context, int idendation) throws ParserException {
+    private ConcreteTree.CpsCmd parseCpsCmd(Context context) throws ParserException {
         switch (context.getTerminal()) {
             case DEBUGOUT:
             case DEBUGIN:
@@ -501,21 +760,24 @@ public class Parser {
             case IDENT:
             case LITERAL:
             case SKIP:
-                ConcreteTree.Cmd cmd = parseCmd(context, idendation + 1);
-                ConcreteTree.RepCpsCmd repcpscmd = parseRepCpsCmd(context, idendation + 1);
-                return new ConcreteTree.CpsCmd(cmd, repcpscmd, idendation);
+                ConcreteTree.Cmd cmd = context.isRecovering() ? recoverCmd(context) : parseCmd(context);
+                ConcreteTree.RepCpsCmd repcpscmd = parseRepCpsCmd(context);
+                return new ConcreteTree.CpsCmd(cmd, repcpscmd);
             default:
                 throw new ParserException("Invalid terminal in cpsCmd: " + context.getTerminal());
         }
     }
 
-    private ConcreteTree.RepCpsCmd parseRepCpsCmd(Context context, int idendation) throws ParserException {
+    private ConcreteTree.RepCpsCmd parseRepCpsCmd(Context context) throws ParserException {
         switch (context.getTerminal()) {
             case SEMICOLON:
-                consumeTerminal(context, Terminal.SEMICOLON);
-                ConcreteTree.Cmd cmd = parseCmd(context, idendation + 1);
-                ConcreteTree.RepCpsCmd repcpscmd = parseRepCpsCmd(context, idendation + 1);
-                return new ConcreteTree.RepCpsCmdSemicolon(cmd, repcpscmd, idendation);
+                int count = 0;
+                while (context.getTerminal() == Terminal.SEMICOLON) {
+                    consumeTerminal(context, Terminal.SEMICOLON);
+                    context.pushItem(context.isRecovering() ? recoverCmd(context) : parseCmd(context));
+                    count++;
+                }
+                return linkRepCpsCmd(context, parseRepCpsCmd(context), count);
             case ENDWHILE:
             case ENDSWITCH:
             case DEFAULT:
@@ -526,19 +788,31 @@ public class Parser {
             case ENDPROC:
             case ENDFUN:
             case ENDPROGRAM:
-                return new ConcreteTree.RepCpsCmdEpsilon(idendation);
+                return ConcreteTree.RepCpsCmdEpsilon.INSTANCE;
             default:
-                throw new ParserException("Invalid terminal in repCpsCmd: " + context.getTerminal());
+                String message = "Invalid terminal in repCpsCmd: " + context.getTerminal();
+                if (context.isRecovering() && recoverSeparator(context, CMD_TERMINALS, CMD_SYNCHRONIZING_TERMINALS, message)) {
+                    return parseRepCpsCmd(context);
+                }
+                throw new ParserException(message);
         }
     }
 
-    private ConcreteTree.OptGlobInits parseOptGlobInits(Context context, int idendation) throws ParserException {
+    private ConcreteTree.RepCpsCmd linkRepCpsCmd(Context context, ConcreteTree.RepCpsCmd repcpscmd, int count) {
+        for (int i = count - 1; i >= 0; i--) {
+            ConcreteTree.Cmd cmd = context.popItem();
+            repcpscmd = new ConcreteTree.RepCpsCmdSemicolon(cmd, repcpscmd);
+        }
+        return repcpscmd;
+    }
+
+    private ConcreteTree.OptGlobInits parseOptGlobInits(Context context) throws ParserException {
         switch (context.getTerminal()) {
             case INIT:
                 consumeTerminal(context, Terminal.INIT);
                 Tokens.IdentifierToken identifier = (Tokens.IdentifierToken) consumeTerminal(context, Terminal.IDENT);
-                ConcreteTree.RepIdents repidents = parseRepIdents(context, idendation + 1);
-                return new ConcreteTree.OptGlobInitsInit(identifier, repidents, idendation);
+                ConcreteTree.RepIdents repidents = parseRepIdents(context);
+                return new ConcreteTree.OptGlobInitsInit(identifier, repidents);
             case ENDWHILE:
             case ENDSWITCH:
             case DEFAULT:
@@ -550,19 +824,22 @@ public class Parser {
             case ENDFUN:
             case ENDPROGRAM:
             case SEMICOLON:
-                return new ConcreteTree.OptGlobInitsEpsilon(idendation);
+                return ConcreteTree.OptGlobInitsEpsilon.INSTANCE;
             default:
                 throw new ParserException("Invalid terminal in optGlobInits: " + context.getTerminal());
         }
     }
 
-    private ConcreteTree.RepIdents parseRepIdents(Context context, int idendation) throws ParserException {
+    private ConcreteTree.RepIdents parseRepIdents(Context context) throws ParserException {
         switch (context.getTerminal()) {
             case COMMA:
-                consumeTerminal(context, Terminal.COMMA);
-                Tokens.IdentifierToken identifier = (Tokens.IdentifierToken) consumeTerminal(context, Terminal.IDENT);
-                ConcreteTree.RepIdents repidents = parseRepIdents(context, idendation + 1);
-                return new ConcreteTree.RepIdentsComma(identifier, repidents, idendation);
+                int count = 0;
+                while (context.getTerminal() == Terminal.COMMA) {
+                    consumeTerminal(context, Terminal.COMMA);
+                    context.pushItem(consumeTerminal(context, Terminal.IDENT));
+                    count++;
+                }
+                return linkRepIdents(context, parseRepIdents(context), count);
             case ENDWHILE:
             case ENDSWITCH:
             case DEFAULT:
@@ -574,34 +851,45 @@ public class Parser {
             case ENDFUN:
             case ENDPROGRAM:
             case SEMICOLON:
-                return new ConcreteTree.RepIdentsEpsilon(idendation);
+                return ConcreteTree.RepIdentsEpsilon.INSTANCE;
             default:
                 throw new ParserException("Invalid terminal in repIdents: " + context.getTerminal());
         }
     }
 
-    private ConcreteTree.Expr parseExpr(Context context, int idendation) throws ParserException {
+    private ConcreteTree.RepIdents linkRepIdents(Context context, ConcreteTree.RepIdents repidents, int count) {
+        for (int i = count - 1; i >= 0; i--) {
+            Tokens.IdentifierToken identifier = context.popItem();
+            repidents = new ConcreteTree.RepIdentsComma(identifier, repidents);
+        }
+        return repidents;
+    }
+
+    private ConcreteTree.Expr parseExpr(Context context) throws ParserException {
         switch (context.getTerminal()) {
             case LPAREN:
             case ADDOPR:
             case NOT:
             case IDENT:
             case LITERAL:
-                ConcreteTree.Term1 term1 = parseTerm1(context, idendation + 1);
-                ConcreteTree.RepTerm1 repterm1 = parseRepTerm1(context, idendation + 1);
-                return new ConcreteTree.Expr(term1, repterm1, idendation);
+                ConcreteTree.Term1 term1 = parseTerm1(context);
+                ConcreteTree.RepTerm1 repterm1 = parseRepTerm1(context);
+                return new ConcreteTree.Expr(term1, repterm1);
             default:
                 throw new ParserException("Invalid terminal in expr: " + context.getTerminal());
         }
     }
 
-    private ConcreteTree.RepTerm1 parseRepTerm1(Context context, int idendation) throws ParserException {
+    private ConcreteTree.RepTerm1 parseRepTerm1(Context context) throws ParserException {
         switch (context.getTerminal()) {
             case BOOLOPR:
-                Tokens.BoolOprToken boolopr1 = (Tokens.BoolOprToken) consumeTerminal(context, Terminal.BOOLOPR);
-                ConcreteTree.Term1 term1 = parseTerm1(context, idendation + 1);
-                ConcreteTree.RepTerm1 repterm1 = parseRepTerm1(context, idendation + 1);
-                return new ConcreteTree.RepTerm1BoolOpr(boolopr1, term1, repterm1, idendation);
+                int count = 0;
+                while (context.getTerminal() == Terminal.BOOLOPR) {
+                    context.pushItem(consumeTerminal(context, Terminal.BOOLOPR));
+                    context.pushItem(parseTerm1(context));
+                    count++;
+                }
+                return linkRepTerm1(context, parseRepTerm1(context), count);
             case RPAREN:
             case DO:
             case THEN:
@@ -618,34 +906,46 @@ public class Parser {
             case SEMICOLON:
             case BECOMES:
             case COMMA:
-                return new ConcreteTree.RepTerm1Epsilon(idendation);
+                return ConcreteTree.RepTerm1Epsilon.INSTANCE;
             default:
                 throw new ParserException("Invalid terminal in repTerm2: " + context.getTerminal());
         }
     }
 
-    private ConcreteTree.Term1 parseTerm1(Context context, int idendation) throws ParserException {
+    private ConcreteTree.RepTerm1 linkRepTerm1(Context context, ConcreteTree.RepTerm1 repterm1, int count) {
+        for (int i = count - 1; i >= 0; i--) {
+            ConcreteTree.Term1 term1 = context.popItem();
+            Tokens.BoolOprToken boolopr = context.popItem();
+            repterm1 = new ConcreteTree.RepTerm1BoolOpr(boolopr, term1, repterm1);
+        }
+        return repterm1;
+    }
+
+    private ConcreteTree.Term1 parseTerm1(Context context) throws ParserException {
         switch (context.getTerminal()) {
             case LPAREN:
             case ADDOPR:
             case NOT:
             case IDENT:
             case LITERAL:
-                ConcreteTree.Term2 term2 = parseTerm2(context, idendation + 1);
-                ConcreteTree.RepTerm2 repterm2 = parseRepTerm2(context, idendation + 1);
-                return new ConcreteTree.Term1(term2, repterm2, idendation);
+                ConcreteTree.Term2 term2 = parseTerm2(context);
+                ConcreteTree.RepTerm2 repterm2 = parseRepTerm2(context);
+                return new ConcreteTree.Term1(term2, repterm2);
             default:
                 throw new ParserException("Invalid terminal in term1: " + context.getTerminal());
         }
     }
 
-    private ConcreteTree.RepTerm2 parseRepTerm2(Context context, int idendation) throws ParserException {
+    private ConcreteTree.RepTerm2 parseRepTerm2(Context context) throws ParserException {
         switch (context.getTerminal()) {
             case RELOPR:
-                Tokens.RelOprToken relopr1 = (Tokens.RelOprToken) consumeTerminal(context, Terminal.RELOPR);
-                ConcreteTree.Term2 term2 = parseTerm2(context, idendation + 1);
-                ConcreteTree.RepTerm2 repterm2 = parseRepTerm2(context, idendation + 1);
-                return new ConcreteTree.RepTerm2RelOpr(relopr1, term2, repterm2, idendation);
+                int count = 0;
+                while (context.getTerminal() == Terminal.RELOPR) {
+                    context.pushItem(consumeTerminal(context, Terminal.RELOPR));
+                    context.pushItem(parseTerm2(context));
+                    count++;
+                }
+                return linkRepTerm2(context, parseRepTerm2(context), count);
             case RPAREN:
             case DO:
             case THEN:
@@ -663,34 +963,46 @@ public class Parser {
             case BECOMES:
             case COMMA:
             case BOOLOPR:
-                return new ConcreteTree.RepTerm2Epsilon(idendation);
+                return ConcreteTree.RepTerm2Epsilon.INSTANCE;
             default:
                 throw new ParserException("Invalid terminal in repTerm2: " + context.getTerminal());
         }
     }
 
-    private ConcreteTree.Term2 parseTerm2(Context context, int idendation) throws ParserException {
+    private ConcreteTree.RepTerm2 linkRepTerm2(Context context, ConcreteTree.RepTerm2 repterm2, int count) {
+        for (int i = count - 1; i >= 0; i--) {
+            ConcreteTree.Term2 term2 = context.popItem();
+            Tokens.RelOprToken relopr = context.popItem();
+            repterm2 = new ConcreteTree.RepTerm2RelOpr(relopr, term2, repterm2);
+        }
+        return repterm2;
+    }
+
+    private ConcreteTree.Term2 parseTerm2(Context context) throws ParserException {
         switch (context.getTerminal()) {
             case LPAREN:
             case ADDOPR:
             case NOT:
             case IDENT:
             case LITERAL:
-                ConcreteTree.Term3 term3 = parseTerm3(context, idendation + 1);
-                ConcreteTree.RepTerm3 repterm3 = parseRepTerm3(context, idendation + 1);
-                return new ConcreteTree.Term2(term3, repterm3, idendation);
+                ConcreteTree.Term3 term3 = parseTerm3(context);
+                ConcreteTree.RepTerm3 repterm3 = parseRepTerm3(context);
+                return new ConcreteTree.Term2(term3, repterm3);
             default:
                 throw new ParserException("Invalid terminal in term2: " + context.getTerminal());
         }
     }
 
-    private ConcreteTree.RepTerm3 parseRepTerm3(Context context, int idendation) throws ParserException {
+    private ConcreteTree.RepTerm3 parseRepTerm3(Context context) throws ParserException {
         switch (context.getTerminal()) {
             case ADDOPR:
-                Tokens.AddOprToken addopr = (Tokens.AddOprToken) consumeTerminal(context, Terminal.ADDOPR);
-                ConcreteTree.Term3 term3 = parseTerm3(context, idendation + 1);
-                ConcreteTree.RepTerm3 repterm3 = parseRepTerm3(context, idendation + 1);
-                return new ConcreteTree.RepTerm3AddOpr(addopr, term3, repterm3, idendation);
+                int count = 0;
+                while (context.getTerminal() == Terminal.ADDOPR) {
+                    context.pushItem(consumeTerminal(context, Terminal.ADDOPR));
+                    context.pushItem(parseTerm3(context));
+                    count++;
+                }
+                return linkRepTerm3(context, parseRepTerm3(context), count);
             case RPAREN:
             case DO:
             case THEN:
@@ -709,34 +1021,46 @@ public class Parser {
             case COMMA:
             case BOOLOPR:
             case RELOPR:
-                return new ConcreteTree.RepTerm3Epsilon(idendation);
+                return ConcreteTree.RepTerm3Epsilon.INSTANCE;
             default:
                 throw new ParserException("Invalid terminal in repTerm3: " + context.getTerminal());
         }
     }
 
-    private ConcreteTree.Term3 parseTerm3(Context context, int idendation) throws ParserException {
+    private ConcreteTree.RepTerm3 linkRepTerm3(Context context, ConcreteTree.RepTerm3 repterm3, int count) {
+        for (int i = count - 1; i >= 0; i--) {
+            ConcreteTree.Term3 term3 = context.popItem();
+            Tokens.AddOprToken addopr = context.popItem();
+            repterm3 = new ConcreteTree.RepTerm3AddOpr(addopr, term3, repterm3);
+        }
+        return repterm3;
+    }
+
+    private ConcreteTree.Term3 parseTerm3(Context context) throws ParserException {
         switch (context.getTerminal()) {
             case LPAREN:
             case ADDOPR:
             case NOT:
             case IDENT:
             case LITERAL:
-                ConcreteTree.Factor factor = parseFactor(context, idendation + 1);
-                ConcreteTree.RepFactor repfactor = parseRepFactor(context, idendation + 1);
-                return new ConcreteTree.Term3(factor, repfactor, idendation);
+                ConcreteTree.Factor factor = parseFactor(context);
+                ConcreteTree.RepFactor repfactor = parseRepFactor(context);
+                return new ConcreteTree.Term3(factor, repfactor);
             default:
                 throw new ParserException("Invalid terminal in term3: " + context.getTerminal());
         }
     }
 
-    private ConcreteTree.RepFactor parseRepFactor(Context context, int idendation) throws ParserException {
+    private ConcreteTree.RepFactor parseRepFactor(Context context) throws ParserException {
         switch (context.getTerminal()) {
             case MULTOPR:
-                Tokens.MultOprToken multopr = (Tokens.MultOprToken) consumeTerminal(context, Terminal.MULTOPR);
-                ConcreteTree.Factor factor = parseFactor(context, idendation + 1);
-                ConcreteTree.RepFactor repfactor = parseRepFactor(context, idendation + 1);
-                return new ConcreteTree.RepFactorMultOpr(multopr, factor, repfactor, idendation);
+                int count = 0;
+                while (context.getTerminal() == Terminal.MULTOPR) {
+                    context.pushItem(consumeTerminal(context, Terminal.MULTOPR));
+                    context.pushItem(parseFactor(context));
+                    count++;
+                }
+                return linkRepFactor(context, parseRepFactor(context), count);
             case RPAREN:
             case DO:
             case THEN:
@@ -756,44 +1080,53 @@ public class Parser {
             case BOOLOPR:
             case RELOPR:
             case ADDOPR:
-                return new ConcreteTree.RepFactorEpsilon(idendation);
+                return ConcreteTree.RepFactorEpsilon.INSTANCE;
             default:
                 throw new ParserException("Invalid terminal in repFactor: " + context.getTerminal());
         }
     }
 
-    private ConcreteTree.Factor parseFactor(Context context, int idendation) throws ParserException {
+    private ConcreteTree.RepFactor linkRepFactor(Context context, ConcreteTree.RepFactor repfactor, int count) {
+        for (int i = count - 1; i >= 0; i--) {
+            ConcreteTree.Factor factor = context.popItem();
+            Tokens.MultOprToken multopr = context.popItem();
+            repfactor = new ConcreteTree.RepFactorMultOpr(multopr, factor, repfactor);
+        }
+        return repfactor;
+    }
+
+    private ConcreteTree.Factor parseFactor(Context context) throws ParserException {
         switch (context.getTerminal()) {
             case LITERAL:
                 Tokens.LiteralToken literal1 = (Tokens.LiteralToken) consumeTerminal(context, Terminal.LITERAL);
-                return new ConcreteTree.FactorLiteral(literal1, idendation);
+                return new ConcreteTree.FactorLiteral(literal1);
             case IDENT:
                 Tokens.IdentifierToken identifier1 = (Tokens.IdentifierToken) consumeTerminal(context, Terminal.IDENT);
-                ConcreteTree.OptInitOrExprList optinitorexprlist1 = parseOptInitOrExprList(context, idendation + 1);
-                return new ConcreteTree.FactorIdent(identifier1, optinitorexprlist1, idendation);
+                ConcreteTree.OptInitOrExprList optinitorexprlist1 = parseOptInitOrExprList(context);
+                return new ConcreteTree.FactorIdent(identifier1, optinitorexprlist1);
             case ADDOPR:
             case NOT:
-                ConcreteTree.MonadicOpr monadicopr1 = parseMonadicOpr(context, idendation + 1);
-                ConcreteTree.Factor factor1 = parseFactor(context, idendation + 1);
-                return new ConcreteTree.FactorExpression(monadicopr1, factor1, idendation);
+                ConcreteTree.MonadicOpr monadicopr1 = parseMonadicOpr(context);
+                ConcreteTree.Factor factor1 = parseFactor(context);
+                return new ConcreteTree.FactorExpression(monadicopr1, factor1);
             case LPAREN:
                 consumeTerminal(context, Terminal.LPAREN);
-                ConcreteTree.Expr expr1 = parseExpr(context, idendation + 1);
+                ConcreteTree.Expr expr1 = parseExpr(context);
                 consumeTerminal(context, Terminal.RPAREN);
-                return new ConcreteTree.FactorLparen(expr1, idendation);
+                return new ConcreteTree.FactorLparen(expr1);
             default:
                 throw new ParserException("Invalid terminal in factor: " + context.getTerminal());
         }
     }
 
-    private ConcreteTree.OptInitOrExprList parseOptInitOrExprList(Context context, int idendation) throws ParserException {
+    private ConcreteTree.OptInitOrExprList parseOptInitOrExprList(Context context) throws ParserException {
         switch (context.getTerminal()) {
             case INIT:
                 consumeTerminal(context, Terminal.INIT);
-                return new ConcreteTree.OptInitOrExprListInit(idendation);
+                return ConcreteTree.OptInitOrExprListInit.INSTANCE;
             case LPAREN:
-                ConcreteTree.ExprList exprlist = parseExprList(context, idendation + 1);
-                return new ConcreteTree.OptInitOrExprListLparen(exprlist, idendation);
+                ConcreteTree.ExprList exprlist = parseExprList(context);
+                return new ConcreteTree.OptInitOrExprListLparen(exprlist);
             case RPAREN:
             case DO:
             case THEN:
@@ -814,62 +1147,65 @@ public class Parser {
             case RELOPR:
             case ADDOPR:
             case MULTOPR:
-                return new ConcreteTree.OptInitOrExprListEpsilon(idendation);
+                return ConcreteTree.OptInitOrExprListEpsilon.INSTANCE;
             default:
                 throw new ParserException("Invalid terminal in optInitOrExprList: " + context.getTerminal());
         }
     }
 
-    private ConcreteTree.MonadicOpr parseMonadicOpr(Context context, int idendation) throws ParserException {
+    private ConcreteTree.MonadicOpr parseMonadicOpr(Context context) throws ParserException {
         switch (context.getTerminal()) {
             case NOT:
                 // FIXME: Fix known errata
                 Tokens.BoolOprToken boolopr = (Tokens.BoolOprToken) consumeTerminal(context, Terminal.NOT);
-                return new ConcreteTree.MonadicOprNot(boolopr, idendation);
+                return new ConcreteTree.MonadicOprNot(boolopr);
             case ADDOPR:
                 Tokens.AddOprToken addopr = (Tokens.AddOprToken) consumeTerminal(context, Terminal.ADDOPR);
-                return new ConcreteTree.MonadicOprAddopr(addopr, idendation);
+                return new ConcreteTree.MonadicOprAddopr(addopr);
             default:
                 throw new ParserException("Invalid terminal in monadicOpr: " + context.getTerminal());
         }
     }
 
-    private ConcreteTree.ExprList parseExprList(Context context, int idendation) throws ParserException {
+    private ConcreteTree.ExprList parseExprList(Context context) throws ParserException {
         switch (context.getTerminal()) {
             case LPAREN:
                 consumeTerminal(context, Terminal.LPAREN);
-                ConcreteTree.OptExprList optexprlist = parseOptExprList(context, idendation + 1);
+                ConcreteTree.OptExprList optexprlist = parseOptExprList(context);
                 consumeTerminal(context, Terminal.RPAREN);
-                return new ConcreteTree.ExprList(optexprlist, idendation);
+                return new ConcreteTree.ExprList(optexprlist);
             default:
                 throw new ParserException("Invalid terminal in exprList: " + context.getTerminal());
         }
     }
 
-    private ConcreteTree.OptExprList parseOptExprList(Context context, int idendation) throws ParserException {
+    private ConcreteTree.OptExprList parseOptExprList(Context context) throws ParserException {
         switch (context.getTerminal()) {
             case LPAREN:
             case ADDOPR:
             case NOT:
             case IDENT:
             case LITERAL:
-                ConcreteTree.Expr expr = parseExpr(context, idendation + 1);
-                ConcreteTree.RepExprList repexprlist = parseRepExprList(context, idendation + 1);
-                return new ConcreteTree.OptExprListExpression(expr, repexprlist, idendation);
+                ConcreteTree.Expr expr = parseExpr(context);
+                ConcreteTree.RepExprList repexprlist = parseRepExprList(context);
+                return new ConcreteTree.OptExprListExpression(expr, repexprlist);
             case RPAREN:
-                return new ConcreteTree.OptExprListEpsilon(idendation);
+                return ConcreteTree.OptExprListEpsilon.INSTANCE;
             default:
                 throw new ParserException("Invalid terminal in optExprList: " + context.getTerminal());
         }
     }
 
-    private ConcreteTree.RepExprList parseRepExprList(Context context, int idendation) throws ParserException {
+    private ConcreteTree.RepExprList parseRepExprList(Context context) throws ParserException {
         switch (context.getTerminal()) {
             case COMMA:
-                consumeTerminal(context, Terminal.COMMA);
-                ConcreteTree.Expr expr = parseExpr(context, idendation + 1);
-                ConcreteTree.RepExprList repexprlist = parseRepExprList(context, idendation + 1);
-                return new ConcreteTree.RepExprListComma(expr, repexprlist, idendation);
+                int count = 0;
+                while (context.getTerminal() == Terminal.COMMA) {
+                    consumeTerminal(context, Terminal.COMMA);
+                    context.pushItem(parseExpr(context));
+                    count++;
+                }
+                return linkRepExprList(context, parseRepExprList(context), count);
             case RPAREN:
             case ENDWHILE:
             case ENDSWITCH:
@@ -883,70 +1219,102 @@ public class Parser {
             case ENDPROGRAM:
             case SEMICOLON:
             case BECOMES:
-                return new ConcreteTree.RepExprListEpsilon(idendation);
+                return ConcreteTree.RepExprListEpsilon.INSTANCE;
             default:
                 throw new ParserException("Invalid terminal in repExprList: " + context.getTerminal());
         }
     }
 
-    private ConcreteTree.RepCase parseRepCase(Context context, int idendation) throws ParserException {
+    private ConcreteTree.RepExprList linkRepExprList(Context context, ConcreteTree.RepExprList repexprlist, int count) {
+        for (int i = count - 1; i >= 0; i--) {
+            ConcreteTree.Expr expr = context.popItem();
+            repexprlist = new ConcreteTree.RepExprListComma(expr, repexprlist);
+        }
+        return repexprlist;
+    }
+
+    private ConcreteTree.RepCase parseRepCase(Context context) throws ParserException {
         switch (context.getTerminal()) {
             case CASE:
-                consumeTerminal(context, Terminal.CASE);
-                Tokens.LiteralToken literal = (Tokens.LiteralToken) consumeTerminal(context, Terminal.LITERAL);
-                consumeTerminal(context, Terminal.THEN);
-                ConcreteTree.CpsCmd cpscmd = parseCpsCmd(context, idendation + 1);
-                ConcreteTree.RepCase repcase = parseRepCase(context, idendation + 1);
-                return new ConcreteTree.RepCaseCase(literal, cpscmd, repcase, idendation);
+                int count = 0;
+                while (context.getTerminal() == Terminal.CASE) {
+                    consumeTerminal(context, Terminal.CASE);
+                    context.pushItem(consumeTerminal(context, Terminal.LITERAL));
+                    consumeTerminal(context, Terminal.THEN);
+                    context.pushItem(parseCpsCmd(context));
+                    count++;
+                }
+                return linkRepCase(context, parseRepCase(context), count);
             case ENDSWITCH:
             case DEFAULT:
-                return new ConcreteTree.RepCaseEpsilon(idendation);
+                return ConcreteTree.RepCaseEpsilon.INSTANCE;
             default:
                 throw new ParserException("Invalid terminal in repCase: " + context.getTerminal());
         }
     }
 
-    private ConcreteTree.OptDefault parseOptDefault(Context context, int idendation) throws ParserException {
+    private ConcreteTree.RepCase linkRepCase(Context context, ConcreteTree.RepCase repcase, int count) {
+        for (int i = count - 1; i >= 0; i--) {
+            ConcreteTree.CpsCmd cpscmd = context.popItem();
+            Tokens.LiteralToken literal = context.popItem();
+            repcase = new ConcreteTree.RepCaseCase(literal, cpscmd, repcase);
+        }
+        return repcase;
+    }
+
+    private ConcreteTree.OptDefault parseOptDefault(Context context) throws ParserException {
         switch (context.getTerminal()) {
             case DEFAULT:
                 consumeTerminal(context, Terminal.DEFAULT);
                 consumeTerminal(context, Terminal.THEN);
-                ConcreteTree.CpsCmd cpscmd = parseCpsCmd(context, idendation + 1);
-                return new ConcreteTree.OptDefaultDefault(cpscmd, idendation);
+                ConcreteTree.CpsCmd cpscmd = parseCpsCmd(context);
+                return new ConcreteTree.OptDefaultDefault(cpscmd);
             case ENDSWITCH:
-                return new ConcreteTree.OptDefaultEpsilon(idendation);
+                return ConcreteTree.OptDefaultEpsilon.INSTANCE;
             default:
                 throw new ParserException("Invalid terminal in optDefault: " + context.getTerminal());
         }
     }
 
-    private ConcreteTree.OptElse parseOptElse(Context context, int idendation) throws ParserException {
+    private ConcreteTree.OptElse parseOptElse(Context context) throws ParserException {
         switch (context.getTerminal()) {
             case ELSE:
                 consumeTerminal(context, Terminal.ELSE);
-                ConcreteTree.CpsCmd cpscmd = parseCpsCmd(context, idendation + 1);
-                return new ConcreteTree.OptElseElse(cpscmd, idendation);
+                ConcreteTree.CpsCmd cpscmd = parseCpsCmd(context);
+                return new ConcreteTree.OptElseElse(cpscmd);
             case ENDIF:
-                return new ConcreteTree.OptElseEpsilon(idendation);
+                return ConcreteTree.OptElseEpsilon.INSTANCE;
             default:
                 throw new ParserException("Invalid terminal in optElse: " + context.getTerminal());
         }
     }
 
-    private ConcreteTree.RepElseif parseRepElseif(Context context, int idendation) throws ParserException {
+    private ConcreteTree.RepElseif parseRepElseif(Context context) throws ParserException {
         switch (context.getTerminal()) {
             case ELSEIF:
-                consumeTerminal(context, Terminal.ELSEIF);
-                ConcreteTree.Expr expr = parseExpr(context, idendation + 1);
-                consumeTerminal(context, Terminal.THEN);
-                ConcreteTree.CpsCmd cpscmd = parseCpsCmd(context, idendation + 1);
-                ConcreteTree.RepElseif repelseif = parseRepElseif(context, idendation + 1);
-                return new ConcreteTree.RepElseifElseif(expr, cpscmd, repelseif, idendation);
+                int count = 0;
+                while (context.getTerminal() == Terminal.ELSEIF) {
+                    consumeTerminal(context, Terminal.ELSEIF);
+                    context.pushItem(parseExpr(context));
+                    consumeTerminal(context, Terminal.THEN);
+                    context.pushItem(parseCpsCmd(context));
+                    count++;
+                }
+                return linkRepElseif(context, parseRepElseif(context), count);
             case ENDIF:
             case ELSE:
-                return new ConcreteTree.RepElseifEpsilon(idendation);
+                return ConcreteTree.RepElseifEpsilon.INSTANCE;
             default:
                 throw new ParserException("Invalid terminal in repElseif: " + context.getTerminal());
         }
     }
+
+    private ConcreteTree.RepElseif linkRepElseif(Context context, ConcreteTree.RepElseif repelseif, int count) {
+        for (int i = count - 1; i >= 0; i--) {
+            ConcreteTree.CpsCmd cpscmd = context.popItem();
+            ConcreteTree.Expr expr = context.popItem();
+            repelseif = new ConcreteTree.RepElseifElseif(expr, cpscmd, repelseif);
+        }
+        return repelseif;
+    }
 }
@@ -0,0 +1,767 @@
+package ch.fhnw.cpib.platform.parser.abstracttree;
+
+import ch.fhnw.cpib.platform.scanner.tokens.SymbolTable;
+import ch.fhnw.cpib.platform.scanner.tokens.Tokens;
+
+import java.util.Arrays;
+
+public class AbstractArena {
+
+    public enum Kind {
+        // Slots: progparam, declaration, cmd
+        PROGRAM(3, false),
+        // Slots: typedident
+        PROGPARAM(1, true),
+        PARAM(1, true),
+        STODECL(1, true),
+        // Slots: param, storedeclaration, globalimport, declaration, cmd
+        FUNDECL(5, true),
+        // Slots: param, globalimport, declaration, cmd
+        PROCDECL(4, true),
+        SKIPCMD(0, true),
+        // Slots: expression1, expressionlist1, expression2, expressionlist2
+        ASSICMD(4, true),
+        // Slots: expression, repcasecmd, cmd
+        SWITCHCMD(3, true),
+        // Slots: cmd
+        REPCASECMD(1, true),
+        // Slots: expression, cmd, repcondcmd, othercmd
+        CONDCMD(4, true),
+        // Slots: expression, cmd
+        REPCONDCMD(2, true),
+        WHILECMD(2, true),
+        // Slots: routinecall, globalinit
+        PROCCALLCMD(2, true),
+        // Slots: expression
+        INPUTCMD(1, true),
+        OUTPUTCMD(1, true),
+        TYPEDIDENTTYPE(0, false),
+        LITERALEXPR(0, false),
+        STOREEXPR(0, false),
+        // Slots: routinecall
+        FUNCALLEXPR(1, false),
+        // Slots: expression
+        MONADICEXPR(1, false),
+        // Slots: expression1, expression2
+        DYADICEXPR(2, false),
+        // Slots: expressionlist
+        ROUTINECALL(1, false),
+        // Slots: expression
+        EXPRESSIONLIST(1, true),
+        GLOBALINIT(0, true),
+        GLOBALIMPORT(0, true);
+
+        private final int arity;
+
+        // Only the nodes of a sequence have a slot for their next node
+        private final boolean sequence;
+
+        Kind(int arity, boolean sequence) {
+            this.arity = arity;
+            this.sequence = sequence;
+        }
+
+        public int getArity() {
+            return arity;
+        }
+
+        public boolean isSequence() {
+            return sequence;
+        }
+
+        public int getSlots() {
+            return sequence ? arity + 1 : arity;
+        }
+    }
+
+    public static final int NONE = -1;
+
+    private static final Kind[] KINDS = Kind.values();
+
+    private static final Tokens.FlowModeToken.FlowMode[] FLOWMODES = Tokens.FlowModeToken.FlowMode.values();
+
+    private static final Tokens.MechModeToken.MechMode[] MECHMODES = Tokens.MechModeToken.MechMode.values();
+
+    private static final Tokens.ChangeModeToken.ChangeMode[] CHANGEMODES = Tokens.ChangeModeToken.ChangeMode.values();
+
+    private static final Tokens.TypeToken.Type[] TYPES = Tokens.TypeToken.Type.values();
+
+    private static final Tokens.OperationToken.Operation[] OPERATIONS = Tokens.OperationToken.Operation.values();
+
+    // Byte of each enum in the packed attributes, every byte holds the ordinal + 1 so 0 marks a missing value
+    private static final int FLOWMODE = 0;
+
+    private static final int MECHMODE = 8;
+
+    private static final int CHANGEMODE = 16;
+
+    private static final int TYPE = 24;
+
+    private static final int OPERATION = 0;
+
+    private byte[] kinds;
+
+    // Index of the first child in the slots, the children of a node are stored next to each other
+    private int[] firstslots;
+
+    // Symbol id of the name, the value of int literals or the negated index + 1 of long literals, otherwise NONE
+    private int[] symbols;
+
+    // Modes, type and operation, the initialized flag for stores
+    private int[] attributes;
+
+    // Child nodes followed by the next node of a sequence like nextcmd or nextdeclaration, NONE if missing
+    private int[] slots;
+
+    private long[] literals;
+
+    private int literalcount;
+
+    private int slotcount;
+
+    private int size;
+
+    private final SymbolTable names;
+
+    public AbstractArena() {
+        this(64);
+    }
+
+    public AbstractArena(int capacity) {
+        this(capacity, capacity * 2);
+    }
+
+    public AbstractArena(int capacity, int slotcapacity) {
+        this.kinds = new byte[capacity];
+        this.firstslots = new int[capacity];
+        this.symbols = new int[capacity];
+        this.attributes = new int[capacity];
+        this.slots = new int[slotcapacity];
+        this.literals = new long[0];
+        this.literalcount = 0;
+        this.slotcount = 0;
+        this.size = 0;
+        this.names = new SymbolTable();
+    }
+
+    public static AbstractArena fromProgram(AbstractTree.Program program) {
+        // The nodes are stored in preorder, so a pass over a subtree reads the arrays front to back
+        AbstractArena arena = new AbstractArena(program.countNodes());
+        int root = arena.add(Kind.PROGRAM, arena.names.intern(program.getProgramName()), 0);
+        arena.setChild(root, 0, arena.addProgParams(program.progparam));
+        arena.setChild(root, 1, arena.addDeclarations(program.declaration));
+        arena.setChild(root, 2, arena.addCmds(program.cmd));
+        arena.trim();
+        return arena;
+    }
+
+    public int add(Kind kind, int symbol, int attribute) {
+        ensureCapacity(size + 1);
+        ensureSlotCapacity(slotcount + kind.getSlots());
+        kinds[size] = (byte) kind.ordinal();
+        firstslots[size] = slotcount;
+        symbols[size] = symbol;
+        attributes[size] = attribute;
+        Arrays.fill(slots, slotcount, slotcount + kind.getSlots(), NONE);
+        slotcount += kind.getSlots();
+        return size++;
+    }
+
+    public void setChild(int index, int slot, int child) {
+        slots[firstslots[index] + slot] = child;
+    }
+
+    public void setNext(int index, int next) {
+        slots[firstslots[index] + getKind(index).getArity()] = next;
+    }
+
+    public int getSize() {
+        return size;
+    }
+
+    public Kind getKind(int index) {
+        return KINDS[kinds[index]];
+    }
+
+    public int getChild(int index, int slot) {
+        return slots[firstslots[index] + slot];
+    }
+
+    public int getNext(int index) {
+        Kind kind = KINDS[kinds[index]];
+        return kind.isSequence() ? slots[firstslots[index] + kind.getArity()] : NONE;
+    }
+
+    public int getSymbol(int index) {
+        return symbols[index];
+    }
+
+    public String getName(int index) {
+        return symbols[index] != NONE ? names.getSymbol(symbols[index]) : null;
+    }
+
+    public SymbolTable getNames() {
+        return names;
+    }
+
+    public long getLiteralValue(int index) {
+        int symbol = symbols[index];
+        return symbol >= 0 ? symbol : literals[-symbol - 1];
+    }
+
+    public Tokens.FlowModeToken.FlowMode getFlowMode(int index) {
+        int value = (attributes[index] >>> FLOWMODE) & 0xFF;
+        return value != 0 ? FLOWMODES[value - 1] : null;
+    }
+
+    public Tokens.MechModeToken.MechMode getMechMode(int index) {
+        int value = (attributes[index] >>> MECHMODE) & 0xFF;
+        return value != 0 ? MECHMODES[value - 1] : null;
+    }
+
+    public Tokens.ChangeModeToken.ChangeMode getChangeMode(int index) {
+        int value = (attributes[index] >>> CHANGEMODE) & 0xFF;
+        return value != 0 ? CHANGEMODES[value - 1] : null;
+    }
+
+    public Tokens.TypeToken.Type getType(int index) {
+        int value = (attributes[index] >>> TYPE) & 0xFF;
+        return value != 0 ? TYPES[value - 1] : null;
+    }
+
+    public Tokens.OperationToken.Operation getOperation(int index) {
+        int value = (attributes[index] >>> OPERATION) & 0xFF;
+        return value != 0 ? OPERATIONS[value - 1] : null;
+    }
+
+    public boolean isInitialized(int index) {
+        return attributes[index] != 0;
+    }
+
+    public ProgramView getProgram() {
+        return new ProgramView(this, 0);
+    }
+
+    public int[] countKinds() {
+        // A single scan over the kinds instead of a walk over the objects
+        int[] counts = new int[KINDS.length];
+        for (int i = 0; i < size; i++) {
+            counts[kinds[i]]++;
+        }
+        return counts;
+    }
+
+    public int[] countReferences() {
+        // Uses of every symbol id by stores, routine calls and global inits
+        int[] counts = new int[names.getSize()];
+        for (int i = 0; i < size; i++) {
+            int kind = kinds[i];
+            if (kind == Kind.STOREEXPR.ordinal() || kind == Kind.ROUTINECALL.ordinal() || kind == Kind.GLOBALINIT.ordinal()) {
+                counts[symbols[i]]++;
+            }
+        }
+        return counts;
+    }
+
+    public long getFootprint() {
+        // Bytes of the arrays with a 16 byte header each, the names are the strings of the identifier tokens
+        return 6 * 16L + kinds.length + 4L * (firstslots.length + symbols.length + attributes.length + slots.length) + 8L * literals.length;
+    }
+
+    public void trim() {
+        if (kinds.length != size) {
+            kinds = Arrays.copyOf(kinds, size);
+            firstslots = Arrays.copyOf(firstslots, size);
+            symbols = Arrays.copyOf(symbols, size);
+            attributes = Arrays.copyOf(attributes, size);
+        }
+        if (slots.length != slotcount) {
+            slots = Arrays.copyOf(slots, slotcount);
+        }
+        if (literals.length != literalcount) {
+            literals = Arrays.copyOf(literals, literalcount);
+        }
+    }
+
+    private int addProgParams(AbstractTree.ProgParam progparam) {
+        int first = NONE;
+        int previous = NONE;
+        for (AbstractTree.ProgParam current = progparam; current != null; current = current.nextprogparam) {
+            int index = add(Kind.PROGPARAM, names.intern(current.typedident.getIdentifier().getName()), pack(current.flowmode) | pack(current.changemode) | pack(current.typedident.getType()));
+            setChild(index, 0, addTypedIdent(current.typedident));
+            first = link(first, previous, index);
+            previous = index;
+        }
+        return first;
+    }
+
+    private int addParams(AbstractTree.Param param) {
+        int first = NONE;
+        int previous = NONE;
+        for (AbstractTree.Param current = param; current != null; current = current.nextparam) {
+            int index = add(Kind.PARAM, names.intern(current.typedident.getIdentifier().getName()), pack(current.flowmode) | pack(current.mechmode) | pack(current.changemode) | pack(current.typedident.getType()));
+            setChild(index, 0, addTypedIdent(current.typedident));
+            first = link(first, previous, index);
+            previous = index;
+        }
+        return first;
+    }
+
+    private int addDeclarations(AbstractTree.Declaration declaration) {
+        // Sequences are added in a loop, only nested routines and commands recurse
+        int first = NONE;
+        int previous = NONE;
+        for (AbstractTree.Declaration current = declaration; current != null; current = current.getNextDeclaration()) {
+            int index;
+            if (current instanceof AbstractTree.StoDecl) {
+                AbstractTree.StoDecl stodecl = (AbstractTree.StoDecl) current;
+                index = add(Kind.STODECL, names.intern(stodecl.typedident.getIdentifier().getName()), pack(stodecl.changemode) | pack(stodecl.typedident.getType()));
+                setChild(index, 0, addTypedIdent(stodecl.typedident));
+            } else if (current instanceof AbstractTree.FunDecl) {
+                AbstractTree.FunDecl fundecl = (AbstractTree.FunDecl) current;
+                index = add(Kind.FUNDECL, names.intern(fundecl.identifier.getName()), 0);
+                setChild(index, 0, addParams(fundecl.param));
+                setChild(index, 1, addDeclarations(fundecl.storedeclaration));
+                setChild(index, 2, addGlobalImports(fundecl.globalimport));
+                setChild(index, 3, addDeclarations(fundecl.declaration));
+                setChild(index, 4, addCmds(fundecl.cmd));
+            } else if (current instanceof AbstractTree.ProcDecl) {
+                AbstractTree.ProcDecl procdecl = (AbstractTree.ProcDecl) current;
+                index = add(Kind.PROCDECL, names.intern(procdecl.identifier.getName()), 0);
+                setChild(index, 0, addParams(procdecl.param));
+                setChild(index, 1, addGlobalImports(procdecl.globalimport));
+                setChild(index, 2, addDeclarations(procdecl.declaration));
+                setChild(index, 3, addCmds(procdecl.cmd));
+            } else {
+                throw new RuntimeException("Unknown declaration " + current.getClass().getSimpleName());
+            }
+            first = link(first, previous, index);
+            previous = index;
+        }
+        return first;
+    }
+
+    private int addCmds(AbstractTree.Cmd cmd) {
+        int first = NONE;
+        int previous = NONE;
+        for (AbstractTree.Cmd current = cmd; current != null; current = current.getNextCmd()) {
+            int index;
+            if (current instanceof AbstractTree.SkipCmd) {
+                index = add(Kind.SKIPCMD, NONE, 0);
+            } else if (current instanceof AbstractTree.AssiCmd) {
+                AbstractTree.AssiCmd assicmd = (AbstractTree.AssiCmd) current;
+                index = add(Kind.ASSICMD, NONE, 0);
+                setChild(index, 0, addExpression(assicmd.expression1));
+                setChild(index, 1, addExpressionList(assicmd.expressionlist1));
+                setChild(index, 2, addExpression(assicmd.expression2));
+                setChild(index, 3, addExpressionList(assicmd.expressionlist2));
+            } else if (current instanceof AbstractTree.SwitchCmd) {
+                AbstractTree.SwitchCmd switchcmd = (AbstractTree.SwitchCmd) current;
+                index = add(Kind.SWITCHCMD, NONE, 0);
+                setChild(index, 0, addExpression(switchcmd.expression));
+                setChild(index, 1, addCmds(switchcmd.repcasecmd));
+                setChild(index, 2, addCmds(switchcmd.cmd));
+            } else if (current instanceof AbstractTree.RepCaseCmd) {
+                AbstractTree.RepCaseCmd repcasecmd = (AbstractTree.RepCaseCmd) current;
+                index = add(Kind.REPCASECMD, getLiteralSymbol(repcasecmd.literal.getValue()), 0);
+                setChild(index, 0, addCmds(repcasecmd.cmd));
+            } else if (current instanceof AbstractTree.CondCmd) {
+                AbstractTree.CondCmd condcmd = (AbstractTree.CondCmd) current;
+                index = add(Kind.CONDCMD, NONE, 0);
+                setChild(index, 0, addExpression(condcmd.expression));
+                setChild(index, 1, addCmds(condcmd.cmd));
+                setChild(index, 2, addCmds(condcmd.repcondcmd));
+                setChild(index, 3, addCmds(condcmd.othercmd));
+            } else if (current instanceof AbstractTree.RepCondCmd) {
+                // The repcondcmd of a RepCondCmd is its next command
+                AbstractTree.RepCondCmd repcondcmd = (AbstractTree.RepCondCmd) current;
+                index = add(Kind.REPCONDCMD, NONE, 0);
+                setChild(index, 0, addExpression(repcondcmd.expression));
+                setChild(index, 1, addCmds(repcondcmd.cmd));
+            } else if (current instanceof AbstractTree.WhileCmd) {
+                AbstractTree.WhileCmd whilecmd = (AbstractTree.WhileCmd) current;
+                index = add(Kind.WHILECMD, NONE, 0);
+                setChild(index, 0, addExpression(whilecmd.expression));
+                setChild(index, 1, addCmds(whilecmd.cmd));
+            } else if (current instanceof AbstractTree.ProcCallCmd) {
+                AbstractTree.ProcCallCmd proccallcmd = (AbstractTree.ProcCallCmd) current;
+                index = add(Kind.PROCCALLCMD, NONE, 0);
+                setChild(index, 0, addRoutineCall(proccallcmd.routinecall));
+                setChild(index, 1, addGlobalInits(proccallcmd.globalinit));
+            } else if (current instanceof AbstractTree.InputCmd) {
+                index = add(Kind.INPUTCMD, NONE, 0);
+                setChild(index, 0, addExpression(((AbstractTree.InputCmd) current).expression));
+            } else if (current instanceof AbstractTree.OutputCmd) {
+                index = add(Kind.OUTPUTCMD, NONE, 0);
+                setChild(index, 0, addExpression(((AbstractTree.OutputCmd) current).expression));
+            } else {
+                throw new RuntimeException("Unknown command " + current.getClass().getSimpleName());
+            }
+            first = link(first, previous, index);
+            previous = index;
+        }
+        return first;
+    }
+
+    private int addExpression(AbstractTree.Expression expression) {
+        if (expression == null) {
+            return NONE;
+        } else if (expression instanceof AbstractTree.LiteralExpr) {
+            return add(Kind.LITERALEXPR, getLiteralSymbol(((AbstractTree.LiteralExpr) expression).literal.getValue()), 0);
+        } else if (expression instanceof AbstractTree.StoreExpr) {
+            AbstractTree.StoreExpr storeexpr = (AbstractTree.StoreExpr) expression;
+            return add(Kind.STOREEXPR, names.intern(storeexpr.identifier.getName()), storeexpr.initialized ? 1 : 0);
+        } else if (expression instanceof AbstractTree.FunCallExpr) {
+            int index = add(Kind.FUNCALLEXPR, NONE, 0);
+            setChild(index, 0, addRoutineCall(((AbstractTree.FunCallExpr) expression).routinecall));
+            return index;
+        } else if (expression instanceof AbstractTree.MonadicExpr) {
+            AbstractTree.MonadicExpr monadicexpr = (AbstractTree.MonadicExpr) expression;
+            int index = add(Kind.MONADICEXPR, NONE, pack(monadicexpr.operation));
+            setChild(index, 0, addExpression(monadicexpr.expression));
+            return index;
+        } else if (expression instanceof AbstractTree.DyadicExpr) {
+            AbstractTree.DyadicExpr dyadicexpr = (AbstractTree.DyadicExpr) expression;
+            int index = add(Kind.DYADICEXPR, NONE, pack(dyadicexpr.operation));
+            setChild(index, 0, addExpression(dyadicexpr.expression1));
+            setChild(index, 1, addExpression(dyadicexpr.expression2));
+            return index;
+        } else {
+            throw new RuntimeException("Unknown expression " + expression.getClass().getSimpleName());
+        }
+    }
+
+    private int addExpressionList(AbstractTree.ExpressionList expressionlist) {
+        int first = NONE;
+        int previous = NONE;
+        for (AbstractTree.ExpressionList current = expressionlist; current != null; current = current.expressionlist) {
+            int index = add(Kind.EXPRESSIONLIST, NONE, 0);
+            setChild(index, 0, addExpression(current.expression));
+            first = link(first, previous, index);
+            previous = index;
+        }
+        return first;
+    }
+
+    private int addRoutineCall(AbstractTree.RoutineCall routinecall) {
+        int index = add(Kind.ROUTINECALL, names.intern(routinecall.identifier.getName()), 0);
+        setChild(index, 0, addExpressionList(routinecall.expressionlist));
+        return index;
+    }
+
+    private int addTypedIdent(AbstractTree.TypedIdent typedident) {
+        return add(Kind.TYPEDIDENTTYPE, names.intern(typedident.getIdentifier().getName()), pack(typedident.getType()));
+    }
+
+    private int addGlobalInits(AbstractTree.GlobalInit globalinit) {
+        int first = NONE;
+        int previous = NONE;
+        for (AbstractTree.GlobalInit current = globalinit; current != null; current = current.nextglobalinit) {
+            int index = add(Kind.GLOBALINIT, names.intern(current.identifier.getName()), 0);
+            first = link(first, previous, index);
+            previous = index;
+        }
+        return first;
+    }
+
+    private int addGlobalImports(AbstractTree.GlobalImport globalimport) {
+        int first = NONE;
+        int previous = NONE;
+        for (AbstractTree.GlobalImport current = globalimport; current != null; current = current.nextglobalimport) {
+            int index = add(Kind.GLOBALIMPORT, names.intern(current.identifier.getName()), pack(current.flowmode) | pack(current.changemode));
+            first = link(first, previous, index);
+            previous = index;
+        }
+        return first;
+    }
+
+    private int link(int first, int previous, int index) {
+        if (previous != NONE) {
+            setNext(previous, index);
+        }
+        return first != NONE ? first : index;
+    }
+
+    private static int pack(Tokens.FlowModeToken flowmode) {
+        return flowmode != null && flowmode.getFlowMode() != null ? (flowmode.getFlowMode().ordinal() + 1) << FLOWMODE : 0;
+    }
+
+    private static int pack(Tokens.MechModeToken mechmode) {
+        return mechmode != null && mechmode.getMechMode() != null ? (mechmode.getMechMode().ordinal() + 1) << MECHMODE : 0;
+    }
+
+    private static int pack(Tokens.ChangeModeToken changemode) {
+        return changemode != null && changemode.getChangeMode() != null ? (changemode.getChangeMode().ordinal() + 1) << CHANGEMODE : 0;
+    }
+
+    private static int pack(Tokens.TypeToken.Type type) {
+        return type != null ? (type.ordinal() + 1) << TYPE : 0;
+    }
+
+    private static int pack(Tokens.OperationToken operation) {
+        return operation != null && operation.getOperation() != null ? (operation.getOperation().ordinal() + 1) << OPERATION : 0;
+    }
+
+    private int getLiteralSymbol(long value) {
+        if (value <= Integer.MAX_VALUE) {
+            return (int) value;
+        }
+        if (literalcount == literals.length) {
+            literals = Arrays.copyOf(literals, Math.max(8, literalcount * 2));
+        }
+        literals[literalcount++] = value;
+        return -literalcount;
+    }
+
+    private void ensureCapacity(int minimum) {
+        if (minimum > kinds.length) {
+            int capacity = Math.max(Math.max(16, minimum), kinds.length + (kinds.length >> 1));
+            kinds = Arrays.copyOf(kinds, capacity);
+            firstslots = Arrays.copyOf(firstslots, capacity);
+            symbols = Arrays.copyOf(symbols, capacity);
+            attributes = Arrays.copyOf(attributes, capacity);
+        }
+    }
+
+    private void ensureSlotCapacity(int minimum) {
+        if (minimum > slots.length) {
+            slots = Arrays.copyOf(slots, Math.max(Math.max(16, minimum), slots.length + (slots.length >> 1)));
+        }
+    }
+
+    public static class NodeView {
+
+        protected final AbstractArena arena;
+
+        protected final int index;
+
+        public NodeView(AbstractArena arena, int index) {
+            this.arena = arena;
+            this.index = index;
+        }
+
+        public int getIndex() {
+            return index;
+        }
+
+        public Kind getKind() {
+            return arena.getKind(index);
+        }
+
+        public String getName() {
+            return arena.getName(index);
+        }
+
+        public NodeView getChild(int slot) {
+            int child = arena.getChild(index, slot);
+            return child != NONE ? new NodeView(arena, child) : null;
+        }
+
+        protected int getChildIndex(Kind kind, int slot) {
+            // A slot of another kind is simply missing
+            return getKind() == kind ? arena.getChild(index, slot) : NONE;
+        }
+
+        @Override
+        public String toString() {
+            return getName() != null ? getKind() + "(" + getName() + ")" : getKind().toString();
+        }
+    }
+
+    public static class ProgramView extends NodeView {
+
+        public ProgramView(AbstractArena arena, int index) {
+            super(arena, index);
+        }
+
+        public String getProgramName() {
+            return getName();
+        }
+
+        public ParamView getProgParam() {
+            return ParamView.of(arena, arena.getChild(index, 0));
+        }
+
+        public DeclarationView getDeclaration() {
+            return DeclarationView.of(arena, arena.getChild(index, 1));
+        }
+
+        public CmdView getCmd() {
+            return CmdView.of(arena, arena.getChild(index, 2));
+        }
+    }
+
+    public static class ParamView extends NodeView {
+
+        public ParamView(AbstractArena arena, int index) {
+            super(arena, index);
+        }
+
+        public static ParamView of(AbstractArena arena, int index) {
+            return index != NONE ? new ParamView(arena, index) : null;
+        }
+
+        public Tokens.FlowModeToken.FlowMode getFlowMode() {
+            return arena.getFlowMode(index);
+        }
+
+        public Tokens.MechModeToken.MechMode getMechMode() {
+            return arena.getMechMode(index);
+        }
+
+        public Tokens.ChangeModeToken.ChangeMode getChangeMode() {
+            return arena.getChangeMode(index);
+        }
+
+        public Tokens.TypeToken.Type getType() {
+            return arena.getType(index);
+        }
+
+        public ParamView getNextParam() {
+            return of(arena, arena.getNext(index));
+        }
+    }
+
+    public static class DeclarationView extends NodeView {
+
+        public DeclarationView(AbstractArena arena, int index) {
+            super(arena, index);
+        }
+
+        public static DeclarationView of(AbstractArena arena, int index) {
+            return index != NONE ? new DeclarationView(arena, index) : null;
+        }
+
+        public Tokens.ChangeModeToken.ChangeMode getChangeMode() {
+            return arena.getChangeMode(index);
+        }
+
+        public Tokens.TypeToken.Type getType() {
+            return arena.getType(index);
+        }
+
+        public ParamView getParam() {
+            return ParamView.of(arena, getKind() == Kind.STODECL ? NONE : arena.getChild(index, 0));
+        }
+
+        public DeclarationView getStoreDeclaration() {
+            return of(arena, getChildIndex(Kind.FUNDECL, 1));
+        }
+
+        public ParamView getGlobalImport() {
+            return ParamView.of(arena, getKind() == Kind.FUNDECL ? arena.getChild(index, 2) : getChildIndex(Kind.PROCDECL, 1));
+        }
+
+        public DeclarationView getDeclaration() {
+            return of(arena, getKind() == Kind.FUNDECL ? arena.getChild(index, 3) : getChildIndex(Kind.PROCDECL, 2));
+        }
+
+        public CmdView getCmd() {
+            return CmdView.of(arena, getKind() == Kind.FUNDECL ? arena.getChild(index, 4) : getChildIndex(Kind.PROCDECL, 3));
+        }
+
+        public DeclarationView getNextDeclaration() {
+            return of(arena, arena.getNext(index));
+        }
+    }
+
+    public static class CmdView extends NodeView {
+
+        public CmdView(AbstractArena arena, int index) {
+            super(arena, index);
+        }
+
+        public static CmdView of(AbstractArena arena, int index) {
+            return index != NONE ? new CmdView(arena, index) : null;
+        }
+
+        public ExpressionView getExpression() {
+            // The target of an assignment, otherwise the only expression of the command
+            switch (getKind()) {
+                case SKIPCMD:
+                case REPCASECMD:
+                case PROCCALLCMD:
+                    return null;
+                default:
+                    return ExpressionView.of(arena, arena.getChild(index, 0));
+            }
+        }
+
+        public ExpressionView getValueExpression() {
+            return ExpressionView.of(arena, getChildIndex(Kind.ASSICMD, 2));
+        }
+
+        public CmdView getCmd() {
+            // The body of a case, a condition or a loop
+            switch (getKind()) {
+                case REPCASECMD:
+                    return of(arena, arena.getChild(index, 0));
+                case CONDCMD:
+                case REPCONDCMD:
+                case WHILECMD:
+                    return of(arena, arena.getChild(index, 1));
+                default:
+                    return null;
+            }
+        }
+
+        public CmdView getRepCmd() {
+            // The cases of a switch or the elseifs of a condition
+            return of(arena, getKind() == Kind.SWITCHCMD ? arena.getChild(index, 1) : getChildIndex(Kind.CONDCMD, 2));
+        }
+
+        public CmdView getOtherCmd() {
+            // The default of a switch or the else of a condition
+            return of(arena, getKind() == Kind.SWITCHCMD ? arena.getChild(index, 2) : getChildIndex(Kind.CONDCMD, 3));
+        }
+
+        public long getLiteralValue() {
+            return arena.getLiteralValue(index);
+        }
+
+        public NodeView getRoutineCall() {
+            int child = getChildIndex(Kind.PROCCALLCMD, 0);
+            return child != NONE ? new NodeView(arena, child) : null;
+        }
+
+        public CmdView getNextCmd() {
+            return of(arena, arena.getNext(index));
+        }
+    }
+
+    public static class ExpressionView extends NodeView {
+
+        public ExpressionView(AbstractArena arena, int index) {
+            super(arena, index);
+        }
+
+        public static ExpressionView of(AbstractArena arena, int index) {
+            return index != NONE ? new ExpressionView(arena, index) : null;
+        }
+
+        public long getLiteralValue() {
+            return arena.getLiteralValue(index);
+        }
+
+        public Tokens.OperationToken.Operation getOperation() {
+            return arena.getOperation(index);
+        }
+
+        public boolean isInitialized() {
+            return arena.isInitialized(index);
+        }
+
+        public ExpressionView getExpression1() {
+            return of(arena, getKind() == Kind.MONADICEXPR ? arena.getChild(index, 0) : getChildIndex(Kind.DYADICEXPR, 0));
+        }
+
+        public ExpressionView getExpression2() {
+            return of(arena, getChildIndex(Kind.DYADICEXPR, 1));
+        }
+
+        public NodeView getRoutineCall() {
+            int child = getChildIndex(Kind.FUNCALLEXPR, 0);
+            return child != NONE ? new NodeView(arena, child) : null;
+        }
+    }
+}
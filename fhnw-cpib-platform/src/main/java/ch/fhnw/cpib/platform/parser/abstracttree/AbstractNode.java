@@ -1,6 +1,7 @@
 package ch.fhnw.cpib.platform.parser.abstracttree;
 
 import ch.fhnw.cpib.platform.parser.util.Node;
+import ch.fhnw.cpib.platform.parser.util.TreeWalker;
 import com.squareup.javapoet.MethodSpec;
 import com.squareup.javapoet.TypeSpec;
 
@@ -14,7 +15,7 @@ public abstract class AbstractNode extends Node {
         throw new RuntimeException("Code generation not implemented yet!");
     }
 
-    public void generateCode(TypeSpec.Builder typespecbuilder) {
+    public void generateCode(TypeSpec.Builder typespecbuilder, String programname, TreeWalker<RuntimeException> walker) {
         throw new RuntimeException("Code generation not implemented yet!");
     }
 }
@@ -1,6 +1,10 @@
 package ch.fhnw.cpib.platform.parser.abstracttree;
 
 import ch.fhnw.cpib.platform.checker.*;
+import ch.fhnw.cpib.platform.events.RoutineCheckEvent;
+import ch.fhnw.cpib.platform.events.RoutineGenerateEvent;
+import ch.fhnw.cpib.platform.parser.util.TreePrinter;
+import ch.fhnw.cpib.platform.parser.util.TreeWalker;
 import ch.fhnw.cpib.platform.scanner.tokens.Terminal;
 import ch.fhnw.cpib.platform.scanner.tokens.Tokens;
 import com.squareup.javapoet.FieldSpec;
@@ -9,6 +13,7 @@ import com.squareup.javapoet.MethodSpec;
 import com.squareup.javapoet.TypeSpec;
 
 import javax.lang.model.element.Modifier;
+import java.io.IOException;
 import java.util.*;
 
 public class AbstractTree {
@@ -32,24 +37,41 @@ public class AbstractTree {
         }
 
         @Override
-        public String toString() {
-            return getHead("<Program>")
-                + getBody("<Ident Name='" + identifier.getName() + "'/>")
-                + (progparam != null ? progparam : getBody("<NoProgramParameter/>"))
-                + (declaration != null ? declaration : getBody("<NoDeclarations/>"))
-                + (cmd != null ? cmd : getBody("<NoCmd/>"))
-                + ("</Program>");
+        public void print(TreePrinter printer, TreeWalker<IOException> walker) throws IOException {
+            printHead(printer, "<Program>");
+            printBody(printer, walker, "<Ident Name='" + identifier.getName() + "'/>");
+            printBody(printer, walker, progparam, "<NoProgramParameter/>");
+            printBody(printer, walker, declaration, "<NoDeclarations/>");
+            printBody(printer, walker, cmd, "<NoCmd/>");
+            walker.then(() -> printer.text("</Program>"));
+        }
+
+        @Override
+        public int countNodes() {
+            return 1 + (progparam != null ? progparam.countNodes() : 0) + (declaration != null ? declaration.countNodes() : 0) + (cmd != null ? cmd.countNodes() : 0);
         }
 
         public void checkCode(Checker checker) throws CheckerException {
+            // The declarations and commands are checked by a walker, so long programs don't overflow the thread stack
+            TreeWalker<CheckerException> walker = new TreeWalker<>();
+            walker.walk(() -> checkCode(checker, walker));
+        }
+
+        public void checkCode(Checker checker, TreeWalker<CheckerException> walker) throws CheckerException {
+            checker.setProgramName(getProgramName());
             if (progparam != null) {
                 progparam.checkCode(checker);
             }
+
+            // Declare every routine signature first, so a body can call a routine that is declared after it
+            for (Declaration current = declaration; current != null; current = current.getNextDeclaration()) {
+                current.declareRoutine(checker);
+            }
             if (declaration != null) {
-                declaration.checkCode(checker);
+                walker.then(() -> declaration.checkCode(checker, walker));
             }
             if (cmd != null) {
-                cmd.checkCode(checker);
+                walker.then(() -> cmd.checkCode(checker, walker));
             }
         }
 
@@ -70,11 +92,14 @@ public class AbstractTree {
                 progparam.generateCode(methodspecbuilder);
             }
 
-            if (declaration != null) {
-                declaration.generateCode(typescpecbuilder);
-            }
-
-            cmd.generateCode(methodspecbuilder);
+            // The declarations and commands are generated by a walker, so long programs don't overflow the thread stack
+            TreeWalker<RuntimeException> walker = new TreeWalker<>();
+            walker.walk(() -> {
+                if (declaration != null) {
+                    walker.then(() -> declaration.generateCode(typescpecbuilder, getProgramName(), walker));
+                }
+                walker.then(() -> cmd.generateCode(methodspecbuilder, walker));
+            });
 
             typescpecbuilder.addField(fieldspecbuilder.build());
             typescpecbuilder.addMethod(methodspecbuilder.build());
@@ -82,6 +107,10 @@ public class AbstractTree {
             return JavaFile.builder("fhnw", typescpecbuilder.build()).build();
         }
 
+        public AbstractArena toArena() {
+            return AbstractArena.fromProgram(this);
+        }
+
         public String getProgramName() {
             return identifier.getName();
         }
@@ -106,13 +135,18 @@ public class AbstractTree {
         }
 
         @Override
-        public String toString() {
-            return getHead("<ProgParam>")
-                + getBody("<Mode Name='FLOWMODE' Attribute='" + flowmode.getFlowMode() + "'/>'")
-                + getBody("<Mode Name='CHANGEMODE' Attribute='" + changemode.getChangeMode() + "'/>'")
-                + typedident
-                + (nextprogparam != null ? nextprogparam : getBody("<NoNextProgParam/>"))
-                + getHead("</ProgParam>");
+        public void print(TreePrinter printer, TreeWalker<IOException> walker) throws IOException {
+            printHead(printer, "<ProgParam>");
+            printBody(printer, walker, "<Mode Name='FLOWMODE' Attribute='" + flowmode.getFlowMode() + "'/>'");
+            printBody(printer, walker, "<Mode Name='CHANGEMODE' Attribute='" + changemode.getChangeMode() + "'/>'");
+            printBody(printer, walker, typedident);
+            printBody(printer, walker, nextprogparam, "<NoNextProgParam/>");
+            printHead(printer, walker, "</ProgParam>");
+        }
+
+        @Override
+        public int countNodes() {
+            return 1 + typedident.countNodes() + (nextprogparam != null ? nextprogparam.countNodes() : 0);
         }
 
         public void checkCode(Checker checker) throws CheckerException {
@@ -171,14 +205,27 @@ public class AbstractTree {
         }
 
         @Override
-        public String toString() {
-            return getHead("<Param>")
-                + getBody("<Mode Name='FLOWMODE' Attribute='" + flowmode.getFlowMode() + "'/>'")
-                + getBody("<Mode Name='MECHMODE' Attribute='" + mechmode.getMechMode() + "'/>'")
-                + getBody("<Mode Name='CHANGEMODE' Attribute='" + changemode.getChangeMode() + "'/>'")
-                + typedident
-                + (nextparam != null ? nextparam : getBody("<NoNextParam/>"))
-                + getHead("</Param>");
+        public void print(TreePrinter printer, TreeWalker<IOException> walker) throws IOException {
+            printHead(printer, "<Param>");
+            printBody(printer, walker, "<Mode Name='FLOWMODE' Attribute='" + flowmode.getFlowMode() + "'/>'");
+            printBody(printer, walker, "<Mode Name='MECHMODE' Attribute='" + mechmode.getMechMode() + "'/>'");
+            printBody(printer, walker, "<Mode Name='CHANGEMODE' Attribute='" + changemode.getChangeMode() + "'/>'");
+            printBody(printer, walker, typedident);
+            printBody(printer, walker, nextparam, "<NoNextParam/>");
+            printHead(printer, walker, "</Param>");
+        }
+
+        @Override
+        public int countNodes() {
+            return 1 + typedident.countNodes() + (nextparam != null ? nextparam.countNodes() : 0);
+        }
+
+        public void declareParameter(Routine routine) {
+            // The parameters are part of the signature, so a call can be checked before the body of the routine
+            routine.addParameter(new Parameter(typedident.getIdentifier().getName(), typedident.getType(), flowmode.getFlowMode(), mechmode.getMechMode(), changemode.getChangeMode()));
+            if (nextparam != null) {
+                nextparam.declareParameter(routine);
+            }
         }
 
         public void checkCode(Checker checker, Routine routine) throws CheckerException {
@@ -189,22 +236,19 @@ public class AbstractTree {
                     if (store != null && mechmode.getMechMode() == Tokens.MechModeToken.MechMode.REF && !store.isConst()) {
                         throw new CheckerException("IN reference parameter can not be var! Ident: " + store.getIdentifier());
                     }
-                    routine.addParameter(new Parameter(typedident.getIdentifier().getName(), typedident.getType(), flowmode.getFlowMode(), mechmode.getMechMode(), changemode.getChangeMode()));
                     break;
                 case INOUT:
                     if (routine.getRoutineType() != RoutineType.PROCEDURE) {
-                        throw new CheckerException("INOUT parameter in function declaration! Ident: " + store.getIdentifier());
+                        throw new CheckerException("INOUT parameter in function declaration! Ident: " + typedident.getIdentifier().getName());
                     }
                     if (store != null && store.isConst()) {
                         throw new CheckerException("INOUT parameter can not be constant! Ident: " + store.getIdentifier());
                     }
-                    routine.addParameter(new Parameter(typedident.getIdentifier().getName(), typedident.getType(), flowmode.getFlowMode(), mechmode.getMechMode(), changemode.getChangeMode()));
                     break;
                 case OUT:
                     if (routine.getRoutineType() != RoutineType.PROCEDURE) {
-                        throw new CheckerException("OUT parameter in function declaration! Ident: " + store.getIdentifier());
+                        throw new CheckerException("OUT parameter in function declaration! Ident: " + typedident.getIdentifier().getName());
                     }
-                    routine.addParameter(new Parameter(typedident.getIdentifier().getName(), typedident.getType(), flowmode.getFlowMode(), mechmode.getMechMode(), changemode.getChangeMode()));
                     break;
                 default:
                     break;
@@ -248,9 +292,67 @@ public class AbstractTree {
             return nextdeclaration;
         }
 
-        public abstract Tokens.TypeToken.Type checkCode(Checker checker) throws CheckerException;
+        public abstract void declareRoutine(Checker checker) throws CheckerException;
+
+        public abstract void checkCode(Checker checker, TreeWalker<CheckerException> walker) throws CheckerException;
+
+        public abstract void generateCode(MethodSpec.Builder methodscpecbuilder, TreeWalker<RuntimeException> walker);
+
+        public abstract void generateCode(TypeSpec.Builder typespecbuilder, String programname, TreeWalker<RuntimeException> walker);
+
+        public void checkNextDeclaration(Checker checker, TreeWalker<CheckerException> walker) {
+            // The next declaration is scheduled instead of called, so a long sequence loops in the walker
+            if (getNextDeclaration() != null) {
+                walker.then(() -> getNextDeclaration().checkCode(checker, walker));
+            }
+        }
+
+        public void generateNextDeclaration(MethodSpec.Builder methodspecbuilder, TreeWalker<RuntimeException> walker) {
+            if (getNextDeclaration() != null) {
+                walker.then(() -> getNextDeclaration().generateCode(methodspecbuilder, walker));
+            }
+        }
 
-        public abstract void generateCode(MethodSpec.Builder methodscpecbuilder);
+        public void generateNextDeclaration(TypeSpec.Builder typespecbuilder, String programname, TreeWalker<RuntimeException> walker) {
+            if (getNextDeclaration() != null) {
+                walker.then(() -> getNextDeclaration().generateCode(typespecbuilder, programname, walker));
+            }
+        }
+
+        @Override
+        public int countNodes() {
+            // Follow the chain in a loop, a long sequence would recurse once per declaration otherwise
+            int count = 0;
+            for (Declaration current = this; current != null; current = current.getNextDeclaration()) {
+                count += current.countOwnNodes();
+            }
+            return count;
+        }
+
+        public abstract int countOwnNodes();
+
+        public void commitEvent(RoutineCheckEvent event, String programname, String routinename) {
+            // The fields are only filled while a recording is running
+            event.end();
+            if (event.shouldCommit()) {
+                event.programname = programname;
+                event.routinename = routinename;
+                event.nodes = countOwnNodes();
+                event.commit();
+            }
+        }
+
+        public void commitEvent(RoutineGenerateEvent event, String programname, String routinename, MethodSpec methodspec) {
+            // The fields are only filled while a recording is running, the method is formatted just for its size
+            event.end();
+            if (event.shouldCommit()) {
+                event.programname = programname;
+                event.routinename = routinename;
+                event.nodes = countOwnNodes();
+                event.bytes = methodspec.toString().length();
+                event.commit();
+            }
+        }
     }
 
     public static class StoDecl extends Declaration {
@@ -266,16 +368,26 @@ public class AbstractTree {
         }
 
         @Override
-        public String toString() {
-            return getHead("<StoDecl>")
-                + getBody("<Mode Name='CHANGEMODE' Attribute='" + changemode.getChangeMode() + "'/>'")
-                + typedident
-                + (getNextDeclaration() != null ? getNextDeclaration() : getBody("<NoNextDeclaration/>"))
-                + getHead("</StoDecl>");
+        public void print(TreePrinter printer, TreeWalker<IOException> walker) throws IOException {
+            printHead(printer, "<StoDecl>");
+            printBody(printer, walker, "<Mode Name='CHANGEMODE' Attribute='" + changemode.getChangeMode() + "'/>'");
+            printBody(printer, walker, typedident);
+            printBody(printer, walker, getNextDeclaration(), "<NoNextDeclaration/>");
+            printHead(printer, walker, "</StoDecl>");
+        }
+
+        @Override
+        public int countOwnNodes() {
+            return 1 + typedident.countNodes();
         }
 
         @Override
-        public Tokens.TypeToken.Type checkCode(Checker checker) throws CheckerException {
+        public void declareRoutine(Checker checker) {
+            // Stores are declared in the order of the program while checking
+        }
+
+        @Override
+        public void checkCode(Checker checker, TreeWalker<CheckerException> walker) throws CheckerException {
             //check if global scope applies
             StoreTable storetable;
             if (checker.getScope() == null) {
@@ -296,14 +408,11 @@ public class AbstractTree {
             store.setRelative(true);
             store.setReference(false);
 
-            if (getNextDeclaration() != null) {
-                getNextDeclaration().checkCode(checker);
-            }
-            return null;
+            checkNextDeclaration(checker, walker);
         }
 
         @Override
-        public void generateCode(MethodSpec.Builder methodspecbuilder) {
+        public void generateCode(MethodSpec.Builder methodspecbuilder, TreeWalker<RuntimeException> walker) {
             TypedIdentType typedidenttype = (TypedIdentType) typedident;
             switch (typedidenttype.getParameterType()) {
                 case BOOL:
@@ -318,13 +427,11 @@ public class AbstractTree {
                     break;
             }
 
-            if (getNextDeclaration() != null) {
-                getNextDeclaration().generateCode(methodspecbuilder);
-            }
+            generateNextDeclaration(methodspecbuilder, walker);
         }
 
         @Override
-        public void generateCode(TypeSpec.Builder typespecbuilder) {
+        public void generateCode(TypeSpec.Builder typespecbuilder, String programname, TreeWalker<RuntimeException> walker) {
             TypedIdentType typedidenttype = (TypedIdentType) typedident;
             switch (typedidenttype.getParameterType()) {
                 case BOOL:
@@ -347,9 +454,7 @@ public class AbstractTree {
                     typespecbuilder.addField(fieldspecbuilder3.build());
                     break;
             }
-            if (getNextDeclaration() != null) {
-                getNextDeclaration().generateCode(typespecbuilder);
-            }
+            generateNextDeclaration(typespecbuilder, programname, walker);
         }
     }
 
@@ -378,48 +483,71 @@ public class AbstractTree {
         }
 
         @Override
-        public String toString() {
-            return getHead("<FunDecl>")
-                + getBody("<Ident Name='" + identifier.getName() + "'/>")
-                + (param != null ? param : getBody("<NoParam/>"))
-                + (storedeclaration != null ? storedeclaration : getBody("<NoNextStoreDeclaration/>"))
-                + (globalimport != null ? globalimport : getBody("<NoGlobalImport/>"))
-                + (cmd != null ? cmd : getBody("<NoCmd/>"))
-                + (declaration != null ? declaration : getBody("<NoDeclaration/>"))
-                + (getNextDeclaration() != null ? getNextDeclaration() : getBody("<NoNextDeclaration/>"))
-                + getHead("</FunDecl>");
+        public void print(TreePrinter printer, TreeWalker<IOException> walker) throws IOException {
+            printHead(printer, "<FunDecl>");
+            printBody(printer, walker, "<Ident Name='" + identifier.getName() + "'/>");
+            printBody(printer, walker, param, "<NoParam/>");
+            printBody(printer, walker, storedeclaration, "<NoNextStoreDeclaration/>");
+            printBody(printer, walker, globalimport, "<NoGlobalImport/>");
+            printBody(printer, walker, cmd, "<NoCmd/>");
+            printBody(printer, walker, declaration, "<NoDeclaration/>");
+            printBody(printer, walker, getNextDeclaration(), "<NoNextDeclaration/>");
+            printHead(printer, walker, "</FunDecl>");
+        }
+
+        @Override
+        public int countOwnNodes() {
+            return 1 + (param != null ? param.countNodes() : 0) + (storedeclaration != null ? storedeclaration.countNodes() : 0) + (globalimport != null ? globalimport.countNodes() : 0) + (cmd != null ? cmd.countNodes() : 0) + (declaration != null ? declaration.countNodes() : 0);
         }
 
         @Override
-        public Tokens.TypeToken.Type checkCode(Checker checker) throws CheckerException {
-            //check if function exist in global routine table
-            Routine function = new Routine(identifier.getName(), RoutineType.FUNCTION);
+        public void declareRoutine(Checker checker) throws CheckerException {
+            //the return type is the type of the result store
+            Tokens.TypeToken.Type returntype = storedeclaration instanceof StoDecl ? ((StoDecl) storedeclaration).typedident.getType() : null;
+            Routine function = new Routine(identifier.getName(), RoutineType.FUNCTION, returntype);
             //store function in global routine table if not
             if (!checker.getGlobalRoutineTable().insert(function)) {
                 throw new CheckerException("Function " + identifier.getName() + " is already declared.");
             }
+            if (param != null) {
+                param.declareParameter(function);
+            }
+        }
+
+        @Override
+        public void checkCode(Checker checker, TreeWalker<CheckerException> walker) throws CheckerException {
+            // The event ends before the next declarations are checked
+            RoutineCheckEvent event = new RoutineCheckEvent();
+            event.begin();
+
+            //the signature was declared before any body is checked
+            Routine function = checker.getGlobalRoutineTable().lookup(identifier.getName());
             checker.setScope(function.getScope());
             if (param != null) {
                 param.checkCode(checker, function);
             }
             if (storedeclaration != null) {
-                storedeclaration.checkCode(checker);
+                walker.then(() -> storedeclaration.checkCode(checker, walker));
             }
             if (globalimport != null) {
-                globalimport.checkCode(function);
+                walker.then(() -> globalimport.checkCode(function));
             }
             if (cmd != null) {
-                cmd.checkCode(checker);
+                walker.then(() -> cmd.checkCode(checker, walker));
             }
-            checker.setScope(null);
-            if (getNextDeclaration() != null) {
-                getNextDeclaration().checkCode(checker);
-            }
-            return null;
+            walker.then(() -> {
+                checker.setScope(null);
+                commitEvent(event, checker.getProgramName(), identifier.getName());
+                checkNextDeclaration(checker, walker);
+            });
         }
 
         @Override
-        public void generateCode(TypeSpec.Builder typescpecbuilder) {
+        public void generateCode(TypeSpec.Builder typescpecbuilder, String programname, TreeWalker<RuntimeException> walker) {
+            // The method is built before the next declarations, so the event only covers this routine
+            RoutineGenerateEvent event = new RoutineGenerateEvent();
+            event.begin();
+
             MethodSpec.Builder methodspecbuilder = MethodSpec.methodBuilder(identifier.getName());
             methodspecbuilder.addModifiers(Modifier.PRIVATE, Modifier.STATIC);
 
@@ -427,7 +555,7 @@ public class AbstractTree {
                 param.generateCode(methodspecbuilder);
             }
 
-            storedeclaration.generateCode(methodspecbuilder);
+            walker.then(() -> storedeclaration.generateCode(methodspecbuilder, walker));
             StoDecl stodecl = (StoDecl) storedeclaration;
             TypedIdentType typedidenttype = (TypedIdentType) stodecl.typedident;
             switch (typedidenttype.getParameterType()) {
@@ -444,22 +572,24 @@ public class AbstractTree {
             }
 
             if (declaration != null) {
-                declaration.generateCode(methodspecbuilder);
+                walker.then(() -> declaration.generateCode(methodspecbuilder, walker));
             }
 
-            cmd.generateCode(methodspecbuilder);
+            walker.then(() -> cmd.generateCode(methodspecbuilder, walker));
 
-            methodspecbuilder.addStatement("return " + typedidenttype.getParameterName());
+            walker.then(() -> {
+                methodspecbuilder.addStatement("return " + typedidenttype.getParameterName());
+                MethodSpec methodspec = methodspecbuilder.build();
+                commitEvent(event, programname, identifier.getName(), methodspec);
 
-            if (getNextDeclaration() != null) {
-                getNextDeclaration().generateCode(typescpecbuilder);
-            }
-
-            typescpecbuilder.addMethod(methodspecbuilder.build());
+                // The methods of the next declarations are added first
+                generateNextDeclaration(typescpecbuilder, programname, walker);
+                walker.then(() -> typescpecbuilder.addMethod(methodspec));
+            });
         }
 
         @Override
-        public void generateCode(MethodSpec.Builder methodspecbuilder) {
+        public void generateCode(MethodSpec.Builder methodspecbuilder, TreeWalker<RuntimeException> walker) {
             // Just make the compiler happy
         }
     }
@@ -486,22 +616,42 @@ public class AbstractTree {
         }
 
         @Override
-        public String toString() {
-            return getHead("<ProcDecl>")
-                + getBody("<Ident Name='" + identifier.getName() + "'/>")
-                + (param != null ? param : getBody("<NoNextParam/>"))
-                + (globalimport != null ? globalimport : getBody("<NoGlobalImport/>"))
-                + (cmd != null ? cmd : getBody("<NoCmd/>"))
-                + (declaration != null ? declaration : getBody("<NoDeclaration/>"))
-                + (getNextDeclaration() != null ? getNextDeclaration() : getBody("<NoNextDeclaration/>"))
-                + getHead("</ProcDecl>");
+        public void print(TreePrinter printer, TreeWalker<IOException> walker) throws IOException {
+            printHead(printer, "<ProcDecl>");
+            printBody(printer, walker, "<Ident Name='" + identifier.getName() + "'/>");
+            printBody(printer, walker, param, "<NoNextParam/>");
+            printBody(printer, walker, globalimport, "<NoGlobalImport/>");
+            printBody(printer, walker, cmd, "<NoCmd/>");
+            printBody(printer, walker, declaration, "<NoDeclaration/>");
+            printBody(printer, walker, getNextDeclaration(), "<NoNextDeclaration/>");
+            printHead(printer, walker, "</ProcDecl>");
+        }
+
+        @Override
+        public int countOwnNodes() {
+            return 1 + (param != null ? param.countNodes() : 0) + (globalimport != null ? globalimport.countNodes() : 0) + (cmd != null ? cmd.countNodes() : 0) + (declaration != null ? declaration.countNodes() : 0);
         }
 
         @Override
-        public Tokens.TypeToken.Type checkCode(Checker checker) throws CheckerException {
-            //store function in global procedure table
+        public void declareRoutine(Checker checker) throws CheckerException {
+            //store procedure in global routine table if not
             Routine procedure = new Routine(identifier.getName(), RoutineType.PROCEDURE);
-            checker.getGlobalRoutineTable().insert(procedure);
+            if (!checker.getGlobalRoutineTable().insert(procedure)) {
+                throw new CheckerException("Procedure " + identifier.getName() + " is already declared.");
+            }
+            if (param != null) {
+                param.declareParameter(procedure);
+            }
+        }
+
+        @Override
+        public void checkCode(Checker checker, TreeWalker<CheckerException> walker) throws CheckerException {
+            // The event ends before the next declarations are checked
+            RoutineCheckEvent event = new RoutineCheckEvent();
+            event.begin();
+
+            //the signature was declared before any body is checked
+            Routine procedure = checker.getGlobalRoutineTable().lookup(identifier.getName());
             checker.setScope(procedure.getScope());
             if (param != null) {
                 param.checkCode(checker, procedure);
@@ -510,20 +660,24 @@ public class AbstractTree {
                 globalimport.checkCode(procedure);
             }
             if (cmd != null) {
-                cmd.checkCode(checker);
+                walker.then(() -> cmd.checkCode(checker, walker));
             }
             if (declaration != null) {
-                declaration.checkCode(checker);
-            }
-            checker.setScope(null);
-            if (getNextDeclaration() != null) {
-                getNextDeclaration().checkCode(checker);
+                walker.then(() -> declaration.checkCode(checker, walker));
             }
-            return null;
+            walker.then(() -> {
+                checker.setScope(null);
+                commitEvent(event, checker.getProgramName(), identifier.getName());
+                checkNextDeclaration(checker, walker);
+            });
         }
 
         @Override
-        public void generateCode(TypeSpec.Builder typescpecbuilder) {
+        public void generateCode(TypeSpec.Builder typescpecbuilder, String programname, TreeWalker<RuntimeException> walker) {
+            // The method is built before the next declarations, so the event only covers this routine
+            RoutineGenerateEvent event = new RoutineGenerateEvent();
+            event.begin();
+
             MethodSpec.Builder methodspecbuilder = MethodSpec.methodBuilder(identifier.getName());
             methodspecbuilder.addModifiers(Modifier.PRIVATE, Modifier.STATIC);
 
@@ -532,20 +686,23 @@ public class AbstractTree {
             }
 
             if (declaration != null) {
-                declaration.generateCode(methodspecbuilder);
+                walker.then(() -> declaration.generateCode(methodspecbuilder, walker));
             }
 
-            cmd.generateCode(methodspecbuilder);
+            walker.then(() -> cmd.generateCode(methodspecbuilder, walker));
 
-            if (getNextDeclaration() != null) {
-                getNextDeclaration().generateCode(typescpecbuilder);
-            }
+            walker.then(() -> {
+                MethodSpec methodspec = methodspecbuilder.build();
+                commitEvent(event, programname, identifier.getName(), methodspec);
 
-            typescpecbuilder.addMethod(methodspecbuilder.build());
+                // The methods of the next declarations are added first
+                generateNextDeclaration(typescpecbuilder, programname, walker);
+                walker.then(() -> typescpecbuilder.addMethod(methodspec));
+            });
         }
 
         @Override
-        public void generateCode(MethodSpec.Builder methodspecbuilder) {
+        public void generateCode(MethodSpec.Builder methodspecbuilder, TreeWalker<RuntimeException> walker) {
             // Just make the compiler happy
         }
     }
@@ -563,7 +720,34 @@ public class AbstractTree {
             return nextcmd;
         }
 
-        public abstract void checkCode(Checker checker) throws CheckerException;
+        public abstract void checkCode(Checker checker, TreeWalker<CheckerException> walker) throws CheckerException;
+
+        public abstract void generateCode(MethodSpec.Builder methodscpecbuilder, TreeWalker<RuntimeException> walker);
+
+        public void checkNextCmd(Checker checker, TreeWalker<CheckerException> walker) {
+            // The next command is scheduled instead of called, so a long sequence loops in the walker
+            if (getNextCmd() != null) {
+                walker.then(() -> getNextCmd().checkCode(checker, walker));
+            }
+        }
+
+        public void generateNextCmd(MethodSpec.Builder methodscpecbuilder, TreeWalker<RuntimeException> walker) {
+            if (getNextCmd() != null) {
+                walker.then(() -> getNextCmd().generateCode(methodscpecbuilder, walker));
+            }
+        }
+
+        @Override
+        public int countNodes() {
+            // Follow the chain in a loop, a long sequence would recurse once per command otherwise
+            int count = 0;
+            for (Cmd current = this; current != null; current = current.getNextCmd()) {
+                count += current.countOwnNodes();
+            }
+            return count;
+        }
+
+        public abstract int countOwnNodes();
     }
 
     public static class SkipCmd extends Cmd {
@@ -573,24 +757,25 @@ public class AbstractTree {
         }
 
         @Override
-        public String toString() {
-            return getHead("<CmdSkip>")
-                + (getNextCmd() != null ? getNextCmd() : getBody("<NoNextCmd/>"))
-                + getHead("</CmdSkip>");
+        public void print(TreePrinter printer, TreeWalker<IOException> walker) throws IOException {
+            printHead(printer, "<CmdSkip>");
+            printBody(printer, walker, getNextCmd(), "<NoNextCmd/>");
+            printHead(printer, walker, "</CmdSkip>");
         }
 
         @Override
-        public void checkCode(Checker checker) throws CheckerException {
-            if (getNextCmd() != null) {
-                getNextCmd().checkCode(checker);
-            }
+        public int countOwnNodes() {
+            return 1;
         }
 
-        public void generateCode(MethodSpec.Builder methodscpecbuilder) {
+        @Override
+        public void checkCode(Checker checker, TreeWalker<CheckerException> walker) throws CheckerException {
+            checkNextCmd(checker, walker);
+        }
+
+        public void generateCode(MethodSpec.Builder methodscpecbuilder, TreeWalker<RuntimeException> walker) {
             methodscpecbuilder.addStatement("");
-            if (getNextCmd() != null) {
-                getNextCmd().generateCode(methodscpecbuilder);
-            }
+            generateNextCmd(methodscpecbuilder, walker);
         }
     }
 
@@ -613,18 +798,23 @@ public class AbstractTree {
         }
 
         @Override
-        public String toString() {
-            return getHead("<AssiCmd>")
-                + expression1
-                + (expressionlist1 != null ? expressionlist1 : getBody("<NoNextExpressionList/>"))
-                + expression2
-                + (expressionlist2 != null ? expressionlist2 : getBody("<NoNextExpressionList/>"))
-                + (getNextCmd() != null ? getNextCmd() : getBody("<NoNextCmd/>"))
-                + getHead("</AssiCmd>");
+        public void print(TreePrinter printer, TreeWalker<IOException> walker) throws IOException {
+            printHead(printer, "<AssiCmd>");
+            printBody(printer, walker, expression1);
+            printBody(printer, walker, expressionlist1, "<NoNextExpressionList/>");
+            printBody(printer, walker, expression2);
+            printBody(printer, walker, expressionlist2, "<NoNextExpressionList/>");
+            printBody(printer, walker, getNextCmd(), "<NoNextCmd/>");
+            printHead(printer, walker, "</AssiCmd>");
         }
 
         @Override
-        public void checkCode(Checker checker) throws CheckerException {
+        public int countOwnNodes() {
+            return 1 + expression1.countNodes() + (expressionlist1 != null ? expressionlist1.countNodes() : 0) + expression2.countNodes() + (expressionlist2 != null ? expressionlist2.countNodes() : 0);
+        }
+
+        @Override
+        public void checkCode(Checker checker, TreeWalker<CheckerException> walker) throws CheckerException {
             List<ExpressionInfo> targetExprInfos = new ArrayList<>();
             List<ExpressionInfo> sourceExprInfos = new ArrayList<>();
 
@@ -652,12 +842,10 @@ public class AbstractTree {
                     }
                 }
             }
-            if (getNextCmd() != null) {
-                getNextCmd().checkCode(checker);
-            }
+            checkNextCmd(checker, walker);
         }
 
-        public void generateCode(MethodSpec.Builder methodscpecbuilder) {
+        public void generateCode(MethodSpec.Builder methodscpecbuilder, TreeWalker<RuntimeException> walker) {
             expression1.generateCode(methodscpecbuilder);
             methodscpecbuilder.addCode(" = ");
             expression2.generateCode(methodscpecbuilder);
@@ -670,9 +858,7 @@ public class AbstractTree {
                 methodscpecbuilder.addCode(";" + System.lineSeparator());
             }
 
-            if (getNextCmd() != null) {
-                getNextCmd().generateCode(methodscpecbuilder);
-            }
+            generateNextCmd(methodscpecbuilder, walker);
         }
     }
 
@@ -692,49 +878,49 @@ public class AbstractTree {
         }
 
         @Override
-        public String toString() {
-            return getHead("<SwitchCmd>")
-                + expression
-                + repcasecmd
-                + (cmd != null ? cmd : getBody("<NoDefaultCmd/>"))
-                + getHead("</SwitchCmd>");
+        public void print(TreePrinter printer, TreeWalker<IOException> walker) throws IOException {
+            printHead(printer, "<SwitchCmd>");
+            printBody(printer, walker, expression);
+            printBody(printer, walker, repcasecmd);
+            printBody(printer, walker, cmd, "<NoDefaultCmd/>");
+            printHead(printer, walker, "</SwitchCmd>");
         }
 
         @Override
-        public void checkCode(Checker checker) throws CheckerException {
+        public int countOwnNodes() {
+            return 1 + expression.countNodes() + repcasecmd.countNodes() + (cmd != null ? cmd.countNodes() : 0);
+        }
+
+        @Override
+        public void checkCode(Checker checker, TreeWalker<CheckerException> walker) throws CheckerException {
             ExpressionInfo exprinfo = expression.checkCode(checker);
             Switch s = new Switch(exprinfo.getName(), exprinfo.getType());
             //store switch with name and type
             checker.getGlobalSwitchTable().insert(s);
-            repcasecmd.checkCode(checker);
+            walker.then(() -> repcasecmd.checkCode(checker, walker));
             if (cmd != null) {
-                cmd.checkCode(checker);
-            }
-            if (getNextCmd() != null) {
-                getNextCmd().checkCode(checker);
+                walker.then(() -> cmd.checkCode(checker, walker));
             }
+            checkNextCmd(checker, walker);
         }
 
         @Override
-        public void generateCode(MethodSpec.Builder methodscpecbuilder) {
+        public void generateCode(MethodSpec.Builder methodscpecbuilder, TreeWalker<RuntimeException> walker) {
             methodscpecbuilder.addCode("switch(");
             expression.generateCode(methodscpecbuilder);
             methodscpecbuilder.addCode(") {" + System.lineSeparator());
 
-            repcasecmd.generateCode(methodscpecbuilder);
+            walker.then(() -> repcasecmd.generateCode(methodscpecbuilder, walker));
 
             if (cmd != null) {
-                methodscpecbuilder.beginControlFlow("default: ");
-                cmd.generateCode(methodscpecbuilder);
-                methodscpecbuilder.addStatement("break");
-                methodscpecbuilder.endControlFlow();
+                walker.then(() -> methodscpecbuilder.beginControlFlow("default: "));
+                walker.then(() -> cmd.generateCode(methodscpecbuilder, walker));
+                walker.then(() -> methodscpecbuilder.addStatement("break").endControlFlow());
             }
 
-            methodscpecbuilder.addCode("}" + System.lineSeparator());
+            walker.then(() -> methodscpecbuilder.addCode("}" + System.lineSeparator()));
 
-            if (getNextCmd() != null) {
-                getNextCmd().generateCode(methodscpecbuilder);
-            }
+            generateNextCmd(methodscpecbuilder, walker);
         }
     }
 
@@ -751,16 +937,21 @@ public class AbstractTree {
         }
 
         @Override
-        public String toString() {
-            return getHead("<RepCaseCmd>")
-                + getBody("<Literal Value='" + literal.getValue() + "'/>")
-                + cmd
-                + (getNextCmd() != null ? getNextCmd() : getBody("<NoNextRepCaseCmd/>"))
-                + getHead("</RepCaseCmd>");
+        public void print(TreePrinter printer, TreeWalker<IOException> walker) throws IOException {
+            printHead(printer, "<RepCaseCmd>");
+            printBody(printer, walker, "<Literal Value='" + literal.getValue() + "'/>");
+            printBody(printer, walker, cmd);
+            printBody(printer, walker, getNextCmd(), "<NoNextRepCaseCmd/>");
+            printHead(printer, walker, "</RepCaseCmd>");
         }
 
         @Override
-        public void checkCode(Checker checker) throws CheckerException {
+        public int countOwnNodes() {
+            return 1 + cmd.countNodes();
+        }
+
+        @Override
+        public void checkCode(Checker checker, TreeWalker<CheckerException> walker) throws CheckerException {
             HashMap<String, Switch> map = checker.getGlobalSwitchTable().getTable();
             Iterator it = map.entrySet().iterator();
             while (it.hasNext()) {
@@ -769,7 +960,7 @@ public class AbstractTree {
                 //check if case literal vales are different
                 if (!s.getSwitchCaseList().isEmpty()) {
                     for (SwitchCase c : s.getSwitchCaseList()) {
-                        if (c.getLiteraltoken().getValue().equals(literal.getValue())) {
+                        if (c.getLiteraltoken().getValue() == literal.getValue()) {
                             throw new CheckerException("Case literal values have the same value.");
                         }
                     }
@@ -792,20 +983,15 @@ public class AbstractTree {
                 s.addSwitchCase(switchCase);
                 checker.getGlobalSwitchTable().insert(s);
             }
-            if (getNextCmd() != null) {
-                getNextCmd().checkCode(checker);
-            }
+            checkNextCmd(checker, walker);
         }
 
         @Override
-        public void generateCode(MethodSpec.Builder methodspecbuilder) {
+        public void generateCode(MethodSpec.Builder methodspecbuilder, TreeWalker<RuntimeException> walker) {
             methodspecbuilder.beginControlFlow("case " + literal.getValue() + " :");
-            cmd.generateCode(methodspecbuilder);
-            methodspecbuilder.addStatement("break");
-            methodspecbuilder.endControlFlow();
-            if (getNextCmd() != null) {
-                getNextCmd().generateCode(methodspecbuilder);
-            }
+            walker.then(() -> cmd.generateCode(methodspecbuilder, walker));
+            walker.then(() -> methodspecbuilder.addStatement("break").endControlFlow());
+            generateNextCmd(methodspecbuilder, walker);
         }
     }
 
@@ -828,57 +1014,58 @@ public class AbstractTree {
         }
 
         @Override
-        public String toString() {
-            return getHead("<CondCmd>")
-                + expression
-                + cmd
-                + (repcondcmd != null ? repcondcmd : getBody("<NoNextRepCondCmd/>"))
-                + (othercmd != null ? othercmd : getBody("<NoOtherCmd/>"))
-                + (getNextCmd() != null ? getNextCmd() : getBody("<NoNextCmd/>"))
-                + getHead("</CondCmd>");
+        public void print(TreePrinter printer, TreeWalker<IOException> walker) throws IOException {
+            printHead(printer, "<CondCmd>");
+            printBody(printer, walker, expression);
+            printBody(printer, walker, cmd);
+            printBody(printer, walker, repcondcmd, "<NoNextRepCondCmd/>");
+            printBody(printer, walker, othercmd, "<NoOtherCmd/>");
+            printBody(printer, walker, getNextCmd(), "<NoNextCmd/>");
+            printHead(printer, walker, "</CondCmd>");
         }
 
         @Override
-        public void checkCode(Checker checker) throws CheckerException {
+        public int countOwnNodes() {
+            return 1 + expression.countNodes() + cmd.countNodes() + (repcondcmd != null ? repcondcmd.countNodes() : 0) + (othercmd != null ? othercmd.countNodes() : 0);
+        }
+
+        @Override
+        public void checkCode(Checker checker, TreeWalker<CheckerException> walker) throws CheckerException {
             //check expr return type is from type BOOL
             ExpressionInfo exprinfo = expression.checkCode(checker);
             if (exprinfo.getType() != Tokens.TypeToken.Type.BOOL) {
                 throw new CheckerException("IF condition needs to be BOOL. Current type: " + exprinfo.getType());
             }
             if (repcondcmd != null) {
-                repcondcmd.checkCode(checker);
+                walker.then(() -> repcondcmd.checkCode(checker, walker));
             }
             if (othercmd != null) {
-                othercmd.checkCode(checker);
-            }
-            if (getNextCmd() != null) {
-                getNextCmd().checkCode(checker);
+                walker.then(() -> othercmd.checkCode(checker, walker));
             }
+            checkNextCmd(checker, walker);
         }
 
         @Override
-        public void generateCode(MethodSpec.Builder methodscpecbuilder) {
+        public void generateCode(MethodSpec.Builder methodscpecbuilder, TreeWalker<RuntimeException> walker) {
             methodscpecbuilder.addCode("if(");
             expression.generateCode(methodscpecbuilder);
             methodscpecbuilder.addCode(") {" + System.lineSeparator());
 
-            cmd.generateCode(methodscpecbuilder);
+            walker.then(() -> cmd.generateCode(methodscpecbuilder, walker));
 
-            methodscpecbuilder.addCode("}" + System.lineSeparator());
+            walker.then(() -> methodscpecbuilder.addCode("}" + System.lineSeparator()));
 
             if (repcondcmd != null) {
-                repcondcmd.generateCode(methodscpecbuilder);
+                walker.then(() -> repcondcmd.generateCode(methodscpecbuilder, walker));
             }
 
             if (othercmd != null) {
-                methodscpecbuilder.beginControlFlow("else");
-                othercmd.generateCode(methodscpecbuilder);
-                methodscpecbuilder.endControlFlow();
+                walker.then(() -> methodscpecbuilder.beginControlFlow("else"));
+                walker.then(() -> othercmd.generateCode(methodscpecbuilder, walker));
+                walker.then(() -> methodscpecbuilder.endControlFlow());
 
             }
-            if (getNextCmd() != null) {
-                getNextCmd().generateCode(methodscpecbuilder);
-            }
+            generateNextCmd(methodscpecbuilder, walker);
         }
     }
 
@@ -898,43 +1085,45 @@ public class AbstractTree {
         }
 
         @Override
-        public String toString() {
-            return getHead("<RepCondCmd>")
-                + expression
-                + cmd
-                + (repcondcmd != null ? repcondcmd : getBody("<NoNextRepCondCmd/>"))
-                + (getNextCmd() != null ? getNextCmd() : getBody("<NoNextRepCondCmd/>"))
-                + getHead("</RepCondCmd>");
+        public void print(TreePrinter printer, TreeWalker<IOException> walker) throws IOException {
+            printHead(printer, "<RepCondCmd>");
+            printBody(printer, walker, expression);
+            printBody(printer, walker, cmd);
+            printBody(printer, walker, repcondcmd, "<NoNextRepCondCmd/>");
+            printBody(printer, walker, getNextCmd(), "<NoNextRepCondCmd/>");
+            printHead(printer, walker, "</RepCondCmd>");
         }
 
         @Override
-        public void checkCode(Checker checker) throws CheckerException {
+        public int countOwnNodes() {
+            // The repcondcmd is also the next command, the chain counts it once
+            return 1 + expression.countNodes() + cmd.countNodes();
+        }
+
+        @Override
+        public void checkCode(Checker checker, TreeWalker<CheckerException> walker) throws CheckerException {
             //check expr return type is from type BOOL
             ExpressionInfo exprinfo = expression.checkCode(checker);
             if (exprinfo.getType() != Tokens.TypeToken.Type.BOOL) {
                 throw new CheckerException("ELSEIF condition needs to be BOOL. Current type: " + exprinfo.getType());
             }
             if (repcondcmd != null) {
-                repcondcmd.checkCode(checker);
-            }
-            if (getNextCmd() != null) {
-                getNextCmd().checkCode(checker);
+                walker.then(() -> repcondcmd.checkCode(checker, walker));
             }
+            checkNextCmd(checker, walker);
         }
 
         @Override
-        public void generateCode(MethodSpec.Builder methodscpecbuilder) {
+        public void generateCode(MethodSpec.Builder methodscpecbuilder, TreeWalker<RuntimeException> walker) {
             methodscpecbuilder.addCode("else if(");
             expression.generateCode(methodscpecbuilder);
             methodscpecbuilder.addCode(") {" + System.lineSeparator());
 
-            cmd.generateCode(methodscpecbuilder);
+            walker.then(() -> cmd.generateCode(methodscpecbuilder, walker));
 
-            methodscpecbuilder.addCode("}" + System.lineSeparator());
+            walker.then(() -> methodscpecbuilder.addCode("}" + System.lineSeparator()));
 
-            if (getNextCmd() != null) {
-                getNextCmd().generateCode(methodscpecbuilder);
-            }
+            generateNextCmd(methodscpecbuilder, walker);
         }
     }
 
@@ -951,28 +1140,31 @@ public class AbstractTree {
         }
 
         @Override
-        public String toString() {
-            return getHead("<WhileCmd>")
-                + expression
-                + cmd
-                + (getNextCmd() != null ? getNextCmd() : getBody("<NoCmd/>"))
-                + getHead("</WhileCmd>");
+        public void print(TreePrinter printer, TreeWalker<IOException> walker) throws IOException {
+            printHead(printer, "<WhileCmd>");
+            printBody(printer, walker, expression);
+            printBody(printer, walker, cmd);
+            printBody(printer, walker, getNextCmd(), "<NoCmd/>");
+            printHead(printer, walker, "</WhileCmd>");
         }
 
         @Override
-        public void checkCode(Checker checker) throws CheckerException {
+        public int countOwnNodes() {
+            return 1 + expression.countNodes() + cmd.countNodes();
+        }
+
+        @Override
+        public void checkCode(Checker checker, TreeWalker<CheckerException> walker) throws CheckerException {
             //check expr return type is from type BOOL
             ExpressionInfo exprinfo = expression.checkCode(checker);
             if (exprinfo.getType() != Tokens.TypeToken.Type.BOOL && exprinfo.getType() != null) {
                 throw new CheckerException("WHILE condition needs to be BOOL. Current type: " + exprinfo.getType());
             }
-            if (getNextCmd() != null) {
-                getNextCmd().checkCode(checker);
-            }
+            checkNextCmd(checker, walker);
         }
 
         @Override
-        public void generateCode(MethodSpec.Builder methodscpecbuilder) {
+        public void generateCode(MethodSpec.Builder methodscpecbuilder, TreeWalker<RuntimeException> walker) {
             // FIXME: Implement code generation
             throw new RuntimeException("Code generation not implemented yet!");
         }
@@ -991,30 +1183,31 @@ public class AbstractTree {
         }
 
         @Override
-        public String toString() {
-            return getHead("<ProcCallCmd>")
-                + routinecall
-                + (globalinit != null ? globalinit : getBody("<NoGlobalInit/>"))
-                + (getNextCmd() != null ? getNextCmd() : getBody("<NoNextCmd/>"))
-                + getHead("</ProcCallCmd>");
+        public void print(TreePrinter printer, TreeWalker<IOException> walker) throws IOException {
+            printHead(printer, "<ProcCallCmd>");
+            printBody(printer, walker, routinecall);
+            printBody(printer, walker, globalinit, "<NoGlobalInit/>");
+            printBody(printer, walker, getNextCmd(), "<NoNextCmd/>");
+            printHead(printer, walker, "</ProcCallCmd>");
         }
 
         @Override
-        public void checkCode(Checker checker) throws CheckerException {
+        public int countOwnNodes() {
+            return 1 + routinecall.countNodes() + (globalinit != null ? globalinit.countNodes() : 0);
+        }
+
+        @Override
+        public void checkCode(Checker checker, TreeWalker<CheckerException> walker) throws CheckerException {
             if (globalinit != null) {
                 globalinit.checkCode();
             }
-            if (getNextCmd() != null) {
-                getNextCmd().checkCode(checker);
-            }
+            checkNextCmd(checker, walker);
         }
 
         @Override
-        public void generateCode(MethodSpec.Builder methodscpecbuilder) {
+        public void generateCode(MethodSpec.Builder methodscpecbuilder, TreeWalker<RuntimeException> walker) {
             routinecall.generateCode(methodscpecbuilder);
-            if (getNextCmd() != null) {
-                getNextCmd().generateCode(methodscpecbuilder);
-            }
+            generateNextCmd(methodscpecbuilder, walker);
         }
     }
 
@@ -1028,29 +1221,30 @@ public class AbstractTree {
         }
 
         @Override
-        public String toString() {
-            return getHead("<InputCmd>")
-                + (expression != null ? expression : getBody("<NoExpression/>"))
-                + (getNextCmd() != null ? getNextCmd() : getBody("<NoNextCmd/>"))
-                + getHead("</InputCmd>");
+        public void print(TreePrinter printer, TreeWalker<IOException> walker) throws IOException {
+            printHead(printer, "<InputCmd>");
+            printBody(printer, walker, expression, "<NoExpression/>");
+            printBody(printer, walker, getNextCmd(), "<NoNextCmd/>");
+            printHead(printer, walker, "</InputCmd>");
         }
 
         @Override
-        public void checkCode(Checker checker) throws CheckerException {
-            if (getNextCmd() != null) {
-                getNextCmd().checkCode(checker);
-            }
+        public int countOwnNodes() {
+            return 1 + (expression != null ? expression.countNodes() : 0);
         }
 
         @Override
-        public void generateCode(MethodSpec.Builder methodscpecbuilder) {
+        public void checkCode(Checker checker, TreeWalker<CheckerException> walker) throws CheckerException {
+            checkNextCmd(checker, walker);
+        }
+
+        @Override
+        public void generateCode(MethodSpec.Builder methodscpecbuilder, TreeWalker<RuntimeException> walker) {
             // FIXME: Fix known errata
             methodscpecbuilder.addStatement("System.out.println(\"Input a value:\")");
             expression.generateCode(methodscpecbuilder);
             methodscpecbuilder.addCode(" = scanner.nextInt();" + System.lineSeparator());
-            if (getNextCmd() != null) {
-                getNextCmd().generateCode(methodscpecbuilder);
-            }
+            generateNextCmd(methodscpecbuilder, walker);
         }
     }
 
@@ -1064,30 +1258,31 @@ public class AbstractTree {
         }
 
         @Override
-        public String toString() {
-            return getHead("<OutputCmd>")
-                + (expression != null ? expression : getBody("<NoExpression/>"))
-                + (getNextCmd() != null ? getNextCmd() : getBody("<NoNextCmd/>"))
-                + getHead("</OutputCmd>");
+        public void print(TreePrinter printer, TreeWalker<IOException> walker) throws IOException {
+            printHead(printer, "<OutputCmd>");
+            printBody(printer, walker, expression, "<NoExpression/>");
+            printBody(printer, walker, getNextCmd(), "<NoNextCmd/>");
+            printHead(printer, walker, "</OutputCmd>");
         }
 
         @Override
-        public void checkCode(Checker checker) throws CheckerException {
-            if (getNextCmd() != null) {
-                getNextCmd().checkCode(checker);
-            }
+        public int countOwnNodes() {
+            return 1 + (expression != null ? expression.countNodes() : 0);
         }
 
         @Override
-        public void generateCode(MethodSpec.Builder methodscpecbuilder) {
+        public void checkCode(Checker checker, TreeWalker<CheckerException> walker) throws CheckerException {
+            checkNextCmd(checker, walker);
+        }
+
+        @Override
+        public void generateCode(MethodSpec.Builder methodscpecbuilder, TreeWalker<RuntimeException> walker) {
             methodscpecbuilder.addStatement("System.out.println(\"Output of value is:\")");
             methodscpecbuilder.addCode("System.out.println(");
             expression.generateCode(methodscpecbuilder);
             methodscpecbuilder.addCode(");" + System.lineSeparator());
 
-            if (getNextCmd() != null) {
-                getNextCmd().generateCode(methodscpecbuilder);
-            }
+            generateNextCmd(methodscpecbuilder, walker);
         }
     }
 
@@ -1115,11 +1310,16 @@ public class AbstractTree {
         }
 
         @Override
-        public String toString() {
-            return getHead("<TypedIdentType>")
-                + getBody("<Ident Name='" + identifier.getName() + "'/>")
-                + getBody("<Type Type='" + type + "'/>")
-                + getHead("</TypedIdentType>");
+        public void print(TreePrinter printer, TreeWalker<IOException> walker) throws IOException {
+            printHead(printer, "<TypedIdentType>");
+            printBody(printer, walker, "<Ident Name='" + identifier.getName() + "'/>");
+            printBody(printer, walker, "<Type Type='" + type + "'/>");
+            printHead(printer, walker, "</TypedIdentType>");
+        }
+
+        @Override
+        public int countNodes() {
+            return 1;
         }
 
         @Override
@@ -1177,10 +1377,15 @@ public class AbstractTree {
         }
 
         @Override
-        public String toString() {
-            return getHead("<LiteralExpr>")
-                + getBody("<Literal Value='" + literal.getValue() + "'/>")
-                + getHead("</LiteralExpr>");
+        public void print(TreePrinter printer, TreeWalker<IOException> walker) throws IOException {
+            printHead(printer, "<LiteralExpr>");
+            printBody(printer, walker, "<Literal Value='" + literal.getValue() + "'/>");
+            printHead(printer, walker, "</LiteralExpr>");
+        }
+
+        @Override
+        public int countNodes() {
+            return 1;
         }
 
         public ExpressionInfo checkCode() throws CheckerException {
@@ -1201,7 +1406,7 @@ public class AbstractTree {
         }
 
         public void generateCode(MethodSpec.Builder methodscpecbuilder) {
-            methodscpecbuilder.addCode(literal.getValue());
+            methodscpecbuilder.addCode(String.valueOf(literal.getValue()));
         }
     }
 
@@ -1218,11 +1423,16 @@ public class AbstractTree {
         }
 
         @Override
-        public String toString() {
-            return getHead("<StoreExpr>")
-                + getBody("<Ident Name='" + identifier.getName() + "'/>")
-                + getBody("<Initialized>" + initialized + "</Initialized>")
-                + getHead("</StoreExpr>");
+        public void print(TreePrinter printer, TreeWalker<IOException> walker) throws IOException {
+            printHead(printer, "<StoreExpr>");
+            printBody(printer, walker, "<Ident Name='" + identifier.getName() + "'/>");
+            printBody(printer, walker, "<Initialized>" + initialized + "</Initialized>");
+            printHead(printer, walker, "</StoreExpr>");
+        }
+
+        @Override
+        public int countNodes() {
+            return 1;
         }
 
         @Override
@@ -1281,10 +1491,15 @@ public class AbstractTree {
         }
 
         @Override
-        public String toString() {
-            return getHead("<FunCallExpr>")
-                + routinecall
-                + getHead("</FunCallExpr>");
+        public void print(TreePrinter printer, TreeWalker<IOException> walker) throws IOException {
+            printHead(printer, "<FunCallExpr>");
+            printBody(printer, walker, routinecall);
+            printHead(printer, walker, "</FunCallExpr>");
+        }
+
+        @Override
+        public int countNodes() {
+            return 1 + routinecall.countNodes();
         }
 
         public ExpressionInfo checkCode(Checker checker) throws CheckerException {
@@ -1309,11 +1524,16 @@ public class AbstractTree {
         }
 
         @Override
-        public String toString() {
-            return getHead("<MonadicExpr>")
-                + getBody("<Operation Operation='" + operation.getOperation() + "'/>")
-                + expression
-                + getHead("</MonadicExpr>");
+        public void print(TreePrinter printer, TreeWalker<IOException> walker) throws IOException {
+            printHead(printer, "<MonadicExpr>");
+            printBody(printer, walker, "<Operation Operation='" + operation.getOperation() + "'/>");
+            printBody(printer, walker, expression);
+            printHead(printer, walker, "</MonadicExpr>");
+        }
+
+        @Override
+        public int countNodes() {
+            return 1 + expression.countNodes();
         }
 
         @Override
@@ -1348,12 +1568,17 @@ public class AbstractTree {
         }
 
         @Override
-        public String toString() {
-            return getHead("<DyadicExpr>")
-                + getBody("<Operation Operation='" + operation.getOperation() + "'/>")
-                + expression1
-                + expression2
-                + getHead("</DyadicExpr>");
+        public void print(TreePrinter printer, TreeWalker<IOException> walker) throws IOException {
+            printHead(printer, "<DyadicExpr>");
+            printBody(printer, walker, "<Operation Operation='" + operation.getOperation() + "'/>");
+            printBody(printer, walker, expression1);
+            printBody(printer, walker, expression2);
+            printHead(printer, walker, "</DyadicExpr>");
+        }
+
+        @Override
+        public int countNodes() {
+            return 1 + expression1.countNodes() + expression2.countNodes();
         }
 
         @Override
@@ -1502,11 +1727,16 @@ public class AbstractTree {
         }
 
         @Override
-        public String toString() {
-            return getHead("<RoutineCall>")
-                + getBody("<Ident Name='" + identifier.getName() + "'/>")
-                + (expressionlist != null ? expressionlist : getBody("<NoNextExpressionList/>"))
-                + getHead("</RoutineCall>");
+        public void print(TreePrinter printer, TreeWalker<IOException> walker) throws IOException {
+            printHead(printer, "<RoutineCall>");
+            printBody(printer, walker, "<Ident Name='" + identifier.getName() + "'/>");
+            printBody(printer, walker, expressionlist, "<NoNextExpressionList/>");
+            printHead(printer, walker, "</RoutineCall>");
+        }
+
+        @Override
+        public int countNodes() {
+            return 1 + (expressionlist != null ? expressionlist.countNodes() : 0);
         }
 
         public ExpressionInfo checkCode(Checker checker) throws CheckerException {
@@ -1559,11 +1789,20 @@ public class AbstractTree {
         }
 
         @Override
-        public String toString() {
-            return getHead("<ExpressionList>")
-                + expression
-                + (expressionlist != null ? expression : getBody("<NoNextExpressionList/>"))
-                + getHead("</ExpressionList>");
+        public void print(TreePrinter printer, TreeWalker<IOException> walker) throws IOException {
+            printHead(printer, "<ExpressionList>");
+            printBody(printer, walker, expression);
+            if (expressionlist != null) {
+                printBody(printer, walker, expression);
+            } else {
+                printBody(printer, walker, "<NoNextExpressionList/>");
+            }
+            printHead(printer, walker, "</ExpressionList>");
+        }
+
+        @Override
+        public int countNodes() {
+            return 1 + expression.countNodes() + (expressionlist != null ? expressionlist.countNodes() : 0);
         }
 
         public void checkCode(Checker checker, List<ExpressionInfo> expressioninfos) throws CheckerException {
@@ -1595,11 +1834,16 @@ public class AbstractTree {
         }
 
         @Override
-        public String toString() {
-            return getHead("<GlobalInit>")
-                + getBody("<Ident Name='" + identifier.getName() + "'/>")
-                + (nextglobalinit != null ? nextglobalinit : getBody("<NoNextGlobalInit/>"))
-                + getHead("</GlobalInit>");
+        public void print(TreePrinter printer, TreeWalker<IOException> walker) throws IOException {
+            printHead(printer, "<GlobalInit>");
+            printBody(printer, walker, "<Ident Name='" + identifier.getName() + "'/>");
+            printBody(printer, walker, nextglobalinit, "<NoNextGlobalInit/>");
+            printHead(printer, walker, "</GlobalInit>");
+        }
+
+        @Override
+        public int countNodes() {
+            return 1 + (nextglobalinit != null ? nextglobalinit.countNodes() : 0);
         }
 
         public void checkCode() {
@@ -1633,13 +1877,18 @@ public class AbstractTree {
         }
 
         @Override
-        public String toString() {
-            return getHead("<GlobalImport>")
-                + getBody("<Mode Name='FLOWMODE' Attribute='" + flowmode.getFlowMode() + "'/>'")
-                + getBody("<Mode Name='CHANGEMODE' Attribute='" + changemode.getChangeMode() + "'/>'")
-                + getBody("<Ident Name='" + identifier.getName() + "'/>")
-                + (nextglobalimport != null ? nextglobalimport : getBody("<NoNextGlobalImport/>"))
-                + getHead("</GlobalImport>");
+        public void print(TreePrinter printer, TreeWalker<IOException> walker) throws IOException {
+            printHead(printer, "<GlobalImport>");
+            printBody(printer, walker, "<Mode Name='FLOWMODE' Attribute='" + flowmode.getFlowMode() + "'/>'");
+            printBody(printer, walker, "<Mode Name='CHANGEMODE' Attribute='" + changemode.getChangeMode() + "'/>'");
+            printBody(printer, walker, "<Ident Name='" + identifier.getName() + "'/>");
+            printBody(printer, walker, nextglobalimport, "<NoNextGlobalImport/>");
+            printHead(printer, walker, "</GlobalImport>");
+        }
+
+        @Override
+        public int countNodes() {
+            return 1 + (nextglobalimport != null ? nextglobalimport.countNodes() : 0);
         }
 
         public void checkCode(Routine routine) {
@@ -1,10 +1,54 @@
 package ch.fhnw.cpib.platform.parser.concretetree;
 
-import ch.fhnw.cpib.platform.parser.util.Node;
+import java.io.IOException;
 
-public abstract class ConcreteNode extends Node {
+public abstract class ConcreteNode {
 
-    public ConcreteNode(int idendation) {
-        super(idendation);
+    // The nodes carry no layout, the printer tracks the idendation while walking down the tree. The repetition chains
+    // print their items in a loop and close their tags at the end, so a long sequence doesn't recurse once per item
+    public abstract void print(ConcreteTreePrinter printer) throws IOException;
+
+    public int countNodes() {
+        // Every node prints one opening line, so the nodes are counted by a print without output
+        NodeCounter counter = new NodeCounter();
+        try {
+            print(counter);
+        } catch (IOException exception) {
+            throw new RuntimeException(exception);
+        }
+        return counter.count;
+    }
+
+    public void writeTo(Appendable appendable) throws IOException {
+        // Stream the dump, so large trees are never built up as a string
+        print(new ConcreteTreePrinter(appendable));
+    }
+
+    @Override
+    public String toString() {
+        StringBuilder builder = new StringBuilder();
+        try {
+            writeTo(builder);
+        } catch (IOException exception) {
+            throw new RuntimeException(exception);
+        }
+        return builder.toString();
+    }
+
+    private static class NodeCounter extends ConcreteTreePrinter {
+
+        private int count;
+
+        NodeCounter() {
+            // Nothing is written, every line is only counted
+            super(null);
+        }
+
+        @Override
+        public void line(String content) {
+            if (!content.startsWith("</")) {
+                count++;
+            }
+        }
     }
 }
@@ -4,6 +4,8 @@ import ch.fhnw.cpib.platform.parser.abstracttree.AbstractTree;
 import ch.fhnw.cpib.platform.scanner.tokens.Terminal;
 import ch.fhnw.cpib.platform.scanner.tokens.Tokens;
 
+import java.io.IOException;
+
 public class ConcreteTree {
 
     public static class Program extends ConcreteNode {
@@ -16,8 +18,7 @@ public class ConcreteTree {
 
         private final CpsCmd cpscmd;
 
-        public Program(Tokens.IdentifierToken identifier, ProgParamList progparamlist, OptCpsDecl optcpsdecl, CpsCmd cpscmd, int idendation) {
-            super(idendation);
+        public Program(Tokens.IdentifierToken identifier, ProgParamList progparamlist, OptCpsDecl optcpsdecl, CpsCmd cpscmd) {
             this.identifier = identifier;
             this.progparamlist = progparamlist;
             this.optcpsdecl = optcpsdecl;
@@ -25,41 +26,50 @@ public class ConcreteTree {
         }
 
         @Override
-        public String toString() {
-            return getHead("<Program Name='" + identifier.getName() + "'>") + progparamlist + optcpsdecl + cpscmd + getHead("</Program>");
+        public void print(ConcreteTreePrinter printer) throws IOException {
+            printer.open("<Program Name='" + identifier.getName() + "'>");
+            progparamlist.print(printer);
+            optcpsdecl.print(printer);
+            cpscmd.print(printer);
+            printer.close("</Program>");
         }
 
         public AbstractTree.Program toAbstract() {
             return new AbstractTree.Program(identifier, progparamlist.toAbstract(1), optcpsdecl.toAbstract(1), cpscmd.toAbstract(1));
         }
+
+        public Program withOptCpsDecl(OptCpsDecl optcpsdecl) {
+            // The declarations of a program can be parsed separately and joined afterwards
+            return new Program(identifier, progparamlist, optcpsdecl, cpscmd);
+        }
     }
 
     public static abstract class Decl extends ConcreteNode {
 
-        Decl(int idendation) {
-            super(idendation);
+        Decl() {
         }
 
-        public abstract AbstractTree.Declaration toAbstract(RepCpsDecl repcpsdecl, int idendation);
+        public abstract AbstractTree.Declaration toAbstract(AbstractTree.Declaration nextdeclaration, int idendation);
     }
 
     public static class DeclSto extends Decl {
 
         private final StoDecl stodecl;
 
-        public DeclSto(StoDecl stodecl, int idendation) {
-            super(idendation);
+        public DeclSto(StoDecl stodecl) {
             this.stodecl = stodecl;
         }
 
         @Override
-        public String toString() {
-            return getHead("<DeclSto>") + stodecl + getHead("</DeclSto>");
+        public void print(ConcreteTreePrinter printer) throws IOException {
+            printer.open("<DeclSto>");
+            stodecl.print(printer);
+            printer.close("</DeclSto>");
         }
 
         @Override
-        public AbstractTree.Declaration toAbstract(RepCpsDecl repcpsdecl, int idendation) {
-            return stodecl.toAbstract(repcpsdecl, idendation);
+        public AbstractTree.Declaration toAbstract(AbstractTree.Declaration nextdeclaration, int idendation) {
+            return stodecl.toAbstract(nextdeclaration, idendation);
         }
     }
 
@@ -67,19 +77,20 @@ public class ConcreteTree {
 
         private final FunDecl fundecl;
 
-        public DeclFun(FunDecl fundecl, int idendation) {
-            super(idendation);
+        public DeclFun(FunDecl fundecl) {
             this.fundecl = fundecl;
         }
 
         @Override
-        public String toString() {
-            return getHead("<DeclFun>") + fundecl + getHead("</DeclFun>");
+        public void print(ConcreteTreePrinter printer) throws IOException {
+            printer.open("<DeclFun>");
+            fundecl.print(printer);
+            printer.close("</DeclFun>");
         }
 
         @Override
-        public AbstractTree.Declaration toAbstract(RepCpsDecl repcpsdecl, int idendation) {
-            return fundecl.toAbstract(repcpsdecl, idendation);
+        public AbstractTree.Declaration toAbstract(AbstractTree.Declaration nextdeclaration, int idendation) {
+            return fundecl.toAbstract(nextdeclaration, idendation);
         }
     }
 
@@ -87,57 +98,50 @@ public class ConcreteTree {
 
         private final ProcDecl procdecl;
 
-        public DeclProc(ProcDecl procdecl, int idendation) {
-            super(idendation);
+        public DeclProc(ProcDecl procdecl) {
             this.procdecl = procdecl;
         }
 
         @Override
-        public String toString() {
-            return getHead("<DeclProc>") + procdecl + getHead("</DeclProc>");
+        public void print(ConcreteTreePrinter printer) throws IOException {
+            printer.open("<DeclProc>");
+            procdecl.print(printer);
+            printer.close("</DeclProc>");
         }
 
         @Override
-        public AbstractTree.Declaration toAbstract(RepCpsDecl repcpsdecl, int idendation) {
-            return procdecl.toAbstract(repcpsdecl, idendation);
+        public AbstractTree.Declaration toAbstract(AbstractTree.Declaration nextdeclaration, int idendation) {
+            return procdecl.toAbstract(nextdeclaration, idendation);
         }
     }
 
     public static abstract class StoDecl extends ConcreteNode {
 
-        StoDecl(int idendation) {
-            super(idendation);
+        StoDecl() {
         }
 
-        public abstract AbstractTree.Declaration toAbstract(RepCpsDecl repcpsdecl, int idendation);
-
-        public abstract AbstractTree.Declaration toAbstract2(RepCpsStoDecl repcpsstodecl, int idendation);
+        public abstract AbstractTree.Declaration toAbstract(AbstractTree.Declaration nextdeclaration, int idendation);
     }
 
     public static class StoDeclIdent extends StoDecl {
 
         private final TypedIdent typedident;
 
-        public StoDeclIdent(TypedIdent typedident, int idendation) {
-            super(idendation);
+        public StoDeclIdent(TypedIdent typedident) {
             this.typedident = typedident;
         }
 
         @Override
-        public String toString() {
-            return getHead("<StoDeclIdent>") + typedident + getHead("</StoDeclIdent>");
+        public void print(ConcreteTreePrinter printer) throws IOException {
+            printer.open("<StoDeclIdent>");
+            typedident.print(printer);
+            printer.close("</StoDeclIdent>");
         }
 
         @Override
-        public AbstractTree.Declaration toAbstract(RepCpsDecl repcpsdecl, int idendation) {
+        public AbstractTree.Declaration toAbstract(AbstractTree.Declaration nextdeclaration, int idendation) {
             Tokens.ChangeModeToken changemode = new Tokens.ChangeModeToken(Terminal.CHANGEMODE, Tokens.ChangeModeToken.ChangeMode.CONST);
-            return new AbstractTree.StoDecl(changemode, typedident.toAbstract(idendation + 1), repcpsdecl != null ? repcpsdecl.toAbstract(idendation + 1) : null, idendation);
-        }
-
-        @Override
-        public AbstractTree.Declaration toAbstract2(RepCpsStoDecl repcpsstodecl, int idendation) {
-            Tokens.ChangeModeToken changemode = new Tokens.ChangeModeToken(Terminal.CHANGEMODE, Tokens.ChangeModeToken.ChangeMode.CONST);
-            return new AbstractTree.StoDecl(changemode, typedident.toAbstract(idendation + 1), repcpsstodecl.toAbstract(idendation + 1), idendation);
+            return new AbstractTree.StoDecl(changemode, typedident.toAbstract(idendation + 1), nextdeclaration, idendation);
         }
     }
 
@@ -147,25 +151,21 @@ public class ConcreteTree {
 
         private final TypedIdent typedident;
 
-        public StoDeclChangemode(Tokens.ChangeModeToken changemode, TypedIdent typedident, int idendation) {
-            super(idendation);
+        public StoDeclChangemode(Tokens.ChangeModeToken changemode, TypedIdent typedident) {
             this.changemode = changemode;
             this.typedident = typedident;
         }
 
         @Override
-        public String toString() {
-            return getHead("<StoDeclChangemode Mode='" + changemode.getChangeMode() + "'>") + typedident + getHead("</StoDeclChangemode>");
-        }
-
-        @Override
-        public AbstractTree.Declaration toAbstract(RepCpsDecl repcpsdecl, int idendation) {
-            return new AbstractTree.StoDecl(changemode, typedident.toAbstract(idendation + 1), repcpsdecl != null ? repcpsdecl.toAbstract(idendation + 1) : null, idendation);
+        public void print(ConcreteTreePrinter printer) throws IOException {
+            printer.open("<StoDeclChangemode Mode='" + changemode.getChangeMode() + "'>");
+            typedident.print(printer);
+            printer.close("</StoDeclChangemode>");
         }
 
         @Override
-        public AbstractTree.Declaration toAbstract2(RepCpsStoDecl repcpsstodecl, int idendation) {
-            return new AbstractTree.StoDecl(changemode, typedident.toAbstract(idendation + 1), repcpsstodecl.toAbstract(idendation + 1), idendation);
+        public AbstractTree.Declaration toAbstract(AbstractTree.Declaration nextdeclaration, int idendation) {
+            return new AbstractTree.StoDecl(changemode, typedident.toAbstract(idendation + 1), nextdeclaration, idendation);
         }
     }
 
@@ -183,8 +183,7 @@ public class ConcreteTree {
 
         private final CpsCmd cpscmd;
 
-        public FunDecl(Tokens.IdentifierToken identifier, ParamList paramlist, StoDecl stodecl, OptGlobImps optglobimps, OptCpsStoDecl optcpsstodecl, CpsCmd cpscmd, int idendation) {
-            super(idendation);
+        public FunDecl(Tokens.IdentifierToken identifier, ParamList paramlist, StoDecl stodecl, OptGlobImps optglobimps, OptCpsStoDecl optcpsstodecl, CpsCmd cpscmd) {
             this.identifier = identifier;
             this.paramlist = paramlist;
             this.stodecl = stodecl;
@@ -194,12 +193,18 @@ public class ConcreteTree {
         }
 
         @Override
-        public String toString() {
-            return getHead("<FunDecl Name='" + identifier.getName() + "'>") + paramlist + stodecl + optglobimps + optcpsstodecl + cpscmd + getHead("</FunDecl>");
+        public void print(ConcreteTreePrinter printer) throws IOException {
+            printer.open("<FunDecl Name='" + identifier.getName() + "'>");
+            paramlist.print(printer);
+            stodecl.print(printer);
+            optglobimps.print(printer);
+            optcpsstodecl.print(printer);
+            cpscmd.print(printer);
+            printer.close("</FunDecl>");
         }
 
-        public AbstractTree.Declaration toAbstract(RepCpsDecl repcpsdecl, int idendation) {
-            return new AbstractTree.FunDecl(identifier, paramlist.toAbstract(idendation + 1), stodecl.toAbstract(null, idendation + 1), optglobimps.toAbstract(idendation + 1), optcpsstodecl.toAbstract(idendation + 1), cpscmd.toAbstract(idendation + 1), repcpsdecl.toAbstract(idendation + 1), idendation);
+        public AbstractTree.Declaration toAbstract(AbstractTree.Declaration nextdeclaration, int idendation) {
+            return new AbstractTree.FunDecl(identifier, paramlist.toAbstract(idendation + 1), stodecl.toAbstract(null, idendation + 1), optglobimps.toAbstract(idendation + 1), optcpsstodecl.toAbstract(idendation + 1), cpscmd.toAbstract(idendation + 1), nextdeclaration, idendation);
         }
     }
 
@@ -215,8 +220,7 @@ public class ConcreteTree {
 
         private final CpsCmd cpscmd;
 
-        public ProcDecl(Tokens.IdentifierToken identifier, ParamList paramlist, OptGlobImps optglobimps, OptCpsStoDecl optcpsstodecl, CpsCmd cpscmd, int idendation) {
-            super(idendation);
+        public ProcDecl(Tokens.IdentifierToken identifier, ParamList paramlist, OptGlobImps optglobimps, OptCpsStoDecl optcpsstodecl, CpsCmd cpscmd) {
             this.identifier = identifier;
             this.paramlist = paramlist;
             this.optglobimps = optglobimps;
@@ -225,19 +229,23 @@ public class ConcreteTree {
         }
 
         @Override
-        public String toString() {
-            return getHead("<ProcDecl Name='" + identifier.getName() + "'>") + paramlist + optglobimps + optcpsstodecl + cpscmd + getHead("</ProcDecl>");
+        public void print(ConcreteTreePrinter printer) throws IOException {
+            printer.open("<ProcDecl Name='" + identifier.getName() + "'>");
+            paramlist.print(printer);
+            optglobimps.print(printer);
+            optcpsstodecl.print(printer);
+            cpscmd.print(printer);
+            printer.close("</ProcDecl>");
         }
 
-        public AbstractTree.Declaration toAbstract(RepCpsDecl repcpsdecl, int idendation) {
-            return new AbstractTree.ProcDecl(identifier, paramlist.toAbstract(idendation + 1), optglobimps.toAbstract(idendation + 1), optcpsstodecl.toAbstract(idendation), repcpsdecl.toAbstract(idendation), cpscmd.toAbstract(idendation + 1), idendation);
+        public AbstractTree.Declaration toAbstract(AbstractTree.Declaration nextdeclaration, int idendation) {
+            return new AbstractTree.ProcDecl(identifier, paramlist.toAbstract(idendation + 1), optglobimps.toAbstract(idendation + 1), optcpsstodecl.toAbstract(idendation + 1), nextdeclaration, cpscmd.toAbstract(idendation + 1), idendation);
         }
     }
 
     public static abstract class OptGlobImps extends ConcreteNode {
 
-        OptGlobImps(int idendation) {
-            super(idendation);
+        OptGlobImps() {
         }
 
         public abstract AbstractTree.GlobalImport toAbstract(int idendation);
@@ -247,14 +255,15 @@ public class ConcreteTree {
 
         private final GlobImps globimps;
 
-        public OptGlobImpsGlobal(GlobImps globimps, int idendation) {
-            super(idendation);
+        public OptGlobImpsGlobal(GlobImps globimps) {
             this.globimps = globimps;
         }
 
         @Override
-        public String toString() {
-            return getHead("<OptGlobImpsGlobal>") + globimps + getHead("</OptGlobImpsGlobal>");
+        public void print(ConcreteTreePrinter printer) throws IOException {
+            printer.open("<OptGlobImpsGlobal>");
+            globimps.print(printer);
+            printer.close("</OptGlobImpsGlobal>");
         }
 
         @Override
@@ -265,13 +274,14 @@ public class ConcreteTree {
 
     public static class OptGlobImpsEpsilon extends OptGlobImps {
 
-        public OptGlobImpsEpsilon(int idendation) {
-            super(idendation);
+        public static final OptGlobImpsEpsilon INSTANCE = new OptGlobImpsEpsilon();
+
+        private OptGlobImpsEpsilon() {
         }
 
         @Override
-        public String toString() {
-            return getHead("<OptGlobImpsEpsilon/>");
+        public void print(ConcreteTreePrinter printer) throws IOException {
+            printer.line("<OptGlobImpsEpsilon/>");
         }
 
         @Override
@@ -286,15 +296,17 @@ public class ConcreteTree {
 
         private final RepGlobImps repglobimps;
 
-        public GlobImps(GlobImp globimp, RepGlobImps repglobimps, int idendation) {
-            super(idendation);
+        public GlobImps(GlobImp globimp, RepGlobImps repglobimps) {
             this.globimp = globimp;
             this.repglobimps = repglobimps;
         }
 
         @Override
-        public String toString() {
-            return getHead("<GlobImps>") + globimp + repglobimps + getHead("</GlobImps>");
+        public void print(ConcreteTreePrinter printer) throws IOException {
+            printer.open("<GlobImps>");
+            globimp.print(printer);
+            repglobimps.print(printer);
+            printer.close("</GlobImps>");
         }
 
         public AbstractTree.GlobalImport toAbstract(int idendation) {
@@ -304,8 +316,7 @@ public class ConcreteTree {
 
     public static abstract class RepGlobImps extends ConcreteNode {
 
-        RepGlobImps(int idendation) {
-            super(idendation);
+        RepGlobImps() {
         }
 
         public abstract AbstractTree.GlobalImport toAbstract(int idendation);
@@ -317,15 +328,26 @@ public class ConcreteTree {
 
         private final RepGlobImps repglobimps;
 
-        public RepGlobImpsComma(GlobImp globimp, RepGlobImps repglobimps, int idendation) {
-            super(idendation);
+        public RepGlobImpsComma(GlobImp globimp, RepGlobImps repglobimps) {
             this.globimp = globimp;
             this.repglobimps = repglobimps;
         }
 
         @Override
-        public String toString() {
-            return getHead("<RepGlobImpsComma>") + globimp + repglobimps + getHead("</RepGlobImpsComma>");
+        public void print(ConcreteTreePrinter printer) throws IOException {
+            int depth = 0;
+            RepGlobImps current = this;
+            while (current instanceof RepGlobImpsComma) {
+                RepGlobImpsComma rep = (RepGlobImpsComma) current;
+                printer.open("<RepGlobImpsComma>");
+                rep.globimp.print(printer);
+                current = rep.repglobimps;
+                depth++;
+            }
+            current.print(printer);
+            for (; depth > 0; depth--) {
+                printer.close("</RepGlobImpsComma>");
+            }
         }
 
         public AbstractTree.GlobalImport toAbstract(int idendation) {
@@ -335,13 +357,14 @@ public class ConcreteTree {
 
     public static class RepGlobImpsEpsilon extends RepGlobImps {
 
-        public RepGlobImpsEpsilon(int idendation) {
-            super(idendation);
+        public static final RepGlobImpsEpsilon INSTANCE = new RepGlobImpsEpsilon();
+
+        private RepGlobImpsEpsilon() {
         }
 
         @Override
-        public String toString() {
-            return getHead("<RepGlobImpsEpsilon/>");
+        public void print(ConcreteTreePrinter printer) throws IOException {
+            printer.line("<RepGlobImpsEpsilon/>");
         }
 
         public AbstractTree.GlobalImport toAbstract(int idendation) {
@@ -351,8 +374,7 @@ public class ConcreteTree {
 
     public static abstract class OptChangemode extends ConcreteNode {
 
-        OptChangemode(int idendation) {
-            super(idendation);
+        OptChangemode() {
         }
 
         public abstract Tokens.ChangeModeToken toAbstract(int idendation);
@@ -362,14 +384,14 @@ public class ConcreteTree {
 
         private final Tokens.ChangeModeToken changemode;
 
-        public OptChangemodeChangemode(Tokens.ChangeModeToken changemode, int idendation) {
-            super(idendation);
+        public OptChangemodeChangemode(Tokens.ChangeModeToken changemode) {
             this.changemode = changemode;
         }
 
         @Override
-        public String toString() {
-            return getHead("<OptChangemodeChangemode Mode='" + changemode.getChangeMode() + "'>") + getHead("</OptChangemodeChangemode>");
+        public void print(ConcreteTreePrinter printer) throws IOException {
+            printer.line("<OptChangemodeChangemode Mode='" + changemode.getChangeMode() + "'>");
+            printer.line("</OptChangemodeChangemode>");
         }
 
         @Override
@@ -380,13 +402,14 @@ public class ConcreteTree {
 
     public static class OptChangemodeEpsilon extends OptChangemode {
 
-        public OptChangemodeEpsilon(int idendation) {
-            super(idendation);
+        public static final OptChangemodeEpsilon INSTANCE = new OptChangemodeEpsilon();
+
+        private OptChangemodeEpsilon() {
         }
 
         @Override
-        public String toString() {
-            return getHead("<OptChangemodeEpsilon/>");
+        public void print(ConcreteTreePrinter printer) throws IOException {
+            printer.line("<OptChangemodeEpsilon/>");
         }
 
         @Override
@@ -397,8 +420,7 @@ public class ConcreteTree {
 
     public static abstract class OptMechmode extends ConcreteNode {
 
-        OptMechmode(int idendation) {
-            super(idendation);
+        OptMechmode() {
         }
 
         public abstract Tokens.MechModeToken toAbstract(int idendation);
@@ -408,14 +430,14 @@ public class ConcreteTree {
 
         private final Tokens.MechModeToken mechmode;
 
-        public OptMechmodeMechmode(Tokens.MechModeToken mechmode, int idendation) {
-            super(idendation);
+        public OptMechmodeMechmode(Tokens.MechModeToken mechmode) {
             this.mechmode = mechmode;
         }
 
         @Override
-        public String toString() {
-            return getHead("<OptMechmodeMechmode Mode='" + mechmode.getMechMode() + "'>") + getHead("</OptMechmodeMechmode>");
+        public void print(ConcreteTreePrinter printer) throws IOException {
+            printer.line("<OptMechmodeMechmode Mode='" + mechmode.getMechMode() + "'>");
+            printer.line("</OptMechmodeMechmode>");
         }
 
         public Tokens.MechModeToken toAbstract(int idendation) {
@@ -425,13 +447,14 @@ public class ConcreteTree {
 
     public static class OptMechmodeEpsilon extends OptMechmode {
 
-        public OptMechmodeEpsilon(int idendation) {
-            super(idendation);
+        public static final OptMechmodeEpsilon INSTANCE = new OptMechmodeEpsilon();
+
+        private OptMechmodeEpsilon() {
         }
 
         @Override
-        public String toString() {
-            return getHead("<OptMechmodeEpsilon/>");
+        public void print(ConcreteTreePrinter printer) throws IOException {
+            printer.line("<OptMechmodeEpsilon/>");
         }
 
         public Tokens.MechModeToken toAbstract(int idendation) {
@@ -441,8 +464,7 @@ public class ConcreteTree {
 
     public static abstract class GlobImp extends ConcreteNode {
 
-        GlobImp(int idendation) {
-            super(idendation);
+        GlobImp() {
         }
 
         public abstract AbstractTree.GlobalImport toAbstract(RepGlobImps repglobimps, int idendation);
@@ -454,15 +476,16 @@ public class ConcreteTree {
 
         private final Tokens.IdentifierToken identifier;
 
-        public GlobImpExpression(OptChangemode optchangemode, Tokens.IdentifierToken identifier, int idendation) {
-            super(idendation);
+        public GlobImpExpression(OptChangemode optchangemode, Tokens.IdentifierToken identifier) {
             this.optchangemode = optchangemode;
             this.identifier = identifier;
         }
 
         @Override
-        public String toString() {
-            return getHead("<GlobImp Name='" + identifier.getName() + "'>") + optchangemode + getHead("</GlobImp>");
+        public void print(ConcreteTreePrinter printer) throws IOException {
+            printer.open("<GlobImp Name='" + identifier.getName() + "'>");
+            optchangemode.print(printer);
+            printer.close("</GlobImp>");
         }
 
         @Override
@@ -480,16 +503,17 @@ public class ConcreteTree {
 
         private final Tokens.IdentifierToken identifier;
 
-        public GlobImpFlowmode(Tokens.FlowModeToken flowmode, OptChangemode optchangemode, Tokens.IdentifierToken identifier, int idendation) {
-            super(idendation);
+        public GlobImpFlowmode(Tokens.FlowModeToken flowmode, OptChangemode optchangemode, Tokens.IdentifierToken identifier) {
             this.flowmode = flowmode;
             this.optchangemode = optchangemode;
             this.identifier = identifier;
         }
 
         @Override
-        public String toString() {
-            return getHead("<GlobImp Mode='" + flowmode.getFlowMode() + "' Name='" + identifier.getName() + "'>") + optchangemode + getHead("</GlobImp>");
+        public void print(ConcreteTreePrinter printer) throws IOException {
+            printer.open("<GlobImp Mode='" + flowmode.getFlowMode() + "' Name='" + identifier.getName() + "'>");
+            optchangemode.print(printer);
+            printer.close("</GlobImp>");
         }
 
         @Override
@@ -500,8 +524,7 @@ public class ConcreteTree {
 
     public static abstract class OptCpsDecl extends ConcreteNode {
 
-        OptCpsDecl(int idendation) {
-            super(idendation);
+        OptCpsDecl() {
         }
 
         public abstract AbstractTree.Declaration toAbstract(int idendation);
@@ -511,14 +534,15 @@ public class ConcreteTree {
 
         private final CpsDecl cpsdecl;
 
-        public OptCpsDeclGlobal(CpsDecl cpsecl, int idendation) {
-            super(idendation);
+        public OptCpsDeclGlobal(CpsDecl cpsecl) {
             this.cpsdecl = cpsecl;
         }
 
         @Override
-        public String toString() {
-            return getHead("<OptCpsDeclGlobal>") + cpsdecl + getHead("</OptCpsDeclGlobal>");
+        public void print(ConcreteTreePrinter printer) throws IOException {
+            printer.open("<OptCpsDeclGlobal>");
+            cpsdecl.print(printer);
+            printer.close("</OptCpsDeclGlobal>");
         }
 
         @Override
@@ -529,13 +553,15 @@ public class ConcreteTree {
 
     public static class OptCpsDeclEpsilon extends OptCpsDecl {
 
-        public OptCpsDeclEpsilon(int idendation) {
-            super(idendation);
+        public static final OptCpsDeclEpsilon INSTANCE = new OptCpsDeclEpsilon();
+
+        private OptCpsDeclEpsilon() {
         }
 
         @Override
-        public String toString() {
-            return getHead("<OptCpsDeclEpsilon>") + getHead("</OptCpsDeclEpsilon>");
+        public void print(ConcreteTreePrinter printer) throws IOException {
+            printer.line("<OptCpsDeclEpsilon>");
+            printer.line("</OptCpsDeclEpsilon>");
         }
 
         @Override
@@ -550,26 +576,27 @@ public class ConcreteTree {
 
         private final RepCpsDecl repcpsdecl;
 
-        public CpsDecl(Decl decl, RepCpsDecl repcpsdecl, int idendation) {
-            super(idendation);
+        public CpsDecl(Decl decl, RepCpsDecl repcpsdecl) {
             this.decl = decl;
             this.repcpsdecl = repcpsdecl;
         }
 
         @Override
-        public String toString() {
-            return getHead("<CpsDecl>") + decl + repcpsdecl + getHead("</CpsDecl>");
+        public void print(ConcreteTreePrinter printer) throws IOException {
+            printer.open("<CpsDecl>");
+            decl.print(printer);
+            repcpsdecl.print(printer);
+            printer.close("</CpsDecl>");
         }
 
         public AbstractTree.Declaration toAbstract(int idendation) {
-            return decl.toAbstract(repcpsdecl, idendation);
+            return decl.toAbstract(repcpsdecl.toAbstract(idendation + 1), idendation);
         }
     }
 
     public static abstract class RepCpsDecl extends ConcreteNode {
 
-        RepCpsDecl(int idendation) {
-            super(idendation);
+        RepCpsDecl() {
         }
 
         public abstract AbstractTree.Declaration toAbstract(int idendation);
@@ -581,32 +608,59 @@ public class ConcreteTree {
 
         private final RepCpsDecl repcpsdecl;
 
-        public RepCpsDeclSemicolon(Decl decl, RepCpsDecl repcpsdecl, int idendation) {
-            super(idendation);
+        public RepCpsDeclSemicolon(Decl decl, RepCpsDecl repcpsdecl) {
             this.decl = decl;
             this.repcpsdecl = repcpsdecl;
         }
 
         @Override
-        public String toString() {
-            return getHead("<RepCpsDeclSemicolon>") + decl + repcpsdecl + getHead("</RepCpsDeclSemicolon>");
+        public void print(ConcreteTreePrinter printer) throws IOException {
+            int depth = 0;
+            RepCpsDecl current = this;
+            while (current instanceof RepCpsDeclSemicolon) {
+                RepCpsDeclSemicolon rep = (RepCpsDeclSemicolon) current;
+                printer.open("<RepCpsDeclSemicolon>");
+                rep.decl.print(printer);
+                current = rep.repcpsdecl;
+                depth++;
+            }
+            current.print(printer);
+            for (; depth > 0; depth--) {
+                printer.close("</RepCpsDeclSemicolon>");
+            }
         }
 
         @Override
         public AbstractTree.Declaration toAbstract(int idendation) {
-            return decl.toAbstract(repcpsdecl, idendation);
+            // Link the sequence from the end, a recursive walk would overflow on long sequences
+            int size = 0;
+            for (RepCpsDecl current = this; current instanceof RepCpsDeclSemicolon; current = ((RepCpsDeclSemicolon) current).repcpsdecl) {
+                size++;
+            }
+            Decl[] decls = new Decl[size];
+            RepCpsDecl current = this;
+            for (int i = 0; i < size; i++) {
+                decls[i] = ((RepCpsDeclSemicolon) current).decl;
+                current = ((RepCpsDeclSemicolon) current).repcpsdecl;
+            }
+            AbstractTree.Declaration nextdeclaration = null;
+            for (int i = size - 1; i >= 0; i--) {
+                nextdeclaration = decls[i].toAbstract(nextdeclaration, idendation + i);
+            }
+            return nextdeclaration;
         }
     }
 
     public static class RepCpsDeclEpsilon extends RepCpsDecl {
 
-        public RepCpsDeclEpsilon(int idendation) {
-            super(idendation);
+        public static final RepCpsDeclEpsilon INSTANCE = new RepCpsDeclEpsilon();
+
+        private RepCpsDeclEpsilon() {
         }
 
         @Override
-        public String toString() {
-            return getHead("<RepCpsDeclEpsilon/>");
+        public void print(ConcreteTreePrinter printer) throws IOException {
+            printer.line("<RepCpsDeclEpsilon/>");
         }
 
         @Override
@@ -617,8 +671,7 @@ public class ConcreteTree {
 
     public static abstract class OptCpsStoDecl extends ConcreteNode {
 
-        OptCpsStoDecl(int idendation) {
-            super(idendation);
+        OptCpsStoDecl() {
         }
 
         public abstract AbstractTree.Declaration toAbstract(int idendation);
@@ -628,14 +681,15 @@ public class ConcreteTree {
 
         private final CpsStoDecl cpsstodecl;
 
-        public OptCpsStoDeclLocal(CpsStoDecl cpsstodecl, int idendation) {
-            super(idendation);
+        public OptCpsStoDeclLocal(CpsStoDecl cpsstodecl) {
             this.cpsstodecl = cpsstodecl;
         }
 
         @Override
-        public String toString() {
-            return getHead("<OptCpsStoDeclLocal>") + cpsstodecl + getHead("</OptCpsStoDeclLocal>");
+        public void print(ConcreteTreePrinter printer) throws IOException {
+            printer.open("<OptCpsStoDeclLocal>");
+            cpsstodecl.print(printer);
+            printer.close("</OptCpsStoDeclLocal>");
         }
 
         public AbstractTree.Declaration toAbstract(int idendation) {
@@ -645,13 +699,14 @@ public class ConcreteTree {
 
     public static class OptCpsStoDeclEpsilon extends OptCpsStoDecl {
 
-        public OptCpsStoDeclEpsilon(int idendation) {
-            super(idendation);
+        public static final OptCpsStoDeclEpsilon INSTANCE = new OptCpsStoDeclEpsilon();
+
+        private OptCpsStoDeclEpsilon() {
         }
 
         @Override
-        public String toString() {
-            return getHead("<OptCpsStoDeclEpsilon/>");
+        public void print(ConcreteTreePrinter printer) throws IOException {
+            printer.line("<OptCpsStoDeclEpsilon/>");
         }
 
         public AbstractTree.Declaration toAbstract(int idendation) {
@@ -665,26 +720,27 @@ public class ConcreteTree {
 
         private final RepCpsStoDecl repcpsstodecl;
 
-        public CpsStoDecl(StoDecl stodecl, RepCpsStoDecl repcpsstodecl, int idendation) {
-            super(idendation);
+        public CpsStoDecl(StoDecl stodecl, RepCpsStoDecl repcpsstodecl) {
             this.stodecl = stodecl;
             this.repcpsstodecl = repcpsstodecl;
         }
 
         @Override
-        public String toString() {
-            return getHead("<CpsStoDecl>") + stodecl + repcpsstodecl + getHead("</CpsStoDecl>");
+        public void print(ConcreteTreePrinter printer) throws IOException {
+            printer.open("<CpsStoDecl>");
+            stodecl.print(printer);
+            repcpsstodecl.print(printer);
+            printer.close("</CpsStoDecl>");
         }
 
         public AbstractTree.Declaration toAbstract(int idendation) {
-            return stodecl.toAbstract2(repcpsstodecl, idendation);
+            return stodecl.toAbstract(repcpsstodecl.toAbstract(idendation + 1), idendation);
         }
     }
 
     public static abstract class RepCpsStoDecl extends ConcreteNode {
 
-        RepCpsStoDecl(int idendation) {
-            super(idendation);
+        RepCpsStoDecl() {
         }
 
         public abstract AbstractTree.Declaration toAbstract(int idendation);
@@ -696,31 +752,58 @@ public class ConcreteTree {
 
         private final RepCpsStoDecl repcpsstodecl;
 
-        public RepCpsStoDeclSemicolon(StoDecl stodecl, RepCpsStoDecl repcpsstodecl, int idendation) {
-            super(idendation);
+        public RepCpsStoDeclSemicolon(StoDecl stodecl, RepCpsStoDecl repcpsstodecl) {
             this.stodecl = stodecl;
             this.repcpsstodecl = repcpsstodecl;
         }
 
         @Override
-        public String toString() {
-            return getHead("<RepCpsStoDeclSemicolon>") + stodecl + repcpsstodecl + getHead("</RepCpsStoDeclSemicolon>");
+        public void print(ConcreteTreePrinter printer) throws IOException {
+            int depth = 0;
+            RepCpsStoDecl current = this;
+            while (current instanceof RepCpsStoDeclSemicolon) {
+                RepCpsStoDeclSemicolon rep = (RepCpsStoDeclSemicolon) current;
+                printer.open("<RepCpsStoDeclSemicolon>");
+                rep.stodecl.print(printer);
+                current = rep.repcpsstodecl;
+                depth++;
+            }
+            current.print(printer);
+            for (; depth > 0; depth--) {
+                printer.close("</RepCpsStoDeclSemicolon>");
+            }
         }
 
         public AbstractTree.Declaration toAbstract(int idendation) {
-            return stodecl.toAbstract2(repcpsstodecl, idendation);
+            int size = 0;
+            for (RepCpsStoDecl current = this; current instanceof RepCpsStoDeclSemicolon; current = ((RepCpsStoDeclSemicolon) current).repcpsstodecl) {
+                size++;
+            }
+            StoDecl[] stodecls = new StoDecl[size];
+            RepCpsStoDecl current = this;
+            for (int i = 0; i < size; i++) {
+                stodecls[i] = ((RepCpsStoDeclSemicolon) current).stodecl;
+                current = ((RepCpsStoDeclSemicolon) current).repcpsstodecl;
+            }
+            AbstractTree.Declaration nextdeclaration = null;
+            for (int i = size - 1; i >= 0; i--) {
+                nextdeclaration = stodecls[i].toAbstract(nextdeclaration, idendation + i);
+            }
+            return nextdeclaration;
         }
     }
 
     public static class RepCpsStoDeclEpsilon extends RepCpsStoDecl {
 
-        public RepCpsStoDeclEpsilon(int idendation) {
-            super(idendation);
+        public static final RepCpsStoDeclEpsilon INSTANCE = new RepCpsStoDeclEpsilon();
+
+        private RepCpsStoDeclEpsilon() {
         }
 
         @Override
-        public String toString() {
-            return getHead("<RepCpsStoDeclEpsilon>") + getHead("</RepCpsStoDeclEpsilon>");
+        public void print(ConcreteTreePrinter printer) throws IOException {
+            printer.line("<RepCpsStoDeclEpsilon>");
+            printer.line("</RepCpsStoDeclEpsilon>");
         }
 
         public AbstractTree.Declaration toAbstract(int idendation) {
@@ -732,14 +815,15 @@ public class ConcreteTree {
 
         private final OptProgParamList optprogparamlist;
 
-        public ProgParamList(OptProgParamList optprogparamlist, int idendation) {
-            super(idendation);
+        public ProgParamList(OptProgParamList optprogparamlist) {
             this.optprogparamlist = optprogparamlist;
         }
 
         @Override
-        public String toString() {
-            return getHead("<ProgParamList>") + optprogparamlist + getHead("</ProgParamList>");
+        public void print(ConcreteTreePrinter printer) throws IOException {
+            printer.open("<ProgParamList>");
+            optprogparamlist.print(printer);
+            printer.close("</ProgParamList>");
         }
 
         public AbstractTree.ProgParam toAbstract(int idendation) {
@@ -749,8 +833,7 @@ public class ConcreteTree {
 
     public static abstract class OptProgParamList extends ConcreteNode {
 
-        OptProgParamList(int idendation) {
-            super(idendation);
+        OptProgParamList() {
         }
 
         public abstract AbstractTree.ProgParam toAbstract(int idendation);
@@ -762,15 +845,17 @@ public class ConcreteTree {
 
         private final RepProgParamList repprogparamlist;
 
-        public OptProgParamListExpression(ProgParam progparam, RepProgParamList repprogparamlist, int idendation) {
-            super(idendation);
+        public OptProgParamListExpression(ProgParam progparam, RepProgParamList repprogparamlist) {
             this.progparam = progparam;
             this.repprogparamlist = repprogparamlist;
         }
 
         @Override
-        public String toString() {
-            return getHead("<OptProgParamListExpression>") + progparam + repprogparamlist + getHead("</OptProgParamListExpression>");
+        public void print(ConcreteTreePrinter printer) throws IOException {
+            printer.open("<OptProgParamListExpression>");
+            progparam.print(printer);
+            repprogparamlist.print(printer);
+            printer.close("</OptProgParamListExpression>");
         }
 
         @Override
@@ -781,13 +866,14 @@ public class ConcreteTree {
 
     public static class OptProgParamListEpsilon extends OptProgParamList {
 
-        public OptProgParamListEpsilon(int idendation) {
-            super(idendation);
+        public static final OptProgParamListEpsilon INSTANCE = new OptProgParamListEpsilon();
+
+        private OptProgParamListEpsilon() {
         }
 
         @Override
-        public String toString() {
-            return getHead("<OptProgParamListEpsilon/>");
+        public void print(ConcreteTreePrinter printer) throws IOException {
+            printer.line("<OptProgParamListEpsilon/>");
         }
 
         @Override
@@ -798,8 +884,7 @@ public class ConcreteTree {
 
     public static abstract class RepProgParamList extends ConcreteNode {
 
-        RepProgParamList(int idendation) {
-            super(idendation);
+        RepProgParamList() {
         }
 
         public abstract AbstractTree.ProgParam toAbstract(int idendation);
@@ -811,15 +896,26 @@ public class ConcreteTree {
 
         private final RepProgParamList repprogparamlist;
 
-        public RepProgParamListComma(ProgParam progparam, RepProgParamList repprogparamlist, int idendation) {
-            super(idendation);
+        public RepProgParamListComma(ProgParam progparam, RepProgParamList repprogparamlist) {
             this.progparam = progparam;
             this.repprogparamlist = repprogparamlist;
         }
 
         @Override
-        public String toString() {
-            return getHead("<RepProgParamListComma>") + progparam + repprogparamlist + getHead("</RepProgParamListComma>");
+        public void print(ConcreteTreePrinter printer) throws IOException {
+            int depth = 0;
+            RepProgParamList current = this;
+            while (current instanceof RepProgParamListComma) {
+                RepProgParamListComma rep = (RepProgParamListComma) current;
+                printer.open("<RepProgParamListComma>");
+                rep.progparam.print(printer);
+                current = rep.repprogparamlist;
+                depth++;
+            }
+            current.print(printer);
+            for (; depth > 0; depth--) {
+                printer.close("</RepProgParamListComma>");
+            }
         }
 
         @Override
@@ -830,13 +926,14 @@ public class ConcreteTree {
 
     public static class RepProgParamListEpsilon extends RepProgParamList {
 
-        public RepProgParamListEpsilon(int idendation) {
-            super(idendation);
+        public static final RepProgParamListEpsilon INSTANCE = new RepProgParamListEpsilon();
+
+        private RepProgParamListEpsilon() {
         }
 
         @Override
-        public String toString() {
-            return getHead("<RepProgParamListEpsilon/>");
+        public void print(ConcreteTreePrinter printer) throws IOException {
+            printer.line("<RepProgParamListEpsilon/>");
         }
 
         @Override
@@ -847,8 +944,7 @@ public class ConcreteTree {
 
     public static abstract class ProgParam extends ConcreteNode {
 
-        ProgParam(int idendation) {
-            super(idendation);
+        ProgParam() {
         }
 
         public abstract AbstractTree.ProgParam toAbstract(RepProgParamList repprogparamlist, int idendation);
@@ -860,15 +956,17 @@ public class ConcreteTree {
 
         private final TypedIdent typedident;
 
-        public ProgParamExpression(OptChangemode optchangemode, TypedIdent typedident, int idendation) {
-            super(idendation);
+        public ProgParamExpression(OptChangemode optchangemode, TypedIdent typedident) {
             this.optchangemode = optchangemode;
             this.typedident = typedident;
         }
 
         @Override
-        public String toString() {
-            return getHead("<ProgParamExpression>") + optchangemode + typedident + getHead("<ProgParamExpression>");
+        public void print(ConcreteTreePrinter printer) throws IOException {
+            printer.open("<ProgParamExpression>");
+            optchangemode.print(printer);
+            typedident.print(printer);
+            printer.close("</ProgParamExpression>");
         }
 
         @Override
@@ -886,16 +984,18 @@ public class ConcreteTree {
 
         private final TypedIdent typedident;
 
-        public ProgParamFlowmode(Tokens.FlowModeToken flowmode, OptChangemode optchangemode, TypedIdent typedident, int idendation) {
-            super(idendation);
+        public ProgParamFlowmode(Tokens.FlowModeToken flowmode, OptChangemode optchangemode, TypedIdent typedident) {
             this.flowmode = flowmode;
             this.optchangemode = optchangemode;
             this.typedident = typedident;
         }
 
         @Override
-        public String toString() {
-            return getHead("<ProgParamFlowmode Mode='" + flowmode.getFlowMode() + "'>") + optchangemode + typedident + getHead("<ProgParamFlowmode>");
+        public void print(ConcreteTreePrinter printer) throws IOException {
+            printer.open("<ProgParamFlowmode Mode='" + flowmode.getFlowMode() + "'>");
+            optchangemode.print(printer);
+            typedident.print(printer);
+            printer.close("</ProgParamFlowmode>");
         }
 
         @Override
@@ -908,14 +1008,15 @@ public class ConcreteTree {
 
         private final OptParamList optparamlist;
 
-        public ParamList(OptParamList optparamlist, int idendation) {
-            super(idendation);
+        public ParamList(OptParamList optparamlist) {
             this.optparamlist = optparamlist;
         }
 
         @Override
-        public String toString() {
-            return getHead("<ParamList>") + optparamlist + getHead("</ParamList>");
+        public void print(ConcreteTreePrinter printer) throws IOException {
+            printer.open("<ParamList>");
+            optparamlist.print(printer);
+            printer.close("</ParamList>");
         }
 
         public AbstractTree.Param toAbstract(int idendation) {
@@ -925,8 +1026,7 @@ public class ConcreteTree {
 
     public static abstract class OptParamList extends ConcreteNode {
 
-        OptParamList(int idendation) {
-            super(idendation);
+        OptParamList() {
         }
 
         public abstract AbstractTree.Param toAbstract(int idendation);
@@ -938,15 +1038,17 @@ public class ConcreteTree {
 
         private final RepParamList repparamlist;
 
-        public OptParamListRepeating(Param param, RepParamList repparamlist, int idendation) {
-            super(idendation);
+        public OptParamListRepeating(Param param, RepParamList repparamlist) {
             this.param = param;
             this.repparamlist = repparamlist;
         }
 
         @Override
-        public String toString() {
-            return getHead("<OptParamListRepeating>") + param + repparamlist + getHead("</OptParamListRepeating>");
+        public void print(ConcreteTreePrinter printer) throws IOException {
+            printer.open("<OptParamListRepeating>");
+            param.print(printer);
+            repparamlist.print(printer);
+            printer.close("</OptParamListRepeating>");
         }
 
         @Override
@@ -957,13 +1059,14 @@ public class ConcreteTree {
 
     public static class OptParamListEpsilon extends OptParamList {
 
-        public OptParamListEpsilon(int idendation) {
-            super(idendation);
+        public static final OptParamListEpsilon INSTANCE = new OptParamListEpsilon();
+
+        private OptParamListEpsilon() {
         }
 
         @Override
-        public String toString() {
-            return getHead("<OptParamListEpsilon/>");
+        public void print(ConcreteTreePrinter printer) throws IOException {
+            printer.line("<OptParamListEpsilon/>");
         }
 
         @Override
@@ -974,8 +1077,7 @@ public class ConcreteTree {
 
     public static abstract class RepParamList extends ConcreteNode {
 
-        RepParamList(int idendation) {
-            super(idendation);
+        RepParamList() {
         }
 
         public abstract AbstractTree.Param toAbstract(int idendation);
@@ -987,15 +1089,26 @@ public class ConcreteTree {
 
         private final RepParamList repparamlist;
 
-        public RepParamListComma(Param param, RepParamList repparamlist, int idendation) {
-            super(idendation);
+        public RepParamListComma(Param param, RepParamList repparamlist) {
             this.param = param;
             this.repparamlist = repparamlist;
         }
 
         @Override
-        public String toString() {
-            return getHead("<RepParamListComma>") + param + repparamlist + getHead("</RepParamListComma>");
+        public void print(ConcreteTreePrinter printer) throws IOException {
+            int depth = 0;
+            RepParamList current = this;
+            while (current instanceof RepParamListComma) {
+                RepParamListComma rep = (RepParamListComma) current;
+                printer.open("<RepParamListComma>");
+                rep.param.print(printer);
+                current = rep.repparamlist;
+                depth++;
+            }
+            current.print(printer);
+            for (; depth > 0; depth--) {
+                printer.close("</RepParamListComma>");
+            }
         }
 
         public AbstractTree.Param toAbstract(int idendation) {
@@ -1005,13 +1118,14 @@ public class ConcreteTree {
 
     public static class RepParamListEpsilon extends RepParamList {
 
-        public RepParamListEpsilon(int idendation) {
-            super(idendation);
+        public static final RepParamListEpsilon INSTANCE = new RepParamListEpsilon();
+
+        private RepParamListEpsilon() {
         }
 
         @Override
-        public String toString() {
-            return getHead("<RepParamListEpsilon/>");
+        public void print(ConcreteTreePrinter printer) throws IOException {
+            printer.line("<RepParamListEpsilon/>");
         }
 
         public AbstractTree.Param toAbstract(int idendation) {
@@ -1021,8 +1135,7 @@ public class ConcreteTree {
 
     public static abstract class Param extends ConcreteNode {
 
-        Param(int idendation) {
-            super(idendation);
+        Param() {
         }
 
         public abstract AbstractTree.Param toAbstract(RepParamList repparamlist, int idendation);
@@ -1036,16 +1149,19 @@ public class ConcreteTree {
 
         private final TypedIdent typedident;
 
-        public ParamExpression(OptMechmode optmechmode, OptChangemode optchangemode, TypedIdent typedident, int idendation) {
-            super(idendation);
+        public ParamExpression(OptMechmode optmechmode, OptChangemode optchangemode, TypedIdent typedident) {
             this.optmechmode = optmechmode;
             this.optchangemode = optchangemode;
             this.typedident = typedident;
         }
 
         @Override
-        public String toString() {
-            return getHead("<ParamExpression>") + optmechmode + optchangemode + typedident + getHead("</ParamExpression>");
+        public void print(ConcreteTreePrinter printer) throws IOException {
+            printer.open("<ParamExpression>");
+            optmechmode.print(printer);
+            optchangemode.print(printer);
+            typedident.print(printer);
+            printer.close("</ParamExpression>");
         }
 
         @Override
@@ -1065,8 +1181,7 @@ public class ConcreteTree {
 
         private final TypedIdent typedident;
 
-        public ParamFlowmode(Tokens.FlowModeToken flowmode, OptMechmode optmechmode, OptChangemode optchangemode, TypedIdent typedident, int idendation) {
-            super(idendation);
+        public ParamFlowmode(Tokens.FlowModeToken flowmode, OptMechmode optmechmode, OptChangemode optchangemode, TypedIdent typedident) {
             this.flowmode = flowmode;
             this.optmechmode = optmechmode;
             this.optchangemode = optchangemode;
@@ -1074,8 +1189,12 @@ public class ConcreteTree {
         }
 
         @Override
-        public String toString() {
-            return getHead("<ParamFlowmode Mode='" + flowmode.getFlowMode() + "'>") + optmechmode + optchangemode + typedident + getHead("</ParamFlowmode>");
+        public void print(ConcreteTreePrinter printer) throws IOException {
+            printer.open("<ParamFlowmode Mode='" + flowmode.getFlowMode() + "'>");
+            optmechmode.print(printer);
+            optchangemode.print(printer);
+            typedident.print(printer);
+            printer.close("</ParamFlowmode>");
         }
 
         @Override
@@ -1090,15 +1209,14 @@ public class ConcreteTree {
 
         private final Tokens.TypeToken.Type type;
 
-        public TypedIdent(Tokens.IdentifierToken identifier, Tokens.TypeToken.Type type, int idendation) {
-            super(idendation);
+        public TypedIdent(Tokens.IdentifierToken identifier, Tokens.TypeToken.Type type) {
             this.identifier = identifier;
             this.type = type;
         }
 
         @Override
-        public String toString() {
-            return getHead("<TypedIdent Name='" + identifier.getName() + "' Type='" + type + "'/>");
+        public void print(ConcreteTreePrinter printer) throws IOException {
+            printer.line("<TypedIdent Name='" + identifier.getName() + "' Type='" + type + "'/>");
         }
 
         public AbstractTree.TypedIdent toAbstract(int idendation) {
@@ -1108,27 +1226,27 @@ public class ConcreteTree {
 
     public static abstract class Cmd extends ConcreteNode {
 
-        Cmd(int idendation) {
-            super(idendation);
+        Cmd() {
         }
 
-        public abstract AbstractTree.Cmd toAbstract(RepCpsCmd repcpscmd, int idendation);
+        public abstract AbstractTree.Cmd toAbstract(AbstractTree.Cmd nextcmd, int idendation);
     }
 
     public static class CmdSkip extends Cmd {
 
-        public CmdSkip(int idendation) {
-            super(idendation);
+        public static final CmdSkip INSTANCE = new CmdSkip();
+
+        private CmdSkip() {
         }
 
         @Override
-        public String toString() {
-            return getHead("<CmdSkip/>");
+        public void print(ConcreteTreePrinter printer) throws IOException {
+            printer.line("<CmdSkip/>");
         }
 
         @Override
-        public AbstractTree.Cmd toAbstract(RepCpsCmd repcpscmd, int idendation) {
-            return new AbstractTree.SkipCmd(repcpscmd.toAbstract(idendation + 1), idendation);
+        public AbstractTree.Cmd toAbstract(AbstractTree.Cmd nextcmd, int idendation) {
+            return new AbstractTree.SkipCmd(nextcmd, idendation);
         }
     }
 
@@ -1142,8 +1260,7 @@ public class ConcreteTree {
 
         private final RepExprList repexprlist2;
 
-        public CmdExpression(Expr expr1, RepExprList repexprlist1, Expr expr2, RepExprList repexprlist2, int idendation) {
-            super(idendation);
+        public CmdExpression(Expr expr1, RepExprList repexprlist1, Expr expr2, RepExprList repexprlist2) {
             this.expr1 = expr1;
             this.repexprlist1 = repexprlist1;
             this.expr2 = expr2;
@@ -1151,13 +1268,18 @@ public class ConcreteTree {
         }
 
         @Override
-        public String toString() {
-            return getHead("<CmdExpression>") + expr1 + repexprlist1 + expr2 + repexprlist2 + getHead("</CmdExpression>");
+        public void print(ConcreteTreePrinter printer) throws IOException {
+            printer.open("<CmdExpression>");
+            expr1.print(printer);
+            repexprlist1.print(printer);
+            expr2.print(printer);
+            repexprlist2.print(printer);
+            printer.close("</CmdExpression>");
         }
 
         @Override
-        public AbstractTree.Cmd toAbstract(RepCpsCmd repcpscmd, int idendation) {
-            return new AbstractTree.AssiCmd(expr1.toAbstract(idendation), repexprlist1.toAbstract(idendation + 1), expr2.toAbstract(idendation), repexprlist2.toAbstract(idendation + 1), repcpscmd.toAbstract(idendation + 1), idendation);
+        public AbstractTree.Cmd toAbstract(AbstractTree.Cmd nextcmd, int idendation) {
+            return new AbstractTree.AssiCmd(expr1.toAbstract(idendation), repexprlist1.toAbstract(idendation + 1), expr2.toAbstract(idendation), repexprlist2.toAbstract(idendation + 1), nextcmd, idendation);
         }
     }
 
@@ -1171,8 +1293,7 @@ public class ConcreteTree {
 
         private final OptElse optelse;
 
-        public CmdIf(Expr expr, CpsCmd cpscmd, RepElseif repelseif, OptElse optelse, int idendation) {
-            super(idendation);
+        public CmdIf(Expr expr, CpsCmd cpscmd, RepElseif repelseif, OptElse optelse) {
             this.expr = expr;
             this.cpscmd = cpscmd;
             this.repelseif = repelseif;
@@ -1180,13 +1301,18 @@ public class ConcreteTree {
         }
 
         @Override
-        public String toString() {
-            return getHead("<CmdIf>") + expr + cpscmd + repelseif + optelse + getHead("</CmdIf>");
+        public void print(ConcreteTreePrinter printer) throws IOException {
+            printer.open("<CmdIf>");
+            expr.print(printer);
+            cpscmd.print(printer);
+            repelseif.print(printer);
+            optelse.print(printer);
+            printer.close("</CmdIf>");
         }
 
         @Override
-        public AbstractTree.Cmd toAbstract(RepCpsCmd repcpscmd, int idendation) {
-            return new AbstractTree.CondCmd(expr.toAbstract(idendation), cpscmd.toAbstract(idendation + 1), repelseif.toAbstract(idendation + 1), optelse.toAbstract(idendation), repcpscmd.toAbstract(idendation + 1), idendation);
+        public AbstractTree.Cmd toAbstract(AbstractTree.Cmd nextcmd, int idendation) {
+            return new AbstractTree.CondCmd(expr.toAbstract(idendation), cpscmd.toAbstract(idendation + 1), repelseif.toAbstract(idendation + 1), optelse.toAbstract(idendation), nextcmd, idendation);
         }
     }
 
@@ -1202,8 +1328,7 @@ public class ConcreteTree {
 
         private final OptDefault optdefault;
 
-        public CmdSwitch(Expr expr, Tokens.LiteralToken literal, CpsCmd cpscmd, RepCase repcase, OptDefault optdefault, int idendation) {
-            super(idendation);
+        public CmdSwitch(Expr expr, Tokens.LiteralToken literal, CpsCmd cpscmd, RepCase repcase, OptDefault optdefault) {
             this.expr = expr;
             this.literal = literal;
             this.cpscmd = cpscmd;
@@ -1212,14 +1337,19 @@ public class ConcreteTree {
         }
 
         @Override
-        public String toString() {
-            return getHead("<CmdSwitch Value='" + literal.getValue() + "'>") + expr + cpscmd + repcase + optdefault + getHead("</CmdSwitch>");
+        public void print(ConcreteTreePrinter printer) throws IOException {
+            printer.open("<CmdSwitch Value='" + literal.getValue() + "'>");
+            expr.print(printer);
+            cpscmd.print(printer);
+            repcase.print(printer);
+            optdefault.print(printer);
+            printer.close("</CmdSwitch>");
         }
 
         @Override
-        public AbstractTree.Cmd toAbstract(RepCpsCmd repcpscmd, int idendation) {
+        public AbstractTree.Cmd toAbstract(AbstractTree.Cmd nextcmd, int idendation) {
             AbstractTree.RepCaseCmd repcasecmd = new AbstractTree.RepCaseCmd(literal, cpscmd.toAbstract(idendation + 2), repcase.toAbstract(idendation + 2), idendation + 1);
-            return new AbstractTree.SwitchCmd(expr.toAbstract(idendation), repcasecmd, optdefault.toAbstract(idendation), repcpscmd.toAbstract(idendation), idendation);
+            return new AbstractTree.SwitchCmd(expr.toAbstract(idendation), repcasecmd, optdefault.toAbstract(idendation), nextcmd, idendation);
         }
     }
 
@@ -1229,20 +1359,22 @@ public class ConcreteTree {
 
         private final CpsCmd cpscmd;
 
-        public CmdWhile(Expr expr, CpsCmd cpscmd, int idendation) {
-            super(idendation);
+        public CmdWhile(Expr expr, CpsCmd cpscmd) {
             this.expr = expr;
             this.cpscmd = cpscmd;
         }
 
         @Override
-        public String toString() {
-            return getHead("<CmdWhile>") + expr + cpscmd + getHead("</CmdWhile>");
+        public void print(ConcreteTreePrinter printer) throws IOException {
+            printer.open("<CmdWhile>");
+            expr.print(printer);
+            cpscmd.print(printer);
+            printer.close("</CmdWhile>");
         }
 
         @Override
-        public AbstractTree.Cmd toAbstract(RepCpsCmd repcpscmd, int idendation) {
-            return new AbstractTree.WhileCmd(expr.toAbstract(idendation + 1), cpscmd.toAbstract(idendation + 1), repcpscmd.toAbstract(idendation + 1), idendation);
+        public AbstractTree.Cmd toAbstract(AbstractTree.Cmd nextcmd, int idendation) {
+            return new AbstractTree.WhileCmd(expr.toAbstract(idendation + 1), cpscmd.toAbstract(idendation + 1), nextcmd, idendation);
         }
     }
 
@@ -1254,21 +1386,23 @@ public class ConcreteTree {
 
         private final OptGlobInits optglobinits;
 
-        public CmdCall(Tokens.IdentifierToken identifier, ExprList exprlist, OptGlobInits optglobinits, int idendation) {
-            super(idendation);
+        public CmdCall(Tokens.IdentifierToken identifier, ExprList exprlist, OptGlobInits optglobinits) {
             this.identifier = identifier;
             this.exprlist = exprlist;
             this.optglobinits = optglobinits;
         }
 
         @Override
-        public String toString() {
-            return getHead("<CmdCall Name='" + identifier.getName() + "'>") + exprlist + optglobinits + getHead("</CmdCall>");
+        public void print(ConcreteTreePrinter printer) throws IOException {
+            printer.open("<CmdCall Name='" + identifier.getName() + "'>");
+            exprlist.print(printer);
+            optglobinits.print(printer);
+            printer.close("</CmdCall>");
         }
 
         @Override
-        public AbstractTree.Cmd toAbstract(RepCpsCmd repcpscmd, int idendation) {
-            return new AbstractTree.ProcCallCmd(new AbstractTree.RoutineCall(identifier, exprlist.toAbstract(idendation + 2), idendation + 1), optglobinits.toAbstract(idendation + 1), repcpscmd.toAbstract(idendation + 1), idendation);
+        public AbstractTree.Cmd toAbstract(AbstractTree.Cmd nextcmd, int idendation) {
+            return new AbstractTree.ProcCallCmd(new AbstractTree.RoutineCall(identifier, exprlist.toAbstract(idendation + 2), idendation + 1), optglobinits.toAbstract(idendation + 1), nextcmd, idendation);
         }
     }
 
@@ -1276,19 +1410,20 @@ public class ConcreteTree {
 
         private final Expr expr;
 
-        public CmdDebugIn(Expr expr, int idendation) {
-            super(idendation);
+        public CmdDebugIn(Expr expr) {
             this.expr = expr;
         }
 
         @Override
-        public String toString() {
-            return getHead("<CmdDebugIn>") + expr + getHead("</CmdDebugInt>");
+        public void print(ConcreteTreePrinter printer) throws IOException {
+            printer.open("<CmdDebugIn>");
+            expr.print(printer);
+            printer.close("</CmdDebugInt>");
         }
 
         @Override
-        public AbstractTree.Cmd toAbstract(RepCpsCmd repcpscmd, int idendation) {
-            return new AbstractTree.InputCmd(expr.toAbstract(idendation), repcpscmd.toAbstract(idendation + 1), idendation);
+        public AbstractTree.Cmd toAbstract(AbstractTree.Cmd nextcmd, int idendation) {
+            return new AbstractTree.InputCmd(expr.toAbstract(idendation), nextcmd, idendation);
         }
     }
 
@@ -1296,19 +1431,20 @@ public class ConcreteTree {
 
         private final Expr expr;
 
-        public CmdDebugOut(Expr expr, int idendation) {
-            super(idendation);
+        public CmdDebugOut(Expr expr) {
             this.expr = expr;
         }
 
         @Override
-        public String toString() {
-            return getHead("<CmdDebugOut>") + expr + getHead("</CmdDebugOut>");
+        public void print(ConcreteTreePrinter printer) throws IOException {
+            printer.open("<CmdDebugOut>");
+            expr.print(printer);
+            printer.close("</CmdDebugOut>");
         }
 
         @Override
-        public AbstractTree.Cmd toAbstract(RepCpsCmd repcpscmd, int idendation) {
-            return new AbstractTree.OutputCmd(expr.toAbstract(idendation), repcpscmd.toAbstract(idendation + 1), idendation);
+        public AbstractTree.Cmd toAbstract(AbstractTree.Cmd nextcmd, int idendation) {
+            return new AbstractTree.OutputCmd(expr.toAbstract(idendation), nextcmd, idendation);
         }
     }
 
@@ -1318,26 +1454,27 @@ public class ConcreteTree {
 
         private final RepCpsCmd repcpscmd;
 
-        public CpsCmd(Cmd cmd, RepCpsCmd repcpscmd, int idendation) {
-            super(idendation);
+        public CpsCmd(Cmd cmd, RepCpsCmd repcpscmd) {
             this.cmd = cmd;
             this.repcpscmd = repcpscmd;
         }
 
         @Override
-        public String toString() {
-            return getHead("<CpsCmd>") + cmd + repcpscmd + getHead("</CpsCmd>");
+        public void print(ConcreteTreePrinter printer) throws IOException {
+            printer.open("<CpsCmd>");
+            cmd.print(printer);
+            repcpscmd.print(printer);
+            printer.close("</CpsCmd>");
         }
 
         public AbstractTree.Cmd toAbstract(int idendation) {
-            return cmd.toAbstract(repcpscmd, idendation);
+            return cmd.toAbstract(repcpscmd.toAbstract(idendation + 1), idendation);
         }
     }
 
     public static abstract class RepCpsCmd extends ConcreteNode {
 
-        RepCpsCmd(int idendation) {
-            super(idendation);
+        RepCpsCmd() {
         }
 
         public abstract AbstractTree.Cmd toAbstract(int idendation);
@@ -1349,32 +1486,58 @@ public class ConcreteTree {
 
         private final RepCpsCmd repcpscmd;
 
-        public RepCpsCmdSemicolon(Cmd cmd, RepCpsCmd repcpscmd, int idendation) {
-            super(idendation);
+        public RepCpsCmdSemicolon(Cmd cmd, RepCpsCmd repcpscmd) {
             this.cmd = cmd;
             this.repcpscmd = repcpscmd;
         }
 
         @Override
-        public String toString() {
-            return getHead("<RepCpsCmdSemicolon>") + cmd + repcpscmd + getHead("</RepCpsCmdSemicolon>");
+        public void print(ConcreteTreePrinter printer) throws IOException {
+            int depth = 0;
+            RepCpsCmd current = this;
+            while (current instanceof RepCpsCmdSemicolon) {
+                RepCpsCmdSemicolon rep = (RepCpsCmdSemicolon) current;
+                printer.open("<RepCpsCmdSemicolon>");
+                rep.cmd.print(printer);
+                current = rep.repcpscmd;
+                depth++;
+            }
+            current.print(printer);
+            for (; depth > 0; depth--) {
+                printer.close("</RepCpsCmdSemicolon>");
+            }
         }
 
         @Override
         public AbstractTree.Cmd toAbstract(int idendation) {
-            return cmd.toAbstract(repcpscmd, idendation);
+            int size = 0;
+            for (RepCpsCmd current = this; current instanceof RepCpsCmdSemicolon; current = ((RepCpsCmdSemicolon) current).repcpscmd) {
+                size++;
+            }
+            Cmd[] cmds = new Cmd[size];
+            RepCpsCmd current = this;
+            for (int i = 0; i < size; i++) {
+                cmds[i] = ((RepCpsCmdSemicolon) current).cmd;
+                current = ((RepCpsCmdSemicolon) current).repcpscmd;
+            }
+            AbstractTree.Cmd nextcmd = null;
+            for (int i = size - 1; i >= 0; i--) {
+                nextcmd = cmds[i].toAbstract(nextcmd, idendation + i);
+            }
+            return nextcmd;
         }
     }
 
     public static class RepCpsCmdEpsilon extends RepCpsCmd {
 
-        public RepCpsCmdEpsilon(int idendation) {
-            super(idendation);
+        public static final RepCpsCmdEpsilon INSTANCE = new RepCpsCmdEpsilon();
+
+        private RepCpsCmdEpsilon() {
         }
 
         @Override
-        public String toString() {
-            return getHead("<RepCpsCmdEpsilon/>");
+        public void print(ConcreteTreePrinter printer) throws IOException {
+            printer.line("<RepCpsCmdEpsilon/>");
         }
 
         @Override
@@ -1385,8 +1548,7 @@ public class ConcreteTree {
 
     public static abstract class OptGlobInits extends ConcreteNode {
 
-        OptGlobInits(int idendation) {
-            super(idendation);
+        OptGlobInits() {
         }
 
         public abstract AbstractTree.GlobalInit toAbstract(int i);
@@ -1398,15 +1560,16 @@ public class ConcreteTree {
 
         private final RepIdents repidents;
 
-        public OptGlobInitsInit(Tokens.IdentifierToken identifier, RepIdents repidents, int idendation) {
-            super(idendation);
+        public OptGlobInitsInit(Tokens.IdentifierToken identifier, RepIdents repidents) {
             this.identifier = identifier;
             this.repidents = repidents;
         }
 
         @Override
-        public String toString() {
-            return getHead("<OptGlobInitsInit Name='" + identifier.getName() + "'>") + repidents + getHead("</OptGlobInitsInit>");
+        public void print(ConcreteTreePrinter printer) throws IOException {
+            printer.open("<OptGlobInitsInit Name='" + identifier.getName() + "'>");
+            repidents.print(printer);
+            printer.close("</OptGlobInitsInit>");
         }
 
         public AbstractTree.GlobalInit toAbstract(int idendation) {
@@ -1416,13 +1579,14 @@ public class ConcreteTree {
 
     public static class OptGlobInitsEpsilon extends OptGlobInits {
 
-        public OptGlobInitsEpsilon(int idendation) {
-            super(idendation);
+        public static final OptGlobInitsEpsilon INSTANCE = new OptGlobInitsEpsilon();
+
+        private OptGlobInitsEpsilon() {
         }
 
         @Override
-        public String toString() {
-            return getHead("<OptGlobInitsEpsilon/>");
+        public void print(ConcreteTreePrinter printer) throws IOException {
+            printer.line("<OptGlobInitsEpsilon/>");
         }
 
         public AbstractTree.GlobalInit toAbstract(int idendation) {
@@ -1432,8 +1596,7 @@ public class ConcreteTree {
 
     public static abstract class RepIdents extends ConcreteNode {
 
-        RepIdents(int idendation) {
-            super(idendation);
+        RepIdents() {
         }
 
         public abstract AbstractTree.GlobalInit toAbstract(int idendation);
@@ -1445,15 +1608,25 @@ public class ConcreteTree {
 
         private final RepIdents repidents;
 
-        public RepIdentsComma(Tokens.IdentifierToken identifier, RepIdents repidents, int idendation) {
-            super(idendation);
+        public RepIdentsComma(Tokens.IdentifierToken identifier, RepIdents repidents) {
             this.identifier = identifier;
             this.repidents = repidents;
         }
 
         @Override
-        public String toString() {
-            return getHead("<RepIdentsComma Name='" + identifier.getName() + "'>") + repidents + getHead("</RepIdentsComma>");
+        public void print(ConcreteTreePrinter printer) throws IOException {
+            int depth = 0;
+            RepIdents current = this;
+            while (current instanceof RepIdentsComma) {
+                RepIdentsComma rep = (RepIdentsComma) current;
+                printer.open("<RepIdentsComma Name='" + rep.identifier.getName() + "'>");
+                current = rep.repidents;
+                depth++;
+            }
+            current.print(printer);
+            for (; depth > 0; depth--) {
+                printer.close("</RepIdentsComma>");
+            }
         }
 
         public AbstractTree.GlobalInit toAbstract(int idendation) {
@@ -1463,13 +1636,14 @@ public class ConcreteTree {
 
     public static class RepIdentsEpsilon extends RepIdents {
 
-        public RepIdentsEpsilon(int idendation) {
-            super(idendation);
+        public static final RepIdentsEpsilon INSTANCE = new RepIdentsEpsilon();
+
+        private RepIdentsEpsilon() {
         }
 
         @Override
-        public String toString() {
-            return getHead("<RepIdentsEpsilon/>");
+        public void print(ConcreteTreePrinter printer) throws IOException {
+            printer.line("<RepIdentsEpsilon/>");
         }
 
         public AbstractTree.GlobalInit toAbstract(int idendation) {
@@ -1483,15 +1657,17 @@ public class ConcreteTree {
 
         private final RepTerm1 repterm1;
 
-        public Expr(Term1 term1, RepTerm1 repterm1, int idendation) {
-            super(idendation);
+        public Expr(Term1 term1, RepTerm1 repterm1) {
             this.term1 = term1;
             this.repterm1 = repterm1;
         }
 
         @Override
-        public String toString() {
-            return getHead("<Expr>") + term1 + repterm1 + getHead("</Expr>");
+        public void print(ConcreteTreePrinter printer) throws IOException {
+            printer.open("<Expr>");
+            term1.print(printer);
+            repterm1.print(printer);
+            printer.close("</Expr>");
         }
 
         public AbstractTree.Expression toAbstract(int idendation) {
@@ -1501,8 +1677,7 @@ public class ConcreteTree {
 
     public static abstract class RepTerm1 extends ConcreteNode {
 
-        RepTerm1(int idendation) {
-            super(idendation);
+        RepTerm1() {
         }
 
         public abstract AbstractTree.Expression toAbstract(AbstractTree.Expression expression, int idendation);
@@ -1516,33 +1691,43 @@ public class ConcreteTree {
 
         private final RepTerm1 repterm1;
 
-        public RepTerm1BoolOpr(Tokens.BoolOprToken boolopr, Term1 term1, RepTerm1 repterm1, int idendation) {
-            super(idendation);
+        public RepTerm1BoolOpr(Tokens.BoolOprToken boolopr, Term1 term1, RepTerm1 repterm1) {
             this.boolopr = boolopr;
             this.term1 = term1;
             this.repterm1 = repterm1;
         }
 
         @Override
-        public String toString() {
-            return getHead("<RepTerm1BoolOpr Opr='" + boolopr.getOperation() + "'>") + term1 + repterm1 + getHead("</RepTerm1BoolOpr>");
+        public void print(ConcreteTreePrinter printer) throws IOException {
+            printer.open("<RepTerm1BoolOpr Opr='" + boolopr.getOperation() + "'>");
+            term1.print(printer);
+            repterm1.print(printer);
+            printer.close("</RepTerm1BoolOpr>");
         }
 
         @Override
         public AbstractTree.Expression toAbstract(AbstractTree.Expression expression, int idendation) {
-            return repterm1.toAbstract(new AbstractTree.DyadicExpr(boolopr, expression, term1.toAbstract(idendation + 1), idendation), idendation + 1);
+            RepTerm1 current = this;
+            while (current instanceof RepTerm1BoolOpr) {
+                RepTerm1BoolOpr rep = (RepTerm1BoolOpr) current;
+                expression = new AbstractTree.DyadicExpr(rep.boolopr, expression, rep.term1.toAbstract(idendation + 1), idendation);
+                current = rep.repterm1;
+                idendation++;
+            }
+            return expression;
         }
     }
 
     public static class RepTerm1Epsilon extends RepTerm1 {
 
-        public RepTerm1Epsilon(int idendation) {
-            super(idendation);
+        public static final RepTerm1Epsilon INSTANCE = new RepTerm1Epsilon();
+
+        private RepTerm1Epsilon() {
         }
 
         @Override
-        public String toString() {
-            return getHead("<RepTerm1Epsilon/>");
+        public void print(ConcreteTreePrinter printer) throws IOException {
+            printer.line("<RepTerm1Epsilon/>");
         }
 
         @Override
@@ -1557,15 +1742,17 @@ public class ConcreteTree {
 
         private final RepTerm2 repterm2;
 
-        public Term1(Term2 term2, RepTerm2 repterm2, int idendation) {
-            super(idendation);
+        public Term1(Term2 term2, RepTerm2 repterm2) {
             this.term2 = term2;
             this.repterm2 = repterm2;
         }
 
         @Override
-        public String toString() {
-            return getHead("<Term1>") + term2 + repterm2 + getHead("</Term1>");
+        public void print(ConcreteTreePrinter printer) throws IOException {
+            printer.open("<Term1>");
+            term2.print(printer);
+            repterm2.print(printer);
+            printer.close("</Term1>");
         }
 
         public AbstractTree.Expression toAbstract(int idendation) {
@@ -1575,8 +1762,7 @@ public class ConcreteTree {
 
     public static abstract class RepTerm2 extends ConcreteNode {
 
-        RepTerm2(int idendation) {
-            super(idendation);
+        RepTerm2() {
         }
 
         public abstract AbstractTree.Expression toAbstract(AbstractTree.Expression expression, int idendation);
@@ -1590,33 +1776,42 @@ public class ConcreteTree {
 
         private final RepTerm2 repterm2;
 
-        public RepTerm2RelOpr(Tokens.RelOprToken relopr, Term2 term2, RepTerm2 repterm2, int idendation) {
-            super(idendation);
+        public RepTerm2RelOpr(Tokens.RelOprToken relopr, Term2 term2, RepTerm2 repterm2) {
             this.relopr = relopr;
             this.term2 = term2;
             this.repterm2 = repterm2;
         }
 
         @Override
-        public String toString() {
-            return getHead("<RepTerm2RelOpr Opr='" + relopr.getOperation() + "'>") + term2 + repterm2 + getHead("</RepTerm2RelOpr>");
+        public void print(ConcreteTreePrinter printer) throws IOException {
+            printer.open("<RepTerm2RelOpr Opr='" + relopr.getOperation() + "'>");
+            term2.print(printer);
+            repterm2.print(printer);
+            printer.close("</RepTerm2RelOpr>");
         }
 
         @Override
         public AbstractTree.Expression toAbstract(AbstractTree.Expression expression, int idendation) {
-            return repterm2.toAbstract(new AbstractTree.DyadicExpr(relopr, expression, term2.toAbstract(idendation + 1), idendation + 1), idendation);
+            RepTerm2 current = this;
+            while (current instanceof RepTerm2RelOpr) {
+                RepTerm2RelOpr rep = (RepTerm2RelOpr) current;
+                expression = new AbstractTree.DyadicExpr(rep.relopr, expression, rep.term2.toAbstract(idendation + 1), idendation + 1);
+                current = rep.repterm2;
+            }
+            return expression;
         }
     }
 
     public static class RepTerm2Epsilon extends RepTerm2 {
 
-        public RepTerm2Epsilon(int idendation) {
-            super(idendation);
+        public static final RepTerm2Epsilon INSTANCE = new RepTerm2Epsilon();
+
+        private RepTerm2Epsilon() {
         }
 
         @Override
-        public String toString() {
-            return getHead("<RepTerm2Epsilon/>");
+        public void print(ConcreteTreePrinter printer) throws IOException {
+            printer.line("<RepTerm2Epsilon/>");
         }
 
         @Override
@@ -1631,15 +1826,17 @@ public class ConcreteTree {
 
         private final RepTerm3 repterm3;
 
-        public Term2(Term3 term3, RepTerm3 repterm3, int idendation) {
-            super(idendation);
+        public Term2(Term3 term3, RepTerm3 repterm3) {
             this.term3 = term3;
             this.repterm3 = repterm3;
         }
 
         @Override
-        public String toString() {
-            return getHead("<Term2>") + term3 + repterm3 + getHead("</Term2>");
+        public void print(ConcreteTreePrinter printer) throws IOException {
+            printer.open("<Term2>");
+            term3.print(printer);
+            repterm3.print(printer);
+            printer.close("</Term2>");
         }
 
         public AbstractTree.Expression toAbstract(int idendation) {
@@ -1649,8 +1846,7 @@ public class ConcreteTree {
 
     public static abstract class RepTerm3 extends ConcreteNode {
 
-        RepTerm3(int idendation) {
-            super(idendation);
+        RepTerm3() {
         }
 
         public abstract AbstractTree.Expression toAbstract(AbstractTree.Expression expression, int idendation);
@@ -1664,33 +1860,42 @@ public class ConcreteTree {
 
         private final RepTerm3 repterm3;
 
-        public RepTerm3AddOpr(Tokens.AddOprToken addopr, Term3 term3, RepTerm3 repterm3, int idendation) {
-            super(idendation);
+        public RepTerm3AddOpr(Tokens.AddOprToken addopr, Term3 term3, RepTerm3 repterm3) {
             this.addopr = addopr;
             this.term3 = term3;
             this.repterm3 = repterm3;
         }
 
         @Override
-        public String toString() {
-            return getHead("<RepTerm3AddOpr Opr='" + addopr.getOperation() + "'>") + term3 + repterm3 + getHead("</RepTerm3AddOpr>");
+        public void print(ConcreteTreePrinter printer) throws IOException {
+            printer.open("<RepTerm3AddOpr Opr='" + addopr.getOperation() + "'>");
+            term3.print(printer);
+            repterm3.print(printer);
+            printer.close("</RepTerm3AddOpr>");
         }
 
         @Override
         public AbstractTree.Expression toAbstract(AbstractTree.Expression expression, int idendation) {
-            return repterm3.toAbstract(new AbstractTree.DyadicExpr(addopr, expression, term3.toAbstract(idendation + 1), idendation), idendation);
+            RepTerm3 current = this;
+            while (current instanceof RepTerm3AddOpr) {
+                RepTerm3AddOpr rep = (RepTerm3AddOpr) current;
+                expression = new AbstractTree.DyadicExpr(rep.addopr, expression, rep.term3.toAbstract(idendation + 1), idendation);
+                current = rep.repterm3;
+            }
+            return expression;
         }
     }
 
     public static class RepTerm3Epsilon extends RepTerm3 {
 
-        public RepTerm3Epsilon(int idendation) {
-            super(idendation);
+        public static final RepTerm3Epsilon INSTANCE = new RepTerm3Epsilon();
+
+        private RepTerm3Epsilon() {
         }
 
         @Override
-        public String toString() {
-            return getHead("<RepTerm3Epsilon/>");
+        public void print(ConcreteTreePrinter printer) throws IOException {
+            printer.line("<RepTerm3Epsilon/>");
         }
 
         @Override
@@ -1705,15 +1910,17 @@ public class ConcreteTree {
 
         private final RepFactor repfactor;
 
-        public Term3(Factor factor, RepFactor repfactor, int idendation) {
-            super(idendation);
+        public Term3(Factor factor, RepFactor repfactor) {
             this.factor = factor;
             this.repfactor = repfactor;
         }
 
         @Override
-        public String toString() {
-            return getHead("<Term3>") + factor + repfactor + getHead("</Term3>");
+        public void print(ConcreteTreePrinter printer) throws IOException {
+            printer.open("<Term3>");
+            factor.print(printer);
+            repfactor.print(printer);
+            printer.close("</Term3>");
         }
 
         public AbstractTree.Expression toAbstract(int idendation) {
@@ -1723,8 +1930,7 @@ public class ConcreteTree {
 
     public static abstract class RepFactor extends ConcreteNode {
 
-        RepFactor(int idendation) {
-            super(idendation);
+        RepFactor() {
         }
 
         public abstract AbstractTree.Expression toAbstract(AbstractTree.Expression expression, int idendation);
@@ -1738,33 +1944,42 @@ public class ConcreteTree {
 
         private final RepFactor repfactor;
 
-        public RepFactorMultOpr(Tokens.MultOprToken multopr, Factor factor, RepFactor repfactor, int idendation) {
-            super(idendation);
+        public RepFactorMultOpr(Tokens.MultOprToken multopr, Factor factor, RepFactor repfactor) {
             this.multopr = multopr;
             this.factor = factor;
             this.repfactor = repfactor;
         }
 
         @Override
-        public String toString() {
-            return getHead("<RepFactorMultOpr Opr='" + multopr.getOperation() + "'>") + factor + repfactor + getHead("</RepFactorMultOpr>");
+        public void print(ConcreteTreePrinter printer) throws IOException {
+            printer.open("<RepFactorMultOpr Opr='" + multopr.getOperation() + "'>");
+            factor.print(printer);
+            repfactor.print(printer);
+            printer.close("</RepFactorMultOpr>");
         }
 
         @Override
         public AbstractTree.Expression toAbstract(AbstractTree.Expression expression, int idendation) {
-            return repfactor.toAbstract(new AbstractTree.DyadicExpr(multopr, expression, factor.toAbstract(idendation + 1), idendation + 1), idendation);
+            RepFactor current = this;
+            while (current instanceof RepFactorMultOpr) {
+                RepFactorMultOpr rep = (RepFactorMultOpr) current;
+                expression = new AbstractTree.DyadicExpr(rep.multopr, expression, rep.factor.toAbstract(idendation + 1), idendation + 1);
+                current = rep.repfactor;
+            }
+            return expression;
         }
     }
 
     public static class RepFactorEpsilon extends RepFactor {
 
-        public RepFactorEpsilon(int idendation) {
-            super(idendation);
+        public static final RepFactorEpsilon INSTANCE = new RepFactorEpsilon();
+
+        private RepFactorEpsilon() {
         }
 
         @Override
-        public String toString() {
-            return getHead("<RepFactorEpsilon/>");
+        public void print(ConcreteTreePrinter printer) throws IOException {
+            printer.line("<RepFactorEpsilon/>");
         }
 
         @Override
@@ -1775,8 +1990,7 @@ public class ConcreteTree {
 
     public static abstract class Factor extends ConcreteNode {
 
-        Factor(int idendation) {
-            super(idendation);
+        Factor() {
         }
 
         public abstract AbstractTree.Expression toAbstract(int idendation);
@@ -1786,14 +2000,14 @@ public class ConcreteTree {
 
         private final Tokens.LiteralToken literal;
 
-        public FactorLiteral(Tokens.LiteralToken literal, int idendation) {
-            super(idendation);
+        public FactorLiteral(Tokens.LiteralToken literal) {
             this.literal = literal;
         }
 
         @Override
-        public String toString() {
-            return getHead("<FactorLiteral Name='" + literal.getValue() + "'") + getHead("</FactorLiteral>");
+        public void print(ConcreteTreePrinter printer) throws IOException {
+            printer.line("<FactorLiteral Name='" + literal.getValue() + "'");
+            printer.line("</FactorLiteral>");
         }
 
         @Override
@@ -1808,15 +2022,16 @@ public class ConcreteTree {
 
         private final OptInitOrExprList optinitorexprlist;
 
-        public FactorIdent(Tokens.IdentifierToken identifier, OptInitOrExprList optinitorexprlist, int idendation) {
-            super(idendation);
+        public FactorIdent(Tokens.IdentifierToken identifier, OptInitOrExprList optinitorexprlist) {
             this.identifier = identifier;
             this.optinitorexprlist = optinitorexprlist;
         }
 
         @Override
-        public String toString() {
-            return getHead("<FactorIdent Name='" + identifier.getName() + "'>") + optinitorexprlist + getHead("</FactorIdent>");
+        public void print(ConcreteTreePrinter printer) throws IOException {
+            printer.open("<FactorIdent Name='" + identifier.getName() + "'>");
+            optinitorexprlist.print(printer);
+            printer.close("</FactorIdent>");
         }
 
         @Override
@@ -1831,15 +2046,17 @@ public class ConcreteTree {
 
         private final Factor factor;
 
-        public FactorExpression(MonadicOpr monadicopr, Factor factor, int idendation) {
-            super(idendation);
+        public FactorExpression(MonadicOpr monadicopr, Factor factor) {
             this.monadicopr = monadicopr;
             this.factor = factor;
         }
 
         @Override
-        public String toString() {
-            return getHead("<FactorExpression>") + monadicopr + factor + getHead("</FactorExpression>");
+        public void print(ConcreteTreePrinter printer) throws IOException {
+            printer.open("<FactorExpression>");
+            monadicopr.print(printer);
+            factor.print(printer);
+            printer.close("</FactorExpression>");
         }
 
         @Override
@@ -1852,14 +2069,15 @@ public class ConcreteTree {
 
         private final Expr expr;
 
-        public FactorLparen(Expr expr, int idendation) {
-            super(idendation);
+        public FactorLparen(Expr expr) {
             this.expr = expr;
         }
 
         @Override
-        public String toString() {
-            return getHead("<FactorLparen>") + expr + getHead("</FactorLparen>");
+        public void print(ConcreteTreePrinter printer) throws IOException {
+            printer.open("<FactorLparen>");
+            expr.print(printer);
+            printer.close("</FactorLparen>");
         }
 
         @Override
@@ -1870,8 +2088,7 @@ public class ConcreteTree {
 
     public static abstract class OptInitOrExprList extends ConcreteNode {
 
-        OptInitOrExprList(int idendation) {
-            super(idendation);
+        OptInitOrExprList() {
         }
 
         public abstract AbstractTree.Expression toAbstract(Tokens.IdentifierToken identifier, int idendation);
@@ -1879,13 +2096,14 @@ public class ConcreteTree {
 
     public static class OptInitOrExprListInit extends OptInitOrExprList {
 
-        public OptInitOrExprListInit(int idendation) {
-            super(idendation);
+        public static final OptInitOrExprListInit INSTANCE = new OptInitOrExprListInit();
+
+        private OptInitOrExprListInit() {
         }
 
         @Override
-        public String toString() {
-            return getHead("<OptInitOrExprListInit/>");
+        public void print(ConcreteTreePrinter printer) throws IOException {
+            printer.line("<OptInitOrExprListInit/>");
         }
 
         @Override
@@ -1898,14 +2116,15 @@ public class ConcreteTree {
 
         private final ExprList exprlist;
 
-        public OptInitOrExprListLparen(ExprList exprlist, int idendation) {
-            super(idendation);
+        public OptInitOrExprListLparen(ExprList exprlist) {
             this.exprlist = exprlist;
         }
 
         @Override
-        public String toString() {
-            return getHead("<OptInitOrExprListLparen>") + exprlist + getHead("</OptInitOrExprListLparen>");
+        public void print(ConcreteTreePrinter printer) throws IOException {
+            printer.open("<OptInitOrExprListLparen>");
+            exprlist.print(printer);
+            printer.close("</OptInitOrExprListLparen>");
         }
 
         @Override
@@ -1916,13 +2135,14 @@ public class ConcreteTree {
 
     public static class OptInitOrExprListEpsilon extends OptInitOrExprList {
 
-        public OptInitOrExprListEpsilon(int idendation) {
-            super(idendation);
+        public static final OptInitOrExprListEpsilon INSTANCE = new OptInitOrExprListEpsilon();
+
+        private OptInitOrExprListEpsilon() {
         }
 
         @Override
-        public String toString() {
-            return getHead("<OptInitOrExprListEpsilon/>");
+        public void print(ConcreteTreePrinter printer) throws IOException {
+            printer.line("<OptInitOrExprListEpsilon/>");
         }
 
         @Override
@@ -1933,8 +2153,7 @@ public class ConcreteTree {
 
     public static abstract class MonadicOpr extends ConcreteNode {
 
-        MonadicOpr(int idendation) {
-            super(idendation);
+        MonadicOpr() {
         }
 
         public abstract Tokens.OperationToken toAbstract(int idendation);
@@ -1944,14 +2163,13 @@ public class ConcreteTree {
 
         private final Tokens.BoolOprToken boolopr;
 
-        public MonadicOprNot(Tokens.BoolOprToken boolopr, int idendation) {
-            super(idendation);
+        public MonadicOprNot(Tokens.BoolOprToken boolopr) {
             this.boolopr = boolopr;
         }
 
         @Override
-        public String toString() {
-            return getHead("<MonadicOprAddopr Operation='" + boolopr.getOperation() + "'/>");
+        public void print(ConcreteTreePrinter printer) throws IOException {
+            printer.line("<MonadicOprAddopr Operation='" + boolopr.getOperation() + "'/>");
         }
 
         @Override
@@ -1964,14 +2182,13 @@ public class ConcreteTree {
 
         private final Tokens.AddOprToken addopr;
 
-        public MonadicOprAddopr(Tokens.AddOprToken addopr, int idendation) {
-            super(idendation);
+        public MonadicOprAddopr(Tokens.AddOprToken addopr) {
             this.addopr = addopr;
         }
 
         @Override
-        public String toString() {
-            return getHead("<MonadicOprAddopr Operation='" + addopr.getOperation() + "'/>");
+        public void print(ConcreteTreePrinter printer) throws IOException {
+            printer.line("<MonadicOprAddopr Operation='" + addopr.getOperation() + "'/>");
         }
 
         @Override
@@ -1984,14 +2201,15 @@ public class ConcreteTree {
 
         private final OptExprList optexprlist;
 
-        public ExprList(OptExprList optexprlist, int idendation) {
-            super(idendation);
+        public ExprList(OptExprList optexprlist) {
             this.optexprlist = optexprlist;
         }
 
         @Override
-        public String toString() {
-            return getHead("<ExprList>") + optexprlist + getHead("</ExprList>");
+        public void print(ConcreteTreePrinter printer) throws IOException {
+            printer.open("<ExprList>");
+            optexprlist.print(printer);
+            printer.close("</ExprList>");
         }
 
         public AbstractTree.ExpressionList toAbstract(int idendation) {
@@ -2001,8 +2219,7 @@ public class ConcreteTree {
 
     public static abstract class OptExprList extends ConcreteNode {
 
-        OptExprList(int idendation) {
-            super(idendation);
+        OptExprList() {
         }
 
         public abstract AbstractTree.ExpressionList toAbstract(int idendation);
@@ -2014,15 +2231,17 @@ public class ConcreteTree {
 
         private final RepExprList repexprlist;
 
-        public OptExprListExpression(Expr expr, RepExprList repexprlist, int idendation) {
-            super(idendation);
+        public OptExprListExpression(Expr expr, RepExprList repexprlist) {
             this.expr = expr;
             this.repexprlist = repexprlist;
         }
 
         @Override
-        public String toString() {
-            return getHead("<OptExprListExpression>") + expr + repexprlist + getHead("</OptExprListExpression>");
+        public void print(ConcreteTreePrinter printer) throws IOException {
+            printer.open("<OptExprListExpression>");
+            expr.print(printer);
+            repexprlist.print(printer);
+            printer.close("</OptExprListExpression>");
         }
 
         @Override
@@ -2033,13 +2252,14 @@ public class ConcreteTree {
 
     public static class OptExprListEpsilon extends OptExprList {
 
-        public OptExprListEpsilon(int idendation) {
-            super(idendation);
+        public static final OptExprListEpsilon INSTANCE = new OptExprListEpsilon();
+
+        private OptExprListEpsilon() {
         }
 
         @Override
-        public String toString() {
-            return getHead("<OptExprListEpsilon/>");
+        public void print(ConcreteTreePrinter printer) throws IOException {
+            printer.line("<OptExprListEpsilon/>");
         }
 
         @Override
@@ -2050,8 +2270,7 @@ public class ConcreteTree {
 
     public static abstract class RepExprList extends ConcreteNode {
 
-        RepExprList(int idendation) {
-            super(idendation);
+        RepExprList() {
         }
 
         public abstract AbstractTree.ExpressionList toAbstract(int idendation);
@@ -2063,32 +2282,58 @@ public class ConcreteTree {
 
         private final RepExprList repexprlist;
 
-        public RepExprListComma(Expr expr, RepExprList repexprlist, int idendation) {
-            super(idendation);
+        public RepExprListComma(Expr expr, RepExprList repexprlist) {
             this.expr = expr;
             this.repexprlist = repexprlist;
         }
 
         @Override
-        public String toString() {
-            return getHead("<RepExprListComma>") + expr + repexprlist + getHead("</RepExprListComma>");
+        public void print(ConcreteTreePrinter printer) throws IOException {
+            int depth = 0;
+            RepExprList current = this;
+            while (current instanceof RepExprListComma) {
+                RepExprListComma rep = (RepExprListComma) current;
+                printer.open("<RepExprListComma>");
+                rep.expr.print(printer);
+                current = rep.repexprlist;
+                depth++;
+            }
+            current.print(printer);
+            for (; depth > 0; depth--) {
+                printer.close("</RepExprListComma>");
+            }
         }
 
         @Override
         public AbstractTree.ExpressionList toAbstract(int idendation) {
-            return new AbstractTree.ExpressionList(expr.toAbstract(idendation + 1), repexprlist.toAbstract(idendation + 1), idendation);
+            int size = 0;
+            for (RepExprList current = this; current instanceof RepExprListComma; current = ((RepExprListComma) current).repexprlist) {
+                size++;
+            }
+            Expr[] exprs = new Expr[size];
+            RepExprList current = this;
+            for (int i = 0; i < size; i++) {
+                exprs[i] = ((RepExprListComma) current).expr;
+                current = ((RepExprListComma) current).repexprlist;
+            }
+            AbstractTree.ExpressionList nextexpressionlist = null;
+            for (int i = size - 1; i >= 0; i--) {
+                nextexpressionlist = new AbstractTree.ExpressionList(exprs[i].toAbstract(idendation + i + 1), nextexpressionlist, idendation + i);
+            }
+            return nextexpressionlist;
         }
     }
 
     public static class RepExprListEpsilon extends RepExprList {
 
-        public RepExprListEpsilon(int idendation) {
-            super(idendation);
+        public static final RepExprListEpsilon INSTANCE = new RepExprListEpsilon();
+
+        private RepExprListEpsilon() {
         }
 
         @Override
-        public String toString() {
-            return getHead("<RepExprListEpsilon/>");
+        public void print(ConcreteTreePrinter printer) throws IOException {
+            printer.line("<RepExprListEpsilon/>");
         }
 
         @Override
@@ -2099,8 +2344,7 @@ public class ConcreteTree {
 
     public static abstract class RepCase extends ConcreteNode {
 
-        RepCase(int idendation) {
-            super(idendation);
+        RepCase() {
         }
 
         public abstract AbstractTree.RepCaseCmd toAbstract(int i);
@@ -2114,16 +2358,27 @@ public class ConcreteTree {
 
         private final RepCase repcase;
 
-        public RepCaseCase(Tokens.LiteralToken literal, CpsCmd cpscmd, RepCase repcase, int idendation) {
-            super(idendation);
+        public RepCaseCase(Tokens.LiteralToken literal, CpsCmd cpscmd, RepCase repcase) {
             this.literal = literal;
             this.cpscmd = cpscmd;
             this.repcase = repcase;
         }
 
         @Override
-        public String toString() {
-            return getHead("<RepCaseCase Name='" + literal.getValue() + "'>") + cpscmd + getHead("</RepCaseCase>");
+        public void print(ConcreteTreePrinter printer) throws IOException {
+            int depth = 0;
+            RepCase current = this;
+            while (current instanceof RepCaseCase) {
+                RepCaseCase rep = (RepCaseCase) current;
+                printer.open("<RepCaseCase Name='" + rep.literal.getValue() + "'>");
+                rep.cpscmd.print(printer);
+                current = rep.repcase;
+                depth++;
+            }
+            current.print(printer);
+            for (; depth > 0; depth--) {
+                printer.close("</RepCaseCase>");
+            }
         }
 
         public AbstractTree.RepCaseCmd toAbstract(int idendation) {
@@ -2133,13 +2388,14 @@ public class ConcreteTree {
 
     public static class RepCaseEpsilon extends RepCase {
 
-        public RepCaseEpsilon(int idendation) {
-            super(idendation);
+        public static final RepCaseEpsilon INSTANCE = new RepCaseEpsilon();
+
+        private RepCaseEpsilon() {
         }
 
         @Override
-        public String toString() {
-            return getHead("<RepCaseEpsilon/>");
+        public void print(ConcreteTreePrinter printer) throws IOException {
+            printer.line("<RepCaseEpsilon/>");
         }
 
         public AbstractTree.RepCaseCmd toAbstract(int idendation) {
@@ -2149,8 +2405,7 @@ public class ConcreteTree {
 
     public static abstract class OptDefault extends ConcreteNode {
 
-        OptDefault(int idendation) {
-            super(idendation);
+        OptDefault() {
         }
 
         public abstract AbstractTree.Cmd toAbstract(int i);
@@ -2160,14 +2415,15 @@ public class ConcreteTree {
 
         private final CpsCmd cpscmd;
 
-        public OptDefaultDefault(CpsCmd cpscmd, int idendation) {
-            super(idendation);
+        public OptDefaultDefault(CpsCmd cpscmd) {
             this.cpscmd = cpscmd;
         }
 
         @Override
-        public String toString() {
-            return getHead("<OptDefaultDefault/>") + cpscmd + getHead("</OptDefaultDefault>");
+        public void print(ConcreteTreePrinter printer) throws IOException {
+            printer.open("<OptDefaultDefault/>");
+            cpscmd.print(printer);
+            printer.close("</OptDefaultDefault>");
         }
 
         public AbstractTree.Cmd toAbstract(int idendation) {
@@ -2177,13 +2433,14 @@ public class ConcreteTree {
 
     public static class OptDefaultEpsilon extends OptDefault {
 
-        public OptDefaultEpsilon(int idendation) {
-            super(idendation);
+        public static final OptDefaultEpsilon INSTANCE = new OptDefaultEpsilon();
+
+        private OptDefaultEpsilon() {
         }
 
         @Override
-        public String toString() {
-            return getHead("<OptDefaultEpsilon/>");
+        public void print(ConcreteTreePrinter printer) throws IOException {
+            printer.line("<OptDefaultEpsilon/>");
         }
 
         public AbstractTree.Cmd toAbstract(int idendation) {
@@ -2193,8 +2450,7 @@ public class ConcreteTree {
 
     public static abstract class OptElse extends ConcreteNode {
 
-        OptElse(int idendation) {
-            super(idendation);
+        OptElse() {
         }
 
         public abstract AbstractTree.Cmd toAbstract(int i);
@@ -2204,14 +2460,15 @@ public class ConcreteTree {
 
         private final CpsCmd cpscmd;
 
-        public OptElseElse(CpsCmd cpscmd, int idendation) {
-            super(idendation);
+        public OptElseElse(CpsCmd cpscmd) {
             this.cpscmd = cpscmd;
         }
 
         @Override
-        public String toString() {
-            return getHead("<OptElseElse>") + cpscmd + getHead("</OptElseElse>");
+        public void print(ConcreteTreePrinter printer) throws IOException {
+            printer.open("<OptElseElse>");
+            cpscmd.print(printer);
+            printer.close("</OptElseElse>");
         }
 
         public AbstractTree.Cmd toAbstract(int idendation) {
@@ -2221,13 +2478,14 @@ public class ConcreteTree {
 
     public static class OptElseEpsilon extends OptElse {
 
-        public OptElseEpsilon(int idendation) {
-            super(idendation);
+        public static final OptElseEpsilon INSTANCE = new OptElseEpsilon();
+
+        private OptElseEpsilon() {
         }
 
         @Override
-        public String toString() {
-            return getHead("<OptElseEpsilon/>");
+        public void print(ConcreteTreePrinter printer) throws IOException {
+            printer.line("<OptElseEpsilon/>");
         }
 
         public AbstractTree.Cmd toAbstract(int idendation) {
@@ -2237,8 +2495,7 @@ public class ConcreteTree {
 
     public static abstract class RepElseif extends ConcreteNode {
 
-        RepElseif(int idendation) {
-            super(idendation);
+        RepElseif() {
         }
 
         public abstract AbstractTree.RepCondCmd toAbstract(int idendation);
@@ -2252,16 +2509,28 @@ public class ConcreteTree {
 
         private final RepElseif repelseif;
 
-        public RepElseifElseif(Expr expr, CpsCmd cpscmd, RepElseif repelseif, int idendation) {
-            super(idendation);
+        public RepElseifElseif(Expr expr, CpsCmd cpscmd, RepElseif repelseif) {
             this.expr = expr;
             this.cpscmd = cpscmd;
             this.repelseif = repelseif;
         }
 
         @Override
-        public String toString() {
-            return getHead("<RepElseifElseif>") + expr + cpscmd + repelseif + getHead("</RepElseifElseif>");
+        public void print(ConcreteTreePrinter printer) throws IOException {
+            int depth = 0;
+            RepElseif current = this;
+            while (current instanceof RepElseifElseif) {
+                RepElseifElseif rep = (RepElseifElseif) current;
+                printer.open("<RepElseifElseif>");
+                rep.expr.print(printer);
+                rep.cpscmd.print(printer);
+                current = rep.repelseif;
+                depth++;
+            }
+            current.print(printer);
+            for (; depth > 0; depth--) {
+                printer.close("</RepElseifElseif>");
+            }
         }
 
         public AbstractTree.RepCondCmd toAbstract(int idendation) {
@@ -2271,13 +2540,14 @@ public class ConcreteTree {
 
     public static class RepElseifEpsilon extends RepElseif {
 
-        public RepElseifEpsilon(int idendation) {
-            super(idendation);
+        public static final RepElseifEpsilon INSTANCE = new RepElseifEpsilon();
+
+        private RepElseifEpsilon() {
         }
 
         @Override
-        public String toString() {
-            return getHead("<RepElseifEpsilon/>");
+        public void print(ConcreteTreePrinter printer) throws IOException {
+            printer.line("<RepElseifEpsilon/>");
         }
 
         public AbstractTree.RepCondCmd toAbstract(int idendation) {
@@ -0,0 +1,29 @@
+package ch.fhnw.cpib.platform.parser.concretetree;
+
+import ch.fhnw.cpib.platform.parser.util.TreePrinter;
+
+import java.io.IOException;
+
+public class ConcreteTreePrinter extends TreePrinter {
+
+    private int idendation;
+
+    public ConcreteTreePrinter(Appendable appendable) {
+        super(appendable);
+    }
+
+    public void open(String content) throws IOException {
+        // The children of a node are printed one level deeper
+        line(content);
+        idendation++;
+    }
+
+    public void close(String content) throws IOException {
+        idendation--;
+        line(content);
+    }
+
+    public void line(String content) throws IOException {
+        line(idendation, content);
+    }
+}
@@ -1,23 +1,45 @@
 package ch.fhnw.cpib.platform.parser.concretetree;
 
+import ch.fhnw.cpib.platform.parser.exception.ParserException;
 import ch.fhnw.cpib.platform.scanner.tokens.Terminal;
-import ch.fhnw.cpib.platform.scanner.tokens.TokenList;
+import ch.fhnw.cpib.platform.scanner.tokens.TokenSource;
 import ch.fhnw.cpib.platform.scanner.tokens.Tokens;
 
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
 public class Context {
 
-    private final TokenList tokenlist;
+    private final TokenSource tokensource;
 
     private Tokens.Token token;
 
     private Terminal terminal;
 
-    public Context(TokenList tokenlist) {
-        this.tokenlist = tokenlist;
+    private Object[] items = new Object[64];
+
+    private int itemcount;
+
+    private final boolean recovering;
+
+    private final List<ParserException> errors = new ArrayList<>();
+
+    private Tokens.Token errortoken;
+
+    private Tokens.Token pendingtoken;
+
+    public Context(TokenSource tokensource) {
+        this(tokensource, false);
+    }
+
+    public Context(TokenSource tokensource, boolean recovering) {
+        this.tokensource = tokensource;
+        this.recovering = recovering;
     }
 
-    public TokenList getTokenList() {
-        return tokenlist;
+    public TokenSource getTokenSource() {
+        return tokensource;
     }
 
     public Tokens.Token getToken() {
@@ -35,4 +57,66 @@ public class Context {
     public void setTerminal(Terminal terminal) {
         this.terminal = terminal;
     }
+
+    public void pushItem(Object item) {
+        // Work stack for the repetition productions, shared by all nesting levels of one parse
+        if (itemcount == items.length) {
+            growItems();
+        }
+        items[itemcount++] = item;
+    }
+
+    @SuppressWarnings("unchecked")
+    public <T> T popItem() {
+        return (T) items[--itemcount];
+    }
+
+    public int getItemCount() {
+        return itemcount;
+    }
+
+    public void dropItems(int count) {
+        // A broken item leaves the items of its unfinished repetitions behind
+        while (itemcount > count) {
+            items[--itemcount] = null;
+        }
+    }
+
+    public boolean isRecovering() {
+        return recovering;
+    }
+
+    public List<ParserException> getErrors() {
+        return errors;
+    }
+
+    public void addError(ParserException exception) {
+        // Only the first error of a token is kept, the following ones are consequences of it
+        if (token != errortoken) {
+            errors.add(exception);
+            errortoken = token;
+        }
+    }
+
+    public void insertToken(Tokens.Token insertedtoken) {
+        // The current token follows after the inserted one
+        pendingtoken = token;
+        token = insertedtoken;
+        terminal = insertedtoken.getTerminal();
+    }
+
+    public boolean hasPendingToken() {
+        return pendingtoken != null;
+    }
+
+    public Tokens.Token takePendingToken() {
+        Tokens.Token token = pendingtoken;
+        pendingtoken = null;
+        return token;
+    }
+
+    private void growItems() {
+        // Keep the growth out of line so the push stays small enough to be inlined
+        items = Arrays.copyOf(items, items.length * 2);
+    }
 }
@@ -1,5 +1,7 @@
 package ch.fhnw.cpib.platform.parser.util;
 
+import java.io.IOException;
+
 public abstract class Node {
 
     private final int idendation;
@@ -12,23 +14,59 @@ public abstract class Node {
         return idendation;
     }
 
-    protected String getHead(String content) {
-        return buildString(content, idendation);
+    protected void printHead(TreePrinter printer, String content) throws IOException {
+        printer.line(idendation, content);
+    }
+
+    protected void printBody(TreePrinter printer, String content) throws IOException {
+        printer.line(idendation + 1, content);
+    }
+
+    protected void printHead(TreePrinter printer, TreeWalker<IOException> walker, String content) {
+        walker.then(() -> printHead(printer, content));
     }
 
-    protected String getBody(String content) {
-        return buildString(content, idendation + 1);
+    protected void printBody(TreePrinter printer, TreeWalker<IOException> walker, String content) {
+        walker.then(() -> printBody(printer, content));
     }
 
-    private String buildString(String content, int idendation) {
+    protected void printBody(TreePrinter printer, TreeWalker<IOException> walker, Node node) {
+        walker.then(() -> node.print(printer, walker));
+    }
+
+    protected void printBody(TreePrinter printer, TreeWalker<IOException> walker, Node node, String alternative) {
+        // Optional children are replaced by a placeholder
+        if (node != null) {
+            printBody(printer, walker, node);
+        } else {
+            printBody(printer, walker, alternative);
+        }
+    }
+
+    // Prints the head of this node and schedules everything after it on the walker
+    public abstract void print(TreePrinter printer, TreeWalker<IOException> walker) throws IOException;
+
+    public void print(TreePrinter printer) throws IOException {
+        TreeWalker<IOException> walker = new TreeWalker<>();
+        walker.walk(() -> print(printer, walker));
+    }
+
+    // Counts this node and all nodes below it
+    public abstract int countNodes();
+
+    public void writeTo(Appendable appendable) throws IOException {
+        // Stream the dump, so large trees are never built up as a string
+        print(new TreePrinter(appendable));
+    }
+
+    @Override
+    public String toString() {
         StringBuilder builder = new StringBuilder();
-        for (int i = 0; i < idendation; i++) {
-            builder.append('\t');
+        try {
+            writeTo(builder);
+        } catch (IOException exception) {
+            throw new RuntimeException(exception);
         }
-        builder.append(content);
-        builder.append('\n');
         return builder.toString();
     }
-
-    public abstract String toString();
 }
@@ -0,0 +1,48 @@
+package ch.fhnw.cpib.platform.parser.util;
+
+import java.io.IOException;
+import java.util.Arrays;
+
+public class TreePrinter {
+
+    private final Appendable appendable;
+
+    // Idendation prefixes are built once per depth and reused for every line, deeper ones are appended in pieces
+    private static final int PREFIXES = 256;
+
+    private String[] prefixes;
+
+    public TreePrinter(Appendable appendable) {
+        this.appendable = appendable;
+        this.prefixes = new String[16];
+    }
+
+    public void line(int idendation, String content) throws IOException {
+        int remaining = idendation;
+        while (remaining >= PREFIXES) {
+            appendable.append(getPrefix(PREFIXES - 1));
+            remaining -= PREFIXES - 1;
+        }
+        appendable.append(getPrefix(remaining));
+        appendable.append(content);
+        appendable.append('\n');
+    }
+
+    public void text(String content) throws IOException {
+        appendable.append(content);
+    }
+
+    private String getPrefix(int idendation) {
+        if (idendation >= prefixes.length) {
+            prefixes = Arrays.copyOf(prefixes, Math.min(Math.max(prefixes.length * 2, idendation + 1), PREFIXES));
+        }
+        String prefix = prefixes[idendation];
+        if (prefix == null) {
+            char[] tabs = new char[idendation];
+            Arrays.fill(tabs, '\t');
+            prefix = new String(tabs);
+            prefixes[idendation] = prefix;
+        }
+        return prefix;
+    }
+}
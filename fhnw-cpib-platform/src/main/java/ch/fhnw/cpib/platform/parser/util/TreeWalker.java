@@ -0,0 +1,40 @@
+package ch.fhnw.cpib.platform.parser.util;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.List;
+
+public class TreeWalker<E extends Exception> {
+
+    public interface Step<E extends Exception> {
+        void run() throws E;
+    }
+
+    private final Deque<Step<E>> pending;
+
+    private final List<Step<E>> scheduled;
+
+    public TreeWalker() {
+        this.pending = new ArrayDeque<>();
+        this.scheduled = new ArrayList<>();
+    }
+
+    public void then(Step<E> step) {
+        // Runs after the current step and the steps it scheduled before
+        scheduled.add(step);
+    }
+
+    public void walk(Step<E> step) throws E {
+        // The steps scheduled by a step run next and in their order, so the pending steps form an explicit stack on
+        // the heap and neither long sibling chains nor deep nesting grow the thread stack
+        pending.push(step);
+        while (!pending.isEmpty()) {
+            pending.pop().run();
+            for (int i = scheduled.size() - 1; i >= 0; i--) {
+                pending.push(scheduled.get(i));
+            }
+            scheduled.clear();
+        }
+    }
+}
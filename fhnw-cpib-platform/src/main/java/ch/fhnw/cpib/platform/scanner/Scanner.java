@@ -25,8 +25,10 @@ public class Scanner {
     }
 
     private TokenList createTokenList(String content) throws ScannerException {
+        // Identifiers are interned per compilation unit
         TokenList tokenlist = new TokenList();
-        State state = new InitialState(tokenlist, dictionary);
+        Dictionary unit = dictionary.newCompilationUnit();
+        State state = new InitialState(tokenlist, unit);
         for (int i = 0; i < content.length(); i++) {
             char element = content.charAt(i);
             //System.out.println("[" + i + "]: " + element);
@@ -54,7 +56,7 @@ public class Scanner {
         }
 
         // Add final sentinel token
-        tokenlist.addToken(dictionary.lookupSentinel());
+        tokenlist.addToken(unit.lookupSentinel());
 
         return tokenlist;
     }
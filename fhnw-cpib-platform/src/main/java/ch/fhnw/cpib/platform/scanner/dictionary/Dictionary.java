@@ -1,5 +1,7 @@
 package ch.fhnw.cpib.platform.scanner.dictionary;
 
+import ch.fhnw.cpib.platform.scanner.exception.ScannerException;
+import ch.fhnw.cpib.platform.scanner.tokens.IdentifierTable;
 import ch.fhnw.cpib.platform.scanner.tokens.Terminal;
 import ch.fhnw.cpib.platform.scanner.tokens.Tokens;
 
@@ -9,10 +11,26 @@ import java.util.Optional;
 
 public class Dictionary {
 
+    private static final int MAXIMUM_SEED_ATTEMPTS = 1 << 16;
+
     private final Map<String, Tokens.Token> tokens;
 
+    private String[] keys;
+
+    private Optional<Tokens.Token>[] values;
+
+    private int shift;
+
+    private int multiplier;
+
+    private final Tokens.Token sentinel;
+
+    private final IdentifierTable identifiers;
+
     public Dictionary() {
         this.tokens = new HashMap<>();
+        this.sentinel = new Tokens.SentinelToken(Terminal.SENTINEL);
+        this.identifiers = new IdentifierTable();
 
         // Add all regular tokens
         tokens.put("call", new Tokens.Token(Terminal.CALL));
@@ -96,21 +114,149 @@ public class Dictionary {
         tokens.put("modE", new Tokens.MultOprToken(Terminal.MULTOPR, Tokens.MultOprToken.MultOpr.MODE));
         tokens.put("modF", new Tokens.MultOprToken(Terminal.MULTOPR, Tokens.MultOprToken.MultOpr.MODE));
         tokens.put("modT", new Tokens.MultOprToken(Terminal.MULTOPR, Tokens.MultOprToken.MultOpr.MODE));
+
+        // Precompute a collision free hash table, so a lookup is a single probe
+        createHashTable();
+    }
+
+    private Dictionary(Dictionary dictionary) {
+        // The keyword tables are only read, so they are shared between all compilation units
+        this.tokens = dictionary.tokens;
+        this.keys = dictionary.keys;
+        this.values = dictionary.values;
+        this.shift = dictionary.shift;
+        this.multiplier = dictionary.multiplier;
+        this.sentinel = dictionary.sentinel;
+        this.identifiers = new IdentifierTable();
+    }
+
+    public Dictionary newCompilationUnit() {
+        return new Dictionary(this);
+    }
+
+    public Optional<Tokens.Token> lookupToken(CharSequence symbol) {
+        int index = getIndex(getHash(symbol));
+        String key = keys[index];
+        if (key == null || key.length() != symbol.length()) {
+            return Optional.empty();
+        }
+
+        for (int i = 0; i < key.length(); i++) {
+            if (foldCase(key.charAt(i)) != foldCase(symbol.charAt(i))) {
+                return Optional.empty();
+            }
+        }
+        return values[index];
+    }
+
+    public Optional<Tokens.Token> lookupToken(char[] buffer, int offset, int length) {
+        int index = getIndex(getHash(buffer, offset, length));
+        String key = keys[index];
+        if (key == null || key.length() != length) {
+            return Optional.empty();
+        }
+
+        for (int i = 0; i < length; i++) {
+            if (foldCase(key.charAt(i)) != foldCase(buffer[offset + i])) {
+                return Optional.empty();
+            }
+        }
+        return values[index];
+    }
+
+    public Tokens.Token lookupLiteral(CharSequence digits) throws ScannerException {
+        long value = parseLiteral(digits);
+        if (value < 0) {
+            throw new ScannerException("Literal " + digits + " is out of range");
+        }
+        return lookupLiteral(value);
     }
 
-    public Optional<Tokens.Token> lookupToken(String symbol) {
-        return tokens.entrySet().stream().filter(e -> e.getKey().equalsIgnoreCase(symbol)).map(Map.Entry::getValue).findFirst();
+    public Tokens.Token lookupLiteral(long value) {
+        return new Tokens.LiteralToken(value, Terminal.LITERAL);
     }
 
-    public Tokens.Token lookupLiteral(String name) {
-        return new Tokens.LiteralToken(name, Terminal.LITERAL);
+    public static long parseLiteral(CharSequence digits) {
+        // Decode the digits in place, -1 if the value does not fit into a long
+        long value = 0;
+        for (int i = 0; i < digits.length(); i++) {
+            char element = digits.charAt(i);
+            int digit = element >= '0' && element <= '9' ? element - '0' : Character.digit(element, 10);
+            if (value > (Long.MAX_VALUE - digit) / 10) {
+                return -1;
+            }
+            value = value * 10 + digit;
+        }
+        return value;
     }
 
-    public Tokens.Token lookupIdentifier(String value) {
-        return new Tokens.IdentifierToken(value, Terminal.IDENT);
+    public Tokens.IdentifierToken lookupIdentifier(CharSequence value) {
+        return identifiers.lookupIdentifier(value);
     }
 
     public Tokens.Token lookupSentinel() {
-        return new Tokens.SentinelToken(Terminal.SENTINEL);
+        return sentinel;
+    }
+
+    public IdentifierTable getIdentifiers() {
+        return identifiers;
+    }
+
+    @SuppressWarnings("unchecked")
+    private void createHashTable() {
+        // Search a multiplier without collisions and grow the table if there is none
+        int bits = 32 - Integer.numberOfLeadingZeros(tokens.size() * 8 - 1);
+        while (true) {
+            for (int attempt = 0; attempt < MAXIMUM_SEED_ATTEMPTS; attempt++) {
+                shift = 32 - bits;
+                multiplier = 0x9E3779B9 + 2 * attempt;
+                keys = new String[1 << bits];
+                values = new Optional[1 << bits];
+                if (fillHashTable()) {
+                    return;
+                }
+            }
+            bits++;
+        }
+    }
+
+    private boolean fillHashTable() {
+        for (Map.Entry<String, Tokens.Token> entry : tokens.entrySet()) {
+            int index = getIndex(getHash(entry.getKey()));
+            if (keys[index] != null) {
+                return false;
+            }
+            keys[index] = entry.getKey();
+            values[index] = Optional.of(entry.getValue());
+        }
+        return true;
+    }
+
+    private int getIndex(int hash) {
+        return (hash * multiplier) >>> shift;
+    }
+
+    private static int getHash(CharSequence symbol) {
+        int hash = 0;
+        for (int i = 0; i < symbol.length(); i++) {
+            hash = 31 * hash + foldCase(symbol.charAt(i));
+        }
+        return hash;
+    }
+
+    private static int getHash(char[] buffer, int offset, int length) {
+        int hash = 0;
+        for (int i = offset; i < offset + length; i++) {
+            hash = 31 * hash + foldCase(buffer[i]);
+        }
+        return hash;
+    }
+
+    private static char foldCase(char element) {
+        // Same equivalence as String.equalsIgnoreCase, with a fast path for ASCII
+        if (element < 128) {
+            return element >= 'A' && element <= 'Z' ? (char) (element + ('a' - 'A')) : element;
+        }
+        return Character.toLowerCase(Character.toUpperCase(element));
     }
 }
@@ -0,0 +1,67 @@
+package ch.fhnw.cpib.platform.scanner.table;
+
+public final class CharacterClass {
+
+    public static final int NEWLINE = 0;
+
+    public static final int LETTER = 1;
+
+    public static final int DIGIT = 2;
+
+    public static final int SPACE = 3;
+
+    public static final int DASH = 4;
+
+    public static final int SLASH = 5;
+
+    public static final int UNDERSCORE = 6;
+
+    public static final int OPERATOR = 7;
+
+    public static final int UNKNOWN = 8;
+
+    public static final int COUNT = 9;
+
+    // Same characters as the [(),;:=*+-/<>&?!|] class of the state scanner (+-/ is a range that includes , and .)
+    private static final String OPERATORS = "(),;:=*+,-./<>&?!|";
+
+    private static final byte[] ASCII = new byte[128];
+
+    static {
+        for (char element = 0; element < ASCII.length; element++) {
+            ASCII[element] = (byte) classifyCharacter(element);
+        }
+
+        // Tabs are sanitized to spaces by the state scanner, so they behave like one
+        ASCII['\t'] = SPACE;
+    }
+
+    private CharacterClass() {
+    }
+
+    public static int classify(char element) {
+        return element < ASCII.length ? ASCII[element] : classifyCharacter(element);
+    }
+
+    private static int classifyCharacter(char element) {
+        if (element == '\n') {
+            return NEWLINE;
+        } else if (Character.isLetter(element)) {
+            return LETTER;
+        } else if (Character.isDigit(element)) {
+            return DIGIT;
+        } else if (Character.isSpaceChar(element)) {
+            return SPACE;
+        } else if (element == '\'') {
+            return DASH;
+        } else if (element == '/') {
+            return SLASH;
+        } else if (element == '_') {
+            return UNDERSCORE;
+        } else if (OPERATORS.indexOf(element) >= 0) {
+            return OPERATOR;
+        } else {
+            return UNKNOWN;
+        }
+    }
+}
@@ -0,0 +1,34 @@
+package ch.fhnw.cpib.platform.scanner.table;
+
+import ch.fhnw.cpib.platform.scanner.dictionary.Dictionary;
+import ch.fhnw.cpib.platform.scanner.tokens.TokenSink;
+import ch.fhnw.cpib.platform.scanner.tokens.Tokens;
+
+import java.util.function.Consumer;
+
+public class ObjectTokenSink implements TokenSink {
+
+    private final Consumer<Tokens.Token> tokens;
+
+    private final Dictionary dictionary;
+
+    public ObjectTokenSink(Consumer<Tokens.Token> tokens, Dictionary dictionary) {
+        this.tokens = tokens;
+        this.dictionary = dictionary;
+    }
+
+    @Override
+    public void addToken(Tokens.Token token, int offset, int length) {
+        tokens.accept(token);
+    }
+
+    @Override
+    public void addIdentifier(CharSequence name, int offset, int length) {
+        tokens.accept(dictionary.lookupIdentifier(name));
+    }
+
+    @Override
+    public void addLiteral(long value, int offset, int length) {
+        tokens.accept(dictionary.lookupLiteral(value));
+    }
+}
@@ -0,0 +1,129 @@
+package ch.fhnw.cpib.platform.scanner.table;
+
+import ch.fhnw.cpib.platform.scanner.dictionary.Dictionary;
+import ch.fhnw.cpib.platform.scanner.exception.ScannerException;
+import ch.fhnw.cpib.platform.scanner.tokens.IdentifierTable;
+import ch.fhnw.cpib.platform.scanner.tokens.TokenList;
+import ch.fhnw.cpib.platform.scanner.tokens.TokenSink;
+import ch.fhnw.cpib.platform.scanner.tokens.Tokens;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+
+public class ParallelScanner {
+
+    public static final int DEFAULT_CHUNK_SIZE = 256 * 1024;
+
+    private final Dictionary dictionary;
+
+    private final ForkJoinPool pool;
+
+    private final int chunksize;
+
+    public ParallelScanner() {
+        this(ForkJoinPool.commonPool(), DEFAULT_CHUNK_SIZE);
+    }
+
+    public ParallelScanner(ForkJoinPool pool, int chunksize) {
+        this.dictionary = new Dictionary();
+        this.pool = pool;
+        this.chunksize = chunksize;
+    }
+
+    public TokenList scanString(String content) throws ScannerException {
+        // Split after newlines: the lexer is always in its initial state there, since comments and operators end at a newline
+        List<Integer> boundaries = new ArrayList<>();
+        boundaries.add(0);
+        int boundary = 0;
+        while (boundary < content.length()) {
+            boundary = content.indexOf('\n', Math.min(boundary + chunksize, content.length()) - 1);
+            boundary = boundary < 0 ? content.length() : boundary + 1;
+            boundaries.add(boundary);
+        }
+
+        // Scan the chunks on the pool, the keywords are only read and every chunk interns its identifiers in its own unit
+        List<ForkJoinTask<Chunk>> tasks = new ArrayList<>();
+        for (int i = 0; i < boundaries.size() - 1; i++) {
+            int from = boundaries.get(i);
+            int to = boundaries.get(i + 1);
+            tasks.add(pool.submit(() -> scanChunk(content, from, to)));
+        }
+
+        // Stitch the chunks in order, the first failing chunk contains the first error of a sequential scan
+        Dictionary unit = dictionary.newCompilationUnit();
+        TokenList tokenlist = new TokenList();
+        for (ForkJoinTask<Chunk> task : tasks) {
+            try {
+                tokenlist.addTokens(task.get().remapIdentifiers(unit));
+            } catch (InterruptedException exception) {
+                Thread.currentThread().interrupt();
+                throw new ScannerException("Interrupted while scanning", exception);
+            } catch (ExecutionException exception) {
+                // The pool wraps checked exceptions of a callable
+                for (Throwable cause = exception.getCause(); cause != null; cause = cause.getCause()) {
+                    if (cause instanceof ScannerException) {
+                        throw (ScannerException) cause;
+                    }
+                }
+                throw new RuntimeException(exception.getCause());
+            }
+        }
+        tokenlist.addToken(dictionary.lookupSentinel());
+        return tokenlist;
+    }
+
+    private Chunk scanChunk(String content, int from, int to) throws ScannerException {
+        // Only the last chunk can end with an unterminated token, which is dropped like in a sequential scan
+        Chunk chunk = new Chunk(dictionary.newCompilationUnit());
+        TableLexer lexer = new TableLexer(chunk, dictionary);
+        lexer.handleRange(content, from, to);
+        return chunk;
+    }
+
+    private static class Chunk implements TokenSink {
+
+        private final List<Tokens.Token> tokens;
+
+        private final Dictionary unit;
+
+        public Chunk(Dictionary unit) {
+            this.tokens = new ArrayList<>();
+            this.unit = unit;
+        }
+
+        public List<Tokens.Token> remapIdentifiers(Dictionary target) {
+            // Every distinct name of the chunk is interned once into the target, in the order of the first occurrence
+            IdentifierTable identifiers = unit.getIdentifiers();
+            Tokens.IdentifierToken[] remapped = new Tokens.IdentifierToken[identifiers.getSize()];
+            for (int i = 0; i < remapped.length; i++) {
+                remapped[i] = target.lookupIdentifier(identifiers.getIdentifier(i).getName());
+            }
+            for (int i = 0; i < tokens.size(); i++) {
+                Tokens.Token token = tokens.get(i);
+                if (token instanceof Tokens.IdentifierToken) {
+                    tokens.set(i, remapped[((Tokens.IdentifierToken) token).getSymbol()]);
+                }
+            }
+            return tokens;
+        }
+
+        @Override
+        public void addToken(Tokens.Token token, int offset, int length) {
+            tokens.add(token);
+        }
+
+        @Override
+        public void addIdentifier(CharSequence name, int offset, int length) {
+            // Interned without a lock, the stitching maps the chunk symbols to the symbols of the whole list
+            tokens.add(unit.lookupIdentifier(name));
+        }
+
+        @Override
+        public void addLiteral(long value, int offset, int length) {
+            tokens.add(unit.lookupLiteral(value));
+        }
+    }
+}
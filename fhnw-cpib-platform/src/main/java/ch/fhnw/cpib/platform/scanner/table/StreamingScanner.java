@@ -0,0 +1,100 @@
+package ch.fhnw.cpib.platform.scanner.table;
+
+import ch.fhnw.cpib.platform.scanner.dictionary.Dictionary;
+import ch.fhnw.cpib.platform.scanner.exception.ScannerException;
+import ch.fhnw.cpib.platform.scanner.tokens.TokenSource;
+import ch.fhnw.cpib.platform.scanner.tokens.Tokens;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.nio.channels.Channels;
+import java.nio.channels.ReadableByteChannel;
+import java.nio.charset.Charset;
+import java.util.ArrayDeque;
+import java.util.Queue;
+
+public class StreamingScanner implements TokenSource {
+
+    public static final int DEFAULT_BUFFER_SIZE = 8192;
+
+    private final Reader reader;
+
+    private final char[] buffer;
+
+    private final Queue<Tokens.Token> tokens;
+
+    private final TableLexer lexer;
+
+    // Source offset of the first character in the buffer
+    private int position;
+
+    private boolean carriagereturn;
+
+    private boolean finished;
+
+    public StreamingScanner(Reader reader) {
+        this(reader, DEFAULT_BUFFER_SIZE);
+    }
+
+    public StreamingScanner(Reader reader, int buffersize) {
+        this.reader = reader;
+        this.buffer = new char[buffersize];
+        this.tokens = new ArrayDeque<>();
+        Dictionary dictionary = new Dictionary();
+        this.lexer = new TableLexer(new ObjectTokenSink(tokens::add, dictionary), dictionary);
+        this.position = 0;
+        this.carriagereturn = false;
+        this.finished = false;
+    }
+
+    public StreamingScanner(ReadableByteChannel channel, Charset charset) {
+        this(Channels.newReader(channel, charset.newDecoder(), DEFAULT_BUFFER_SIZE), DEFAULT_BUFFER_SIZE);
+    }
+
+    @Override
+    public Tokens.Token nextToken() throws ScannerException {
+        // Only scan the next buffer once all tokens of the previous one were pulled
+        while (tokens.isEmpty() && !finished) {
+            scanBuffer();
+        }
+        return tokens.poll();
+    }
+
+    private void scanBuffer() throws ScannerException {
+        int length;
+        try {
+            length = reader.read(buffer, 0, buffer.length);
+        } catch (IOException exception) {
+            throw new ScannerException("Unable to read the content: " + exception.getMessage(), exception);
+        }
+
+        if (length < 0) {
+            // A lone carriage return at the end is not part of a line ending
+            if (carriagereturn) {
+                carriagereturn = false;
+                lexer.handleCharacter('\r', position - 1);
+            }
+            lexer.handleEnd(position);
+            finished = true;
+            return;
+        }
+
+        for (int i = 0; i < length; i++) {
+            char element = buffer[i];
+
+            // Sanitize CRLF line endings, the carriage return is delayed since a pair may span two buffers
+            if (carriagereturn) {
+                carriagereturn = false;
+                if (element != '\n') {
+                    lexer.handleCharacter('\r', position + i - 1);
+                }
+            }
+            if (element == '\r') {
+                carriagereturn = true;
+                continue;
+            }
+            lexer.handleCharacter(element, position + i);
+        }
+        position += length;
+    }
+}
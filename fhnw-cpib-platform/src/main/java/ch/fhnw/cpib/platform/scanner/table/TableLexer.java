@@ -0,0 +1,191 @@
+package ch.fhnw.cpib.platform.scanner.table;
+
+import ch.fhnw.cpib.platform.scanner.dictionary.Dictionary;
+import ch.fhnw.cpib.platform.scanner.exception.ScannerException;
+import ch.fhnw.cpib.platform.scanner.tokens.TokenSink;
+import ch.fhnw.cpib.platform.scanner.tokens.Tokens;
+
+import java.util.Optional;
+
+public class TableLexer {
+
+    private final TokenSink tokens;
+
+    private final Dictionary dictionary;
+
+    private final StringBuilder lexeme;
+
+    private final char[] operators;
+
+    private int state;
+
+    // Source offsets of the first lexeme character and after the last one
+    private int start;
+
+    private int end;
+
+    // Line tracking for error positions, the first line is only counted when an error occurs
+    private CharSequence content;
+
+    private int origin;
+
+    private int lines;
+
+    private int linestart;
+
+    public TableLexer(TokenSink tokens, Dictionary dictionary) {
+        this.tokens = tokens;
+        this.dictionary = dictionary;
+        this.lexeme = new StringBuilder();
+        this.operators = new char[2];
+        this.state = TransitionTable.INITIAL;
+        this.start = 0;
+        this.end = 0;
+        this.content = null;
+        this.origin = 0;
+        this.lines = 0;
+        this.linestart = 0;
+    }
+
+    public int getState() {
+        return state;
+    }
+
+    public void handleCharacter(char element, int offset) throws ScannerException {
+        int characterclass = CharacterClass.classify(element);
+        int cell = TransitionTable.lookup(state, characterclass);
+        if ((cell & TransitionTable.ERROR) != 0) {
+            throw createException(characterclass, element);
+        }
+
+        switch (cell & TransitionTable.EMIT_MASK) {
+            case TransitionTable.EMIT_IDENTITY:
+                emitIdentity();
+                break;
+            case TransitionTable.EMIT_LITERAL:
+                emitLiteral();
+                break;
+            case TransitionTable.EMIT_OPERATOR:
+                emitOperator(characterclass, element);
+                break;
+            case TransitionTable.EMIT_OPERATOR_PAIR:
+                emitOperatorPair(characterclass, element, offset);
+                break;
+            default:
+                break;
+        }
+
+        switch (cell & TransitionTable.BUFFER_MASK) {
+            case TransitionTable.APPEND:
+                lexeme.append(element);
+                end = offset + 1;
+                break;
+            case TransitionTable.RESTART:
+                lexeme.setLength(0);
+                lexeme.append(element);
+                start = offset;
+                end = offset + 1;
+                break;
+            default:
+                break;
+        }
+
+        if (characterclass == CharacterClass.NEWLINE) {
+            lines++;
+            linestart = offset + 1;
+        }
+        state = cell & TransitionTable.STATE_MASK;
+    }
+
+    public void handleRange(CharSequence content, int from, int to) throws ScannerException {
+        // Ranges always start at the beginning of a line
+        this.content = content;
+        this.origin = from;
+        this.linestart = from;
+        int length = content.length();
+        for (int i = from; i < to; i++) {
+            char element = content.charAt(i);
+            // Sanitize CRLF line endings inline instead of copying the content
+            if (element == '\r' && i + 1 < length && content.charAt(i + 1) == '\n') {
+                continue;
+            }
+            handleCharacter(element, i);
+        }
+    }
+
+    public void handleEnd(int offset) {
+        // Like the state scanner, an unterminated token at the end of the content is dropped
+        tokens.addToken(dictionary.lookupSentinel(), offset, 0);
+    }
+
+    private void emitIdentity() {
+        Optional<Tokens.Token> keyword = dictionary.lookupToken(lexeme);
+        if (keyword.isPresent()) {
+            tokens.addToken(keyword.get(), start, end - start);
+        } else {
+            tokens.addIdentifier(lexeme, start, end - start);
+        }
+    }
+
+    private void emitLiteral() throws ScannerException {
+        long value = Dictionary.parseLiteral(lexeme);
+        if (value < 0) {
+            throw new ScannerException("Literal " + lexeme + " is out of range at line " + getLine() + ", column " + (start - linestart + 1));
+        }
+        tokens.addLiteral(value, start, end - start);
+    }
+
+    private void emitOperator(int characterclass, char element) throws ScannerException {
+        Optional<Tokens.Token> operator = dictionary.lookupToken(lexeme);
+        if (!operator.isPresent()) {
+            throw createException(characterclass, element);
+        }
+        tokens.addToken(operator.get(), start, end - start);
+    }
+
+    private void emitOperatorPair(int characterclass, char element, int offset) throws ScannerException {
+        // The buffer holds exactly one operator character, so the pair is looked up as a slice
+        operators[0] = lexeme.charAt(0);
+        operators[1] = element;
+        Optional<Tokens.Token> operator = dictionary.lookupToken(operators, 0, 2);
+        if (operator.isPresent()) {
+            tokens.addToken(operator.get(), start, offset + 1 - start);
+            return;
+        }
+
+        Optional<Tokens.Token> operator1 = dictionary.lookupToken(operators, 0, 1);
+        Optional<Tokens.Token> operator2 = dictionary.lookupToken(operators, 1, 1);
+        if (!operator1.isPresent() || !operator2.isPresent()) {
+            throw createException(characterclass, element);
+        }
+        tokens.addToken(operator1.get(), start, 1);
+        tokens.addToken(operator2.get(), offset, 1);
+    }
+
+    private int getLine() {
+        int line = lines + 1;
+        if (content != null) {
+            for (int i = 0; i < origin; i++) {
+                if (content.charAt(i) == '\n') {
+                    line++;
+                }
+            }
+        }
+        return line;
+    }
+
+    private ScannerException createException(int characterclass, char element) {
+        switch (characterclass) {
+            case CharacterClass.NEWLINE:
+                return new ScannerException("Unable to handle a newline");
+            case CharacterClass.SPACE:
+                return new ScannerException("Unable to handle a space");
+            case CharacterClass.UNDERSCORE:
+                return new ScannerException("Unable to handle an " + element);
+            case CharacterClass.UNKNOWN:
+                return new ScannerException("Unable to handle the unknown character " + element);
+            default:
+                return new ScannerException("Unable to handle a " + element);
+        }
+    }
+}
@@ -0,0 +1,67 @@
+package ch.fhnw.cpib.platform.scanner.table;
+
+import ch.fhnw.cpib.platform.scanner.dictionary.Dictionary;
+import ch.fhnw.cpib.platform.scanner.exception.ScannerException;
+import ch.fhnw.cpib.platform.scanner.tokens.PackedTokenList;
+import ch.fhnw.cpib.platform.scanner.tokens.TokenList;
+import ch.fhnw.cpib.platform.scanner.tokens.TokenSink;
+
+public class TableScanner {
+
+    private final Dictionary dictionary;
+
+    public TableScanner() {
+        this.dictionary = new Dictionary();
+    }
+
+    public TokenList scanString(String content) throws ScannerException {
+        TokenList tokenlist = new TokenList();
+        scanContent(content, new ObjectTokenSink(tokenlist::addToken, dictionary.newCompilationUnit()));
+        return tokenlist;
+    }
+
+    public PackedTokenList scanPacked(CharSequence content) throws ScannerException {
+        // The test programs average one token every 4.6 characters, so the arrays rarely have to grow
+        PackedTokenList tokenlist = new PackedTokenList(content, Math.max(64, content.length() / 4));
+        scanContent(content, tokenlist);
+        return tokenlist;
+    }
+
+    public PackedTokenList rescanPacked(PackedTokenList previous, CharSequence content, int start, int removedlength, int insertedlength) throws ScannerException {
+        // Every newline resets the lexer and ends a comment, so a line start is a safe restart point
+        int shift = insertedlength - removedlength;
+        int restart = start;
+        while (restart > 0 && content.charAt(restart - 1) != '\n') {
+            restart--;
+        }
+
+        // Both token streams match again after the first newline of the unchanged text behind the edit
+        int resync = start + insertedlength;
+        while (resync < content.length() && content.charAt(resync) != '\n') {
+            resync++;
+        }
+        boolean end = resync == content.length();
+        if (!end) {
+            resync++;
+        }
+
+        // The edited lines are lexed into a side list first, so a failed rescan leaves the previous list untouched
+        PackedTokenList rescanned = new PackedTokenList(previous, content, Math.max(16, (resync - restart) / 4));
+        TableLexer lexer = new TableLexer(rescanned, dictionary);
+        lexer.handleRange(content, restart, resync);
+        if (end) {
+            lexer.handleEnd(content.length());
+        }
+
+        // Only the tokens of the edited lines are replaced, the unchanged ones stay in the arrays of the previous list
+        int from = previous.findToken(restart);
+        int to = end ? previous.getSize() : previous.findToken(resync - shift);
+        return previous.spliceTokens(from, to, rescanned, resync - restart);
+    }
+
+    public void scanContent(CharSequence content, TokenSink tokens) throws ScannerException {
+        TableLexer lexer = new TableLexer(tokens, dictionary);
+        lexer.handleRange(content, 0, content.length());
+        lexer.handleEnd(content.length());
+    }
+}
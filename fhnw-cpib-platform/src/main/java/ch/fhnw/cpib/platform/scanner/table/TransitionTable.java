@@ -0,0 +1,121 @@
+package ch.fhnw.cpib.platform.scanner.table;
+
+import static ch.fhnw.cpib.platform.scanner.table.CharacterClass.*;
+
+public final class TransitionTable {
+
+    public static final int INITIAL = 0;
+
+    public static final int IDENTITY = 1;
+
+    public static final int LITERAL = 2;
+
+    public static final int OPERATOR_STATE = 3;
+
+    public static final int SLASH_STATE = 4;
+
+    public static final int COMMENT = 5;
+
+    public static final int STATE_COUNT = 6;
+
+    public static final int STATE_MASK = 0x0F;
+
+    public static final int KEEP = 0x00;
+
+    public static final int APPEND = 0x10;
+
+    public static final int RESTART = 0x20;
+
+    public static final int BUFFER_MASK = 0x30;
+
+    public static final int EMIT_NONE = 0x000;
+
+    public static final int EMIT_IDENTITY = 0x040;
+
+    public static final int EMIT_LITERAL = 0x080;
+
+    public static final int EMIT_OPERATOR = 0x0C0;
+
+    public static final int EMIT_OPERATOR_PAIR = 0x100;
+
+    public static final int EMIT_MASK = 0x1C0;
+
+    public static final int ERROR = 0x200;
+
+    // Every cell holds the emitted token kind, the buffer action and the next state (Mirrors the classes in states)
+    private static final int[] CELLS = new int[STATE_COUNT * CharacterClass.COUNT];
+
+    static {
+        // Initial state
+        set(INITIAL, NEWLINE, EMIT_NONE | KEEP | INITIAL);
+        set(INITIAL, LETTER, EMIT_NONE | RESTART | IDENTITY);
+        set(INITIAL, DIGIT, EMIT_NONE | RESTART | LITERAL);
+        set(INITIAL, SPACE, EMIT_NONE | KEEP | INITIAL);
+        set(INITIAL, DASH, ERROR);
+        set(INITIAL, SLASH, EMIT_NONE | RESTART | SLASH_STATE);
+        set(INITIAL, UNDERSCORE, EMIT_NONE | RESTART | IDENTITY);
+        set(INITIAL, OPERATOR, EMIT_NONE | RESTART | OPERATOR_STATE);
+        set(INITIAL, UNKNOWN, ERROR);
+
+        // Identity state
+        set(IDENTITY, NEWLINE, EMIT_IDENTITY | KEEP | INITIAL);
+        set(IDENTITY, LETTER, EMIT_NONE | APPEND | IDENTITY);
+        set(IDENTITY, DIGIT, EMIT_NONE | APPEND | IDENTITY);
+        set(IDENTITY, SPACE, EMIT_IDENTITY | KEEP | INITIAL);
+        set(IDENTITY, DASH, EMIT_NONE | APPEND | IDENTITY);
+        set(IDENTITY, SLASH, EMIT_IDENTITY | RESTART | SLASH_STATE);
+        set(IDENTITY, UNDERSCORE, EMIT_NONE | APPEND | IDENTITY);
+        set(IDENTITY, OPERATOR, EMIT_IDENTITY | RESTART | OPERATOR_STATE);
+        set(IDENTITY, UNKNOWN, ERROR);
+
+        // Literal state, dashes are digit separators and not part of the value
+        set(LITERAL, NEWLINE, EMIT_LITERAL | KEEP | INITIAL);
+        set(LITERAL, LETTER, ERROR);
+        set(LITERAL, DIGIT, EMIT_NONE | APPEND | LITERAL);
+        set(LITERAL, SPACE, EMIT_LITERAL | KEEP | INITIAL);
+        set(LITERAL, DASH, EMIT_NONE | KEEP | LITERAL);
+        set(LITERAL, SLASH, EMIT_LITERAL | RESTART | SLASH_STATE);
+        set(LITERAL, UNDERSCORE, ERROR);
+        set(LITERAL, OPERATOR, EMIT_LITERAL | RESTART | OPERATOR_STATE);
+        set(LITERAL, UNKNOWN, ERROR);
+
+        // Operator state, the buffer always contains exactly one operator character
+        set(OPERATOR_STATE, NEWLINE, EMIT_OPERATOR | KEEP | INITIAL);
+        set(OPERATOR_STATE, LETTER, EMIT_OPERATOR | RESTART | IDENTITY);
+        set(OPERATOR_STATE, DIGIT, EMIT_OPERATOR | RESTART | LITERAL);
+        set(OPERATOR_STATE, SPACE, EMIT_OPERATOR | KEEP | INITIAL);
+        set(OPERATOR_STATE, DASH, ERROR);
+        set(OPERATOR_STATE, SLASH, EMIT_OPERATOR | RESTART | SLASH_STATE);
+        set(OPERATOR_STATE, UNDERSCORE, EMIT_OPERATOR | RESTART | IDENTITY);
+        set(OPERATOR_STATE, OPERATOR, EMIT_OPERATOR_PAIR | KEEP | INITIAL);
+        set(OPERATOR_STATE, UNKNOWN, ERROR);
+
+        // Slash state, a single slash is either a division operator or the start of a comment
+        set(SLASH_STATE, NEWLINE, EMIT_NONE | KEEP | INITIAL);
+        set(SLASH_STATE, LETTER, EMIT_OPERATOR | RESTART | IDENTITY);
+        set(SLASH_STATE, DIGIT, EMIT_OPERATOR | RESTART | LITERAL);
+        set(SLASH_STATE, SPACE, EMIT_OPERATOR | KEEP | INITIAL);
+        set(SLASH_STATE, DASH, ERROR);
+        set(SLASH_STATE, SLASH, EMIT_NONE | KEEP | COMMENT);
+        set(SLASH_STATE, UNDERSCORE, ERROR);
+        set(SLASH_STATE, OPERATOR, EMIT_OPERATOR_PAIR | KEEP | INITIAL);
+        set(SLASH_STATE, UNKNOWN, ERROR);
+
+        // Comment state, everything until the next newline is ignored
+        for (int characterclass = 0; characterclass < CharacterClass.COUNT; characterclass++) {
+            set(COMMENT, characterclass, EMIT_NONE | KEEP | COMMENT);
+        }
+        set(COMMENT, NEWLINE, EMIT_NONE | KEEP | INITIAL);
+    }
+
+    private TransitionTable() {
+    }
+
+    public static int lookup(int state, int characterclass) {
+        return CELLS[state * CharacterClass.COUNT + characterclass];
+    }
+
+    private static void set(int state, int characterclass, int cell) {
+        CELLS[state * CharacterClass.COUNT + characterclass] = cell;
+    }
+}
@@ -0,0 +1,33 @@
+package ch.fhnw.cpib.platform.scanner.tokens;
+
+import java.util.ArrayList;
+import java.util.List;
+
+public class IdentifierTable {
+
+    private final SymbolTable symbols;
+
+    private final List<Tokens.IdentifierToken> tokens;
+
+    public IdentifierTable() {
+        this.symbols = new SymbolTable();
+        this.tokens = new ArrayList<>();
+    }
+
+    public Tokens.IdentifierToken lookupIdentifier(CharSequence name) {
+        // Every distinct name gets one canonical token, its symbol id is the index in the table
+        int symbol = symbols.intern(name);
+        if (symbol == tokens.size()) {
+            tokens.add(new Tokens.IdentifierToken(symbols.getSymbol(symbol), Terminal.IDENT, symbol));
+        }
+        return tokens.get(symbol);
+    }
+
+    public Tokens.IdentifierToken getIdentifier(int symbol) {
+        return tokens.get(symbol);
+    }
+
+    public int getSize() {
+        return tokens.size();
+    }
+}
@@ -0,0 +1,352 @@
+package ch.fhnw.cpib.platform.scanner.tokens;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+
+public class PackedTokenList implements TokenSource, TokenSink {
+
+    private static final Terminal[] TERMINALS = Terminal.values();
+
+    // The tokens are stored around a gap, an edit only moves the gap to the edited tokens and replaces them
+    private int[] terminals;
+
+    // The offset for the tokens before the gap, the offset minus the source length for the tokens behind it, so an edit before them shifts nothing
+    private int[] offsets;
+
+    private int[] lengths;
+
+    // Symbol id for identifiers, the value of int literals, the negated index + 1 of long literals, otherwise the index of the shared token
+    private int[] symbols;
+
+    private int gapstart;
+
+    private int gaplength;
+
+    private long[] literals;
+
+    private int literalcount;
+
+    private int size;
+
+    private int counter;
+
+    private final CharSequence source;
+
+    private IdentifierTable identifiers;
+
+    // Number of names and long literals after the last compaction, -1 while the table only holds the names of this list
+    private int compactedsize;
+
+    private final List<Tokens.Token> sharedtokens;
+
+    private final Map<Tokens.Token, Integer> sharedindexes;
+
+    private int rescannedlength;
+
+    public PackedTokenList(CharSequence source) {
+        this(source, 64);
+    }
+
+    public PackedTokenList(CharSequence source, int capacity) {
+        this.source = source;
+        this.terminals = new int[capacity];
+        this.offsets = new int[capacity];
+        this.lengths = new int[capacity];
+        this.symbols = new int[capacity];
+        this.gapstart = 0;
+        this.gaplength = capacity;
+        this.literals = new long[0];
+        this.literalcount = 0;
+        this.size = 0;
+        this.counter = 0;
+        this.identifiers = new IdentifierTable();
+        this.compactedsize = -1;
+        this.sharedtokens = new ArrayList<>();
+        this.sharedindexes = new IdentityHashMap<>();
+        this.rescannedlength = source.length();
+    }
+
+    public PackedTokenList(PackedTokenList previous, CharSequence source, int capacity) {
+        // Holds the rescanned tokens of an edit, the symbols are shared with the previous version, so they can be spliced into it
+        this.source = source;
+        this.terminals = new int[capacity];
+        this.offsets = new int[capacity];
+        this.lengths = new int[capacity];
+        this.symbols = new int[capacity];
+        this.gapstart = 0;
+        this.gaplength = capacity;
+        this.literals = new long[0];
+        this.literalcount = 0;
+        this.size = 0;
+        this.counter = 0;
+        this.identifiers = previous.identifiers;
+        this.compactedsize = previous.compactedsize < 0 ? previous.identifiers.getSize() + previous.literalcount : previous.compactedsize;
+        this.sharedtokens = previous.sharedtokens;
+        this.sharedindexes = previous.sharedindexes;
+        this.rescannedlength = 0;
+    }
+
+    @Override
+    public void addToken(Tokens.Token token, int offset, int length) {
+        Integer index = sharedindexes.get(token);
+        if (index == null) {
+            index = sharedtokens.size();
+            sharedtokens.add(token);
+            sharedindexes.put(token, index);
+        }
+        add(token.getTerminal(), offset, length, index);
+    }
+
+    @Override
+    public void addIdentifier(CharSequence name, int offset, int length) {
+        add(Terminal.IDENT, offset, length, identifiers.lookupIdentifier(name).getSymbol());
+    }
+
+    @Override
+    public void addLiteral(long value, int offset, int length) {
+        add(Terminal.LITERAL, offset, length, getLiteralSymbol(value));
+    }
+
+    @Override
+    public Tokens.Token nextToken() {
+        if (size > counter) {
+            return getToken(counter++);
+        } else {
+            return null;
+        }
+    }
+
+    public void resetCounter() {
+        counter = 0;
+    }
+
+    public int getSize() {
+        return size;
+    }
+
+    public Terminal getTerminal(int index) {
+        return TERMINALS[terminals[getPosition(index)]];
+    }
+
+    public int getOffset(int index) {
+        return index < gapstart ? offsets[index] : offsets[index + gaplength] + source.length();
+    }
+
+    public int getLength(int index) {
+        return lengths[getPosition(index)];
+    }
+
+    public int getSymbol(int index) {
+        return symbols[getPosition(index)];
+    }
+
+    public int findToken(int offset) {
+        // Binary search for the first token starting at or after the offset
+        int low = 0;
+        int high = size;
+        while (low < high) {
+            int middle = (low + high) >>> 1;
+            if (getOffset(middle) < offset) {
+                low = middle + 1;
+            } else {
+                high = middle;
+            }
+        }
+        return low;
+    }
+
+    public PackedTokenList spliceTokens(int from, int to, PackedTokenList rescanned, int rescannedlength) {
+        // Replace the tokens between both indexes, the next version takes over the arrays, so this list is empty afterwards
+        moveGap(to);
+        gapstart = from;
+        gaplength += to - from;
+        size -= to - from;
+
+        PackedTokenList tokenlist = new PackedTokenList(this, rescanned.source, 0);
+        tokenlist.terminals = terminals;
+        tokenlist.offsets = offsets;
+        tokenlist.lengths = lengths;
+        tokenlist.symbols = symbols;
+        tokenlist.gapstart = gapstart;
+        tokenlist.gaplength = gaplength;
+        tokenlist.literals = literals;
+        tokenlist.literalcount = literalcount;
+        tokenlist.size = size;
+        tokenlist.compactedsize = rescanned.compactedsize;
+        tokenlist.rescannedlength = rescannedlength;
+        terminals = offsets = lengths = symbols = new int[0];
+        gapstart = gaplength = size = counter = literalcount = 0;
+
+        // The rescanned tokens have their final offsets and are inserted before the gap
+        tokenlist.ensureGap(rescanned.size);
+        for (int i = 0; i < rescanned.size; i++) {
+            tokenlist.terminals[tokenlist.gapstart] = rescanned.terminals[i];
+            tokenlist.offsets[tokenlist.gapstart] = rescanned.offsets[i];
+            tokenlist.lengths[tokenlist.gapstart] = rescanned.lengths[i];
+            tokenlist.symbols[tokenlist.gapstart] = rescanned.symbols[i] < 0 && rescanned.terminals[i] == Terminal.LITERAL.ordinal() ? tokenlist.getLiteralSymbol(rescanned.getLiteralValue(i)) : rescanned.symbols[i];
+            tokenlist.gapstart++;
+            tokenlist.gaplength--;
+            tokenlist.size++;
+        }
+        tokenlist.compactSymbols();
+        return tokenlist;
+    }
+
+    private void compactSymbols() {
+        // Every prefix typed during an edit is interned, so the tables are rebuilt from the used symbols once the unused ones
+        // outnumber the used ones and an eighth of the tokens, a compaction costs amortized constant time per interned symbol
+        if (identifiers.getSize() + literalcount <= 2 * compactedsize + 64 + size / 8) {
+            return;
+        }
+        IdentifierTable table = new IdentifierTable();
+        int[] mapping = new int[identifiers.getSize()];
+        Arrays.fill(mapping, -1);
+        long[] pool = literals;
+        literals = new long[0];
+        literalcount = 0;
+        for (int i = 0; i < size; i++) {
+            int position = getPosition(i);
+            if (terminals[position] == Terminal.IDENT.ordinal()) {
+                int symbol = symbols[position];
+                if (mapping[symbol] < 0) {
+                    mapping[symbol] = table.lookupIdentifier(identifiers.getIdentifier(symbol).getName()).getSymbol();
+                }
+                symbols[position] = mapping[symbol];
+            } else if (terminals[position] == Terminal.LITERAL.ordinal() && symbols[position] < 0) {
+                symbols[position] = getLiteralSymbol(pool[-symbols[position] - 1]);
+            }
+        }
+        identifiers = table;
+        compactedsize = table.getSize() + literalcount;
+    }
+
+    public IdentifierTable getIdentifiers() {
+        return identifiers;
+    }
+
+    public int getRescannedLength() {
+        return rescannedlength;
+    }
+
+    public CharSequence getSource() {
+        return source;
+    }
+
+    public long getLiteralValue(int index) {
+        int symbol = symbols[getPosition(index)];
+        return symbol >= 0 ? symbol : literals[-symbol - 1];
+    }
+
+    public Tokens.Token getToken(int index) {
+        // Flyweight view, every distinct identifier has one canonical token
+        int symbol = getSymbol(index);
+        switch (getTerminal(index)) {
+            case IDENT:
+                return identifiers.getIdentifier(symbol);
+            case LITERAL:
+                return new Tokens.LiteralToken(getLiteralValue(index), Terminal.LITERAL);
+            default:
+                return sharedtokens.get(symbol);
+        }
+    }
+
+    public TokenList toTokenList() {
+        TokenList tokenlist = new TokenList();
+        for (int i = 0; i < size; i++) {
+            tokenlist.addToken(getToken(i));
+        }
+        return tokenlist;
+    }
+
+    private void add(Terminal terminal, int offset, int length, int symbol) {
+        // A scanned list has its gap at the end, the tokens are appended
+        moveGap(size);
+        ensureGap(1);
+        terminals[gapstart] = terminal.ordinal();
+        offsets[gapstart] = offset;
+        lengths[gapstart] = length;
+        symbols[gapstart] = symbol;
+        gapstart++;
+        gaplength--;
+        size++;
+    }
+
+    private int getPosition(int index) {
+        return index < gapstart ? index : index + gaplength;
+    }
+
+    private void moveGap(int index) {
+        // The moved tokens switch between the absolute offset and the offset relative to the end of the source
+        int length = source.length();
+        if (index < gapstart) {
+            int count = gapstart - index;
+            moveTokens(index, index + gaplength, count);
+            for (int i = index + gaplength; i < index + gaplength + count; i++) {
+                offsets[i] -= length;
+            }
+        } else if (index > gapstart) {
+            int count = index - gapstart;
+            moveTokens(gapstart + gaplength, gapstart, count);
+            for (int i = gapstart; i < index; i++) {
+                offsets[i] += length;
+            }
+        }
+        gapstart = index;
+    }
+
+    private void moveTokens(int from, int to, int count) {
+        System.arraycopy(terminals, from, terminals, to, count);
+        System.arraycopy(offsets, from, offsets, to, count);
+        System.arraycopy(lengths, from, lengths, to, count);
+        System.arraycopy(symbols, from, symbols, to, count);
+    }
+
+    private int getLiteralSymbol(long value) {
+        if (value <= Integer.MAX_VALUE) {
+            return (int) value;
+        }
+        if (literalcount == literals.length) {
+            literals = Arrays.copyOf(literals, Math.max(8, literalcount * 2));
+        }
+        literals[literalcount++] = value;
+        return -literalcount;
+    }
+
+    private void ensureGap(int minimum) {
+        // The tokens behind the gap move to the end of the grown arrays
+        if (minimum > gaplength) {
+            int capacity = Math.max(Math.max(16, size + minimum), terminals.length + (terminals.length >> 1));
+            int tail = size - gapstart;
+            terminals = growArray(terminals, capacity, tail);
+            offsets = growArray(offsets, capacity, tail);
+            lengths = growArray(lengths, capacity, tail);
+            symbols = growArray(symbols, capacity, tail);
+            gaplength = capacity - size;
+        }
+    }
+
+    private int[] growArray(int[] array, int capacity, int tail) {
+        int[] grown = Arrays.copyOf(array, capacity);
+        System.arraycopy(array, array.length - tail, grown, capacity - tail, tail);
+        return grown;
+    }
+
+    @Override
+    public String toString() {
+        if (size == 0) {
+            return "[]";
+        }
+
+        StringBuilder builder = new StringBuilder();
+        for (int i = 0; i < size; i++) {
+            if (i > 0) {
+                builder.append(", ");
+            }
+            builder.append(getToken(i));
+        }
+        return builder.toString();
+    }
+}
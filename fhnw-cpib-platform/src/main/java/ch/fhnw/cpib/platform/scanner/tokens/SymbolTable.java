@@ -0,0 +1,81 @@
+package ch.fhnw.cpib.platform.scanner.tokens;
+
+import java.util.ArrayList;
+import java.util.List;
+
+public class SymbolTable {
+
+    private final List<String> symbols;
+
+    // Open addressing table with the symbol id + 1 in each slot (0 marks an empty slot)
+    private int[] slots;
+
+    public SymbolTable() {
+        this.symbols = new ArrayList<>();
+        this.slots = new int[64];
+    }
+
+    public int intern(CharSequence symbol) {
+        int hash = getHash(symbol);
+        int mask = slots.length - 1;
+        int index = hash & mask;
+        while (slots[index] != 0) {
+            int id = slots[index] - 1;
+            if (isEqual(symbols.get(id), symbol)) {
+                return id;
+            }
+            index = (index + 1) & mask;
+        }
+
+        // Only a new symbol allocates its string
+        int id = symbols.size();
+        symbols.add(symbol.toString());
+        slots[index] = id + 1;
+        if (symbols.size() * 2 > slots.length) {
+            resize();
+        }
+        return id;
+    }
+
+    public String getSymbol(int id) {
+        return symbols.get(id);
+    }
+
+    public int getSize() {
+        return symbols.size();
+    }
+
+    private void resize() {
+        int[] newslots = new int[slots.length * 2];
+        int mask = newslots.length - 1;
+        for (int id = 0; id < symbols.size(); id++) {
+            int index = getHash(symbols.get(id)) & mask;
+            while (newslots[index] != 0) {
+                index = (index + 1) & mask;
+            }
+            newslots[index] = id + 1;
+        }
+        slots = newslots;
+    }
+
+    private static int getHash(CharSequence symbol) {
+        // Same hash as String.hashCode, spread for the power of two table
+        int hash = 0;
+        for (int i = 0; i < symbol.length(); i++) {
+            hash = 31 * hash + symbol.charAt(i);
+        }
+        return hash ^ (hash >>> 16);
+    }
+
+    private static boolean isEqual(String name, CharSequence symbol) {
+        if (name.length() != symbol.length()) {
+            return false;
+        }
+        for (int i = 0; i < name.length(); i++) {
+            if (name.charAt(i) != symbol.charAt(i)) {
+                return false;
+            }
+        }
+        return true;
+    }
+}
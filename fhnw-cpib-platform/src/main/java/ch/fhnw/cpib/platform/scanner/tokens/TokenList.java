@@ -1,10 +1,10 @@
 package ch.fhnw.cpib.platform.scanner.tokens;
 
+import java.io.IOException;
 import java.util.ArrayList;
 import java.util.List;
-import java.util.stream.Collectors;
 
-public class TokenList {
+public class TokenList implements TokenSource {
 
     private final List<Tokens.Token> tokens;
 
@@ -19,6 +19,11 @@ public class TokenList {
         tokens.add(token);
     }
 
+    public void addTokens(List<Tokens.Token> tokens) {
+        this.tokens.addAll(tokens);
+    }
+
+    @Override
     public Tokens.Token nextToken() {
         if (tokens.size() > counter) {
             Tokens.Token token = tokens.get(counter);
@@ -29,6 +34,10 @@ public class TokenList {
         }
     }
 
+    public Tokens.Token getToken(int index) {
+        return tokens.get(index);
+    }
+
     public int getSize() {
         return tokens.size();
     }
@@ -37,8 +46,28 @@ public class TokenList {
         counter = 0;
     }
 
+    public void writeTo(Appendable appendable) throws IOException {
+        // Stream the tokens, so a large list is never joined into a single string
+        if (tokens.isEmpty()) {
+            appendable.append("[]");
+            return;
+        }
+        for (int i = 0; i < tokens.size(); i++) {
+            if (i > 0) {
+                appendable.append(", ");
+            }
+            appendable.append(tokens.get(i).toString());
+        }
+    }
+
     @Override
     public String toString() {
-        return (!tokens.isEmpty()) ? tokens.stream().map(Object::toString).collect(Collectors.joining(", ")) : "[]";
+        StringBuilder builder = new StringBuilder();
+        try {
+            writeTo(builder);
+        } catch (IOException exception) {
+            throw new RuntimeException(exception);
+        }
+        return builder.toString();
     }
 }
@@ -0,0 +1,13 @@
+package ch.fhnw.cpib.platform.scanner.tokens;
+
+public interface TokenSink {
+
+    // Adds a shared keyword, operator or sentinel token from the dictionary
+    void addToken(Tokens.Token token, int offset, int length);
+
+    // The name is only valid during the call, since the scanner reuses its buffer
+    void addIdentifier(CharSequence name, int offset, int length);
+
+    // The value is already decoded and range checked by the scanner
+    void addLiteral(long value, int offset, int length);
+}
@@ -0,0 +1,9 @@
+package ch.fhnw.cpib.platform.scanner.tokens;
+
+import ch.fhnw.cpib.platform.scanner.exception.ScannerException;
+
+public interface TokenSource {
+
+    // Returns the next token or null after the sentinel token was returned
+    Tokens.Token nextToken() throws ScannerException;
+}
@@ -23,15 +23,27 @@ public class Tokens {
 
         private final String name;
 
+        // Symbol id of an interned token, otherwise -1
+        private final int symbol;
+
         public IdentifierToken(String name, Terminal terminal) {
+            this(name, terminal, -1);
+        }
+
+        public IdentifierToken(String name, Terminal terminal, int symbol) {
             super(terminal);
             this.name = name;
+            this.symbol = symbol;
         }
 
         public String getName() {
             return name;
         }
 
+        public int getSymbol() {
+            return symbol;
+        }
+
         @Override
         public String toString() {
             return "(" + super.toString() + "," + name + ")";
@@ -40,30 +52,18 @@ public class Tokens {
 
     public static class LiteralToken extends Token {
 
-        private final String value;
+        private final long value;
 
         private final TypeToken.Type type;
 
-        public LiteralToken(String value, Terminal terminal) {
+        public LiteralToken(long value, Terminal terminal) {
             super(terminal);
-            try {
-                long v = Long.parseLong(value);
-                if (v > Integer.MAX_VALUE && v < Long.MAX_VALUE) {
-                    type = TypeToken.Type.INT64;
-                } else if (v < Integer.MAX_VALUE && v > Integer.MIN_VALUE) {
-                    type = TypeToken.Type.INT;
-                } else if ("true".equals(value) || "false".equals(value)) {
-                    type = TypeToken.Type.BOOL;
-                } else {
-                    type = null;
-                }
-            } catch (RuntimeException e) {
-                throw new RuntimeException("Invalid number " + value);
-            }
+            // Literals are never negative, the scanner rejects values beyond the long range
             this.value = value;
+            this.type = value <= Integer.MAX_VALUE ? TypeToken.Type.INT : TypeToken.Type.INT64;
         }
 
-        public String getValue() {
+        public long getValue() {
             return value;
         }
 
@@ -0,0 +1,116 @@
+package ch.fhnw.cpib.platform.utils;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.Reader;
+import java.nio.CharBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.Charset;
+import java.nio.charset.CharsetDecoder;
+import java.nio.charset.CoderResult;
+import java.nio.charset.CodingErrorAction;
+import java.nio.file.StandardOpenOption;
+
+public class MappedFileReader extends Reader {
+
+    // Files are mapped in windows, since a single mapping is limited to 2 GB
+    public static final long WINDOW_SIZE = 64L * 1024 * 1024;
+
+    private final FileChannel channel;
+
+    private final CharsetDecoder decoder;
+
+    private final long size;
+
+    private final long windowsize;
+
+    private long windowstart;
+
+    private MappedByteBuffer window;
+
+    private CharBuffer target;
+
+    // A surrogate pair doesn't fit into a single char, its low surrogate is returned by the next read
+    private final CharBuffer pair;
+
+    private boolean flushed;
+
+    public MappedFileReader(File file, Charset charset) throws IOException {
+        this(file, charset, WINDOW_SIZE);
+    }
+
+    public MappedFileReader(File file, Charset charset, long windowsize) throws IOException {
+        this.channel = FileChannel.open(file.toPath(), StandardOpenOption.READ);
+        // Malformed input is replaced like in FileUtils.readFileToString
+        this.decoder = charset.newDecoder().onMalformedInput(CodingErrorAction.REPLACE).onUnmappableCharacter(CodingErrorAction.REPLACE);
+        this.size = channel.size();
+        this.windowsize = windowsize;
+        this.windowstart = 0;
+        this.window = mapWindow(0, windowsize);
+        this.pair = CharBuffer.allocate(2);
+        this.pair.flip();
+        this.flushed = false;
+    }
+
+    @Override
+    public int read(char[] buffer, int offset, int length) throws IOException {
+        if (length == 0) {
+            return 0;
+        }
+        if (pair.hasRemaining()) {
+            buffer[offset] = pair.get();
+            return 1;
+        }
+
+        // Decode directly into the buffer of the caller
+        if (target == null || target.array() != buffer) {
+            target = CharBuffer.wrap(buffer);
+        }
+        target.limit(offset + length);
+        target.position(offset);
+
+        while (target.position() == offset) {
+            if (flushed) {
+                return -1;
+            }
+
+            boolean lastwindow = windowstart + window.limit() >= size;
+            CoderResult result = decoder.decode(window, target, lastwindow);
+            if (result.isError()) {
+                result.throwException();
+            }
+
+            if (result.isOverflow() && target.position() == offset) {
+                // Only a surrogate pair overflows an empty target, decode it aside and return its high surrogate
+                pair.clear();
+                decoder.decode(window, pair, lastwindow);
+                pair.flip();
+                buffer[offset] = pair.get();
+                return 1;
+            }
+
+            if (result.isUnderflow() && target.position() == offset) {
+                if (!lastwindow) {
+                    // Map the next window from the first unconsumed byte, so split characters are decoded as a whole
+                    long windowlength = window.position() > 0 ? windowsize : window.limit() * 2L;
+                    windowstart += window.position();
+                    window = mapWindow(windowstart, windowlength);
+                } else {
+                    decoder.flush(target);
+                    flushed = true;
+                }
+            }
+        }
+        return target.position() - offset;
+    }
+
+    @Override
+    public void close() throws IOException {
+        channel.close();
+    }
+
+    private MappedByteBuffer mapWindow(long start, long length) throws IOException {
+        return channel.map(FileChannel.MapMode.READ_ONLY, start, Math.min(length, size - start));
+    }
+}
@@ -0,0 +1,495 @@
+package ch.fhnw.cpib.platform.utils;
+
+import ch.fhnw.cpib.platform.scanner.tokens.Terminal;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Random;
+
+public class ProgramGenerator {
+
+    private static final List<String> GLOBALS = Arrays.asList("g0", "g1", "g2");
+
+    private static final String[] ADDOPRS = {"+", "-"};
+
+    private static final String[] MULTOPRS = {"*", "divE", "modE"};
+
+    // Only these relations are typed as BOOL by the checker
+    private static final String[] RELOPRS = {"=", "<", ">", ">="};
+
+    private static final String[] BOOLOPRS = {"&&", "||", "&?", "|?"};
+
+    private final long seed;
+
+    private int routines;
+
+    private int lines;
+
+    private int depth;
+
+    private int statements;
+
+    private int expressionsize;
+
+    private int ifweight;
+
+    private int whileweight;
+
+    private int switchweight;
+
+    private int callweight;
+
+    private int assignweight;
+
+    private Random random;
+
+    private StringBuilder builder;
+
+    private int indentation;
+
+    private int linecount;
+
+    private int caseliteral;
+
+    private List<RoutineInfo> declaredroutines;
+
+    private List<String> readables;
+
+    private List<String> writables;
+
+    private List<String> switchables;
+
+    public ProgramGenerator(long seed) {
+        this.seed = seed;
+        this.routines = 10;
+        this.lines = 0;
+        this.depth = 3;
+        this.statements = 6;
+        this.expressionsize = 4;
+        this.ifweight = 3;
+        this.whileweight = 1;
+        this.switchweight = 1;
+        this.callweight = 2;
+        this.assignweight = 6;
+    }
+
+    public ProgramGenerator setRoutines(int routines) {
+        this.routines = routines;
+        return this;
+    }
+
+    public ProgramGenerator setLines(int lines) {
+        // Routines are added until the program has at least this many lines
+        this.lines = lines;
+        return this;
+    }
+
+    public ProgramGenerator setDepth(int depth) {
+        this.depth = depth;
+        return this;
+    }
+
+    public ProgramGenerator setStatements(int statements) {
+        this.statements = statements;
+        return this;
+    }
+
+    public ProgramGenerator setExpressionSize(int expressionsize) {
+        this.expressionsize = expressionsize;
+        return this;
+    }
+
+    public ProgramGenerator setCommandWeights(int ifweight, int whileweight, int switchweight, int callweight, int assignweight) {
+        this.ifweight = ifweight;
+        this.whileweight = whileweight;
+        this.switchweight = switchweight;
+        this.callweight = callweight;
+        this.assignweight = assignweight;
+        return this;
+    }
+
+    public String generateProgram() {
+        // The same seed and settings always produce the same program
+        random = new Random(seed);
+        builder = new StringBuilder();
+        indentation = 0;
+        linecount = 0;
+        caseliteral = 0;
+        declaredroutines = new ArrayList<>();
+
+        // PROGRAM IDENT <progParamList> <optCpsDecl> DO <cpsCmd> ENDPROGRAM
+        append(Terminal.PROGRAM).append(" Generated").append(Terminal.LPAREN).append("input:int32").append(Terminal.COMMA).append(" output:int32").append(Terminal.RPAREN);
+        newline();
+        generateOptCpsDecl();
+        append(Terminal.DO);
+        newline();
+
+        readables = new ArrayList<>(GLOBALS);
+        readables.add("input");
+        writables = new ArrayList<>(GLOBALS);
+        writables.add("output");
+        switchables = Collections.singletonList("input");
+        indentation++;
+        generateCpsCmd(statements, 0);
+        append(Terminal.SEMICOLON);
+        newline();
+        append(Terminal.DEBUGOUT).append(" output");
+        newline();
+        indentation--;
+        append(Terminal.ENDPROGRAM);
+        newline();
+        return builder.toString();
+    }
+
+    private void generateOptCpsDecl() {
+        // GLOBAL <cpsDecl> with <decl> <repCpsDecl>, the stores come first so every routine can import them
+        append(Terminal.GLOBAL);
+        newline();
+        indentation++;
+        for (int i = 0; i < GLOBALS.size(); i++) {
+            append("var ").append(GLOBALS.get(i)).append(Terminal.COLON).append("int32");
+            if (i + 1 < GLOBALS.size()) {
+                append(Terminal.SEMICOLON);
+                newline();
+            }
+        }
+        for (int i = 0; i < routines || linecount < lines; i++) {
+            append(Terminal.SEMICOLON);
+            newline();
+            if (random.nextBoolean()) {
+                generateFunDecl(i);
+            } else {
+                generateProcDecl(i);
+            }
+        }
+        newline();
+        indentation--;
+    }
+
+    private void generateFunDecl(int index) {
+        // FUN IDENT <paramList> RETURNS <stoDecl> <optGlobImps> <optCpsStoDecl> DO <cpsCmd> ENDFUN
+        RoutineInfo routine = new RoutineInfo("f" + index, true, 1 + random.nextInt(3));
+        append(Terminal.FUN).append(" ").append(routine.name).append(Terminal.LPAREN);
+        List<String> parameters = new ArrayList<>();
+        for (int i = 0; i < routine.parameters; i++) {
+            String parameter = "a" + i;
+            if (i > 0) {
+                append(Terminal.COMMA).append(" ");
+            }
+            String[] variants = {"", "in ", "in copy ", "in copy const "};
+            append(variants[random.nextInt(variants.length)]).append(parameter).append(Terminal.COLON).append("int32");
+            parameters.add(parameter);
+        }
+        append(Terminal.RPAREN).append(" ").append(Terminal.RETURNS).append(" var result").append(Terminal.COLON).append("int32");
+        newline();
+
+        List<String> globals = generateOptGlobImps();
+        List<String> locals = generateOptCpsStoDecl();
+
+        readables = new ArrayList<>(parameters);
+        readables.addAll(globals);
+        readables.addAll(locals);
+        writables = new ArrayList<>(locals);
+        writables.add("result");
+        switchables = parameters;
+
+        append(Terminal.DO);
+        newline();
+        indentation++;
+        append("result ").append(Terminal.BECOMES).append(" ");
+        generateArithmeticExpr(expressionsize);
+        append(Terminal.SEMICOLON);
+        newline();
+        generateCpsCmd(statements, 0);
+        newline();
+        indentation--;
+        append(Terminal.ENDFUN);
+        declaredroutines.add(routine);
+    }
+
+    private void generateProcDecl(int index) {
+        // PROC IDENT <paramList> <optGlobImps> <optCpsStoDecl> DO <cpsCmd> ENDPROC
+        RoutineInfo routine = new RoutineInfo("p" + index, false, 3);
+        append(Terminal.PROC).append(" ").append(routine.name).append(Terminal.LPAREN);
+        append("in ").append("a0").append(Terminal.COLON).append("int32").append(Terminal.COMMA).append(" ");
+        append("inout copy var ").append("b0").append(Terminal.COLON).append("int32").append(Terminal.COMMA).append(" ");
+        append("out copy var ").append("c0").append(Terminal.COLON).append("int32").append(Terminal.RPAREN);
+        newline();
+
+        List<String> globals = generateOptGlobImps();
+        List<String> locals = generateOptCpsStoDecl();
+
+        readables = new ArrayList<>(Collections.singletonList("a0"));
+        readables.add("b0");
+        readables.addAll(globals);
+        readables.addAll(locals);
+        writables = new ArrayList<>(locals);
+        writables.add("b0");
+        writables.add("c0");
+        switchables = Collections.singletonList("a0");
+
+        append(Terminal.DO);
+        newline();
+        indentation++;
+        append("c0 ").append(Terminal.BECOMES).append(" ");
+        generateArithmeticExpr(expressionsize);
+        append(Terminal.SEMICOLON);
+        newline();
+        generateCpsCmd(statements, 0);
+        newline();
+        indentation--;
+        append(Terminal.ENDPROC);
+        declaredroutines.add(routine);
+    }
+
+    private List<String> generateOptGlobImps() {
+        // GLOBAL <globImps> with <globImp> <repGlobImps>, or nothing
+        List<String> globals = new ArrayList<>();
+        if (random.nextBoolean()) {
+            return globals;
+        }
+        append(Terminal.GLOBAL).append(" ");
+        for (String global : GLOBALS) {
+            if (!globals.isEmpty()) {
+                append(Terminal.COMMA).append(" ");
+            }
+            append(random.nextBoolean() ? "in " : "").append(global);
+            globals.add(global);
+        }
+        newline();
+        return globals;
+    }
+
+    private List<String> generateOptCpsStoDecl() {
+        // LOCAL <cpsStoDecl> with <stoDecl> <repCpsStoDecl>, or nothing
+        List<String> locals = new ArrayList<>();
+        int count = random.nextInt(4);
+        if (count == 0) {
+            return locals;
+        }
+        append(Terminal.LOCAL);
+        newline();
+        indentation++;
+        for (int i = 0; i < count; i++) {
+            String local = "l" + i;
+            append("var ").append(local).append(Terminal.COLON).append("int32");
+            if (i + 1 < count) {
+                append(Terminal.SEMICOLON);
+            }
+            newline();
+            locals.add(local);
+        }
+        indentation--;
+        return locals;
+    }
+
+    private void generateCpsCmd(int count, int level) {
+        // <cmd> <repCpsCmd>
+        for (int i = 0; i < count; i++) {
+            if (i > 0) {
+                append(Terminal.SEMICOLON);
+                newline();
+            }
+            generateCmd(level);
+        }
+    }
+
+    private void generateCmd(int level) {
+        // Compound commands are only generated until the maximum depth is reached
+        int compoundweight = level < depth ? ifweight + whileweight + switchweight : 0;
+        int choice = random.nextInt(compoundweight + callweight + assignweight + 1);
+        if (choice < compoundweight) {
+            if (choice < ifweight) {
+                generateIfCmd(level);
+            } else if (choice < ifweight + whileweight) {
+                generateWhileCmd(level);
+            } else {
+                generateSwitchCmd(level);
+            }
+        } else if (choice < compoundweight + callweight && !declaredroutines.isEmpty()) {
+            generateCallCmd();
+        } else if (choice == compoundweight + callweight + assignweight) {
+            append(Terminal.SKIP);
+        } else {
+            generateAssiCmd();
+        }
+    }
+
+    private void generateAssiCmd() {
+        // <expr> BECOMES <expr>
+        append(pick(writables)).append(" ").append(Terminal.BECOMES).append(" ");
+        generateArithmeticExpr(random.nextInt(expressionsize + 1));
+    }
+
+    private void generateIfCmd(int level) {
+        // IF <expr> THEN <cpsCmd> <repElseif> <optElse> ENDIF
+        append(Terminal.IF).append(" ");
+        generateBoolExpr();
+        append(" ").append(Terminal.THEN);
+        generateBlock(level);
+        for (int i = random.nextInt(3); i > 0; i--) {
+            append(Terminal.ELSEIF).append(" ");
+            generateBoolExpr();
+            append(" ").append(Terminal.THEN);
+            generateBlock(level);
+        }
+        if (random.nextBoolean()) {
+            append(Terminal.ELSE);
+            generateBlock(level);
+        }
+        append(Terminal.ENDIF);
+    }
+
+    private void generateWhileCmd(int level) {
+        // WHILE <expr> DO <cpsCmd> ENDWHILE
+        append(Terminal.WHILE).append(" ");
+        generateBoolExpr();
+        append(" ").append(Terminal.DO);
+        generateBlock(level);
+        append(Terminal.ENDWHILE);
+    }
+
+    private void generateSwitchCmd(int level) {
+        // SWITCH <expr> CASE LITERAL THEN <cpsCmd> <repCase> <optDefault> ENDSWITCH
+        append(Terminal.SWITCH).append(" ").append(pick(switchables));
+        newline();
+        for (int i = 1 + random.nextInt(3); i > 0; i--) {
+            // The checker compares the case literals of all switches, so every literal is unique
+            append(Terminal.CASE).append(" ").append(String.valueOf(caseliteral++)).append(" ").append(Terminal.THEN);
+            generateBlock(level);
+        }
+        if (random.nextBoolean()) {
+            append(Terminal.DEFAULT).append(" ").append(Terminal.THEN);
+            generateBlock(level);
+        }
+        append(Terminal.ENDSWITCH);
+    }
+
+    private void generateCallCmd() {
+        // Only already declared routines can be called, since the checker registers them in order
+        RoutineInfo routine = pick(declaredroutines);
+        if (routine.function) {
+            // Function calls are factors: IDENT <exprList>
+            append(pick(writables)).append(" ").append(Terminal.BECOMES).append(" ").append(routine.name).append(Terminal.LPAREN);
+            for (int i = 0; i < routine.parameters; i++) {
+                if (i > 0) {
+                    append(Terminal.COMMA).append(" ");
+                }
+                generateArithmeticExpr(random.nextInt(expressionsize / 2 + 1));
+            }
+            append(Terminal.RPAREN);
+        } else {
+            // CALL IDENT <exprList> <optGlobInits>, the inout and out arguments have to be stores
+            append(Terminal.CALL).append(" ").append(routine.name).append(Terminal.LPAREN);
+            generateArithmeticExpr(random.nextInt(expressionsize / 2 + 1));
+            append(Terminal.COMMA).append(" ").append(pick(writables));
+            append(Terminal.COMMA).append(" ").append(pick(writables));
+            append(Terminal.RPAREN);
+        }
+    }
+
+    private void generateBlock(int level) {
+        newline();
+        indentation++;
+        generateCpsCmd(1 + random.nextInt(Math.max(1, statements / 2)), level + 1);
+        newline();
+        indentation--;
+    }
+
+    private void generateBoolExpr() {
+        // <term1> <repTerm1> with <term2> RELOPR <term2> as <term1>
+        for (int i = random.nextInt(3); i >= 0; i--) {
+            generateArithmeticExpr(random.nextInt(expressionsize / 2 + 1));
+            append(" ").append(RELOPRS[random.nextInt(RELOPRS.length)]).append(" ");
+            generateArithmeticExpr(random.nextInt(expressionsize / 2 + 1));
+            if (i > 0) {
+                append(" ").append(BOOLOPRS[random.nextInt(BOOLOPRS.length)]).append(" ");
+            }
+        }
+    }
+
+    private void generateArithmeticExpr(int size) {
+        // <term3> <repTerm3> and <factor> <repFactor> with size operators in total
+        if (size == 0) {
+            generateFactor();
+            return;
+        }
+        int left = random.nextInt(size);
+        boolean additive = random.nextBoolean();
+        if (additive) {
+            generateArithmeticExpr(left);
+            append(" ").append(ADDOPRS[random.nextInt(ADDOPRS.length)]).append(" ");
+            generateArithmeticExpr(size - left - 1);
+        } else {
+            // Compound multiplicative operands are parenthesized with LPAREN <expr> RPAREN, so the sizes stay independent of the precedence
+            generateOperand(left);
+            append(" ").append(MULTOPRS[random.nextInt(MULTOPRS.length)]).append(" ");
+            generateOperand(size - left - 1);
+        }
+    }
+
+    private void generateOperand(int size) {
+        if (size == 0) {
+            generateFactor();
+        } else {
+            append(Terminal.LPAREN);
+            generateArithmeticExpr(size);
+            append(Terminal.RPAREN);
+        }
+    }
+
+    private void generateFactor() {
+        // LITERAL, IDENT or <monadicOpr> <factor>
+        int choice = random.nextInt(8);
+        if (choice < 3) {
+            append(String.valueOf(1 + random.nextInt(1000)));
+        } else if (choice == 3) {
+            append("-");
+            generateFactor();
+        } else {
+            append(pick(readables));
+        }
+    }
+
+    private <T> T pick(List<T> values) {
+        return values.get(random.nextInt(values.size()));
+    }
+
+    private ProgramGenerator append(Terminal terminal) {
+        // Keywords and symbols are written with their terminal name, since keywords are case insensitive
+        return append(terminal.getName().toLowerCase());
+    }
+
+    private ProgramGenerator append(String value) {
+        // Terminals with several lexemes like identifiers, literals, modes and operators are written as given
+        if (builder.length() == 0 || builder.charAt(builder.length() - 1) == '\n') {
+            for (int i = 0; i < indentation; i++) {
+                builder.append("    ");
+            }
+        }
+        builder.append(value);
+        return this;
+    }
+
+    private void newline() {
+        builder.append('\n');
+        linecount++;
+    }
+
+    private static class RoutineInfo {
+
+        private final String name;
+
+        private final boolean function;
+
+        private final int parameters;
+
+        public RoutineInfo(String name, boolean function, int parameters) {
+            this.name = name;
+            this.function = function;
+            this.parameters = parameters;
+        }
+    }
+}
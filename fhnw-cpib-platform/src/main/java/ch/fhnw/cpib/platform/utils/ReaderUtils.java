@@ -31,6 +31,14 @@ public class ReaderUtils {
         return FileUtils.readFileToString(file, charset);
     }
 
+    public static Reader getReaderFromFile(File file, Charset charset) throws IOException {
+        return new InputStreamReader(new FileInputStream(file), charset);
+    }
+
+    public static Reader getMappedReaderFromFile(File file, Charset charset) throws IOException {
+        return new MappedFileReader(file, charset);
+    }
+
     public static String getContentFromInputStream(InputStream inputstream, Charset charset) throws IOException {
         String content = IOUtils.toString(inputstream, charset);
         inputstream.close();
@@ -0,0 +1,203 @@
+package ch.fhnw.cpib.platform;
+
+import ch.fhnw.cpib.platform.cache.ProgramCache;
+import ch.fhnw.cpib.platform.utils.ReaderUtils;
+import jdk.jfr.Recording;
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordingFile;
+import org.junit.Assert;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.io.File;
+import java.io.StringReader;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+
+public class CompilerTest {
+
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    @Test
+    public void testQuietByDefault() throws Exception {
+        StringBuilder builder = new StringBuilder();
+        Compiler compiler = new Compiler(newOptions().setTarget(builder));
+        Assert.assertTrue(compiler.compileString(loadContent()).isEmpty());
+        Assert.assertEquals("", builder.toString());
+        Assert.assertTrue(new File(folder.getRoot(), "Factorial.jar").isFile());
+    }
+
+    @Test
+    public void testSelectedDumps() throws Exception {
+        // Only the requested phases are dumped, in the order of the compilation
+        StringBuilder builder = new StringBuilder();
+        Compiler compiler = new Compiler(newOptions().addDumps("tokens, ast,java").setTarget(builder));
+        Assert.assertTrue(compiler.compileString(loadContent()).isEmpty());
+        String dump = builder.toString();
+        Assert.assertTrue(dump.startsWith("===== Scanned token list =====\nPROGRAM, "));
+        Assert.assertTrue(dump.indexOf("===== Abstract parsing tree =====\n<Program>\n") > 0);
+        Assert.assertTrue(dump.indexOf("===== Generate Java code =====\n") > dump.indexOf("===== Abstract parsing tree ====="));
+        Assert.assertFalse(dump.contains("===== Scanning content ====="));
+        Assert.assertFalse(dump.contains("===== Concrete parsing tree ====="));
+    }
+
+    @Test
+    public void testDumpsWithErrors() throws Exception {
+        // The dumps of the finished phases are kept when a later phase fails
+        StringBuilder builder = new StringBuilder();
+        Compiler compiler = new Compiler(newOptions().addDump(CompilerOptions.Dump.TOKENS).addDump(CompilerOptions.Dump.CST).setTarget(builder));
+        Assert.assertEquals(1, compiler.compileString("program Broken() do skip; endprogram\n").size());
+        Assert.assertEquals("===== Scanned token list =====\nPROGRAM, (IDENT,Broken), LPAREN, RPAREN, DO, SKIP, SEMICOLON, ENDPROGRAM, SENTINEL\n\n", builder.toString());
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testUnknownDump() {
+        new CompilerOptions().addDumps("tokens,bytecode");
+    }
+
+    @Test
+    public void testMetrics() throws Exception {
+        // Every phase of a compilation is measured, executing and counting the tree nodes is opt-in
+        Compiler compiler = new Compiler(newOptions().setCounting(true));
+        Assert.assertTrue(compiler.compileString(loadContent()).isEmpty());
+        List<CompilerMetrics.Phase> phases = compiler.getMetrics().getPhases();
+        Assert.assertEquals(Arrays.asList("scan", "parse", "toabstract", "check", "generatejava", "javac", "jar"), phases.stream().map(CompilerMetrics.Phase::getName).collect(Collectors.toList()));
+        for (CompilerMetrics.Phase phase : phases) {
+            Assert.assertTrue(phase.getWallTime() >= 0);
+        }
+        Assert.assertTrue(phases.get(0).getCounts().get("tokens") > 0);
+        Assert.assertTrue(phases.get(1).getCounts().get("cstnodes") > phases.get(2).getCounts().get("astnodes"));
+        Assert.assertTrue(compiler.getMetrics().getSummary().startsWith("Compiled in "));
+        compiler = new Compiler(newOptions());
+        Assert.assertTrue(compiler.compileString(loadContent()).isEmpty());
+        Assert.assertFalse(compiler.getMetrics().getPhases().get(1).getCounts().containsKey("cstnodes"));
+    }
+
+    @Test
+    public void testDirectAndParallel() throws Exception {
+        // The direct and the parallel parser dump the same abstract tree and report the same syntax errors
+        String broken = "program Broken() do skip; endprogram\n";
+        List<String> dumps = new ArrayList<>();
+        List<List<String>> diagnostics = new ArrayList<>();
+        for (int i = 0; i < 4; i++) {
+            StringBuilder builder = new StringBuilder();
+            Compiler compiler = new Compiler(newOptions().setDirect(i % 2 == 1).setParallel(i >= 2).addDump(CompilerOptions.Dump.AST).setTarget(builder));
+            Assert.assertTrue(compiler.compileString(loadContent()).isEmpty());
+            if (i == 1) {
+                List<String> phasenames = compiler.getMetrics().getPhases().stream().map(CompilerMetrics.Phase::getName).collect(Collectors.toList());
+                Assert.assertEquals(Arrays.asList("scan", "parse", "check", "generatejava", "javac", "jar"), phasenames);
+            }
+            dumps.add(builder.toString());
+            diagnostics.add(compiler.compileString(broken));
+        }
+        for (int i = 1; i < 4; i++) {
+            Assert.assertEquals(dumps.get(0), dumps.get(i));
+            Assert.assertEquals(diagnostics.get(0), diagnostics.get(i));
+        }
+        Assert.assertEquals(1, diagnostics.get(0).size());
+
+        // The concrete tree is still parsed for its dump
+        StringBuilder builder = new StringBuilder();
+        Compiler compiler = new Compiler(newOptions().setDirect(true).addDump(CompilerOptions.Dump.CST).setTarget(builder));
+        Assert.assertTrue(compiler.compileString(loadContent()).isEmpty());
+        Assert.assertTrue(builder.toString().startsWith("===== Concrete parsing tree =====\n"));
+        Assert.assertEquals("toabstract", compiler.getMetrics().getPhases().get(2).getName());
+    }
+
+    @Test
+    public void testCache() throws Exception {
+        // The second compilation of an unchanged content loads the abstract tree instead of scanning and parsing
+        File directory = File.createTempFile("compiler", "cache");
+        Assert.assertTrue(directory.delete());
+        ProgramCache cache = new ProgramCache(directory);
+        StringBuilder builder = new StringBuilder();
+        CompilerOptions options = newOptions().setCache(cache).addDump(CompilerOptions.Dump.AST).setTarget(builder);
+        List<String> phasenames = new ArrayList<>();
+        List<String> dumps = new ArrayList<>();
+        for (int i = 0; i < 2; i++) {
+            Compiler compiler = new Compiler(options);
+            Assert.assertTrue(compiler.compileString(loadContent()).isEmpty());
+            phasenames.add(compiler.getMetrics().getPhases().stream().map(CompilerMetrics.Phase::getName).collect(Collectors.joining(",")));
+            dumps.add(builder.toString());
+            builder.setLength(0);
+        }
+        Assert.assertEquals("cacheload,scan,parse,toabstract,cachestore,check,generatejava,javac,jar", phasenames.get(0));
+        Assert.assertEquals("cacheload,check,generatejava,javac,jar", phasenames.get(1));
+        Assert.assertEquals(dumps.get(0), dumps.get(1));
+        Assert.assertEquals(1, cache.getHits());
+
+        // A streamed content has the same key, a miss is parsed from the stream and stored
+        for (int i = 0; i < 2; i++) {
+            Compiler compiler = new Compiler(options);
+            Assert.assertTrue(compiler.compileReader(new StringReader(loadContent()), cache.getKey(new StringReader(loadContent()))).isEmpty());
+            phasenames.add(compiler.getMetrics().getPhases().stream().map(CompilerMetrics.Phase::getName).collect(Collectors.joining(",")));
+            Assert.assertEquals(dumps.get(0), builder.toString());
+            builder.setLength(0);
+            for (File file : directory.listFiles()) {
+                Assert.assertTrue(file.delete());
+            }
+        }
+        Assert.assertEquals("cacheload,check,generatejava,javac,jar", phasenames.get(2));
+        Assert.assertEquals("cacheload,parse,toabstract,cachestore,check,generatejava,javac,jar", phasenames.get(3));
+        Assert.assertEquals(2, cache.getHits());
+        Assert.assertTrue(directory.delete());
+    }
+
+    @Test
+    public void testMetricsJson() throws Exception {
+        CompilerMetrics metrics = new CompilerMetrics();
+        metrics.startPhase("scan");
+        metrics.stopPhase().addCount("tokens", 42);
+        StringBuilder builder = new StringBuilder();
+        metrics.writeJson(builder);
+        String json = builder.toString();
+        Assert.assertTrue(json.startsWith("{\n  \"phases\": [\n    {\"name\": \"scan\", \"walltime\": "));
+        Assert.assertTrue(json.endsWith(", \"counts\": {\"tokens\": 42}}\n  ]\n}\n"));
+    }
+
+    @Test
+    public void testFlightRecorderEvents() throws Exception {
+        // Record a checked compilation and look for the phase, routine and javac events
+        File file = File.createTempFile("compiler", ".jfr");
+        try (Recording recording = new Recording()) {
+            for (String name : Arrays.asList("Phase", "RoutineCheck", "RoutineGenerate", "Javac")) {
+                recording.enable("ch.fhnw.cpib." + name);
+            }
+            recording.start();
+            Assert.assertTrue(new Compiler(newOptions()).compileString(loadContent()).isEmpty());
+            recording.stop();
+            recording.dump(file.toPath());
+        }
+        List<RecordedEvent> events = RecordingFile.readAllEvents(file.toPath());
+        Assert.assertTrue(file.delete());
+        Map<String, List<RecordedEvent>> eventsbyname = events.stream().collect(Collectors.groupingBy(event -> event.getEventType().getName()));
+        Assert.assertEquals(7, eventsbyname.get("ch.fhnw.cpib.Phase").size());
+        for (RecordedEvent event : events) {
+            Assert.assertEquals("Factorial", event.getString("programname"));
+        }
+        List<String> routinenames = Arrays.asList("fast_factorial_if", "fast_factorial_elseif", "fast_factorial_switch");
+        for (String name : Arrays.asList("ch.fhnw.cpib.RoutineCheck", "ch.fhnw.cpib.RoutineGenerate")) {
+            Assert.assertEquals(routinenames, eventsbyname.get(name).stream().map(event -> event.getString("routinename")).collect(Collectors.toList()));
+            for (RecordedEvent event : eventsbyname.get(name)) {
+                Assert.assertTrue(event.getLong("nodes") > 0);
+            }
+        }
+        Assert.assertTrue(eventsbyname.get("ch.fhnw.cpib.RoutineGenerate").get(0).getLong("bytes") > 0);
+        Assert.assertTrue(eventsbyname.get("ch.fhnw.cpib.Javac").get(0).getLong("classbytes") > 0);
+    }
+
+    private CompilerOptions newOptions() {
+        // The generated files are written to the temporary folder instead of the working directory
+        return new CompilerOptions().setOutputDirectory(folder.getRoot());
+    }
+
+    private String loadContent() throws Exception {
+        return ReaderUtils.getContentFromInputStream(getClass().getResourceAsStream(TestFiles.generatorfilenames.get(0)), StandardCharsets.UTF_8);
+    }
+}
@@ -82,11 +82,11 @@ public class TestFiles {
         //"/Existing/ScopesEdit.iml", //Scope checking
         //"/Existing/ScopesImport.iml", //Scope checking
         //"/Existing/ScopesImportInit.iml", //Scope checking
-        //"/Existing/test.iml", //call method before defined (same implementation like identifier solution)
+        "/Existing/test.iml",
         "/Existing/test01.iml",
         "/Existing/test2.iml",
         "/Existing/test02.iml",
-        //"/Existing/test3.iml", //call method before defined (same implementation like identifier solution)
+        "/Existing/test3.iml",
         //"/Existing/test4.iml",
         "/Existing/test5.iml",
         "/Existing/test6.iml",
@@ -0,0 +1,149 @@
+package ch.fhnw.cpib.platform.cache;
+
+import ch.fhnw.cpib.platform.TestFiles;
+import ch.fhnw.cpib.platform.parser.Parser;
+import ch.fhnw.cpib.platform.parser.abstracttree.AbstractTree;
+import ch.fhnw.cpib.platform.scanner.table.TableScanner;
+import ch.fhnw.cpib.platform.utils.ReaderUtils;
+import org.junit.Assert;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.io.File;
+import java.io.FilterReader;
+import java.io.IOException;
+import java.io.StringReader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.security.MessageDigest;
+import java.util.Arrays;
+import java.util.zip.CRC32;
+
+public class ProgramCacheTest {
+
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    private final TableScanner scanner = new TableScanner();
+
+    private final Parser parser = new Parser();
+
+    @Test
+    public void testRoundTripFromResource() throws Exception {
+        // A read program has the same dump and is written to the same bytes again
+        for (String filename : TestFiles.filenames) {
+            AbstractTree.Program program = parseProgram(loadContent(filename));
+            byte[] bytes = new ProgramWriter().writeProgram(program);
+            AbstractTree.Program readprogram = new ProgramReader().readProgram(bytes);
+            Assert.assertEquals(filename, program.toString(), readprogram.toString());
+            Assert.assertArrayEquals(filename, bytes, new ProgramWriter().writeProgram(readprogram));
+        }
+    }
+
+    @Test
+    public void testCorruption() throws Exception {
+        byte[] bytes = new ProgramWriter().writeProgram(parseProgram(loadContent("/Existing/Factorial.iml")));
+
+        // Every flipped bit, a truncation and a foreign file are detected
+        for (int i = 0; i < bytes.length; i += 7) {
+            byte[] corrupted = bytes.clone();
+            corrupted[i] ^= 1 << (i % 8);
+            assertInvalid(corrupted);
+        }
+        assertInvalid(Arrays.copyOf(bytes, bytes.length - 1));
+        assertInvalid(new byte[0]);
+        assertInvalid("program Factorial".getBytes(StandardCharsets.UTF_8));
+
+        // A valid checksum with another version is outdated
+        byte[] outdated = bytes.clone();
+        outdated[ProgramWriter.MAGIC.length] = (byte) (ProgramWriter.VERSION + 1);
+        CRC32 crc = new CRC32();
+        crc.update(outdated, 0, outdated.length - 4);
+        for (int i = 0; i < 4; i++) {
+            outdated[outdated.length - 4 + i] = (byte) (crc.getValue() >>> (24 - i * 8));
+        }
+        try {
+            new ProgramReader().readProgram(outdated);
+            Assert.fail();
+        } catch (CacheException exception) {
+            Assert.assertTrue(exception.getMessage().contains("outdated version"));
+        }
+    }
+
+    @Test
+    public void testKey() throws Exception {
+        // The chunked key is the SHA-256 of the whole UTF-8 content, also for surrogates at the end of a chunk
+        ProgramCache cache = new ProgramCache(new File(folder.getRoot(), "cache"));
+        StringBuilder builder = new StringBuilder();
+        for (int i = 0; i < 3; i++) {
+            builder.append(loadContent("/Existing/Factorial.iml"));
+        }
+        for (String content : Arrays.asList("", builder.toString(), repeat('a', 4095) + "\uD83D\uDE00", repeat('\u00E4', 4095) + "\uD83D", repeat('b', 4096) + "\uDE00\uD83D" + repeat('c', 5000))) {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            StringBuilder key = new StringBuilder();
+            for (byte value : digest.digest(content.getBytes(StandardCharsets.UTF_8))) {
+                key.append(String.format("%02x", value));
+            }
+            Assert.assertEquals(key.toString(), cache.getKey(content));
+            Assert.assertEquals(key.toString(), cache.getKey(new StringReader(content)));
+
+            // A reader may return fewer chars than requested, also a single high surrogate
+            Assert.assertEquals(key.toString(), cache.getKey(new FilterReader(new StringReader(content)) {
+                @Override
+                public int read(char[] buffer, int offset, int length) throws IOException {
+                    return super.read(buffer, offset, Math.min(length, 3));
+                }
+            }));
+        }
+    }
+
+    @Test
+    public void testCache() throws Exception {
+        ProgramCache cache = new ProgramCache(new File(folder.getRoot(), "cache"));
+        String content = loadContent("/Existing/Factorial.iml");
+        String key = cache.getKey(content);
+        Assert.assertEquals(64, key.length());
+        Assert.assertNotEquals(key, cache.getKey(content + "\n"));
+
+        // A miss is stored and loaded by the next compilation
+        Assert.assertNull(cache.loadProgram(key));
+        AbstractTree.Program program = parseProgram(content);
+        Assert.assertTrue(cache.storeProgram(key, program) > 0);
+        Assert.assertEquals(program.toString(), cache.loadProgram(key).toString());
+        Assert.assertEquals(1, cache.getHits());
+        Assert.assertEquals(1, cache.getMisses());
+
+        // A damaged entry is a miss and removed
+        byte[] bytes = Files.readAllBytes(cache.getFile(key).toPath());
+        bytes[bytes.length / 2] ^= 0x10;
+        Files.write(cache.getFile(key).toPath(), bytes);
+        Assert.assertNull(cache.loadProgram(key));
+        Assert.assertFalse(cache.getFile(key).exists());
+        Assert.assertEquals(1, cache.getFailures());
+        Assert.assertEquals(2, cache.getMisses());
+    }
+
+    private void assertInvalid(byte[] bytes) {
+        try {
+            new ProgramReader().readProgram(bytes);
+            Assert.fail();
+        } catch (CacheException exception) {
+            Assert.assertNotNull(exception.getMessage());
+        }
+    }
+
+    private String repeat(char character, int count) {
+        char[] chars = new char[count];
+        Arrays.fill(chars, character);
+        return new String(chars);
+    }
+
+    private AbstractTree.Program parseProgram(String content) throws Exception {
+        return parser.parseTokenList(scanner.scanString(content)).toAbstract();
+    }
+
+    private String loadContent(String filename) throws Exception {
+        return ReaderUtils.getContentFromInputStream(getClass().getResourceAsStream(filename), StandardCharsets.UTF_8);
+    }
+}
@@ -5,6 +5,7 @@ import ch.fhnw.cpib.platform.parser.Parser;
 import ch.fhnw.cpib.platform.parser.abstracttree.AbstractTree;
 import ch.fhnw.cpib.platform.parser.concretetree.ConcreteTree;
 import ch.fhnw.cpib.platform.scanner.Scanner;
+import ch.fhnw.cpib.platform.scanner.tokens.Tokens;
 import ch.fhnw.cpib.platform.scanner.tokens.TokenList;
 import ch.fhnw.cpib.platform.utils.ReaderUtils;
 import org.junit.Assert;
@@ -46,4 +47,35 @@ public class CheckerTest {
             //}
         }
     }
+
+    @Test
+    public void testForwardCalls() throws Exception {
+        // The first function calls a function that is declared after it
+        Checker checker = checkProgram("program Forward()\nglobal\n  fun f(in copy a:int) returns r:int\n  do\n    r := g(a)\n  endfun;\n\n  fun g(in copy b:int) returns r:int\n  do\n    r := b\n  endfun;\n\n  var x:int\ndo\n  x init := f(1)\nendprogram\n");
+        Routine routine = checker.getGlobalRoutineTable().lookup("g");
+        Assert.assertEquals(1, routine.getParameters().size());
+        Assert.assertEquals(Tokens.TypeToken.Type.INT, routine.getReturnType());
+    }
+
+    @Test
+    public void testSignatureErrors() throws Exception {
+        // A duplicate routine and a wrong call of a later routine are found before any body is checked
+        assertCheckerError("program Twice()\nglobal\n  proc p()\n  do\n    skip\n  endproc;\n\n  proc p()\n  do\n    skip\n  endproc\ndo\n  call p()\nendprogram\n", "Procedure p is already declared.");
+        assertCheckerError("program Arguments()\nglobal\n  fun f() returns r:int\n  do\n    r := g()\n  endfun;\n\n  fun g(in copy a:int) returns r:int\n  do\n    r := a\n  endfun\ndo\n  skip\nendprogram\n", "Routine call: Number of arguments don't match: g expected: 1, call has 0");
+    }
+
+    private Checker checkProgram(String content) throws Exception {
+        Checker checker = new Checker();
+        new Parser().parseTokenList(new Scanner().scanString(content)).toAbstract().checkCode(checker);
+        return checker;
+    }
+
+    private void assertCheckerError(String content, String message) throws Exception {
+        try {
+            checkProgram(content);
+            Assert.fail();
+        } catch (CheckerException exception) {
+            Assert.assertEquals(message, exception.getMessage());
+        }
+    }
 }
@@ -9,19 +9,24 @@ import ch.fhnw.cpib.platform.scanner.tokens.TokenList;
 import ch.fhnw.cpib.platform.utils.ReaderUtils;
 import com.squareup.javapoet.JavaFile;
 import org.junit.Assert;
+import org.junit.Rule;
 import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
 
 import java.io.File;
 import java.nio.charset.StandardCharsets;
 
 public class TestGenerator {
 
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
     @Test
     public void testGenerator() throws Exception {
         // Create the scanner, parser and generator
         Scanner scanner = new Scanner();
         Parser parser = new Parser();
-        Generator generator = new Generator();
+        Generator generator = new Generator(folder.getRoot());
 
         // Parse the files
         for (String filename : TestFiles.generatorfilenames) {
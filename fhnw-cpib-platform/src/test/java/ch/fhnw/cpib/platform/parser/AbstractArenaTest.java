@@ -0,0 +1,117 @@
+package ch.fhnw.cpib.platform.parser;
+
+import ch.fhnw.cpib.platform.TestFiles;
+import ch.fhnw.cpib.platform.parser.abstracttree.AbstractArena;
+import ch.fhnw.cpib.platform.parser.abstracttree.AbstractTree;
+import ch.fhnw.cpib.platform.scanner.table.TableScanner;
+import ch.fhnw.cpib.platform.scanner.tokens.Tokens;
+import ch.fhnw.cpib.platform.utils.ReaderUtils;
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Locale;
+
+public class AbstractArenaTest {
+
+    private final TableScanner scanner = new TableScanner();
+
+    private final Parser parser = new Parser();
+
+    @Test
+    public void testArenasFromResource() throws Exception {
+        for (String filename : TestFiles.filenames) {
+            String content = ReaderUtils.getContentFromInputStream(getClass().getResourceAsStream(filename), StandardCharsets.UTF_8);
+            AbstractTree.Program abstractprogram = parser.parseTokenList(scanner.scanString(content)).toAbstract();
+            AbstractArena arena = abstractprogram.toArena();
+
+            // Every node of the tree has one entry in the arena
+            Assert.assertEquals(filename, abstractprogram.countNodes(), arena.getSize());
+            int count = 0;
+            for (int kindcount : arena.countKinds()) {
+                count += kindcount;
+            }
+            Assert.assertEquals(filename, arena.getSize(), count);
+            Assert.assertEquals(filename, abstractprogram.getProgramName(), arena.getProgram().getProgramName());
+
+            // The sequences keep their order and kinds
+            AbstractArena.DeclarationView declarationview = arena.getProgram().getDeclaration();
+            for (AbstractTree.Declaration declaration = abstractprogram.declaration; declaration != null; declaration = declaration.getNextDeclaration()) {
+                Assert.assertEquals(filename, getKind(declaration), declarationview.getKind());
+                declarationview = declarationview.getNextDeclaration();
+            }
+            Assert.assertNull(filename, declarationview);
+            AbstractArena.CmdView cmdview = arena.getProgram().getCmd();
+            for (AbstractTree.Cmd cmd = abstractprogram.cmd; cmd != null; cmd = cmd.getNextCmd()) {
+                Assert.assertEquals(filename, getKind(cmd), cmdview.getKind());
+                cmdview = cmdview.getNextCmd();
+            }
+            Assert.assertNull(filename, cmdview);
+        }
+    }
+
+    @Test
+    public void testViews() throws Exception {
+        String content = "program Arena(in a:int32)\nglobal\n    var b:int64;\n    fun f(in ref const x:int64) returns var r:int64\n    do\n        r init := -x * 2\n    endfun\ndo\n    b init := a + 9'000'000'000;\n    debugout f(b)\nendprogram\n";
+        AbstractArena arena = parser.parseTokenList(scanner.scanString(content)).toAbstract().toArena();
+
+        // Program parameters and declarations
+        AbstractArena.ProgramView program = arena.getProgram();
+        Assert.assertEquals("a", program.getProgParam().getName());
+        Assert.assertEquals(Tokens.FlowModeToken.FlowMode.IN, program.getProgParam().getFlowMode());
+        Assert.assertEquals(Tokens.TypeToken.Type.INT, program.getProgParam().getType());
+        Assert.assertNull(program.getProgParam().getNextParam());
+        AbstractArena.DeclarationView stodecl = program.getDeclaration();
+        Assert.assertEquals(AbstractArena.Kind.STODECL, stodecl.getKind());
+        Assert.assertEquals("b", stodecl.getName());
+        Assert.assertEquals(Tokens.ChangeModeToken.ChangeMode.VAR, stodecl.getChangeMode());
+        Assert.assertEquals(Tokens.TypeToken.Type.INT64, stodecl.getType());
+        Assert.assertNull(stodecl.getCmd());
+        AbstractArena.DeclarationView fundecl = stodecl.getNextDeclaration();
+        Assert.assertEquals(AbstractArena.Kind.FUNDECL, fundecl.getKind());
+        Assert.assertEquals("f", fundecl.getName());
+        Assert.assertEquals(Tokens.MechModeToken.MechMode.REF, fundecl.getParam().getMechMode());
+        Assert.assertEquals(Tokens.ChangeModeToken.ChangeMode.CONST, fundecl.getParam().getChangeMode());
+        Assert.assertEquals("r", fundecl.getStoreDeclaration().getName());
+
+        // Expressions of the function body
+        AbstractArena.CmdView assicmd = fundecl.getCmd();
+        Assert.assertEquals(AbstractArena.Kind.ASSICMD, assicmd.getKind());
+        Assert.assertTrue(assicmd.getExpression().isInitialized());
+        Assert.assertEquals(Tokens.OperationToken.Operation.TIMES, assicmd.getValueExpression().getOperation());
+        Assert.assertEquals(AbstractArena.Kind.MONADICEXPR, assicmd.getValueExpression().getExpression1().getKind());
+        Assert.assertEquals(2, assicmd.getValueExpression().getExpression2().getLiteralValue());
+
+        // Long literals live in the pool, function calls keep their name
+        AbstractArena.CmdView cmd = program.getCmd();
+        Assert.assertEquals(9000000000L, cmd.getValueExpression().getExpression2().getLiteralValue());
+        Assert.assertEquals(AbstractArena.Kind.OUTPUTCMD, cmd.getNextCmd().getKind());
+        Assert.assertEquals("f", cmd.getNextCmd().getExpression().getRoutineCall().getName());
+        Assert.assertNull(cmd.getNextCmd().getNextCmd());
+
+        // Stores and routines are referenced by their symbol
+        int[] references = arena.countReferences();
+        Assert.assertEquals(2, references[arena.getNames().intern("b")]);
+        Assert.assertEquals(1, references[arena.getNames().intern("f")]);
+        Assert.assertEquals(1, references[arena.getNames().intern("x")]);
+    }
+
+    @Test
+    public void testFootprint() throws Exception {
+        // A flat program of assignments, the arena needs a few ints per node
+        int size = 10000;
+        StringBuilder builder = new StringBuilder("program Footprint()\nglobal\n    var x:int32\ndo\n    x init := 0");
+        for (int i = 1; i < size; i++) {
+            builder.append(";\n    x := x + ").append(i);
+        }
+        builder.append("\nendprogram\n");
+        AbstractArena arena = parser.parseTokenList(scanner.scanString(builder.toString())).toAbstract().toArena();
+        Assert.assertEquals(size * 5 + 1, arena.getSize());
+        Assert.assertEquals(size * 2 - 1, arena.countReferences()[arena.getNames().intern("x")]);
+        Assert.assertTrue(arena.getFootprint() < arena.getSize() * 24L);
+    }
+
+    private AbstractArena.Kind getKind(Object node) {
+        return AbstractArena.Kind.valueOf(node.getClass().getSimpleName().toUpperCase(Locale.ROOT));
+    }
+}
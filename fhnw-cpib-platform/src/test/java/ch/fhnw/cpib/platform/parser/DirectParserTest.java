@@ -0,0 +1,141 @@
+package ch.fhnw.cpib.platform.parser;
+
+import ch.fhnw.cpib.platform.TestFiles;
+import ch.fhnw.cpib.platform.parser.abstracttree.AbstractTree;
+import ch.fhnw.cpib.platform.parser.exception.ParserException;
+import ch.fhnw.cpib.platform.scanner.table.TableScanner;
+import ch.fhnw.cpib.platform.scanner.tokens.TokenList;
+import ch.fhnw.cpib.platform.utils.ProgramGenerator;
+import ch.fhnw.cpib.platform.utils.ReaderUtils;
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.nio.charset.StandardCharsets;
+
+public class DirectParserTest {
+
+    private final TableScanner tablescanner = new TableScanner();
+
+    private final Parser parser = new Parser();
+
+    private final DirectParser directparser = new DirectParser();
+
+    @Test
+    public void testTestFiles() throws Exception {
+        for (String filename : TestFiles.filenames) {
+            String content = ReaderUtils.getContentFromInputStream(getClass().getResourceAsStream(filename), StandardCharsets.UTF_8);
+            compare(content);
+        }
+    }
+
+    @Test
+    public void testGeneratedPrograms() throws Exception {
+        for (int seed = 0; seed < 50; seed++) {
+            ProgramGenerator generator = new ProgramGenerator(seed)
+                .setRoutines(seed % 7)
+                .setDepth(seed % 5)
+                .setStatements(1 + seed % 9)
+                .setExpressionSize(seed % 6)
+                .setCommandWeights(seed % 4, seed % 3, seed % 2, seed % 5, 1 + seed % 3);
+            compare(generator.generateProgram());
+        }
+    }
+
+    @Test
+    public void testModesAndLists() throws Exception {
+        // Mix explicit and missing modes, they shift the levels of the following list elements differently
+        compare("program Modes(in const a:int32, b:int32, out var c:bool)\n"
+            + "global\n"
+            + "    proc p(in copy const x:int32, ref var y:int32, z:int32, inout w:int32)\n"
+            + "    global in const a, c, out var b\n"
+            + "    local var l:int32; const k:int32\n"
+            + "    do\n"
+            + "        l init := x + a * 2 - -k;\n"
+            + "        y := l\n"
+            + "    endproc;\n"
+            + "    fun f(x:int32, in y:int32) returns var r:int32\n"
+            + "    do\n"
+            + "        r init := x * y\n"
+            + "    endfun\n"
+            + "do\n"
+            + "    if a < 1 && c then\n"
+            + "        skip\n"
+            + "    elseif a = 2 then\n"
+            + "        debugout f(a, b)\n"
+            + "    elseif a = 3 then\n"
+            + "        debugin c\n"
+            + "    else\n"
+            + "        while a > 0 do a := a - 1 endwhile\n"
+            + "    endif;\n"
+            + "    switch a case 1 then skip case 2 then skip default then skip endswitch;\n"
+            + "    a, b := b, a;\n"
+            + "    call p(a, b, (a + b) * 2, f(a, b)) init c, b\n"
+            + "endprogram\n");
+    }
+
+    @Test
+    public void testErrors() throws Exception {
+        String[] contents = {
+            "program Broken() do skip; endprogram",
+            "program Broken() do x := endprogram",
+            "program Broken(in in a:int32) do skip endprogram",
+            "program Broken() global var a:int32; do skip endprogram",
+            "program Broken() do call p(a,) endprogram"
+        };
+        for (String content : contents) {
+            TokenList tokenlist = tablescanner.scanString(content);
+            String message = null;
+            try {
+                parser.parseTokenList(tokenlist);
+                Assert.fail("Expected a parser error for: " + content);
+            } catch (ParserException exception) {
+                message = exception.getMessage();
+            }
+            try {
+                directparser.parseTokenList(tokenlist);
+                Assert.fail("Expected a parser error for: " + content);
+            } catch (ParserException exception) {
+                Assert.assertEquals(message, exception.getMessage());
+            }
+        }
+    }
+
+    @Test
+    public void testLongSequences() throws Exception {
+        // Create a program with 50'000 commands, declarations and operands
+        int size = 50000;
+        StringBuilder builder = new StringBuilder("program Long()\nglobal\n");
+        for (int i = 0; i < size; i++) {
+            builder.append(i > 0 ? ";\n" : "").append("    var x").append(i).append(":int32");
+        }
+        builder.append("\ndo\n    x0 init := 0");
+        for (int i = 1; i < size; i++) {
+            builder.append(";\n    x").append(i).append(" init := x").append(i - 1).append(" + 1");
+        }
+        builder.append(";\n    x0 := 0");
+        for (int i = 1; i < size; i++) {
+            builder.append(" + 1");
+        }
+        builder.append("\nendprogram\n");
+
+        // Parse the program without running out of stack
+        AbstractTree.Program program = directparser.parseTokenList(tablescanner.scanString(builder.toString()));
+        int cmds = 0;
+        for (AbstractTree.Cmd cmd = program.cmd; cmd != null; cmd = cmd.getNextCmd()) {
+            cmds++;
+        }
+        Assert.assertEquals(size + 1, cmds);
+        int declarations = 0;
+        for (AbstractTree.Declaration declaration = program.declaration; declaration != null; declaration = declaration.getNextDeclaration()) {
+            declarations++;
+        }
+        Assert.assertEquals(size, declarations);
+    }
+
+    private void compare(String content) throws Exception {
+        // Both paths have to build the same abstract tree, including the idendation of every node
+        TokenList tokenlist = tablescanner.scanString(content);
+        String expected = parser.parseTokenList(tokenlist).toAbstract().toString();
+        Assert.assertEquals(expected, directparser.parseTokenList(tokenlist).toString());
+    }
+}
@@ -0,0 +1,99 @@
+package ch.fhnw.cpib.platform.parser;
+
+import ch.fhnw.cpib.platform.TestFiles;
+import ch.fhnw.cpib.platform.parser.exception.ParserException;
+import ch.fhnw.cpib.platform.scanner.table.TableScanner;
+import ch.fhnw.cpib.platform.scanner.tokens.TokenList;
+import ch.fhnw.cpib.platform.utils.ProgramGenerator;
+import ch.fhnw.cpib.platform.utils.ReaderUtils;
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.ForkJoinPool;
+
+public class ParallelParserTest {
+
+    private final TableScanner tablescanner = new TableScanner();
+
+    private final Parser parser = new Parser();
+
+    @Test
+    public void testTestFiles() throws Exception {
+        for (String filename : TestFiles.filenames) {
+            String content = ReaderUtils.getContentFromInputStream(getClass().getResourceAsStream(filename), StandardCharsets.UTF_8);
+            for (int chunksize : new int[]{1, 16, ParallelParser.DEFAULT_CHUNK_SIZE}) {
+                compare(content, chunksize);
+            }
+        }
+    }
+
+    @Test
+    public void testGeneratedPrograms() throws Exception {
+        for (int seed = 0; seed < 50; seed++) {
+            ProgramGenerator generator = new ProgramGenerator(seed)
+                .setRoutines(seed % 7)
+                .setDepth(seed % 5)
+                .setStatements(1 + seed % 9)
+                .setExpressionSize(seed % 6);
+            String content = generator.generateProgram();
+            for (int chunksize : new int[]{1, 64, ParallelParser.DEFAULT_CHUNK_SIZE}) {
+                compare(content, chunksize);
+            }
+        }
+    }
+
+    @Test
+    public void testManyRoutines() throws Exception {
+        // Routines and storage declarations mixed, with each routine in its own chunk
+        StringBuilder builder = new StringBuilder("program Many(in n:int32)\nglobal\n");
+        for (int i = 0; i < 1000; i++) {
+            builder.append(i > 0 ? ";\n" : "");
+            if (i % 3 == 0) {
+                builder.append("    var x").append(i).append(":int32");
+            } else if (i % 3 == 1) {
+                builder.append("    proc p").append(i).append("(in a:int32)\n    local var b:int32\n    do\n        b init := a * 2;\n        while b > 0 do b := b - 1 endwhile\n    endproc");
+            } else {
+                builder.append("    fun f").append(i).append("(a:int32) returns r:int32\n    do\n        r init := a + 1\n    endfun");
+            }
+        }
+        builder.append("\ndo\n    x0 init := n\nendprogram\n");
+        compare(builder.toString(), 1);
+        compare(builder.toString(), 512);
+    }
+
+    @Test
+    public void testErrors() throws Exception {
+        // Broken programs report the same first error as a sequential parse
+        String[] contents = {
+            "program Broken() global proc p() do skip; endproc do skip endprogram",
+            "program Broken() global var a:int32; proc p() do skip endproc; fun f() returns r:int32 do r := endfun do skip endprogram",
+            "program Broken() global var a:int32 do skip; endprogram",
+            "program Broken() global proc p() do skip endfun do skip endprogram",
+            "program Broken() global var a:int32; do skip endprogram"
+        };
+        for (String content : contents) {
+            TokenList tokenlist = tablescanner.scanString(content);
+            String message = null;
+            try {
+                parser.parseTokenList(tokenlist);
+                Assert.fail("Expected a parser error for: " + content);
+            } catch (ParserException exception) {
+                message = exception.getMessage();
+            }
+            try {
+                new ParallelParser(ForkJoinPool.commonPool(), 1).parseTokenList(tokenlist);
+                Assert.fail("Expected a parser error for: " + content);
+            } catch (ParserException exception) {
+                Assert.assertEquals(message, exception.getMessage());
+            }
+        }
+    }
+
+    private void compare(String content, int chunksize) throws Exception {
+        // Both parsers have to build the same concrete tree, including the idendation of every node
+        TokenList tokenlist = tablescanner.scanString(content);
+        String expected = parser.parseTokenList(tokenlist).toString();
+        Assert.assertEquals(expected, new ParallelParser(ForkJoinPool.commonPool(), chunksize).parseTokenList(tokenlist).toString());
+    }
+}
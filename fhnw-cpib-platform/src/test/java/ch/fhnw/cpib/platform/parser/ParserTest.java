@@ -1,15 +1,21 @@
 package ch.fhnw.cpib.platform.parser;
 
 import ch.fhnw.cpib.platform.TestFiles;
+import ch.fhnw.cpib.platform.checker.Checker;
 import ch.fhnw.cpib.platform.parser.abstracttree.AbstractTree;
 import ch.fhnw.cpib.platform.parser.concretetree.ConcreteTree;
+import ch.fhnw.cpib.platform.parser.exception.ParserException;
 import ch.fhnw.cpib.platform.scanner.Scanner;
+import ch.fhnw.cpib.platform.scanner.table.TableScanner;
 import ch.fhnw.cpib.platform.scanner.tokens.TokenList;
 import ch.fhnw.cpib.platform.utils.ReaderUtils;
+import org.javatuples.Pair;
 import org.junit.Assert;
 import org.junit.Test;
 
+import java.io.StringWriter;
 import java.nio.charset.StandardCharsets;
+import java.util.List;
 
 public class ParserTest {
 
@@ -38,4 +44,176 @@ public class ParserTest {
             Assert.assertTrue(abstractprogram.toString().length() > 0);
         }
     }
+
+    @Test
+    public void testWriteTo() throws Exception {
+        TableScanner scanner = new TableScanner();
+        Parser parser = new Parser();
+        ConcreteTree.Program concreteprogram = parser.parseTokenList(scanner.scanString("program Dump(in a:int32)\nglobal\n    var b:int32\ndo\n    b init := a;\n    skip\nendprogram\n"));
+        AbstractTree.Program abstractprogram = concreteprogram.toAbstract();
+
+        // The streamed dump matches the string and keeps the idendation of every node
+        StringWriter writer = new StringWriter();
+        concreteprogram.writeTo(writer);
+        Assert.assertEquals(concreteprogram.toString(), writer.toString());
+        Assert.assertTrue(writer.toString().startsWith("<Program Name='Dump'>\n\t<ProgParamList>\n\t\t<OptProgParamListExpression>\n"));
+        writer = new StringWriter();
+        abstractprogram.writeTo(writer);
+        Assert.assertEquals(abstractprogram.toString(), writer.toString());
+        Assert.assertTrue(writer.toString().startsWith("<Program>\n\t<Ident Name='Dump'/>\n"));
+        Assert.assertTrue(writer.toString().endsWith("</Program>"));
+    }
+
+    @Test
+    public void testLongSequences() throws Exception {
+        // Create a program with 50'000 commands, declarations, arguments and operands
+        int size = 50000;
+        StringBuilder builder = new StringBuilder("program Long()\nglobal\n");
+        for (int i = 0; i < size; i++) {
+            builder.append(i > 0 ? ";\n" : "").append("    var x").append(i).append(":int32");
+        }
+        builder.append("\ndo\n    x0 init := 0");
+        for (int i = 1; i < size; i++) {
+            builder.append(";\n    x").append(i).append(" init := x").append(i - 1).append(" + 1");
+        }
+        builder.append(";\n    x0 := 0");
+        for (int i = 1; i < size; i++) {
+            builder.append(" + 1");
+        }
+        builder.append(";\n    call p(x0");
+        for (int i = 1; i < size; i++) {
+            builder.append(", x").append(i);
+        }
+        builder.append(")\nendprogram\n");
+
+        // Parse the program and make it abstract without running out of stack
+        ConcreteTree.Program concreteprogram = new Parser().parseTokenList(new TableScanner().scanString(builder.toString()));
+        AbstractTree.Program abstractprogram = concreteprogram.toAbstract();
+
+        // Count the commands and declarations
+        int cmds = 0;
+        for (AbstractTree.Cmd cmd = abstractprogram.cmd; cmd != null; cmd = cmd.getNextCmd()) {
+            cmds++;
+        }
+        Assert.assertEquals(size + 2, cmds);
+        int operands = 1;
+        AbstractTree.Cmd cmd = abstractprogram.cmd;
+        for (int i = 0; i < size; i++) {
+            cmd = cmd.getNextCmd();
+        }
+        for (AbstractTree.Expression expression = ((AbstractTree.AssiCmd) cmd).expression2; expression instanceof AbstractTree.DyadicExpr; expression = ((AbstractTree.DyadicExpr) expression).expression1) {
+            operands++;
+        }
+        Assert.assertEquals(size, operands);
+        int declarations = 0;
+        for (AbstractTree.Declaration declaration = abstractprogram.declaration; declaration != null; declaration = declaration.getNextDeclaration()) {
+            declarations++;
+        }
+        Assert.assertEquals(size, declarations);
+    }
+
+    @Test
+    public void testWalkLongSequences() throws Exception {
+        // Create a program with 100'000 commands and 20'000 declarations
+        int size = 100000;
+        StringBuilder builder = new StringBuilder("program Walk()\nglobal\n");
+        for (int i = 0; i < size / 10; i++) {
+            builder.append("    var x").append(i).append(":int32;\n");
+            builder.append("    proc p").append(i).append("()\n    do\n        skip\n    endproc;\n");
+        }
+        builder.append("    var x:int32\ndo\n    x init := 0");
+        for (int i = 1; i < size; i++) {
+            builder.append(";\n    x := x + 1");
+        }
+        builder.append("\nendprogram\n");
+        ConcreteTree.Program concreteprogram = new Parser().parseTokenList(new TableScanner().scanString(builder.toString()));
+        AbstractTree.Program abstractprogram = concreteprogram.toAbstract();
+
+        // Check, generate and dump the program without running out of stack
+        abstractprogram.checkCode(new Checker());
+        Assert.assertEquals(size / 10 + 1, abstractprogram.generateCode().typeSpec.methodSpecs.size());
+        LineCounter concretelines = new LineCounter();
+        concreteprogram.writeTo(concretelines);
+        Assert.assertTrue(concretelines.lines > size * 10);
+        LineCounter abstractlines = new LineCounter();
+        abstractprogram.writeTo(abstractlines);
+        Assert.assertTrue(abstractlines.lines > size * 10);
+    }
+
+    @Test
+    public void testRecoveryWithoutErrors() throws Exception {
+        // A valid program is parsed to the same tree as without recovery
+        Parser parser = new Parser();
+        TableScanner scanner = new TableScanner();
+        for (String filename : TestFiles.filenames) {
+            String content = ReaderUtils.getContentFromInputStream(getClass().getResourceAsStream(filename), StandardCharsets.UTF_8);
+            TokenList tokenlist = scanner.scanString(content);
+            Pair<ConcreteTree.Program, List<ParserException>> result = parser.recoverTokenList(tokenlist);
+            Assert.assertTrue(result.getValue1().isEmpty());
+            Assert.assertEquals(parser.parseTokenList(tokenlist).toString(), result.getValue0().toString());
+        }
+    }
+
+    @Test
+    public void testRecoveryOfSeveralErrors() throws Exception {
+        // Every broken command and declaration is reported in a single pass
+        String content = "program Broken()\n"
+            + "global\n"
+            + "    var a:int32;\n"
+            + "    var b int32;\n"
+            + "    proc p(in x:int32)\n"
+            + "    do\n"
+            + "        x := x +;\n"
+            + "        while x > do x := 0 endwhile;\n"
+            + "        skip\n"
+            + "    endproc;\n"
+            + "    var c:int32\n"
+            + "do\n"
+            + "    skip\n"
+            + "    b init := 2;\n"
+            + "    if a then ) endif;\n"
+            + "    c init := a * b\n"
+            + "endprogram\n";
+        Pair<ConcreteTree.Program, List<ParserException>> result = new Parser().recoverTokenList(new TableScanner().scanString(content));
+        Assert.assertNull(result.getValue0());
+        Assert.assertEquals(5, result.getValue1().size());
+        Assert.assertEquals("Parser expected the terminal COLON, but found the terminal TYPE", result.getValue1().get(0).getMessage());
+        Assert.assertEquals("Invalid terminal in term3: SEMICOLON", result.getValue1().get(1).getMessage());
+        Assert.assertEquals("Invalid terminal in term2: DO", result.getValue1().get(2).getMessage());
+        Assert.assertEquals("Parser expected the terminal SEMICOLON, but found the terminal IDENT", result.getValue1().get(3).getMessage());
+        Assert.assertEquals("Invalid terminal in cpsCmd: RPAREN", result.getValue1().get(4).getMessage());
+    }
+
+    @Test
+    public void testRecoveryOfUnexpectedEnd() throws Exception {
+        // The end of the input can't be recovered, but the errors in front of it are kept
+        String content = "program Broken() do a := ; while a do skip\n";
+        Pair<ConcreteTree.Program, List<ParserException>> result = new Parser().recoverTokenList(new TableScanner().scanString(content));
+        Assert.assertNull(result.getValue0());
+        Assert.assertEquals(2, result.getValue1().size());
+        Assert.assertEquals("Invalid terminal in expr: SEMICOLON", result.getValue1().get(0).getMessage());
+        Assert.assertEquals("Invalid terminal in repCpsCmd: SENTINEL", result.getValue1().get(1).getMessage());
+    }
+
+    private static class LineCounter implements Appendable {
+
+        private long lines;
+
+        @Override
+        public Appendable append(CharSequence sequence) {
+            // The tree printers append the line breaks as single characters
+            return this;
+        }
+
+        @Override
+        public Appendable append(CharSequence sequence, int start, int end) {
+            return this;
+        }
+
+        @Override
+        public Appendable append(char character) {
+            lines += character == '\n' ? 1 : 0;
+            return this;
+        }
+    }
 }
@@ -0,0 +1,83 @@
+package ch.fhnw.cpib.platform.scanner;
+
+import ch.fhnw.cpib.platform.scanner.dictionary.Dictionary;
+import ch.fhnw.cpib.platform.scanner.tokens.Terminal;
+import ch.fhnw.cpib.platform.scanner.tokens.Tokens;
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.util.Optional;
+
+public class DictionaryTest {
+
+    private final Dictionary dictionary = new Dictionary();
+
+    @Test
+    public void testKeywords() {
+        Assert.assertEquals(Terminal.PROGRAM, lookup("program"));
+        Assert.assertEquals(Terminal.PROGRAM, lookup("PROGRAM"));
+        Assert.assertEquals(Terminal.ENDPROGRAM, lookup("EndProgram"));
+        Assert.assertEquals(Terminal.TYPE, lookup("Int64"));
+        Assert.assertEquals(Terminal.FLOWMODE, lookup("inOut"));
+        Assert.assertEquals(Terminal.SENTINEL, lookup("sentinel"));
+        Assert.assertNull(lookup("programs"));
+        Assert.assertNull(lookup("prog"));
+        Assert.assertNull(lookup("x"));
+        Assert.assertNull(lookup(""));
+    }
+
+    @Test
+    public void testLegacyAliases() {
+        Assert.assertEquals(Tokens.OperationToken.Operation.DIVE, ((Tokens.OperationToken) dictionary.lookupToken("divE").get()).getOperation());
+        Assert.assertEquals(Tokens.OperationToken.Operation.DIVE, ((Tokens.OperationToken) dictionary.lookupToken("DIVT").get()).getOperation());
+        Assert.assertEquals(Tokens.OperationToken.Operation.MODE, ((Tokens.OperationToken) dictionary.lookupToken("modT").get()).getOperation());
+        Assert.assertEquals(Tokens.OperationToken.Operation.MODE, ((Tokens.OperationToken) dictionary.lookupToken("modf").get()).getOperation());
+        Assert.assertEquals(Terminal.DEBUGIN, lookup("?"));
+        Assert.assertEquals(Terminal.DEBUGOUT, lookup("!"));
+    }
+
+    @Test
+    public void testOperators() {
+        Assert.assertEquals(Terminal.BECOMES, lookup(":="));
+        Assert.assertEquals(Terminal.COLON, lookup(":"));
+        Assert.assertEquals(Terminal.RELOPR, lookup("/="));
+        Assert.assertEquals(Terminal.BOOLOPR, lookup("&?"));
+        Assert.assertNull(lookup("=:"));
+        Assert.assertNull(lookup("&"));
+    }
+
+    @Test
+    public void testSlices() {
+        char[] buffer = "x:=WHILE;".toCharArray();
+        Assert.assertEquals(Terminal.BECOMES, dictionary.lookupToken(buffer, 1, 2).get().getTerminal());
+        Assert.assertEquals(Terminal.COLON, dictionary.lookupToken(buffer, 1, 1).get().getTerminal());
+        Assert.assertEquals(Terminal.WHILE, dictionary.lookupToken(buffer, 3, 5).get().getTerminal());
+        Assert.assertEquals(Terminal.SEMICOLON, dictionary.lookupToken(buffer, 8, 1).get().getTerminal());
+        Assert.assertFalse(dictionary.lookupToken(buffer, 0, 1).isPresent());
+        Assert.assertFalse(dictionary.lookupToken(buffer, 3, 4).isPresent());
+        Assert.assertEquals(Terminal.WHILE, dictionary.lookupToken(new StringBuilder("wHiLe")).get().getTerminal());
+    }
+
+    @Test
+    public void testInternedIdentifiers() {
+        Dictionary unit = dictionary.newCompilationUnit();
+        Tokens.IdentifierToken token1 = unit.lookupIdentifier("x");
+        Tokens.IdentifierToken token2 = unit.lookupIdentifier(new StringBuilder("y"));
+        Assert.assertSame(token1, unit.lookupIdentifier(new StringBuilder("x")));
+        Assert.assertSame(token1.getName(), unit.lookupIdentifier("x").getName());
+        Assert.assertEquals(0, token1.getSymbol());
+        Assert.assertEquals(1, token2.getSymbol());
+        Assert.assertEquals(2, unit.getIdentifiers().getSize());
+
+        // Every compilation unit has its own identifiers, but shares the keywords and the sentinel
+        Dictionary otherunit = dictionary.newCompilationUnit();
+        Assert.assertNotSame(token1, otherunit.lookupIdentifier("x"));
+        Assert.assertSame(unit.lookupToken("while").get(), otherunit.lookupToken("while").get());
+        Assert.assertSame(unit.lookupSentinel(), otherunit.lookupSentinel());
+    }
+
+    private Terminal lookup(String symbol) {
+        Optional<Tokens.Token> token = dictionary.lookupToken(symbol);
+        return token.map(Tokens.Token::getTerminal).orElse(null);
+    }
+}
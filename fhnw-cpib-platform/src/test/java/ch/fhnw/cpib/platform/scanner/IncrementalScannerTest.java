@@ -0,0 +1,134 @@
+package ch.fhnw.cpib.platform.scanner;
+
+import ch.fhnw.cpib.platform.TestFiles;
+import ch.fhnw.cpib.platform.scanner.exception.ScannerException;
+import ch.fhnw.cpib.platform.scanner.table.TableScanner;
+import ch.fhnw.cpib.platform.scanner.tokens.PackedTokenList;
+import ch.fhnw.cpib.platform.utils.ReaderUtils;
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+
+public class IncrementalScannerTest {
+
+    private static final List<String> fragments = Arrays.asList(
+        "x", "y1", "'", " ", "\n", "\r\n", "//", "/", ":", "=", ":=", "<", "&", "?", "(", ")", ";", "1", "2'0", "divE", "while", "%"
+    );
+
+    private final TableScanner tablescanner = new TableScanner();
+
+    @Test
+    public void testRandomEdits() throws Exception {
+        Random random = new Random(42);
+        int applied = 0;
+        for (String filename : TestFiles.filenames) {
+            String content = ReaderUtils.getContentFromInputStream(getClass().getResourceAsStream(filename), StandardCharsets.UTF_8);
+            PackedTokenList tokenlist = tablescanner.scanPacked(content);
+            for (int i = 0; i < 50; i++) {
+                // Replace a random region with random fragments
+                int start = random.nextInt(content.length() + 1);
+                int removedlength = random.nextInt(Math.min(8, content.length() - start) + 1);
+                StringBuilder inserted = new StringBuilder();
+                for (int j = random.nextInt(4); j > 0; j--) {
+                    inserted.append(fragments.get(random.nextInt(fragments.size())));
+                }
+                String newcontent = content.substring(0, start) + inserted + content.substring(start + removedlength);
+
+                PackedTokenList expected;
+                try {
+                    expected = tablescanner.scanPacked(newcontent);
+                } catch (ScannerException exception) {
+                    // The edit has to fail the same way and is then reverted
+                    try {
+                        tablescanner.rescanPacked(tokenlist, newcontent, start, removedlength, inserted.length());
+                        Assert.fail(filename + ": " + exception.getMessage());
+                    } catch (ScannerException rescanexception) {
+                        Assert.assertEquals(exception.getMessage(), rescanexception.getMessage());
+                    }
+                    continue;
+                }
+
+                tokenlist = tablescanner.rescanPacked(tokenlist, newcontent, start, removedlength, inserted.length());
+                content = newcontent;
+                assertEquals(filename, expected, tokenlist);
+                applied++;
+            }
+        }
+        Assert.assertTrue(applied > TestFiles.filenames.size() * 10);
+    }
+
+    @Test
+    public void testComments() throws Exception {
+        String content = "x := 1 // comment\ny := 2\n";
+        PackedTokenList tokenlist = tablescanner.scanPacked(content);
+
+        // Removing the newline turns the next line into a comment
+        String newcontent = "x := 1 // commenty := 2\n";
+        tokenlist = tablescanner.rescanPacked(tokenlist, newcontent, 17, 1, 0);
+        Assert.assertEquals("(IDENT,x), BECOMES, (LITERAL,1), SENTINEL", tokenlist.toString());
+
+        // Inserting it again restores the second line
+        tokenlist = tablescanner.rescanPacked(tokenlist, content, 17, 0, 1);
+        assertEquals(content, tablescanner.scanPacked(content), tokenlist);
+    }
+
+    @Test
+    public void testRescannedLength() throws Exception {
+        StringBuilder builder = new StringBuilder();
+        for (int i = 0; i < 50000; i++) {
+            builder.append("    value").append(i).append(" := value").append(i).append(" + 1;\n");
+        }
+        String content = builder.toString();
+        PackedTokenList tokenlist = tablescanner.scanPacked(content);
+
+        // Only the edited line has to be scanned again
+        int start = content.indexOf("value25000 :=") + 5;
+        String newcontent = content.substring(0, start) + "x" + content.substring(start);
+        tokenlist = tablescanner.rescanPacked(tokenlist, newcontent, start, 0, 1);
+        Assert.assertTrue(tokenlist.getRescannedLength() < 40);
+        assertEquals(newcontent, tablescanner.scanPacked(newcontent), tokenlist);
+    }
+
+    @Test
+    public void testLongLiterals() throws Exception {
+        String content = "x := 12553000000\ny := 1\n";
+        PackedTokenList tokenlist = tablescanner.scanPacked(content);
+
+        // The unchanged tokens after the edit keep their long values
+        String newcontent = "a := 1\n" + content;
+        tokenlist = tablescanner.rescanPacked(tokenlist, newcontent, 0, 0, 7);
+        assertEquals(newcontent, tablescanner.scanPacked(newcontent), tokenlist);
+        Assert.assertEquals(12553000000L, tokenlist.getLiteralValue(5));
+    }
+
+    @Test
+    public void testTypedIdentifiers() throws Exception {
+        // Typing a long name interns every prefix, the table has to shrink again to the used names
+        String content = "x := 1\ny := 12553000000\n";
+        PackedTokenList tokenlist = tablescanner.scanPacked(content);
+        for (int i = 0; i < 2000; i++) {
+            String newcontent = content.substring(0, 1) + (char) ('a' + i % 26) + content.substring(1);
+            tokenlist = tablescanner.rescanPacked(tokenlist, newcontent, 1, 0, 1);
+            content = newcontent;
+            // Two used names and one long literal, so the tables are compacted as soon as they hold more than 70 entries
+            Assert.assertTrue(tokenlist.getIdentifiers().getSize() <= 70);
+        }
+        assertEquals(content, tablescanner.scanPacked(content), tokenlist);
+        Assert.assertEquals(12553000000L, tokenlist.getLiteralValue(5));
+        Assert.assertSame(tokenlist.getToken(0), tokenlist.getIdentifiers().getIdentifier(tokenlist.getSymbol(0)));
+    }
+
+    private void assertEquals(String message, PackedTokenList expected, PackedTokenList actual) {
+        Assert.assertEquals(message, expected.toString(), actual.toString());
+        Assert.assertEquals(message, expected.getSize(), actual.getSize());
+        for (int i = 0; i < expected.getSize(); i++) {
+            Assert.assertEquals(message, expected.getTerminal(i), actual.getTerminal(i));
+            Assert.assertEquals(message, expected.getOffset(i), actual.getOffset(i));
+            Assert.assertEquals(message, expected.getLength(i), actual.getLength(i));
+        }
+    }
+}
@@ -0,0 +1,52 @@
+package ch.fhnw.cpib.platform.scanner;
+
+import ch.fhnw.cpib.platform.TestFiles;
+import ch.fhnw.cpib.platform.parser.Parser;
+import ch.fhnw.cpib.platform.scanner.table.TableScanner;
+import ch.fhnw.cpib.platform.scanner.tokens.PackedTokenList;
+import ch.fhnw.cpib.platform.scanner.tokens.Terminal;
+import ch.fhnw.cpib.platform.utils.ReaderUtils;
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.nio.charset.StandardCharsets;
+
+public class PackedTokenListTest {
+
+    private final TableScanner tablescanner = new TableScanner();
+
+    @Test
+    public void testTokenListsFromResource() throws Exception {
+        Parser parser = new Parser();
+        for (String filename : TestFiles.filenames) {
+            String content = ReaderUtils.getContentFromInputStream(getClass().getResourceAsStream(filename), StandardCharsets.UTF_8);
+            PackedTokenList packedtokenlist = tablescanner.scanPacked(content);
+            Assert.assertEquals(filename, tablescanner.scanString(content).toString(), packedtokenlist.toString());
+            Assert.assertEquals(filename, parser.parseTokenList(tablescanner.scanString(content)).toString(), parser.parseTokenSource(packedtokenlist).toString());
+        }
+    }
+
+    @Test
+    public void testOffsets() throws Exception {
+        String content = "x1 := 1'000 divE y;\r\n// comment\nb <= c /=d\n";
+        PackedTokenList tokenlist = tablescanner.scanPacked(content);
+        String[] lexemes = {"x1", ":=", "1'000", "divE", "y", ";", "b", "<=", "c", "/=", "d", ""};
+        Assert.assertEquals(lexemes.length, tokenlist.getSize());
+        for (int i = 0; i < lexemes.length; i++) {
+            int offset = tokenlist.getOffset(i);
+            Assert.assertEquals(lexemes[i], content.substring(offset, offset + tokenlist.getLength(i)));
+        }
+        Assert.assertEquals(Terminal.SENTINEL, tokenlist.getTerminal(lexemes.length - 1));
+    }
+
+    @Test
+    public void testFlyweightTokens() throws Exception {
+        PackedTokenList tokenlist = tablescanner.scanPacked("x := x + 1;\ny := x + 1\n");
+        Assert.assertEquals(2, tokenlist.getIdentifiers().getSize());
+        Assert.assertSame(tokenlist.getToken(0), tokenlist.getToken(2));
+        Assert.assertSame(tokenlist.getToken(0), tokenlist.getToken(8));
+        Assert.assertEquals("(LITERAL,1)", tokenlist.getToken(4).toString());
+        Assert.assertEquals(tokenlist.getSymbol(0), tokenlist.getSymbol(8));
+        Assert.assertNotEquals(tokenlist.getSymbol(0), tokenlist.getSymbol(6));
+    }
+}
@@ -0,0 +1,104 @@
+package ch.fhnw.cpib.platform.scanner;
+
+import ch.fhnw.cpib.platform.TestFiles;
+import ch.fhnw.cpib.platform.scanner.exception.ScannerException;
+import ch.fhnw.cpib.platform.scanner.table.ParallelScanner;
+import ch.fhnw.cpib.platform.scanner.tokens.TokenList;
+import ch.fhnw.cpib.platform.scanner.tokens.Tokens;
+import ch.fhnw.cpib.platform.utils.ReaderUtils;
+import org.junit.AfterClass;
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+
+public class ParallelScannerTest {
+
+    private static final List<Integer> chunksizes = Arrays.asList(1, 16, 200, ParallelScanner.DEFAULT_CHUNK_SIZE);
+
+    private static final ForkJoinPool pool = new ForkJoinPool(4);
+
+    private final Scanner scanner = new Scanner();
+
+    @AfterClass
+    public static void shutdownPool() {
+        pool.shutdown();
+    }
+
+    @Test
+    public void testTokenListsFromResource() throws Exception {
+        for (String filename : TestFiles.filenames) {
+            String content = ReaderUtils.getContentFromInputStream(getClass().getResourceAsStream(filename), StandardCharsets.UTF_8);
+            String expected = scanner.scanString(content).toString();
+            for (int chunksize : chunksizes) {
+                Assert.assertEquals(filename, expected, new ParallelScanner(pool, chunksize).scanString(content).toString());
+            }
+        }
+    }
+
+    @Test
+    public void testChunkEdges() throws Exception {
+        // Comments, operators and unterminated tokens next to the chunk edges
+        String content = "x := a /\n// comment := b\r\ny <= c\n(a,b) // c\nd /= e\nz";
+        String expected = scanner.scanString(content).toString();
+        for (int chunksize = 1; chunksize < content.length(); chunksize++) {
+            Assert.assertEquals(expected, new ParallelScanner(pool, chunksize).scanString(content).toString());
+        }
+    }
+
+    @Test
+    public void testInternedIdentifiers() throws Exception {
+        // The same name in different chunks has to map to the same token
+        TokenList tokenlist = new ParallelScanner(pool, 1).scanString("x := 1\ny := x\n");
+        Tokens.Token token1 = tokenlist.nextToken();
+        for (int i = 0; i < 4; i++) {
+            tokenlist.nextToken();
+        }
+        Assert.assertSame(token1, tokenlist.nextToken());
+
+        // The symbols follow the first occurrence like in a sequential scan, independent of the chunk size
+        String content = "b := a\nc := b\na := c\nd := a\n";
+        for (int chunksize = 1; chunksize < content.length(); chunksize++) {
+            TokenList symbols = new ParallelScanner(pool, chunksize).scanString(content);
+            int symbol = 0;
+            for (int i = 0; i < symbols.getSize(); i++) {
+                if (symbols.getToken(i) instanceof Tokens.IdentifierToken) {
+                    Tokens.IdentifierToken identifier = (Tokens.IdentifierToken) symbols.getToken(i);
+                    Assert.assertEquals(identifier.getName(), "bacd".indexOf(identifier.getName()), identifier.getSymbol());
+                    symbol++;
+                }
+            }
+            Assert.assertEquals(8, symbol);
+        }
+    }
+
+    @Test
+    public void testLiteralOutOfRange() {
+        // The line number has to count the newlines of the previous chunks
+        String content = "x := 1\ny := 2\nz := 99999999999999999999\n";
+        for (int chunksize = 1; chunksize < content.length(); chunksize++) {
+            try {
+                new ParallelScanner(pool, chunksize).scanString(content);
+                Assert.fail();
+            } catch (ScannerException exception) {
+                Assert.assertEquals("Literal 99999999999999999999 is out of range at line 3, column 6", exception.getMessage());
+            }
+        }
+    }
+
+    @Test
+    public void testFirstError() {
+        String content = "x := 1\ny := 2 % 3\nz := 12abc\n";
+        for (int chunksize = 1; chunksize < content.length(); chunksize++) {
+            try {
+                new ParallelScanner(pool, chunksize).scanString(content);
+                Assert.fail();
+            } catch (ScannerException exception) {
+                Assert.assertEquals("Unable to handle the unknown character %", exception.getMessage());
+            }
+        }
+    }
+}
@@ -0,0 +1,132 @@
+package ch.fhnw.cpib.platform.scanner;
+
+import ch.fhnw.cpib.platform.TestFiles;
+import ch.fhnw.cpib.platform.parser.Parser;
+import ch.fhnw.cpib.platform.scanner.exception.ScannerException;
+import ch.fhnw.cpib.platform.scanner.table.StreamingScanner;
+import ch.fhnw.cpib.platform.scanner.table.TableScanner;
+import ch.fhnw.cpib.platform.scanner.tokens.TokenSource;
+import ch.fhnw.cpib.platform.scanner.tokens.Tokens;
+import ch.fhnw.cpib.platform.utils.ReaderUtils;
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.Reader;
+import java.io.StringReader;
+import java.nio.channels.Channels;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+public class StreamingScannerTest {
+
+    private static final List<Integer> buffersizes = Arrays.asList(1, 2, 7, StreamingScanner.DEFAULT_BUFFER_SIZE);
+
+    private final TableScanner tablescanner = new TableScanner();
+
+    private final Parser parser = new Parser();
+
+    @Test
+    public void testTokenListsFromResource() throws Exception {
+        for (String filename : TestFiles.filenames) {
+            String content = ReaderUtils.getContentFromInputStream(getClass().getResourceAsStream(filename), StandardCharsets.UTF_8);
+            String expected = tablescanner.scanString(content).toString();
+
+            // Both line endings must scan the same, even if a CRLF pair spans two buffers
+            for (int buffersize : buffersizes) {
+                Assert.assertEquals(filename, expected, scan(new StreamingScanner(new StringReader(content), buffersize)));
+                Assert.assertEquals(filename, expected, scan(new StreamingScanner(new StringReader(content.replace("\r\n", "\n").replace("\n", "\r\n")), buffersize)));
+            }
+
+            ByteArrayInputStream inputstream = new ByteArrayInputStream(content.getBytes(StandardCharsets.UTF_8));
+            Assert.assertEquals(filename, expected, scan(new StreamingScanner(Channels.newChannel(inputstream), StandardCharsets.UTF_8)));
+        }
+    }
+
+    @Test
+    public void testParseTokenSource() throws Exception {
+        for (String filename : TestFiles.filenames) {
+            String content = ReaderUtils.getContentFromInputStream(getClass().getResourceAsStream(filename), StandardCharsets.UTF_8);
+            String expected = parser.parseTokenList(tablescanner.scanString(content)).toString();
+            Assert.assertEquals(filename, expected, parser.parseTokenSource(new StreamingScanner(new StringReader(content), 16)).toString());
+        }
+    }
+
+    @Test
+    public void testLazyScanning() throws Exception {
+        StringBuilder builder = new StringBuilder();
+        for (int i = 0; i < 1000; i++) {
+            builder.append("x").append(i).append(" := x").append(i).append(" + 1;\n");
+        }
+
+        // Pulling the first token must only read the first buffer
+        CountingReader reader = new CountingReader(new StringReader(builder.toString()));
+        StreamingScanner scanner = new StreamingScanner(reader, 64);
+        Assert.assertEquals("(IDENT,x0)", scanner.nextToken().toString());
+        Assert.assertEquals(64, reader.getCount());
+    }
+
+    @Test(expected = ScannerException.class)
+    public void testScannerErrorWhileParsing() throws Exception {
+        parser.parseTokenSource(new StreamingScanner(new StringReader("program Test()\ndo\nx := 1 % 2\nendprogram\n")));
+    }
+
+    @Test
+    public void testLoneCarriageReturn() {
+        try {
+            scan(new StreamingScanner(new StringReader("x\r"), 1));
+            Assert.fail();
+        } catch (ScannerException exception) {
+            Assert.assertEquals("Unable to handle the unknown character \r", exception.getMessage());
+        }
+    }
+
+    @Test
+    public void testLiteralOutOfRange() {
+        try {
+            scan(new StreamingScanner(new StringReader("x := 1\r\ny := 18446744073709551616\r\n"), 2));
+            Assert.fail();
+        } catch (ScannerException exception) {
+            Assert.assertEquals("Literal 18446744073709551616 is out of range at line 2, column 6", exception.getMessage());
+        }
+    }
+
+    private String scan(TokenSource tokensource) throws ScannerException {
+        List<String> tokens = new ArrayList<>();
+        Tokens.Token token;
+        while ((token = tokensource.nextToken()) != null) {
+            tokens.add(token.toString());
+        }
+        return String.join(", ", tokens);
+    }
+
+    private static class CountingReader extends Reader {
+
+        private final Reader reader;
+
+        private int count;
+
+        public CountingReader(Reader reader) {
+            this.reader = reader;
+        }
+
+        public int getCount() {
+            return count;
+        }
+
+        @Override
+        public int read(char[] buffer, int offset, int length) throws IOException {
+            int result = reader.read(buffer, offset, length);
+            count += Math.max(result, 0);
+            return result;
+        }
+
+        @Override
+        public void close() throws IOException {
+            reader.close();
+        }
+    }
+}
@@ -0,0 +1,120 @@
+package ch.fhnw.cpib.platform.scanner;
+
+import ch.fhnw.cpib.platform.TestFiles;
+import ch.fhnw.cpib.platform.scanner.exception.ScannerException;
+import ch.fhnw.cpib.platform.scanner.table.TableScanner;
+import ch.fhnw.cpib.platform.scanner.tokens.TokenList;
+import ch.fhnw.cpib.platform.scanner.tokens.Tokens;
+import ch.fhnw.cpib.platform.utils.ReaderUtils;
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.List;
+
+public class TableScannerTest {
+
+    private static final List<String> snippets = Arrays.asList(
+        "program Test()\r\ndo\r\nendprogram\r\n",
+        "x\t:=\t1'000'000 ;\n",
+        "a<=b /= c >= d && e || f\n",
+        "a := b / c\n",
+        "a := b /\nc\n",
+        "// comment with ( ) / and *\nx\n",
+        "a'b := 12 divE 3 modT 4\n",
+        "x := (a,b);\n",
+        "init' := ?x\n",
+        "trailing"
+    );
+
+    private static final List<String> invalidsnippets = Arrays.asList(
+        "a := 1 % 2\n",
+        "a := 12abc\n",
+        "a := ' b\n",
+        "a := 1_0\n"
+    );
+
+    private final Scanner scanner = new Scanner();
+
+    private final TableScanner tablescanner = new TableScanner();
+
+    @Test
+    public void testTokenListsFromResource() throws Exception {
+        for (String filename : TestFiles.filenames) {
+            String content = ReaderUtils.getContentFromInputStream(getClass().getResourceAsStream(filename), StandardCharsets.UTF_8);
+            Assert.assertEquals(filename, scanner.scanString(content).toString(), tablescanner.scanString(content).toString());
+        }
+    }
+
+    @Test
+    public void testSnippets() throws Exception {
+        for (String snippet : snippets) {
+            TokenList tokenlist = tablescanner.scanString(snippet);
+            Assert.assertEquals(snippet, scanner.scanString(snippet).toString(), tokenlist.toString());
+        }
+    }
+
+    @Test
+    public void testInternedIdentifiers() throws Exception {
+        for (TokenList tokenlist : Arrays.asList(scanner.scanString("x := x + y\n"), tablescanner.scanString("x := x + y\n"))) {
+            Tokens.Token token1 = tokenlist.nextToken();
+            tokenlist.nextToken();
+            Tokens.Token token2 = tokenlist.nextToken();
+            tokenlist.nextToken();
+            Tokens.Token token3 = tokenlist.nextToken();
+            Assert.assertSame(token1, token2);
+            Assert.assertNotSame(token1, token3);
+            Assert.assertEquals(1, ((Tokens.IdentifierToken) token3).getSymbol());
+        }
+    }
+
+    @Test
+    public void testInvalidSnippets() {
+        for (String snippet : invalidsnippets) {
+            String expected = getErrorMessage(() -> scanner.scanString(snippet));
+            String actual = getErrorMessage(() -> tablescanner.scanString(snippet));
+            Assert.assertNotNull(snippet, expected);
+            Assert.assertEquals(snippet, expected, actual);
+        }
+    }
+
+    @Test
+    public void testLiteralValues() throws Exception {
+        TokenList tokenlist = tablescanner.scanString("2'147'483'647 2147483648 9'223'372'036'854'775'807 0\n");
+        Tokens.LiteralToken literal1 = (Tokens.LiteralToken) tokenlist.nextToken();
+        Tokens.LiteralToken literal2 = (Tokens.LiteralToken) tokenlist.nextToken();
+        Tokens.LiteralToken literal3 = (Tokens.LiteralToken) tokenlist.nextToken();
+        Tokens.LiteralToken literal4 = (Tokens.LiteralToken) tokenlist.nextToken();
+        Assert.assertEquals(Integer.MAX_VALUE, literal1.getValue());
+        Assert.assertEquals(Tokens.TypeToken.Type.INT, literal1.getType());
+        Assert.assertEquals(Integer.MAX_VALUE + 1L, literal2.getValue());
+        Assert.assertEquals(Tokens.TypeToken.Type.INT64, literal2.getType());
+        Assert.assertEquals(Long.MAX_VALUE, literal3.getValue());
+        Assert.assertEquals(Tokens.TypeToken.Type.INT64, literal3.getType());
+        Assert.assertEquals(0, literal4.getValue());
+        Assert.assertEquals(tokenlist.toString(), scanner.scanString("2'147'483'647 2147483648 9'223'372'036'854'775'807 0\n").toString());
+    }
+
+    @Test
+    public void testLiteralOutOfRange() {
+        String content = "x := 1\n  y := 9'223'372'036'854'775'808\n";
+        Assert.assertEquals("Literal 9223372036854775808 is out of range at line 2, column 8", getErrorMessage(() -> tablescanner.scanString(content)));
+        Assert.assertEquals("Literal 9223372036854775808 is out of range at line 2, column 8", getErrorMessage(() -> tablescanner.scanPacked(content)));
+        Assert.assertEquals("Literal 9223372036854775808 is out of range", getErrorMessage(() -> scanner.scanString(content)));
+    }
+
+    private String getErrorMessage(ScanAction action) {
+        try {
+            action.scan();
+            return null;
+        } catch (ScannerException exception) {
+            return exception.getMessage();
+        }
+    }
+
+    private interface ScanAction {
+
+        void scan() throws ScannerException;
+    }
+}
@@ -0,0 +1,69 @@
+package ch.fhnw.cpib.platform.utils;
+
+import ch.fhnw.cpib.platform.checker.Checker;
+import ch.fhnw.cpib.platform.parser.Parser;
+import ch.fhnw.cpib.platform.parser.abstracttree.AbstractTree;
+import ch.fhnw.cpib.platform.scanner.Scanner;
+import ch.fhnw.cpib.platform.scanner.table.TableScanner;
+import org.junit.Assert;
+import org.junit.Test;
+
+public class ProgramGeneratorTest {
+
+    private final TableScanner tablescanner = new TableScanner();
+
+    private final Parser parser = new Parser();
+
+    @Test
+    public void testRepeatable() {
+        Assert.assertEquals(new ProgramGenerator(42).generateProgram(), new ProgramGenerator(42).generateProgram());
+        Assert.assertNotEquals(new ProgramGenerator(42).generateProgram(), new ProgramGenerator(43).generateProgram());
+
+        ProgramGenerator generator = new ProgramGenerator(7);
+        Assert.assertEquals(generator.generateProgram(), generator.generateProgram());
+    }
+
+    @Test
+    public void testParserAndChecker() throws Exception {
+        for (int seed = 0; seed < 50; seed++) {
+            ProgramGenerator generator = new ProgramGenerator(seed)
+                .setRoutines(seed % 7)
+                .setDepth(seed % 5)
+                .setStatements(1 + seed % 9)
+                .setExpressionSize(seed % 6)
+                .setCommandWeights(seed % 4, seed % 3, seed % 2, seed % 5, 1 + seed % 3);
+            check(generator.generateProgram());
+        }
+    }
+
+    @Test
+    public void testStateScanner() throws Exception {
+        String content = new ProgramGenerator(1).generateProgram();
+        Assert.assertEquals(new Scanner().scanString(content).toString(), tablescanner.scanString(content).toString());
+    }
+
+    @Test
+    public void testLines() throws Exception {
+        String content = new ProgramGenerator(3).setRoutines(0).setLines(5000).generateProgram();
+        int lines = content.split("\n").length;
+        Assert.assertTrue(lines >= 5000);
+        Assert.assertTrue(lines < 6000);
+        check(content);
+    }
+
+    @Test
+    public void testGenerateCode() throws Exception {
+        // The code generator does not support while commands yet
+        String content = new ProgramGenerator(5).setCommandWeights(3, 0, 1, 2, 6).generateProgram();
+        Assert.assertTrue(parser.parseTokenList(tablescanner.scanString(content)).toAbstract().generateCode().toString().length() > 0);
+    }
+
+    private void check(String content) throws Exception {
+        try {
+            AbstractTree.Program abstractprogram = parser.parseTokenList(tablescanner.scanString(content)).toAbstract();
+            abstractprogram.checkCode(new Checker());
+        } catch (Exception exception) {
+            throw new AssertionError(exception.getMessage() + "\n" + content, exception);
+        }
+    }
+}
@@ -57,4 +57,45 @@ public class ReaderUtilsTest {
         Assert.assertEquals(testlines[1], lines.get(1));
         Assert.assertEquals(testlines[2], lines.get(2));
     }
+
+    @Test
+    public void testGetMappedReaderFromFile() throws IOException {
+        File file = ReaderUtils.createTemporaryFileFromContent(TEST_MESSAGE, StandardCharsets.UTF_8);
+        try (Reader reader = ReaderUtils.getMappedReaderFromFile(file, StandardCharsets.UTF_8)) {
+            Assert.assertEquals(TEST_MESSAGE, ReaderUtils.convertReaderToString(reader));
+        }
+    }
+
+    @Test
+    public void testMappedFileReaderWindows() throws IOException {
+        // Multi byte characters have to survive a split between two windows
+        String message = "Grüezi stranger, 東京 and 😀!\n" + TEST_MESSAGE;
+        File file = ReaderUtils.createTemporaryFileFromContent(message, StandardCharsets.UTF_8);
+        for (long windowsize = 1; windowsize <= 8; windowsize++) {
+            try (Reader reader = new MappedFileReader(file, StandardCharsets.UTF_8, windowsize)) {
+                Assert.assertEquals(message, ReaderUtils.convertReaderToString(reader));
+            }
+        }
+
+        File emptyfile = ReaderUtils.createTemporaryFileFromContent("", StandardCharsets.UTF_8);
+        try (Reader reader = ReaderUtils.getMappedReaderFromFile(emptyfile, StandardCharsets.UTF_8)) {
+            Assert.assertEquals(-1, reader.read());
+        }
+    }
+
+    @Test
+    public void testMappedFileReaderSingleChars() throws IOException {
+        // A surrogate pair is returned in two reads of a single char
+        String message = "a\uD83D\uDE00b\uD83D\uDE00";
+        File file = ReaderUtils.createTemporaryFileFromContent(message, StandardCharsets.UTF_8);
+        for (long windowsize = 1; windowsize <= 8; windowsize++) {
+            try (Reader reader = new MappedFileReader(file, StandardCharsets.UTF_8, windowsize)) {
+                StringBuilder builder = new StringBuilder();
+                for (int value = reader.read(); value != -1; value = reader.read()) {
+                    builder.append((char) value);
+                }
+                Assert.assertEquals(message, builder.toString());
+            }
+        }
+    }
 }